@@ -0,0 +1,14 @@
+package br.com.ifpe.medplus_api.agenda;
+
+import java.util.function.Consumer;
+
+/**
+ * Leva as alterações de agenda a todos os nós, inclusive ao que publicou: cada nó entrega aos
+ * médicos conectados nele.
+ */
+public interface CanalAgenda {
+
+    void publicar(EventoAgenda evento);
+
+    void assinar(Consumer<EventoAgenda> assinante);
+}
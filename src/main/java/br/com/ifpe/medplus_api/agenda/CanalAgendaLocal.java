@@ -0,0 +1,23 @@
+package br.com.ifpe.medplus_api.agenda;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Canal em memória, para um único nó e para testes.
+ */
+public class CanalAgendaLocal implements CanalAgenda {
+
+    private final List<Consumer<EventoAgenda>> assinantes = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publicar(EventoAgenda evento) {
+        assinantes.forEach(assinante -> assinante.accept(evento));
+    }
+
+    @Override
+    public void assinar(Consumer<EventoAgenda> assinante) {
+        assinantes.add(assinante);
+    }
+}
@@ -0,0 +1,137 @@
+package br.com.ifpe.medplus_api.agenda;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Canal de agenda sobre LISTEN/NOTIFY, no mesmo modelo do canal de invalidação de cache: publica
+ * por uma conexão do pool e escuta numa conexão própria mantida por uma thread daemon.
+ *
+ * NOTIFY não é durável. Eventos perdidos enquanto a escuta reconecta não chegam aos médicos deste
+ * nó; o cliente se recupera pelos dados completos ao receber {@code ressincronizar} ou ao recarregar.
+ */
+public class CanalAgendaPostgres implements CanalAgenda, SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(CanalAgendaPostgres.class);
+
+    static final String CANAL = "medplus_agenda";
+    private static final int ESPERA_NOTIFICACOES_MS = 5_000;
+    private static final long ESPERA_RECONEXAO_MS = 2_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final String url;
+    private final String usuario;
+    private final String senha;
+    private final List<Consumer<EventoAgenda>> assinantes = new CopyOnWriteArrayList<>();
+
+    private volatile boolean executando;
+    private Thread escuta;
+
+    public CanalAgendaPostgres(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, String url, String usuario,
+                               String senha) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.url = url;
+        this.usuario = usuario;
+        this.senha = senha;
+    }
+
+    @Override
+    public void publicar(EventoAgenda evento) {
+        try {
+            jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, CANAL,
+                    objectMapper.writeValueAsString(evento));
+        } catch (JsonProcessingException | RuntimeException e) {
+            logger.error("Falha ao publicar evento de agenda da consulta {}: {}", evento.consultaId(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void assinar(Consumer<EventoAgenda> assinante) {
+        assinantes.add(assinante);
+    }
+
+    @Override
+    public void start() {
+        executando = true;
+        escuta = new Thread(this::escutar, "canal-agenda");
+        escuta.setDaemon(true);
+        escuta.start();
+    }
+
+    @Override
+    public void stop() {
+        executando = false;
+        if (escuta != null) {
+            escuta.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executando;
+    }
+
+    private void escutar() {
+        while (executando) {
+            try (Connection conexao = DriverManager.getConnection(url, usuario, senha);
+                 Statement st = conexao.createStatement()) {
+                st.execute("LISTEN " + CANAL);
+                logger.info("Escutando eventos de agenda no canal {}", CANAL);
+                PGConnection pg = conexao.unwrap(PGConnection.class);
+                while (executando) {
+                    PGNotification[] notificacoes = pg.getNotifications(ESPERA_NOTIFICACOES_MS);
+                    if (notificacoes == null) {
+                        continue;
+                    }
+                    for (PGNotification notificacao : notificacoes) {
+                        entregar(notificacao.getParameter());
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!executando) {
+                    return;
+                }
+                logger.warn("Conexão de escuta da agenda perdida; reconectando: {}", e.getMessage());
+                try {
+                    Thread.sleep(ESPERA_RECONEXAO_MS);
+                } catch (InterruptedException interrompida) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void entregar(String mensagem) {
+        EventoAgenda evento;
+        try {
+            evento = objectMapper.readValue(mensagem, EventoAgenda.class);
+        } catch (JsonProcessingException e) {
+            logger.error("Evento de agenda inválido no canal {}: {}", CANAL, e.getMessage());
+            return;
+        }
+        for (Consumer<EventoAgenda> assinante : assinantes) {
+            try {
+                assinante.accept(evento);
+            } catch (RuntimeException e) {
+                logger.error("Falha ao entregar evento de agenda da consulta {}: {}", evento.consultaId(), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package br.com.ifpe.medplus_api.agenda;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Uma conexão SSE de médico, com fila limitada de eventos a enviar.
+ *
+ * Quem publica só enfileira; a escrita no socket roda numa tarefa do executor, uma por conexão por
+ * vez, para que um cliente lento não atrase os outros nem a thread que publicou. Fila cheia
+ * significa cliente que não acompanha: a conexão é encerrada e ele retoma pelo Last-Event-ID.
+ */
+class ConexaoAgenda {
+
+    private final Long medicoId;
+    private final SseEmitter emitter;
+    private final Executor executor;
+    private final BlockingQueue<SseEmitter.SseEventBuilder> fila;
+    private final AtomicBoolean drenando = new AtomicBoolean();
+    private final AtomicBoolean encerrada = new AtomicBoolean();
+
+    ConexaoAgenda(Long medicoId, SseEmitter emitter, Executor executor, int capacidade) {
+        this.medicoId = medicoId;
+        this.emitter = emitter;
+        this.executor = executor;
+        this.fila = new ArrayBlockingQueue<>(capacidade);
+    }
+
+    Long getMedicoId() {
+        return medicoId;
+    }
+
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    /**
+     * @return false se a fila está cheia ou a conexão já foi encerrada
+     */
+    boolean enviar(SseEmitter.SseEventBuilder evento) {
+        if (encerrada.get() || !fila.offer(evento)) {
+            return false;
+        }
+        if (drenando.compareAndSet(false, true)) {
+            executor.execute(this::drenar);
+        }
+        return true;
+    }
+
+    void encerrar() {
+        if (encerrada.compareAndSet(false, true)) {
+            fila.clear();
+            emitter.complete();
+        }
+    }
+
+    boolean isEncerrada() {
+        return encerrada.get();
+    }
+
+    private void drenar() {
+        try {
+            while (true) {
+                SseEmitter.SseEventBuilder evento;
+                while (!encerrada.get() && (evento = fila.poll()) != null) {
+                    emitter.send(evento);
+                }
+                drenando.set(false);
+                // Um evento enfileirado entre o último poll e a liberação não pode ficar parado
+                if (fila.isEmpty() || encerrada.get() || !drenando.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Cliente desconectado; onError/onCompletion do emitter removem a conexão
+            drenando.set(false);
+            encerrada.set(true);
+            fila.clear();
+            emitter.completeWithError(e);
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package br.com.ifpe.medplus_api.agenda;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Mantém as conexões SSE dos médicos deste nó e entrega a cada uma os eventos da própria agenda.
+ *
+ * Cada conexão é só um SseEmitter com uma fila pequena: a requisição fica assíncrona e não prende
+ * thread do Tomcat nem conexão do banco enquanto está ociosa. As escritas rodam em threads virtuais.
+ *
+ * Ids de evento são {@code <época>-<sequência>}, em que a época identifica esta execução do nó. Para
+ * cada médico ficam os últimos {@code historico} eventos: uma reconexão com Last-Event-ID recebe o que
+ * perdeu; se o id é de outro nó, de antes de um reinício ou anterior ao histórico guardado, recebe
+ * o evento {@code ressincronizar} e deve recarregar a agenda completa.
+ *
+ * Só há histórico para médicos conectados neste nó ou que se desconectaram há menos que o horizonte
+ * de retomada: evento de médico sem agenda guardada é descartado, e a agenda sem conexões e sem
+ * uso dentro do horizonte sai da memória. Quem reconectar depois disso ressincroniza.
+ */
+public class DifusorAgenda implements AutoCloseable {
+
+    static final String EVENTO_CONSULTA = "consulta";
+    static final String EVENTO_RESSINCRONIZAR = "ressincronizar";
+
+    private final Supplier<SseEmitter> fabricaEmitter;
+    private final Executor executor;
+    private final int capacidadeFila;
+    private final int tamanhoHistorico;
+    private final int conexoesPorMedico;
+    private final long horizonteRetomadaNanos;
+    private final LongSupplier relogio;
+    private final String epoca = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequencia = new AtomicLong();
+    private final Map<Long, AgendaMedico> agendas = new ConcurrentHashMap<>();
+    private final Counter encerradasPorAtraso;
+
+    public DifusorAgenda(Duration timeout, int capacidadeFila, int tamanhoHistorico, int conexoesPorMedico,
+                         Duration horizonteRetomada, MeterRegistry meterRegistry) {
+        this(() -> new SseEmitter(timeout.toMillis()),
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("agenda-sse-", 0).factory()),
+                capacidadeFila, tamanhoHistorico, conexoesPorMedico, horizonteRetomada, System::nanoTime,
+                meterRegistry);
+    }
+
+    /**
+     * @param fabricaEmitter cria o emitter de cada conexão (testes usam um emitter que só registra)
+     * @param executor       onde rodam as escritas das conexões
+     * @param relogio        instante atual em nanossegundos, para o horizonte de retomada
+     */
+    DifusorAgenda(Supplier<SseEmitter> fabricaEmitter, Executor executor, int capacidadeFila, int tamanhoHistorico,
+                  int conexoesPorMedico, Duration horizonteRetomada, LongSupplier relogio,
+                  MeterRegistry meterRegistry) {
+        this.fabricaEmitter = fabricaEmitter;
+        this.executor = executor;
+        this.capacidadeFila = capacidadeFila;
+        this.tamanhoHistorico = tamanhoHistorico;
+        this.conexoesPorMedico = conexoesPorMedico;
+        this.horizonteRetomadaNanos = horizonteRetomada.toNanos();
+        this.relogio = relogio;
+        this.encerradasPorAtraso = meterRegistry.counter("medplus.agenda.conexoes.encerradas", "motivo", "fila-cheia");
+        meterRegistry.gauge("medplus.agenda.conexoes", agendas,
+                mapa -> mapa.values().stream().mapToInt(agenda -> agenda.conexoes.size()).sum());
+        meterRegistry.gauge("medplus.agenda.medicos", agendas, Map::size);
+    }
+
+    /**
+     * Abre o stream do médico, reenviando o que ele perdeu desde {@code ultimoEventoId}.
+     */
+    public SseEmitter conectar(Long medicoId, String ultimoEventoId) {
+        SseEmitter emitter = fabricaEmitter.get();
+        ConexaoAgenda conexao = new ConexaoAgenda(medicoId, emitter, executor, capacidadeFila);
+        emitter.onCompletion(() -> remover(conexao));
+        emitter.onTimeout(conexao::encerrar);
+        emitter.onError(erro -> conexao.encerrar());
+
+        while (true) {
+            // Agenda nova não tem o que este nó já entregou: ids anteriores a ela pedem ressincronização
+            AgendaMedico agenda = agendas.computeIfAbsent(medicoId,
+                    id -> new AgendaMedico(sequencia.get(), relogio.getAsLong()));
+            // Sob a trava da agenda: nenhum evento entra entre o reenvio e o registro da conexão
+            synchronized (agenda) {
+                if (agenda.descartada) {
+                    continue;
+                }
+                registrar(agenda, conexao, ultimoEventoId);
+                return emitter;
+            }
+        }
+    }
+
+    /** Reenvia o que a conexão perdeu e a registra; chamado sob a trava da agenda. */
+    private void registrar(AgendaMedico agenda, ConexaoAgenda conexao, String ultimoEventoId) {
+        conexao.enviar(SseEmitter.event().comment("conectado").reconnectTime(2_000));
+        if (ultimoEventoId != null && !ultimoEventoId.isBlank()) {
+            Long ultima = sequenciaDesteNo(ultimoEventoId.trim());
+            if (ultima == null || ultima < agenda.descartadosAte) {
+                conexao.enviar(SseEmitter.event().name(EVENTO_RESSINCRONIZAR).data(Map.of()));
+            } else {
+                agenda.historico.stream()
+                        .filter(registro -> registro.sequencia() > ultima)
+                        .forEach(registro -> conexao.enviar(evento(registro)));
+            }
+        }
+        agenda.conexoes.addLast(conexao);
+        while (agenda.conexoes.size() > conexoesPorMedico) {
+            agenda.conexoes.pollFirst().encerrar();
+        }
+    }
+
+    /**
+     * Registra o evento no histórico do médico e o enfileira em cada conexão dele neste nó.
+     */
+    public void entregar(EventoAgenda evento) {
+        while (true) {
+            // Sem agenda o evento é descartado, mas a sequência avança: uma agenda criada depois começa
+            // além dele e pede ressincronização a quem o perdeu. compute serializa com a criação.
+            AgendaMedico agenda = agendas.compute(evento.medicoId(), (id, atual) -> {
+                if (atual == null) {
+                    sequencia.incrementAndGet();
+                }
+                return atual;
+            });
+            if (agenda == null) {
+                return;
+            }
+            synchronized (agenda) {
+                if (agenda.descartada) {
+                    continue;
+                }
+                agenda.ultimoUso = relogio.getAsLong();
+                Registro registro = new Registro(sequencia.incrementAndGet(), evento);
+                agenda.historico.addLast(registro);
+                while (agenda.historico.size() > tamanhoHistorico) {
+                    agenda.descartadosAte = agenda.historico.pollFirst().sequencia();
+                }
+                for (ConexaoAgenda conexao : List.copyOf(agenda.conexoes)) {
+                    if (!conexao.enviar(evento(registro))) {
+                        encerrarAtrasada(conexao);
+                    }
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Comentário periódico: mantém a conexão viva em proxies e detecta clientes que sumiram.
+     */
+    @Scheduled(fixedDelayString = "${app.agenda.sse.heartbeat:20s}")
+    public void enviarHeartbeat() {
+        long agora = relogio.getAsLong();
+        agendas.forEach((medicoId, agenda) -> {
+            synchronized (agenda) {
+                for (ConexaoAgenda conexao : List.copyOf(agenda.conexoes)) {
+                    if (!conexao.enviar(SseEmitter.event().comment("hb"))) {
+                        encerrarAtrasada(conexao);
+                    }
+                }
+                descartarSeOciosa(medicoId, agenda, agora);
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        agendas.values().forEach(agenda -> {
+            synchronized (agenda) {
+                List.copyOf(agenda.conexoes).forEach(ConexaoAgenda::encerrar);
+            }
+        });
+        if (executor instanceof ExecutorService servico) {
+            servico.shutdownNow();
+        }
+    }
+
+    private void encerrarAtrasada(ConexaoAgenda conexao) {
+        if (!conexao.isEncerrada()) {
+            encerradasPorAtraso.increment();
+            conexao.encerrar();
+        }
+    }
+
+    private void remover(ConexaoAgenda conexao) {
+        AgendaMedico agenda = agendas.get(conexao.getMedicoId());
+        if (agenda != null) {
+            synchronized (agenda) {
+                if (agenda.conexoes.remove(conexao)) {
+                    agenda.ultimoUso = relogio.getAsLong();
+                    descartarSeOciosa(conexao.getMedicoId(), agenda, agenda.ultimoUso);
+                }
+            }
+        }
+    }
+
+    /**
+     * Tira da memória a agenda sem conexões e sem uso dentro do horizonte de retomada; chamado sob a
+     * trava da agenda. Quem já a obteve do mapa vê {@code descartada} e busca (ou cria) outra.
+     */
+    private void descartarSeOciosa(Long medicoId, AgendaMedico agenda, long agora) {
+        if (agenda.conexoes.isEmpty() && agora - agenda.ultimoUso >= horizonteRetomadaNanos) {
+            agenda.descartada = true;
+            agendas.remove(medicoId, agenda);
+        }
+    }
+
+    private SseEmitter.SseEventBuilder evento(Registro registro) {
+        return SseEmitter.event()
+                .id(epoca + "-" + registro.sequencia())
+                .name(EVENTO_CONSULTA)
+                .data(registro.evento(), MediaType.APPLICATION_JSON);
+    }
+
+    /**
+     * @return sequência do id, ou null se ele não foi gerado por esta execução do nó
+     */
+    private Long sequenciaDesteNo(String eventoId) {
+        int separador = eventoId.lastIndexOf('-');
+        if (separador <= 0 || !eventoId.substring(0, separador).equals(epoca)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(eventoId.substring(separador + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private record Registro(long sequencia, EventoAgenda evento) {
+    }
+
+    /** Histórico recente e conexões de um médico; acessado sob a trava do próprio objeto. */
+    private static final class AgendaMedico {
+        private final Deque<Registro> historico = new ArrayDeque<>();
+        private final Deque<ConexaoAgenda> conexoes = new ArrayDeque<>();
+        private long descartadosAte;
+        /** Último evento ou última desconexão, no relógio do difusor. */
+        private long ultimoUso;
+        private boolean descartada;
+
+        private AgendaMedico(long descartadosAte, long criacao) {
+            this.descartadosAte = descartadosAte;
+            this.ultimoUso = criacao;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package br.com.ifpe.medplus_api.agenda;
+
+import br.com.ifpe.medplus_api.model.consulta.StatusConsulta;
+
+import java.time.LocalDateTime;
+
+/**
+ * Alteração na agenda de um médico, enviada pelo stream SSE e entre os nós pelo {@link CanalAgenda}.
+ *
+ * @param tipo         AGENDADA, CANCELADA, REAGENDADA ou STATUS_ALTERADO
+ * @param pacienteNome ausente nas alterações em lote (cancelamento por desativação, liquidação)
+ */
+public record EventoAgenda(String tipo, Long consultaId, Long medicoId, Long pacienteId, String pacienteNome,
+                           LocalDateTime dataHora, StatusConsulta status) {
+}
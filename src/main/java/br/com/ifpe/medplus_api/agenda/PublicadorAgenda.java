@@ -0,0 +1,43 @@
+package br.com.ifpe.medplus_api.agenda;
+
+import br.com.ifpe.medplus_api.service.ConsultaAlteradaEvent;
+import br.com.ifpe.medplus_api.service.ConsultasCanceladasEvent;
+import br.com.ifpe.medplus_api.service.ConsultasLiquidadasEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Converte as alterações de consulta em {@link EventoAgenda} e as publica no {@link CanalAgenda}
+ * depois do commit; transações desfeitas (inclusive tentativas repetidas por conflito) não geram evento.
+ */
+public class PublicadorAgenda {
+
+    private final CanalAgenda canal;
+
+    public PublicadorAgenda(CanalAgenda canal) {
+        this.canal = canal;
+    }
+
+    @TransactionalEventListener
+    public void aoAlterarConsulta(ConsultaAlteradaEvent evento) {
+        canal.publicar(new EventoAgenda(evento.tipo().name(), evento.consultaId(), evento.medicoId(),
+                evento.pacienteId(), evento.pacienteNome(), evento.dataHora(), evento.status()));
+    }
+
+    @TransactionalEventListener
+    public void aoCancelarConsultas(ConsultasCanceladasEvent evento) {
+        for (ConsultasCanceladasEvent.ConsultaCancelada consulta : evento.consultas()) {
+            canal.publicar(new EventoAgenda(ConsultaAlteradaEvent.Tipo.CANCELADA.name(), consulta.consultaId(),
+                    consulta.medicoId(), consulta.pacienteId(), null, consulta.dataHora(), evento.status()));
+        }
+    }
+
+    /** A liquidação grava cada lote fora de transação, antes de publicar: não há commit a esperar. */
+    @EventListener
+    public void aoLiquidarConsultas(ConsultasLiquidadasEvent evento) {
+        for (ConsultasLiquidadasEvent.ConsultaLiquidada consulta : evento.consultas()) {
+            canal.publicar(new EventoAgenda(ConsultaAlteradaEvent.Tipo.STATUS_ALTERADO.name(), consulta.consultaId(),
+                    consulta.medicoId(), consulta.pacienteId(), null, consulta.dataHora(), evento.destino()));
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package br.com.ifpe.medplus_api.busca;
+
+import java.time.DayOfWeek;
+
+/**
+ * Critérios da busca no diretório de médicos. Campos nulos não filtram.
+ *
+ * @param texto         termos procurados no nome (prefixo e tolerância a erros de digitação)
+ * @param especialidade comparada sem diferenciar maiúsculas e acentos
+ * @param ativo         por padrão só médicos ativos
+ * @param dia           dia da semana em que o médico atende
+ */
+public record FiltroBuscaMedicos(String texto, String especialidade, String cidade, String uf, Boolean ativo,
+                                 DayOfWeek dia, int pagina, int tamanho) {
+}
@@ -0,0 +1,294 @@
+package br.com.ifpe.medplus_api.busca;
+
+import java.text.Normalizer;
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido em memória do diretório de médicos.
+ *
+ * Os nomes são quebrados em termos normalizados (minúsculas, sem acento) guardados em ordem, o que
+ * permite buscar por prefixo com um {@code subMap}. Um termo da busca casa com um termo do índice
+ * por igualdade, prefixo ou, a partir de 4 letras, por distância de edição (1 erro até 7 letras,
+ * 2 erros acima disso). Todos os termos da busca precisam casar (E).
+ *
+ * Pensado para alguns milhares de médicos: filtros e facetas percorrem os candidatos em memória.
+ * Leituras concorrentes; cada atualização troca só os termos do médico alterado.
+ */
+public class IndiceMedicos {
+
+    private static final Pattern SEPARADOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+    private static final int PONTOS_EXATO = 3;
+    private static final int PONTOS_PREFIXO = 2;
+    private static final int PONTOS_APROXIMADO = 1;
+    private static final int TAMANHO_MINIMO_APROXIMADO = 4;
+
+    public static final String FACETA_ESPECIALIDADE = "especialidade";
+    public static final String FACETA_CIDADE = "cidade";
+    public static final String FACETA_UF = "uf";
+    public static final String FACETA_ATIVO = "ativo";
+    public static final String FACETA_DIA = "dia";
+
+    private final ReadWriteLock trava = new ReentrantReadWriteLock();
+    private Map<Long, MedicoIndexado> medicos = new HashMap<>();
+    private NavigableMap<String, Set<Long>> termos = new TreeMap<>();
+
+    /**
+     * Substitui todo o conteúdo do índice (carga inicial e reconstrução completa).
+     */
+    public void substituirTudo(Collection<MedicoIndexado> todos) {
+        Map<Long, MedicoIndexado> novosMedicos = new HashMap<>();
+        NavigableMap<String, Set<Long>> novosTermos = new TreeMap<>();
+        for (MedicoIndexado medico : todos) {
+            novosMedicos.put(medico.id(), medico);
+            adicionarTermos(novosTermos, medico);
+        }
+        trava.writeLock().lock();
+        try {
+            medicos = novosMedicos;
+            termos = novosTermos;
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    public void atualizar(MedicoIndexado medico) {
+        trava.writeLock().lock();
+        try {
+            MedicoIndexado anterior = medicos.put(medico.id(), medico);
+            if (anterior != null) {
+                removerTermos(termos, anterior);
+            }
+            adicionarTermos(termos, medico);
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    public void remover(Long id) {
+        trava.writeLock().lock();
+        try {
+            MedicoIndexado anterior = medicos.remove(id);
+            if (anterior != null) {
+                removerTermos(termos, anterior);
+            }
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    public int tamanho() {
+        trava.readLock().lock();
+        try {
+            return medicos.size();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    public ResultadoBuscaMedicos buscar(FiltroBuscaMedicos filtro) {
+        List<String> termosBusca = termos(filtro.texto());
+        trava.readLock().lock();
+        try {
+            Map<Long, Integer> pontuacao = termosBusca.isEmpty() ? null : pontuar(termosBusca);
+            Collection<MedicoIndexado> candidatos = pontuacao == null
+                    ? medicos.values()
+                    : pontuacao.keySet().stream().map(medicos::get).toList();
+
+            List<MedicoIndexado> resultado = new ArrayList<>();
+            Map<String, Map<String, Contagem>> facetas = new LinkedHashMap<>();
+            for (String faceta : List.of(FACETA_ESPECIALIDADE, FACETA_CIDADE, FACETA_UF, FACETA_ATIVO, FACETA_DIA)) {
+                facetas.put(faceta, new LinkedHashMap<>());
+            }
+            for (MedicoIndexado medico : candidatos) {
+                boolean especialidade = igual(filtro.especialidade(), medico.especialidade());
+                boolean cidade = igual(filtro.cidade(), medico.cidade());
+                boolean uf = igual(filtro.uf(), medico.uf());
+                boolean ativo = filtro.ativo() == null || filtro.ativo() == medico.ativo();
+                boolean dia = filtro.dia() == null || medico.dias().contains(filtro.dia());
+                if (especialidade && cidade && uf && ativo && dia) {
+                    resultado.add(medico);
+                }
+                // Cada faceta conta os médicos que passam em todos os outros filtros
+                if (cidade && uf && ativo && dia) {
+                    contar(facetas.get(FACETA_ESPECIALIDADE), medico.especialidade());
+                }
+                if (especialidade && uf && ativo && dia) {
+                    contar(facetas.get(FACETA_CIDADE), medico.cidade());
+                }
+                if (especialidade && cidade && ativo && dia) {
+                    contar(facetas.get(FACETA_UF), medico.uf());
+                }
+                if (especialidade && cidade && uf && dia) {
+                    contar(facetas.get(FACETA_ATIVO), String.valueOf(medico.ativo()));
+                }
+                if (especialidade && cidade && uf && ativo) {
+                    for (DayOfWeek d : medico.dias()) {
+                        contar(facetas.get(FACETA_DIA), d.name());
+                    }
+                }
+            }
+
+            Comparator<MedicoIndexado> ordem = Comparator.comparing(m -> normalizar(m.nome()));
+            if (pontuacao != null) {
+                Function<MedicoIndexado, Integer> pontos = m -> pontuacao.get(m.id());
+                ordem = Comparator.comparing(pontos).reversed().thenComparing(ordem);
+            }
+            resultado.sort(ordem.thenComparing(MedicoIndexado::id));
+
+            int tamanho = Math.max(1, filtro.tamanho());
+            int inicio = (int) Math.min(resultado.size(), (long) Math.max(0, filtro.pagina()) * tamanho);
+            int fim = Math.min(resultado.size(), inicio + tamanho);
+            return new ResultadoBuscaMedicos(List.copyOf(resultado.subList(inicio, fim)), resultado.size(),
+                    filtro.pagina(), tamanho, resumirFacetas(facetas));
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Pontos por médico que casou com todos os termos da busca (soma do melhor casamento de cada termo).
+     */
+    private Map<Long, Integer> pontuar(List<String> termosBusca) {
+        Map<Long, Integer> total = null;
+        for (String termo : termosBusca) {
+            Map<Long, Integer> doTermo = new HashMap<>();
+            termos.subMap(termo, true, termo + Character.MAX_VALUE, false).forEach((indexado, ids) -> {
+                int pontos = indexado.equals(termo) ? PONTOS_EXATO : PONTOS_PREFIXO;
+                ids.forEach(id -> doTermo.merge(id, pontos, Math::max));
+            });
+            if (termo.length() >= TAMANHO_MINIMO_APROXIMADO) {
+                int maximoErros = termo.length() <= 7 ? 1 : 2;
+                for (Map.Entry<String, Set<Long>> entrada : termos.entrySet()) {
+                    String indexado = entrada.getKey();
+                    if (Math.abs(indexado.length() - termo.length()) <= maximoErros
+                            && distanciaEdicao(termo, indexado, maximoErros) <= maximoErros) {
+                        entrada.getValue().forEach(id -> doTermo.merge(id, PONTOS_APROXIMADO, Math::max));
+                    }
+                }
+            }
+            if (total == null) {
+                total = doTermo;
+            } else {
+                total.keySet().retainAll(doTermo.keySet());
+                total.replaceAll((id, pontos) -> pontos + doTermo.get(id));
+            }
+            if (total.isEmpty()) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Levenshtein com corte: devolve {@code maximo + 1} assim que a distância certamente passa do máximo.
+     */
+    static int distanciaEdicao(String a, String b, int maximo) {
+        int[] anterior = new int[b.length() + 1];
+        int[] atual = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            anterior[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            atual[0] = i;
+            int menorDaLinha = atual[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int custo = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                atual[j] = Math.min(Math.min(atual[j - 1] + 1, anterior[j] + 1), anterior[j - 1] + custo);
+                menorDaLinha = Math.min(menorDaLinha, atual[j]);
+            }
+            if (menorDaLinha > maximo) {
+                return maximo + 1;
+            }
+            int[] troca = anterior;
+            anterior = atual;
+            atual = troca;
+        }
+        return anterior[b.length()];
+    }
+
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String semAcento = ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return semAcento.toLowerCase(Locale.ROOT).trim();
+    }
+
+    static List<String> termos(String texto) {
+        String normalizado = normalizar(texto);
+        if (normalizado.isEmpty()) {
+            return List.of();
+        }
+        return Arrays.stream(SEPARADOR.split(normalizado)).filter(t -> !t.isEmpty()).distinct().toList();
+    }
+
+    private static boolean igual(String filtro, String valor) {
+        return filtro == null || filtro.isBlank() || normalizar(filtro).equals(normalizar(valor));
+    }
+
+    private static void adicionarTermos(Map<String, Set<Long>> indice, MedicoIndexado medico) {
+        for (String termo : termos(medico.nome())) {
+            indice.computeIfAbsent(termo, t -> new HashSet<>()).add(medico.id());
+        }
+    }
+
+    private static void removerTermos(Map<String, Set<Long>> indice, MedicoIndexado medico) {
+        for (String termo : termos(medico.nome())) {
+            Set<Long> ids = indice.get(termo);
+            if (ids != null) {
+                ids.remove(medico.id());
+                if (ids.isEmpty()) {
+                    indice.remove(termo);
+                }
+            }
+        }
+    }
+
+    /** Valor exibido (primeira grafia encontrada) e contagem, agrupados pelo valor normalizado. */
+    private static final class Contagem {
+        private final String valor;
+        private int quantidade;
+
+        private Contagem(String valor) {
+            this.valor = valor;
+        }
+    }
+
+    private static void contar(Map<String, Contagem> faceta, String valor) {
+        if (valor == null || valor.isBlank()) {
+            return;
+        }
+        faceta.computeIfAbsent(normalizar(valor), chave -> new Contagem(valor.trim())).quantidade++;
+    }
+
+    private static Map<String, Map<String, Integer>> resumirFacetas(Map<String, Map<String, Contagem>> facetas) {
+        Map<String, Map<String, Integer>> resumo = new LinkedHashMap<>();
+        facetas.forEach((nome, contagens) -> {
+            Map<String, Integer> valores = new LinkedHashMap<>();
+            contagens.values().stream()
+                    .sorted(Comparator.comparingInt((Contagem c) -> c.quantidade).reversed()
+                            .thenComparing(c -> c.valor))
+                    .forEach(c -> valores.put(c.valor, c.quantidade));
+            resumo.put(nome, valores);
+        });
+        return resumo;
+    }
+}
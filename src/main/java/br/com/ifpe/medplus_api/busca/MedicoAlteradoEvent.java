@@ -0,0 +1,8 @@
+package br.com.ifpe.medplus_api.busca;
+
+/**
+ * Publicado pelos serviços quando dados de um médico que aparecem na busca mudam
+ * (cadastro, perfil, ativação ou disponibilidades).
+ */
+public record MedicoAlteradoEvent(Long medicoId) {
+}
@@ -0,0 +1,17 @@
+package br.com.ifpe.medplus_api.busca;
+
+import java.time.DayOfWeek;
+import java.util.Set;
+
+/**
+ * Dados de um médico mantidos no {@link IndiceMedicos}: só o necessário para busca, facetas e listagem.
+ *
+ * @param dias dias da semana com ao menos uma disponibilidade ativa
+ */
+public record MedicoIndexado(Long id, String nome, String crm, String especialidade, String cidade, String uf,
+                             boolean ativo, Set<DayOfWeek> dias) {
+
+    public MedicoIndexado {
+        dias = Set.copyOf(dias);
+    }
+}
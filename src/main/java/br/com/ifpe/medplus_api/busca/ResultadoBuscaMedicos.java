@@ -0,0 +1,15 @@
+package br.com.ifpe.medplus_api.busca;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Página de resultados da busca de médicos.
+ *
+ * @param total   quantidade de médicos que atendem aos critérios (todas as páginas)
+ * @param facetas por faceta (especialidade, cidade, uf, ativo, dia), contagem de cada valor entre
+ *                os resultados, ignorando o filtro da própria faceta
+ */
+public record ResultadoBuscaMedicos(List<MedicoIndexado> itens, int total, int pagina, int tamanho,
+                                    Map<String, Map<String, Integer>> facetas) {
+}
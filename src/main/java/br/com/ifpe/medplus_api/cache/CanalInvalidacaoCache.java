@@ -0,0 +1,15 @@
+package br.com.ifpe.medplus_api.cache;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * Transporte das invalidações de cache entre os nós da aplicação.
+ * Cada nó publica o que alterou e aplica o que os outros publicaram.
+ */
+public interface CanalInvalidacaoCache {
+
+    void publicar(Collection<Invalidacao> invalidacoes);
+
+    void assinar(Consumer<Invalidacao> assinante);
+}
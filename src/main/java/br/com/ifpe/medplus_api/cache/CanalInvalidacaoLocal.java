@@ -0,0 +1,27 @@
+package br.com.ifpe.medplus_api.cache;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Canal em memória: entrega as mensagens a todos os assinantes da mesma JVM, de forma síncrona.
+ * Substitui o Postgres em testes, onde vários "nós" podem assinar a mesma instância.
+ */
+public class CanalInvalidacaoLocal implements CanalInvalidacaoCache {
+
+    private final List<Consumer<Invalidacao>> assinantes = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publicar(Collection<Invalidacao> invalidacoes) {
+        for (Invalidacao invalidacao : invalidacoes) {
+            assinantes.forEach(assinante -> assinante.accept(invalidacao));
+        }
+    }
+
+    @Override
+    public void assinar(Consumer<Invalidacao> assinante) {
+        assinantes.add(assinante);
+    }
+}
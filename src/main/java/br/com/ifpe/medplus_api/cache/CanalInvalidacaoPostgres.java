@@ -0,0 +1,138 @@
+package br.com.ifpe.medplus_api.cache;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Canal de invalidação sobre LISTEN/NOTIFY do Postgres, que todos os nós já compartilham.
+ *
+ * A publicação usa uma conexão do pool em auto-commit (é chamada depois do commit da transação
+ * que escreveu). A escuta usa uma conexão própria, fora do pool, mantida por uma thread daemon.
+ * NOTIFY não é durável: se a conexão de escuta cair, mensagens podem ter sido perdidas, então a
+ * cada (re)conexão os assinantes recebem {@link Invalidacao.Tipo#TUDO}.
+ */
+public class CanalInvalidacaoPostgres implements CanalInvalidacaoCache, SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(CanalInvalidacaoPostgres.class);
+
+    static final String CANAL = "medplus_cache";
+    private static final int ESPERA_NOTIFICACOES_MS = 5_000;
+    private static final long ESPERA_RECONEXAO_MS = 2_000;
+
+    private final DataSource dataSource;
+    private final String url;
+    private final String usuario;
+    private final String senha;
+    private final List<Consumer<Invalidacao>> assinantes = new CopyOnWriteArrayList<>();
+
+    private volatile boolean executando;
+    private Thread escuta;
+
+    public CanalInvalidacaoPostgres(DataSource dataSource, String url, String usuario, String senha) {
+        this.dataSource = dataSource;
+        this.url = url;
+        this.usuario = usuario;
+        this.senha = senha;
+    }
+
+    @Override
+    public void publicar(Collection<Invalidacao> invalidacoes) {
+        if (invalidacoes.isEmpty()) {
+            return;
+        }
+        try (Connection conexao = dataSource.getConnection();
+             PreparedStatement ps = conexao.prepareStatement("SELECT pg_notify(?, ?)")) {
+            for (Invalidacao invalidacao : invalidacoes) {
+                ps.setString(1, CANAL);
+                ps.setString(2, invalidacao.serializar());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        } catch (SQLException e) {
+            // Os outros nós ficam com dados antigos até a expiração das regiões (ehcache.xml)
+            logger.error("Falha ao publicar {} invalidações de cache: {}", invalidacoes.size(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void assinar(Consumer<Invalidacao> assinante) {
+        assinantes.add(assinante);
+    }
+
+    @Override
+    public void start() {
+        executando = true;
+        escuta = new Thread(this::escutar, "invalidacao-cache");
+        escuta.setDaemon(true);
+        escuta.start();
+    }
+
+    @Override
+    public void stop() {
+        executando = false;
+        if (escuta != null) {
+            escuta.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executando;
+    }
+
+    private void escutar() {
+        while (executando) {
+            try (Connection conexao = DriverManager.getConnection(url, usuario, senha);
+                 Statement st = conexao.createStatement()) {
+                st.execute("LISTEN " + CANAL);
+                logger.info("Escutando invalidações de cache no canal {}", CANAL);
+                entregar(Invalidacao.tudo(""));
+                PGConnection pg = conexao.unwrap(PGConnection.class);
+                while (executando) {
+                    PGNotification[] notificacoes = pg.getNotifications(ESPERA_NOTIFICACOES_MS);
+                    if (notificacoes == null) {
+                        continue;
+                    }
+                    for (PGNotification notificacao : notificacoes) {
+                        entregar(Invalidacao.ler(notificacao.getParameter()));
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!executando) {
+                    return;
+                }
+                logger.warn("Conexão de escuta de invalidações perdida; reconectando: {}", e.getMessage());
+                try {
+                    Thread.sleep(ESPERA_RECONEXAO_MS);
+                } catch (InterruptedException interrompida) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void entregar(Invalidacao invalidacao) {
+        for (Consumer<Invalidacao> assinante : assinantes) {
+            try {
+                assinante.accept(invalidacao);
+            } catch (RuntimeException e) {
+                logger.error("Falha ao aplicar invalidação {}: {}", invalidacao, e.getMessage());
+            }
+        }
+    }
+}
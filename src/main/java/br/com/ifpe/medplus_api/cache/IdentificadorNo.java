@@ -0,0 +1,14 @@
+package br.com.ifpe.medplus_api.cache;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Identifica esta instância da aplicação nas mensagens de invalidação ("pid@host").
+ */
+public final class IdentificadorNo {
+
+    public static final String ATUAL = ManagementFactory.getRuntimeMXBean().getName();
+
+    private IdentificadorNo() {
+    }
+}
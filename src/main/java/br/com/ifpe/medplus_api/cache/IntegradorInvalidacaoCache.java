@@ -0,0 +1,38 @@
+package br.com.ifpe.medplus_api.cache;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+/**
+ * Registra o {@link InvalidacaoCacheListener} nos eventos de escrita do Hibernate.
+ * Entregue ao Hibernate pela propriedade hibernate.integrator_provider (ver CacheConfig).
+ */
+public class IntegradorInvalidacaoCache implements Integrator {
+
+    private final InvalidacaoCacheListener listener;
+
+    public IntegradorInvalidacaoCache(InvalidacaoCacheListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        EventListenerRegistry registro = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registro.appendListeners(EventType.POST_INSERT, listener);
+        registro.appendListeners(EventType.POST_UPDATE, listener);
+        registro.appendListeners(EventType.POST_DELETE, listener);
+        registro.appendListeners(EventType.POST_COLLECTION_RECREATE, listener);
+        registro.appendListeners(EventType.POST_COLLECTION_UPDATE, listener);
+        registro.appendListeners(EventType.POST_COLLECTION_REMOVE, listener);
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        // Nada a desfazer: os listeners morrem com a SessionFactory e a assinatura do canal é encerrada pelo próprio canal
+    }
+}
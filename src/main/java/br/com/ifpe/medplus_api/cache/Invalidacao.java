@@ -0,0 +1,48 @@
+package br.com.ifpe.medplus_api.cache;
+
+/**
+ * Mensagem trocada entre os nós para invalidar o cache de segundo nível.
+ *
+ * @param origem identificador do nó que fez a escrita (ele mesmo não precisa invalidar nada)
+ * @param tipo   o que invalidar
+ * @param nome   nome da entidade (ENTIDADE) ou papel da coleção (COLECAO)
+ * @param id     id da entidade ou do dono da coleção
+ */
+public record Invalidacao(String origem, Tipo tipo, String nome, String id) {
+
+    private static final String SEPARADOR = "|";
+
+    public enum Tipo {
+        ENTIDADE,
+        COLECAO,
+        /** Nó pode ter perdido mensagens (ex.: reconexão ao canal): limpa todas as regiões. */
+        TUDO
+    }
+
+    public static Invalidacao entidade(String origem, String entidade, Object id) {
+        return new Invalidacao(origem, Tipo.ENTIDADE, entidade, String.valueOf(id));
+    }
+
+    public static Invalidacao colecao(String origem, String papel, Object idDono) {
+        return new Invalidacao(origem, Tipo.COLECAO, papel, String.valueOf(idDono));
+    }
+
+    public static Invalidacao tudo(String origem) {
+        return new Invalidacao(origem, Tipo.TUDO, "", "");
+    }
+
+    /**
+     * Formato texto usado como payload do NOTIFY: {@code tipo|nome|id|origem}.
+     */
+    public String serializar() {
+        return String.join(SEPARADOR, tipo.name(), nome, id, origem);
+    }
+
+    public static Invalidacao ler(String texto) {
+        String[] partes = texto.split("\\|", 4);
+        if (partes.length != 4) {
+            throw new IllegalArgumentException("Mensagem de invalidação inválida: " + texto);
+        }
+        return new Invalidacao(partes[3], Tipo.valueOf(partes[0]), partes[1], partes[2]);
+    }
+}
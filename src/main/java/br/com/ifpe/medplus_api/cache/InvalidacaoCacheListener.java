@@ -0,0 +1,126 @@
+package br.com.ifpe.medplus_api.cache;
+
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Observa as escritas do Hibernate em entidades e coleções cacheadas e publica as invalidações
+ * correspondentes depois do commit. O cache do próprio nó já é atualizado pelo Hibernate; a
+ * mensagem é para os outros nós.
+ *
+ * Só cobre escritas feitas pelo Hibernate. UPDATE/DELETE em massa (JPQL ou SQL nativo) nas tabelas
+ * cacheadas precisam publicar a invalidação por conta própria.
+ */
+public class InvalidacaoCacheListener implements PostInsertEventListener, PostUpdateEventListener,
+        PostDeleteEventListener, PostCollectionRecreateEventListener, PostCollectionUpdateEventListener,
+        PostCollectionRemoveEventListener {
+
+    private final CanalInvalidacaoCache canal;
+    private final String origem;
+
+    public InvalidacaoCacheListener(CanalInvalidacaoCache canal, String origem) {
+        this.canal = canal;
+        this.origem = origem;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        // Inserções também contam: um resultado vazio de findByCrm pode estar no cache de queries
+        entidade(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        entidade(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        entidade(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        colecao(event);
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        colecao(event);
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        colecao(event);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void entidade(EntityPersister persister, Object id) {
+        if (persister.canWriteToCache()) {
+            registrar(Invalidacao.entidade(origem, persister.getEntityName(), id));
+        }
+    }
+
+    private void colecao(AbstractCollectionEvent event) {
+        String papel = event.getCollection().getRole();
+        Object idDono = event.getAffectedOwnerIdOrNull();
+        if (papel == null || idDono == null) {
+            return;
+        }
+        if (event.getSession().getFactory().getMappingMetamodel().getCollectionDescriptor(papel).hasCache()) {
+            registrar(Invalidacao.colecao(origem, papel, idDono));
+        }
+    }
+
+    /**
+     * Acumula as invalidações da transação atual e publica tudo de uma vez no afterCommit;
+     * se a transação for desfeita, nada é publicado.
+     */
+    @SuppressWarnings("unchecked")
+    private void registrar(Invalidacao invalidacao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            canal.publicar(List.of(invalidacao));
+            return;
+        }
+        Set<Invalidacao> pendentes = (Set<Invalidacao>) TransactionSynchronizationManager.getResource(this);
+        if (pendentes == null) {
+            Set<Invalidacao> novas = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, novas);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    canal.publicar(novas);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(InvalidacaoCacheListener.this);
+                }
+            });
+            pendentes = novas;
+        }
+        pendentes.add(invalidacao);
+    }
+}
@@ -0,0 +1,49 @@
+package br.com.ifpe.medplus_api.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.Cache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Aplica no cache de segundo nível deste nó as invalidações publicadas pelos outros nós.
+ */
+public class ReceptorInvalidacaoCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReceptorInvalidacaoCache.class);
+
+    private final Cache cache;
+    private final String origem;
+    private final Counter aplicadas;
+
+    public ReceptorInvalidacaoCache(Cache cache, String origem, MeterRegistry meterRegistry) {
+        this.cache = cache;
+        this.origem = origem;
+        this.aplicadas = Counter.builder("medplus.cache.invalidacoes")
+                .description("Invalidações de cache recebidas de outros nós")
+                .register(meterRegistry);
+    }
+
+    public void aplicar(Invalidacao invalidacao) {
+        if (origem.equals(invalidacao.origem())) {
+            return;
+        }
+        switch (invalidacao.tipo()) {
+            case ENTIDADE -> {
+                // Todas as entidades cacheadas têm id Long
+                cache.evictEntityData(invalidacao.nome(), Long.valueOf(invalidacao.id()));
+                // O email antigo pode continuar mapeado para o id; a região de natural id é pequena
+                cache.evictNaturalIdData(invalidacao.nome());
+                // Os timestamps das tabelas são locais: resultados de query de outro nó não seriam invalidados
+                cache.evictDefaultQueryRegion();
+            }
+            case COLECAO -> cache.evictCollectionData(invalidacao.nome(), Long.valueOf(invalidacao.id()));
+            case TUDO -> {
+                logger.info("Limpando o cache de segundo nível (canal de invalidação (re)conectado)");
+                cache.evictAllRegions();
+            }
+        }
+        aplicadas.increment();
+    }
+}
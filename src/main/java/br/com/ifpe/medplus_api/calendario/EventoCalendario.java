@@ -0,0 +1,16 @@
+package br.com.ifpe.medplus_api.calendario;
+
+import br.com.ifpe.medplus_api.model.consulta.StatusConsulta;
+
+import java.time.LocalDateTime;
+
+/**
+ * Consulta como evento do feed iCalendar.
+ *
+ * @param resumo       título exibido no aplicativo de calendário
+ * @param atualizadaEm data_atualizacao da consulta (DTSTAMP/LAST-MODIFIED)
+ * @param versao       versão otimista da consulta (SEQUENCE), para o calendário substituir a cópia antiga
+ */
+public record EventoCalendario(Long consultaId, LocalDateTime inicio, String resumo, StatusConsulta status,
+                               LocalDateTime atualizadaEm, long versao) {
+}
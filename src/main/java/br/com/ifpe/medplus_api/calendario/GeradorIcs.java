@@ -0,0 +1,101 @@
+package br.com.ifpe.medplus_api.calendario;
+
+import br.com.ifpe.medplus_api.model.consulta.StatusConsulta;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Gera o texto iCalendar (RFC 5545) de um feed de consultas.
+ *
+ * Horários saem em UTC ({@code ...Z}), convertidos do fuso em que as consultas são gravadas, para não
+ * depender de VTIMEZONE. Consultas canceladas continuam no feed com {@code STATUS:CANCELLED}, o que
+ * faz o calendário remover o compromisso que já tinha baixado.
+ */
+public class GeradorIcs {
+
+    private static final DateTimeFormatter UTC = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+    private static final int OCTETOS_POR_LINHA = 75;
+
+    private final ZoneId fuso;
+    private final Duration duracaoConsulta;
+    private final String dominioUid;
+
+    public GeradorIcs(ZoneId fuso, Duration duracaoConsulta, String dominioUid) {
+        this.fuso = fuso;
+        this.duracaoConsulta = duracaoConsulta;
+        this.dominioUid = dominioUid;
+    }
+
+    public String gerar(String nomeCalendario, List<EventoCalendario> eventos) {
+        StringBuilder ics = new StringBuilder(256 + eventos.size() * 320);
+        linha(ics, "BEGIN:VCALENDAR");
+        linha(ics, "VERSION:2.0");
+        linha(ics, "PRODID:-//MedPlus//Agenda//PT-BR");
+        linha(ics, "CALSCALE:GREGORIAN");
+        linha(ics, "METHOD:PUBLISH");
+        linha(ics, "X-WR-CALNAME:" + escapar(nomeCalendario));
+        for (EventoCalendario evento : eventos) {
+            linha(ics, "BEGIN:VEVENT");
+            linha(ics, "UID:consulta-" + evento.consultaId() + "@" + dominioUid);
+            linha(ics, "DTSTAMP:" + utc(evento.atualizadaEm()));
+            linha(ics, "LAST-MODIFIED:" + utc(evento.atualizadaEm()));
+            linha(ics, "SEQUENCE:" + evento.versao());
+            linha(ics, "DTSTART:" + utc(evento.inicio()));
+            linha(ics, "DTEND:" + utc(evento.inicio().plus(duracaoConsulta)));
+            linha(ics, "SUMMARY:" + escapar(evento.resumo()));
+            linha(ics, "STATUS:" + status(evento.status()));
+            linha(ics, "END:VEVENT");
+        }
+        linha(ics, "END:VCALENDAR");
+        return ics.toString();
+    }
+
+    static String status(StatusConsulta status) {
+        if (status.name().startsWith("CANCELADA")) {
+            return "CANCELLED";
+        }
+        return status == StatusConsulta.CONFIRMADA || status == StatusConsulta.REALIZADA ? "CONFIRMED" : "TENTATIVE";
+    }
+
+    private String utc(LocalDateTime dataHora) {
+        return dataHora.atZone(fuso).withZoneSameInstant(ZoneOffset.UTC).format(UTC);
+    }
+
+    /** Escapa os caracteres especiais de valores TEXT (RFC 5545, 3.3.11). */
+    static String escapar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        return texto.replace("\\", "\\\\")
+                .replace(";", "\\;")
+                .replace(",", "\\,")
+                .replace("\r\n", "\\n")
+                .replace("\n", "\\n")
+                .replace("\r", "\\n");
+    }
+
+    /**
+     * Acrescenta a linha terminada em CRLF, dobrada em 75 octetos UTF-8 (RFC 5545, 3.1) sem partir
+     * caracteres multibyte.
+     */
+    static void linha(StringBuilder ics, String conteudo) {
+        int octetos = 0;
+        for (int i = 0; i < conteudo.length(); ) {
+            int codigo = conteudo.codePointAt(i);
+            int tamanho = codigo < 0x80 ? 1 : codigo < 0x800 ? 2 : codigo < 0x10000 ? 3 : 4;
+            if (octetos + tamanho > OCTETOS_POR_LINHA) {
+                ics.append("\r\n ");
+                octetos = 1;
+            }
+            ics.appendCodePoint(codigo);
+            octetos += tamanho;
+            i += Character.charCount(codigo);
+        }
+        ics.append("\r\n");
+    }
+}
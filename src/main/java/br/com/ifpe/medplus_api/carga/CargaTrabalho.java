@@ -0,0 +1,25 @@
+package br.com.ifpe.medplus_api.carga;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Define a classe de carga de um controller ou de um serviço (na classe ou no método; a do método
+ * prevalece). Sem a anotação, requisições HTTP são {@link ClasseCarga#INTERATIVA} e o resto
+ * (agendamentos, @Async) é {@link ClasseCarga#BACKGROUND}.
+ *
+ * Em controllers a anotação também ocupa uma vaga do limite da classe durante a requisição; sem
+ * vaga a requisição é recusada na hora com HTTP 503. Em serviços a classe só muda o pool de
+ * conexões quando o método abre a primeira conexão da thread: dentro de uma transação já aberta a
+ * conexão em uso continua sendo a da classe anterior.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface CargaTrabalho {
+
+    ClasseCarga value();
+}
@@ -0,0 +1,63 @@
+package br.com.ifpe.medplus_api.carga;
+
+import br.com.ifpe.medplus_api.util.exception.CargaRejeitadaException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+
+import java.lang.reflect.Method;
+
+/**
+ * Aplica {@link CargaTrabalho} aos serviços. Roda antes do interceptor de transação, para que a
+ * conexão aberta pela transação já venha do pool da classe.
+ *
+ * Quando o método muda a classe da thread (um endpoint interativo chamando um serviço de
+ * relatório, por exemplo) ocupa também uma vaga da nova classe; tarefas agendadas já estão em
+ * {@link ClasseCarga#BACKGROUND} e não disputam vaga, só conexões do próprio pool.
+ */
+@Aspect
+@Order(Ordered.LOWEST_PRECEDENCE - 200)
+public class CargaTrabalhoAspect {
+
+    private final LimitadorCarga limitador;
+
+    public CargaTrabalhoAspect(LimitadorCarga limitador) {
+        this.limitador = limitador;
+    }
+
+    @Around("@within(br.com.ifpe.medplus_api.carga.CargaTrabalho) "
+            + "|| @annotation(br.com.ifpe.medplus_api.carga.CargaTrabalho)")
+    public Object executar(ProceedingJoinPoint joinPoint) throws Throwable {
+        ClasseCarga classe = resolver(joinPoint);
+        if (classe == ContextoCarga.atual()) {
+            return joinPoint.proceed();
+        }
+        if (!limitador.entrar(classe)) {
+            throw new CargaRejeitadaException("Muitas operações do tipo " + classe.chave()
+                    + " em andamento. Tente novamente em instantes.");
+        }
+        ClasseCarga anterior = ContextoCarga.definir(classe);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ContextoCarga.restaurar(anterior);
+            limitador.sair(classe);
+        }
+    }
+
+    private static ClasseCarga resolver(ProceedingJoinPoint joinPoint) {
+        Method metodo = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Class<?> alvo = joinPoint.getTarget() != null ? AopUtils.getTargetClass(joinPoint.getTarget()) : metodo.getDeclaringClass();
+        Method especifico = AopUtils.getMostSpecificMethod(metodo, alvo);
+        CargaTrabalho anotacao = AnnotatedElementUtils.findMergedAnnotation(especifico, CargaTrabalho.class);
+        if (anotacao == null) {
+            anotacao = AnnotatedElementUtils.findMergedAnnotation(alvo, CargaTrabalho.class);
+        }
+        return anotacao.value();
+    }
+}
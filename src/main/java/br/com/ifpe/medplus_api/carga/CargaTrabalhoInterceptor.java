@@ -0,0 +1,78 @@
+package br.com.ifpe.medplus_api.carga;
+
+import br.com.ifpe.medplus_api.util.exception.CargaRejeitadaException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Aplica {@link CargaTrabalho} aos controllers: define a classe da requisição antes do handler (e
+ * portanto antes da primeira conexão do handler) e ocupa uma vaga do {@link LimitadorCarga} até o
+ * fim da requisição. Sem vaga, lança {@link CargaRejeitadaException} (HTTP 503).
+ *
+ * Em requisições assíncronas a vaga é devolvida quando a thread do Tomcat é liberada; o despacho
+ * final passa por aqui de novo e ocupa uma vaga só enquanto escreve a resposta.
+ */
+public class CargaTrabalhoInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String ATRIBUTO_CLASSE = CargaTrabalhoInterceptor.class.getName() + ".classe";
+    private static final String ATRIBUTO_ANTERIOR = CargaTrabalhoInterceptor.class.getName() + ".anterior";
+
+    private final LimitadorCarga limitador;
+
+    public CargaTrabalhoInterceptor(LimitadorCarga limitador) {
+        this.limitador = limitador;
+    }
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                             @NonNull Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        ClasseCarga classe = resolver(handlerMethod);
+        if (!limitador.entrar(classe)) {
+            throw new CargaRejeitadaException("Muitas requisições do tipo " + classe.chave()
+                    + " em andamento. Tente novamente em instantes.");
+        }
+        request.setAttribute(ATRIBUTO_CLASSE, classe);
+        ClasseCarga anterior = ContextoCarga.definir(classe);
+        if (anterior != null) {
+            request.setAttribute(ATRIBUTO_ANTERIOR, anterior);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                @NonNull Object handler, @Nullable Exception ex) {
+        liberar(request);
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(@NonNull HttpServletRequest request,
+                                               @NonNull HttpServletResponse response, @NonNull Object handler) {
+        liberar(request);
+    }
+
+    private void liberar(HttpServletRequest request) {
+        if (request.getAttribute(ATRIBUTO_CLASSE) instanceof ClasseCarga classe) {
+            request.removeAttribute(ATRIBUTO_CLASSE);
+            limitador.sair(classe);
+            ContextoCarga.restaurar((ClasseCarga) request.getAttribute(ATRIBUTO_ANTERIOR));
+            request.removeAttribute(ATRIBUTO_ANTERIOR);
+        }
+    }
+
+    static ClasseCarga resolver(HandlerMethod handlerMethod) {
+        CargaTrabalho anotacao = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getMethod(), CargaTrabalho.class);
+        if (anotacao == null) {
+            anotacao = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), CargaTrabalho.class);
+        }
+        return anotacao != null ? anotacao.value() : ClasseCarga.INTERATIVA;
+    }
+}
@@ -0,0 +1,27 @@
+package br.com.ifpe.medplus_api.carga;
+
+import java.util.Locale;
+
+/**
+ * Classes de carga da aplicação. Cada uma tem o seu pool de conexões e o seu limite de execuções
+ * simultâneas (ver {@code app.carga.*}), de modo que uma classe saturada não tira recursos das outras.
+ */
+public enum ClasseCarga {
+
+    /** Agendamento, cancelamento e agenda de pacientes e médicos. Padrão das requisições HTTP. */
+    INTERATIVA,
+
+    /** Leitura dos dados do próprio usuário (perfil). */
+    PERFIL,
+
+    /** Endpoints de administração e relatórios, que costumam varrer tabelas inteiras. */
+    ADMINISTRATIVA,
+
+    /** Tarefas agendadas, métodos @Async e inicialização. Padrão fora de requisições HTTP. */
+    BACKGROUND;
+
+    /** Nome usado nas propriedades, nos pools e nas tags das métricas. */
+    public String chave() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,44 @@
+package br.com.ifpe.medplus_api.carga;
+
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Classe de carga da thread atual, consultada pelo {@link RoteamentoCargaDataSource} ao abrir conexões.
+ */
+public final class ContextoCarga {
+
+    private static final ThreadLocal<ClasseCarga> ATUAL = new ThreadLocal<>();
+
+    private ContextoCarga() {
+    }
+
+    /**
+     * Classe definida explicitamente ou, na falta dela, a padrão: {@link ClasseCarga#INTERATIVA} em
+     * threads que atendem uma requisição HTTP (inclusive nos filtros, como o da autenticação JWT) e
+     * {@link ClasseCarga#BACKGROUND} nas demais.
+     */
+    public static ClasseCarga atual() {
+        ClasseCarga classe = ATUAL.get();
+        if (classe != null) {
+            return classe;
+        }
+        return RequestContextHolder.getRequestAttributes() != null ? ClasseCarga.INTERATIVA : ClasseCarga.BACKGROUND;
+    }
+
+    /**
+     * @return a classe definida antes, a ser devolvida em {@link #restaurar(ClasseCarga)}
+     */
+    static ClasseCarga definir(ClasseCarga classe) {
+        ClasseCarga anterior = ATUAL.get();
+        ATUAL.set(classe);
+        return anterior;
+    }
+
+    static void restaurar(ClasseCarga anterior) {
+        if (anterior == null) {
+            ATUAL.remove();
+        } else {
+            ATUAL.set(anterior);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package br.com.ifpe.medplus_api.carga;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Limite de execuções simultâneas por {@link ClasseCarga} ({@code app.carga.<classe>.concorrencia}).
+ * Quem não consegue vaga em {@code app.carga.espera-maxima} é recusado, em vez de ficar na fila
+ * segurando uma thread do Tomcat.
+ *
+ * Métricas, com a tag {@code classe}: {@code medplus.carga.limite}, {@code medplus.carga.em.uso},
+ * {@code medplus.carga.rejeicoes} e, do pool de conexões da classe,
+ * {@code medplus.carga.conexoes.ativas}, {@code .pendentes} (threads esperando conexão) e {@code .maximo}.
+ */
+public class LimitadorCarga {
+
+    private final Map<ClasseCarga, Semaphore> vagas = new EnumMap<>(ClasseCarga.class);
+    private final Map<ClasseCarga, Counter> rejeicoes = new EnumMap<>(ClasseCarga.class);
+    private final long esperaMaximaNanos;
+
+    /**
+     * @param pools pool de conexões de cada classe; pode devolver null (métricas ficam sem valor)
+     */
+    public LimitadorCarga(Map<ClasseCarga, Integer> limites, Duration esperaMaxima, MeterRegistry meterRegistry,
+                          Function<ClasseCarga, HikariDataSource> pools) {
+        this.esperaMaximaNanos = Math.max(0, esperaMaxima.toNanos());
+        for (ClasseCarga classe : ClasseCarga.values()) {
+            int limite = Math.max(1, limites.getOrDefault(classe, Integer.MAX_VALUE));
+            Semaphore semaforo = new Semaphore(limite);
+            vagas.put(classe, semaforo);
+            String tag = classe.chave();
+            rejeicoes.put(classe, meterRegistry.counter("medplus.carga.rejeicoes", "classe", tag));
+            Gauge.builder("medplus.carga.limite", () -> limite).tag("classe", tag).register(meterRegistry);
+            Gauge.builder("medplus.carga.em.uso", semaforo, s -> limite - s.availablePermits())
+                    .tag("classe", tag).register(meterRegistry);
+            registrarPool(meterRegistry, "medplus.carga.conexoes.ativas", classe, pools,
+                    HikariPoolMXBean::getActiveConnections);
+            registrarPool(meterRegistry, "medplus.carga.conexoes.pendentes", classe, pools,
+                    HikariPoolMXBean::getThreadsAwaitingConnection);
+            Gauge.builder("medplus.carga.conexoes.maximo", () -> {
+                HikariDataSource pool = pools.apply(classe);
+                return pool != null ? pool.getMaximumPoolSize() : Double.NaN;
+            }).tag("classe", tag).register(meterRegistry);
+        }
+    }
+
+    /**
+     * Ocupa uma vaga da classe, esperando no máximo {@code app.carga.espera-maxima}.
+     *
+     * @return false se a classe está no limite; nesse caso nada precisa ser liberado
+     */
+    public boolean entrar(ClasseCarga classe) {
+        boolean conseguiu;
+        try {
+            conseguiu = vagas.get(classe).tryAcquire(esperaMaximaNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            conseguiu = false;
+        }
+        if (!conseguiu) {
+            rejeicoes.get(classe).increment();
+        }
+        return conseguiu;
+    }
+
+    public void sair(ClasseCarga classe) {
+        vagas.get(classe).release();
+    }
+
+    private static void registrarPool(MeterRegistry meterRegistry, String nome, ClasseCarga classe,
+                                      Function<ClasseCarga, HikariDataSource> pools,
+                                      ToIntFunction<HikariPoolMXBean> valor) {
+        Gauge.builder(nome, () -> {
+            HikariDataSource pool = pools.apply(classe);
+            // O MXBean só existe depois que o pool abriu a primeira conexão
+            HikariPoolMXBean mxBean = pool != null ? pool.getHikariPoolMXBean() : null;
+            return mxBean != null ? valor.applyAsInt(mxBean) : 0;
+        }).tag("classe", classe.chave()).register(meterRegistry);
+    }
+}
@@ -0,0 +1,86 @@
+package br.com.ifpe.medplus_api.carga;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.core.PriorityOrdered;
+import org.springframework.core.env.Environment;
+import org.springframework.lang.NonNull;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Troca o pool Hikari do banco primário ({@code dataSource} do Spring Boot ou
+ * {@code dataSourcePrimario} quando há réplica) por um {@link RoteamentoCargaDataSource}.
+ *
+ * O pool original, já configurado com {@code spring.datasource.hikari.*}, vira o da classe
+ * {@link ClasseCarga#INTERATIVA}; os das demais classes são cópias da mesma configuração. Só o
+ * tamanho ({@code app.carga.<classe>.conexoes}) e o nome mudam. Os pools abrem conexões na primeira
+ * requisição de cada classe, não na subida.
+ *
+ * Precisa ver o Hikari antes de qualquer outro post-processor que embrulhe o DataSource (o
+ * {@code DataSourceCronometrado} do Server-Timing, por exemplo); por isso é {@link PriorityOrdered}
+ * com a maior precedência, e o embrulho passa a envolver o roteamento.
+ */
+public class PoolsCargaPostProcessor implements BeanPostProcessor, PriorityOrdered {
+
+    private static final Logger logger = LoggerFactory.getLogger(PoolsCargaPostProcessor.class);
+    private static final Set<String> NOMES_PRIMARIO = Set.of("dataSource", "dataSourcePrimario");
+
+    private final Environment environment;
+    private volatile RoteamentoCargaDataSource roteamento;
+
+    public PoolsCargaPostProcessor(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+        if (bean instanceof HikariDataSource primario && NOMES_PRIMARIO.contains(beanName) && roteamento == null) {
+            roteamento = criar(primario);
+            return roteamento;
+        }
+        return bean;
+    }
+
+    /**
+     * @return o pool da classe, ou null antes de o DataSource ser criado
+     */
+    public HikariDataSource getPool(ClasseCarga classe) {
+        RoteamentoCargaDataSource atual = roteamento;
+        return atual != null ? atual.getPool(classe) : null;
+    }
+
+    private RoteamentoCargaDataSource criar(HikariDataSource primario) {
+        String prefixo = primario.getPoolName() != null ? primario.getPoolName() : "primario";
+        int maximoOriginal = primario.getMaximumPoolSize();
+        int minimoOciosoOriginal = primario.getMinimumIdle();
+        Map<ClasseCarga, HikariDataSource> pools = new EnumMap<>(ClasseCarga.class);
+        for (ClasseCarga classe : ClasseCarga.values()) {
+            HikariDataSource pool = primario;
+            if (classe != ClasseCarga.INTERATIVA) {
+                pool = new HikariDataSource();
+                primario.copyStateTo(pool);
+            }
+            int conexoes = environment.getProperty("app.carga." + classe.chave() + ".conexoes", Integer.class,
+                    maximoOriginal);
+            pool.setPoolName(prefixo + "-" + classe.chave());
+            pool.setMaximumPoolSize(Math.max(1, conexoes));
+            if (minimoOciosoOriginal >= 0) {
+                pool.setMinimumIdle(Math.min(minimoOciosoOriginal, pool.getMaximumPoolSize()));
+            }
+            pools.put(classe, pool);
+            logger.info("Pool de conexões {} com até {} conexões", pool.getPoolName(), pool.getMaximumPoolSize());
+        }
+        return new RoteamentoCargaDataSource(pools);
+    }
+}
@@ -0,0 +1,39 @@
+package br.com.ifpe.medplus_api.carga;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * DataSource com um pool Hikari por {@link ClasseCarga}; cada conexão vem do pool da classe da
+ * thread no momento em que é aberta ({@link ContextoCarga#atual()}).
+ */
+public class RoteamentoCargaDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final Map<ClasseCarga, HikariDataSource> pools;
+
+    public RoteamentoCargaDataSource(Map<ClasseCarga, HikariDataSource> pools) {
+        this.pools = new EnumMap<>(pools);
+        setTargetDataSources(new HashMap<>(pools));
+        setDefaultTargetDataSource(pools.get(ClasseCarga.INTERATIVA));
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ContextoCarga.atual();
+    }
+
+    public HikariDataSource getPool(ClasseCarga classe) {
+        return pools.get(classe);
+    }
+
+    @Override
+    public void close() {
+        pools.values().forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,125 @@
+package br.com.ifpe.medplus_api.concorrencia;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+
+/**
+ * Execuções em andamento (e, com retenção, recém-terminadas) por chave. Base do {@link Coalescer}.
+ *
+ * A primeira chamada de uma chave registra um futuro e executa; as que chegam enquanto ele está
+ * aberto esperam por ele. Sem retenção a entrada sai antes de o futuro ser completado, de modo que
+ * uma chamada posterior sempre executa de novo. Entradas retidas expiradas são removidas quando a
+ * chave é consultada de novo ou numa varredura feita quando o mapa passa de {@code LIMITE_VARREDURA}.
+ */
+public class CoalescedorChamadas {
+
+    private static final int LIMITE_VARREDURA = 256;
+
+    /** De onde veio o resultado entregue a uma chamada. */
+    public enum Origem {
+        /** Esta chamada executou o método. */
+        EXECUTADA,
+        /** Recebeu o resultado de uma execução simultânea. */
+        COMPARTILHADA,
+        /** Recebeu um resultado retido de uma execução já terminada. */
+        RETIDA,
+        /** Esperou além do limite (ou foi interrompida) e executou por conta própria. */
+        ISOLADA
+    }
+
+    @FunctionalInterface
+    public interface Chamada {
+        Object executar() throws Throwable;
+    }
+
+    public record Resultado(Object valor, Origem origem) {
+    }
+
+    private static final class Entrada {
+        private final CompletableFuture<Object> futuro = new CompletableFuture<>();
+        // Escrito antes de completar o futuro; quem vê o futuro concluído vê o prazo
+        private volatile long expiraEm;
+
+        private boolean retida(long agora) {
+            return agora - expiraEm < 0;
+        }
+    }
+
+    private final Map<Object, Entrada> entradas = new ConcurrentHashMap<>();
+    private final LongSupplier relogio;
+
+    public CoalescedorChamadas() {
+        this(System::nanoTime);
+    }
+
+    /** @param relogio fonte de tempo em nanossegundos (testes) */
+    CoalescedorChamadas(LongSupplier relogio) {
+        this.relogio = relogio;
+    }
+
+    public Resultado executar(Object chave, long retencaoMs, long esperaMaximaMs, Chamada chamada) throws Throwable {
+        while (true) {
+            Entrada nova = new Entrada();
+            Entrada existente = entradas.putIfAbsent(chave, nova);
+            if (existente == null) {
+                return liderar(chave, nova, retencaoMs, chamada);
+            }
+            if (!existente.futuro.isDone()) {
+                return aguardar(existente, esperaMaximaMs, chamada);
+            }
+            if (existente.retida(relogio.getAsLong())) {
+                return new Resultado(existente.futuro.join(), Origem.RETIDA);
+            }
+            entradas.remove(chave, existente);
+        }
+    }
+
+    /** Chaves com execução em andamento ou resultado retido. */
+    public int tamanho() {
+        return entradas.size();
+    }
+
+    private Resultado liderar(Object chave, Entrada entrada, long retencaoMs, Chamada chamada) throws Throwable {
+        Object valor;
+        try {
+            valor = chamada.executar();
+        } catch (Throwable e) {
+            entradas.remove(chave, entrada);
+            entrada.futuro.completeExceptionally(e);
+            throw e;
+        }
+        if (retencaoMs > 0) {
+            entrada.expiraEm = relogio.getAsLong() + TimeUnit.MILLISECONDS.toNanos(retencaoMs);
+        } else {
+            entradas.remove(chave, entrada);
+        }
+        entrada.futuro.complete(valor);
+        if (retencaoMs > 0 && entradas.size() > LIMITE_VARREDURA) {
+            varrer();
+        }
+        return new Resultado(valor, Origem.EXECUTADA);
+    }
+
+    private Resultado aguardar(Entrada entrada, long esperaMaximaMs, Chamada chamada) throws Throwable {
+        try {
+            return new Resultado(entrada.futuro.get(esperaMaximaMs, TimeUnit.MILLISECONDS), Origem.COMPARTILHADA);
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (TimeoutException e) {
+            return new Resultado(chamada.executar(), Origem.ISOLADA);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Resultado(chamada.executar(), Origem.ISOLADA);
+        }
+    }
+
+    private void varrer() {
+        long agora = relogio.getAsLong();
+        entradas.values().removeIf(e -> e.futuro.isDone() && !e.retida(agora));
+    }
+}
@@ -0,0 +1,58 @@
+package br.com.ifpe.medplus_api.concorrencia;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Implementa {@link Coalescer}. Roda por fora da transação e do limite de carga
+ * ({@code CargaTrabalhoAspect}): quem espera por uma execução alheia não abre transação nem ocupa
+ * vaga da sua classe de carga.
+ *
+ * Métrica {@code medplus.coalescencia.chamadas}, por operação ({@code Classe.metodo}) e origem
+ * (executada, compartilhada, retida, isolada). A taxa de coalescência é a fração de chamadas que
+ * não foram executadas: {@code 1 - executada / total}.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 300)
+public class CoalescenciaAspect {
+
+    /** Chave de uma chamada: o método e os argumentos, comparados por valor. */
+    private record Chave(Method metodo, List<Object> argumentos) {
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final CoalescedorChamadas coalescedor = new CoalescedorChamadas();
+
+    public CoalescenciaAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gauge("medplus.coalescencia.chaves", coalescedor, CoalescedorChamadas::tamanho);
+    }
+
+    @Around("@annotation(coalescer)")
+    public Object coalescer(ProceedingJoinPoint joinPoint, Coalescer coalescer) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+        Method metodo = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Chave chave = new Chave(metodo, Arrays.asList(joinPoint.getArgs()));
+        CoalescedorChamadas.Resultado resultado = coalescedor.executar(chave, coalescer.retencaoMs(),
+                coalescer.esperaMaximaMs(), joinPoint::proceed);
+        String operacao = joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + metodo.getName();
+        meterRegistry.counter("medplus.coalescencia.chamadas", "operacao", operacao,
+                "origem", resultado.origem().name().toLowerCase(Locale.ROOT)).increment();
+        return resultado.valor();
+    }
+}
@@ -0,0 +1,33 @@
+package br.com.ifpe.medplus_api.concorrencia;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Chamadas simultâneas do método com os mesmos argumentos compartilham uma única execução: a
+ * primeira executa e as demais esperam e recebem o mesmo resultado (ou a mesma exceção). Uma falha
+ * nunca fica guardada; a chamada seguinte executa de novo.
+ *
+ * Só para leituras cujo retorno seja imutável ou tratado como tal (records, DTOs, strings): o mesmo
+ * objeto chega a várias requisições. Entidades JPA ficam de fora, já que pertencem à sessão de quem
+ * executou. Os argumentos formam a chave e precisam de {@code equals}/{@code hashCode} por valor.
+ * Dentro de uma transação já aberta a chamada não é compartilhada, pois o resultado pode depender
+ * de escritas ainda não confirmadas dessa transação.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Coalescer {
+
+    /**
+     * Por quanto tempo um resultado bem-sucedido continua servindo chamadas que chegam depois do fim
+     * da execução. 0 compartilha só entre chamadas sobrepostas.
+     */
+    long retencaoMs() default 0;
+
+    /** Espera máxima por uma execução em andamento; passado esse tempo, a chamada executa sozinha. */
+    long esperaMaximaMs() default 5000;
+}
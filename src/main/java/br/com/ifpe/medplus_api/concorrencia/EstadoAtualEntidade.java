@@ -0,0 +1,82 @@
+package br.com.ifpe.medplus_api.concorrencia;
+
+import br.com.ifpe.medplus_api.model.consulta.Consulta;
+import br.com.ifpe.medplus_api.model.consulta.DisponibilidadeMedico;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Lê, numa transação nova, o estado atual da entidade que causou um conflito de versão, para o
+ * corpo do 409. Só as entidades com {@code @Version} têm representação; as demais devolvem null.
+ */
+@Component
+public class EstadoAtualEntidade {
+
+    private static final Logger logger = LoggerFactory.getLogger(EstadoAtualEntidade.class);
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transacaoLeitura;
+
+    public EstadoAtualEntidade(EntityManager entityManager, PlatformTransactionManager transactionManager) {
+        this.entityManager = entityManager;
+        this.transacaoLeitura = new TransactionTemplate(transactionManager);
+        this.transacaoLeitura.setReadOnly(true);
+        this.transacaoLeitura.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public Map<String, Object> ler(String entidade, Object id) {
+        if (entidade == null || !(id instanceof Long chave)) {
+            return null;
+        }
+        try {
+            return transacaoLeitura.execute(status -> {
+                if (Consulta.class.getName().equals(entidade)) {
+                    Consulta consulta = entityManager.find(Consulta.class, chave);
+                    return consulta == null ? null : consulta(consulta);
+                }
+                if (DisponibilidadeMedico.class.getName().equals(entidade)) {
+                    DisponibilidadeMedico disponibilidade = entityManager.find(DisponibilidadeMedico.class, chave);
+                    return disponibilidade == null ? null : disponibilidade(disponibilidade);
+                }
+                return null;
+            });
+        } catch (DataAccessException e) {
+            // O 409 sai mesmo sem o estado atual
+            logger.warn("Não foi possível ler o estado atual de {} {}: {}", entidade, id, e.getMessage());
+            return null;
+        }
+    }
+
+    private static Map<String, Object> consulta(Consulta consulta) {
+        Map<String, Object> estado = new LinkedHashMap<>();
+        estado.put("tipo", "consulta");
+        estado.put("id", consulta.getId());
+        estado.put("status", consulta.getStatus().name());
+        estado.put("dataHora", consulta.getDataHoraConsulta());
+        estado.put("observacoes", consulta.getObservacoes());
+        estado.put("motivoCancelamento", consulta.getMotivoCancelamento());
+        estado.put("versao", consulta.getVersao());
+        return estado;
+    }
+
+    private static Map<String, Object> disponibilidade(DisponibilidadeMedico disponibilidade) {
+        Map<String, Object> estado = new LinkedHashMap<>();
+        estado.put("tipo", "disponibilidade");
+        estado.put("id", disponibilidade.getId());
+        estado.put("diaSemana", disponibilidade.getDiaSemana());
+        estado.put("horaInicio", disponibilidade.getHoraInicio());
+        estado.put("horaFim", disponibilidade.getHoraFim());
+        estado.put("ativo", disponibilidade.isAtivo());
+        estado.put("versao", disponibilidade.getVersao());
+        return estado;
+    }
+}
@@ -0,0 +1,31 @@
+package br.com.ifpe.medplus_api.concorrencia;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Repete o método quando a transação falha por lock otimista (outra transação alterou a mesma
+ * linha, ver {@code @Version}). Cada tentativa abre uma transação nova, relê o estado e reaplica a
+ * operação; entre tentativas espera um tempo aleatório entre 0 e {@code esperaBaseMs * 2^(n-1)},
+ * limitado a {@code esperaMaximaMs}, para que as transações em disputa não colidam de novo.
+ *
+ * Esgotadas as tentativas, lança {@link br.com.ifpe.medplus_api.util.exception.ConflitoConcorrenciaException}
+ * (HTTP 409) com o estado atual da entidade. Usar em métodos {@code @Transactional} chamados de fora
+ * de uma transação: dentro de uma transação já aberta não há como repetir, e o conflito vai direto
+ * para o 409.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RetentarEmConflito {
+
+    /** Total de execuções, incluindo a primeira. */
+    int tentativas() default 3;
+
+    long esperaBaseMs() default 10;
+
+    long esperaMaximaMs() default 200;
+}
@@ -0,0 +1,91 @@
+package br.com.ifpe.medplus_api.concorrencia;
+
+import br.com.ifpe.medplus_api.util.exception.ConflitoConcorrenciaException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Implementa {@link RetentarEmConflito}. Roda antes do interceptor de transação (ordem menor), de
+ * modo que cada tentativa inclui o commit, onde o conflito de versão costuma aparecer.
+ *
+ * Métricas, por operação ({@code Classe.metodo}): {@code medplus.concorrencia.conflitos} (cada
+ * falha de lock otimista), {@code medplus.concorrencia.retentativas} e
+ * {@code medplus.concorrencia.esgotadas} (conflitos devolvidos ao cliente como 409).
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 100)
+public class RetentativaConflitoAspect {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetentativaConflitoAspect.class);
+
+    private final MeterRegistry meterRegistry;
+    private final EstadoAtualEntidade estadoAtual;
+
+    public RetentativaConflitoAspect(MeterRegistry meterRegistry, EstadoAtualEntidade estadoAtual) {
+        this.meterRegistry = meterRegistry;
+        this.estadoAtual = estadoAtual;
+    }
+
+    @Around("@annotation(retentar)")
+    public Object retentar(ProceedingJoinPoint joinPoint, RetentarEmConflito retentar) throws Throwable {
+        String operacao = joinPoint.getSignature().getDeclaringType().getSimpleName() + "."
+                + joinPoint.getSignature().getName();
+        int tentativas = TransactionSynchronizationManager.isActualTransactionActive()
+                ? 1 : Math.max(1, retentar.tentativas());
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                return joinPoint.proceed();
+            } catch (OptimisticLockingFailureException e) {
+                meterRegistry.counter("medplus.concorrencia.conflitos", "operacao", operacao).increment();
+                if (tentativa >= tentativas || !esperar(retentar, tentativa)) {
+                    meterRegistry.counter("medplus.concorrencia.esgotadas", "operacao", operacao).increment();
+                    throw conflito(operacao, tentativa, e);
+                }
+                meterRegistry.counter("medplus.concorrencia.retentativas", "operacao", operacao).increment();
+                logger.debug("Conflito de versão em {} (tentativa {} de {}), repetindo", operacao, tentativa, tentativas);
+            }
+        }
+    }
+
+    /**
+     * Espera com jitter completo antes da próxima tentativa.
+     *
+     * @return false se a thread foi interrompida (não há nova tentativa)
+     */
+    private static boolean esperar(RetentarEmConflito retentar, int tentativa) {
+        long teto = Math.min(retentar.esperaMaximaMs(), retentar.esperaBaseMs() << Math.min(tentativa - 1, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(Math.max(teto, 0) + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private ConflitoConcorrenciaException conflito(String operacao, int tentativas,
+                                                   OptimisticLockingFailureException causa) {
+        String entidade = null;
+        Object id = null;
+        if (causa instanceof ObjectOptimisticLockingFailureException objeto) {
+            entidade = objeto.getPersistentClassName();
+            id = objeto.getIdentifier();
+        }
+        logger.warn("Conflito de versão em {} após {} tentativa(s): {} {}", operacao, tentativas, entidade, id);
+        String mensagem = "O registro foi alterado por outra operação ao mesmo tempo. Confira o estado atual e tente novamente.";
+        return new ConflitoConcorrenciaException(mensagem, estadoAtual.ler(entidade, id), causa);
+    }
+}
@@ -0,0 +1,40 @@
+package br.com.ifpe.medplus_api.condicional;
+
+import org.springframework.http.CacheControl;
+
+import java.time.Duration;
+
+/**
+ * Cache-Control de cada tipo de endpoint condicional. Todas as respostas são {@code private}: trazem
+ * dados do usuário logado e não podem ficar em caches compartilhados (proxies, CDN).
+ */
+public enum PoliticaCache {
+
+    /** Perfil do usuário: guardado pelo cliente, mas confirmado a cada uso com If-None-Match. */
+    PERFIL(CacheControl.noCache().cachePrivate()),
+
+    /** Consultas e horários: mudam a qualquer momento por ação de outro usuário; sempre revalidados. */
+    AGENDA(CacheControl.noCache().cachePrivate()),
+
+    /**
+     * Páginas do histórico a partir de um cursor ({@code antesDe}): consultas passadas quase não mudam,
+     * então o cliente pode reaproveitá-las por alguns minutos sem perguntar ao servidor.
+     */
+    HISTORICO_ANTIGO(CacheControl.maxAge(Duration.ofMinutes(2)).cachePrivate()),
+
+    /**
+     * Feed iCalendar: aplicativos de calendário atualizam de tempos em tempos e aceitam alguns minutos
+     * de atraso; quem respeita max-age deixa de perguntar nesse intervalo.
+     */
+    CALENDARIO(CacheControl.maxAge(Duration.ofMinutes(5)).cachePrivate());
+
+    private final CacheControl cacheControl;
+
+    PoliticaCache(CacheControl cacheControl) {
+        this.cacheControl = cacheControl;
+    }
+
+    public CacheControl getCacheControl() {
+        return cacheControl;
+    }
+}
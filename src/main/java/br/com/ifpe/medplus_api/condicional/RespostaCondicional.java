@@ -0,0 +1,72 @@
+package br.com.ifpe.medplus_api.condicional;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Optional;
+
+/**
+ * GET condicional com ETag calculado antes de carregar o recurso ({@link VersoesRecursos}).
+ *
+ * Uso no controller: calcular o ETag, devolver {@link #naoModificado} quando presente e, caso
+ * contrário, montar o corpo e responder com {@link #ok}. O ETag é lido antes do corpo de propósito:
+ * se o recurso mudar no meio, o corpo novo sai com o ETag antigo e o próximo GET simplesmente
+ * recebe 200 de novo, nunca um 304 indevido.
+ *
+ * O ETag não depende do formato (JSON ou CBOR, conforme o Accept); o {@code Vary: Accept} impede
+ * que um cache guarde uma representação e a revalide para um cliente que pediu a outra.
+ */
+public final class RespostaCondicional {
+
+    private RespostaCondicional() {
+    }
+
+    /**
+     * @param ifNoneMatch valor do cabeçalho If-None-Match (pode ser nulo)
+     * @param etag        ETag atual; nulo quando não foi possível calculá-lo (segue sem condicional)
+     * @return resposta 304, sem corpo, quando o cliente já tem a versão atual
+     */
+    public static Optional<ResponseEntity<Object>> naoModificado(String ifNoneMatch, String etag, PoliticaCache politica) {
+        if (etag == null || !corresponde(ifNoneMatch, etag)) {
+            return Optional.empty();
+        }
+        return Optional.of(ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(politica.getCacheControl())
+                .varyBy(HttpHeaders.AUTHORIZATION, HttpHeaders.ACCEPT)
+                .build());
+    }
+
+    public static <T> ResponseEntity<T> ok(T corpo, String etag, PoliticaCache politica) {
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.ok()
+                .cacheControl(politica.getCacheControl())
+                .varyBy(HttpHeaders.AUTHORIZATION, HttpHeaders.ACCEPT);
+        if (etag != null) {
+            resposta.eTag(etag);
+        }
+        return resposta.body(corpo);
+    }
+
+    /**
+     * Comparação fraca do If-None-Match (RFC 9110, 13.1.2): ignora o prefixo {@code W/} e aceita
+     * {@code *} e listas separadas por vírgula.
+     */
+    static boolean corresponde(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        String atual = semPrefixoFraco(etag);
+        for (String candidato : ifNoneMatch.split(",")) {
+            String valor = candidato.trim();
+            if (valor.equals("*") || semPrefixoFraco(valor).equals(atual)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String semPrefixoFraco(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
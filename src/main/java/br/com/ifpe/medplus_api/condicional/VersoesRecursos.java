@@ -0,0 +1,182 @@
+package br.com.ifpe.medplus_api.condicional;
+
+import br.com.ifpe.medplus_api.concorrencia.Coalescer;
+import br.com.ifpe.medplus_api.security.UsuarioAutenticado;
+import br.com.ifpe.medplus_api.service.HistoricoConsultasService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+/**
+ * ETags dos endpoints condicionais, cada um calculado por uma única consulta pequena, sem carregar
+ * entidades. O id do usuário vem do principal ({@link UsuarioAutenticado}), então nem a busca do
+ * usuário por e-mail é feita quando a resposta é 304.
+ *
+ * <ul>
+ *   <li>Perfil: {@code data_atualizacao} do usuário (preenchida pela auditoria em qualquer alteração,
+ *       inclusive endereço e dados de paciente/médico) e os perfis de acesso.</li>
+ *   <li>Disponibilidades e consultas da janela: hash de {@code id:versao} de cada linha, que
+ *       também muda quando linhas entram ou saem.</li>
+ *   <li>Histórico: hash de {@code id:versao} das linhas da própria página (tabela principal e
+ *       arquivo), lidas pelo cursor como na listagem.</li>
+ * </ul>
+ * Consultas também dependem do nome/especialidade do outro participante, então entra a última
+ * alteração dos usuários envolvidos.
+ *
+ * {@link #FORMATO} entra em todos os ETags: incrementar quando o JSON de algum desses endpoints mudar.
+ */
+@Component
+public class VersoesRecursos {
+
+    private static final String FORMATO = "1";
+
+    private static final String SQL_PERFIL = """
+            SELECT coalesce(u.data_atualizacao, u.data_criacao)::text || ':' || u.ativo || ':'
+                   || coalesce((SELECT string_agg(up.perfil_id::text, ',' ORDER BY up.perfil_id)
+                                FROM tb_usuario_perfil up WHERE up.usuario_id = u.id), '')
+            FROM tb_usuario u
+            WHERE u.id = ?
+            """;
+
+    private static final String SQL_DISPONIBILIDADES = """
+            SELECT count(*) || ':' || md5(coalesce(string_agg(d.id || ':' || d.versao, ',' ORDER BY d.id), ''))
+            FROM tb_disponibilidade_medico d
+            WHERE d.medico_id = ?
+            """;
+
+    private static final String SQL_CONSULTAS_JANELA = """
+            SELECT count(*) || ':' || md5(coalesce(string_agg(c.id || ':' || c.versao, ',' ORDER BY c.id), ''))
+                   || ':' || coalesce(max(greatest(m.data_atualizacao, p.data_atualizacao))::text, '')
+            FROM tb_consulta c
+            JOIN tb_usuario m ON m.id = c.medico_id
+            JOIN tb_usuario p ON p.id = c.paciente_id
+            WHERE c.%s = ? AND c.data_hora_consulta >= ? AND c.data_hora_consulta <= ?
+            """;
+
+    // As mesmas linhas da página do HistoricoConsultasService: as primeiras depois do cursor, em cada
+    // tabela pelo índice (usuário, data), e as primeiras da união. Nunca lê o histórico inteiro.
+    private static final String SQL_HISTORICO = """
+            WITH pagina AS (
+                (SELECT c.id, c.versao, c.medico_id, c.paciente_id, c.data_hora_consulta
+                 FROM tb_consulta c
+                 WHERE c.%1$s = ? AND c.data_hora_consulta <= ? AND (c.data_hora_consulta < ? OR c.id < ?)
+                 ORDER BY c.data_hora_consulta DESC, c.id DESC
+                 LIMIT ?)
+                UNION ALL
+                (SELECT a.id, -1, a.medico_id, a.paciente_id, a.data_hora_consulta
+                 FROM tb_consulta_arquivo a
+                 WHERE a.%1$s = ? AND a.data_hora_consulta <= ? AND (a.data_hora_consulta < ? OR a.id < ?)
+                 ORDER BY a.data_hora_consulta DESC, a.id DESC
+                 LIMIT ?)
+                ORDER BY data_hora_consulta DESC, id DESC
+                LIMIT ?
+            )
+            SELECT count(*) || ':' || md5(coalesce(string_agg(pg.id || ':' || pg.versao, ','
+                                                              ORDER BY pg.data_hora_consulta DESC, pg.id DESC), ''))
+                   || ':' || coalesce(max(greatest(m.data_atualizacao, p.data_atualizacao))::text, '')
+            FROM pagina pg
+            JOIN tb_usuario m ON m.id = pg.medico_id
+            JOIN tb_usuario p ON p.id = pg.paciente_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.consultas.janela-passado-meses:12}")
+    private int janelaPassadoMeses;
+
+    @Value("${app.consultas.janela-futuro-meses:6}")
+    private int janelaFuturoMeses;
+
+    public VersoesRecursos(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @return id do usuário logado, ou null se o principal não for um {@link UsuarioAutenticado}
+     */
+    public static Long usuarioId(Authentication authentication) {
+        return authentication != null && authentication.getPrincipal() instanceof UsuarioAutenticado usuario
+                ? usuario.getId() : null;
+    }
+
+    /**
+     * @return ETag do perfil, ou null se o usuário não existe (o endpoint segue e responde 404)
+     */
+    @Coalescer
+    public String perfil(Long usuarioId) {
+        if (usuarioId == null) {
+            return null;
+        }
+        try {
+            return etag("perfil", usuarioId, jdbcTemplate.queryForObject(SQL_PERFIL, String.class, usuarioId));
+        } catch (EmptyResultDataAccessException e) {
+            return null;
+        }
+    }
+
+    @Coalescer
+    public String disponibilidades(Long medicoId) {
+        if (medicoId == null) {
+            return null;
+        }
+        return etag("disponibilidades", medicoId,
+                jdbcTemplate.queryForObject(SQL_DISPONIBILIDADES, String.class, medicoId));
+    }
+
+    /**
+     * Mesma janela de {@code ConsultaService.listarConsultasPorPaciente}/{@code listarConsultasPorMedico}.
+     */
+    public String consultasPaciente(Long pacienteId) {
+        return consultasJanela("paciente_id", pacienteId);
+    }
+
+    public String consultasMedico(Long medicoId) {
+        return consultasJanela("medico_id", medicoId);
+    }
+
+    /**
+     * Mesmo cursor de {@code HistoricoConsultasService.historicoPaciente}/{@code historicoMedico}.
+     */
+    public String historicoPaciente(Long pacienteId, LocalDateTime antesDe, Long antesDeId, int tamanho) {
+        return historico("paciente_id", pacienteId, antesDe, antesDeId, tamanho);
+    }
+
+    public String historicoMedico(Long medicoId, LocalDateTime antesDe, Long antesDeId, int tamanho) {
+        return historico("medico_id", medicoId, antesDe, antesDeId, tamanho);
+    }
+
+    private String consultasJanela(String coluna, Long usuarioId) {
+        if (usuarioId == null) {
+            return null;
+        }
+        LocalDateTime agora = LocalDateTime.now();
+        String versao = jdbcTemplate.queryForObject(SQL_CONSULTAS_JANELA.formatted(coluna), String.class,
+                usuarioId, agora.minusMonths(janelaPassadoMeses), agora.plusMonths(janelaFuturoMeses));
+        return etag("consultas-" + coluna, usuarioId, versao);
+    }
+
+    private String historico(String coluna, Long usuarioId, LocalDateTime antesDe, Long antesDeId, int tamanho) {
+        if (usuarioId == null) {
+            return null;
+        }
+        LocalDateTime limite = antesDe != null ? antesDe : LocalDateTime.now().plusMonths(janelaFuturoMeses);
+        long limiteId = antesDe != null && antesDeId != null ? antesDeId : Long.MAX_VALUE;
+        int pagina = Math.max(1, Math.min(tamanho, HistoricoConsultasService.TAMANHO_MAXIMO));
+        String versao = jdbcTemplate.queryForObject(SQL_HISTORICO.formatted(coluna), String.class,
+                usuarioId, limite, limite, limiteId, pagina,
+                usuarioId, limite, limite, limiteId, pagina,
+                pagina);
+        return etag("historico-" + coluna, usuarioId, versao + "|" + pagina);
+    }
+
+    private static String etag(String recurso, Long id, String versao) {
+        String conteudo = FORMATO + "|" + recurso + "|" + id + "|" + versao;
+        return "\"" + DigestUtils.md5DigestAsHex(conteudo.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
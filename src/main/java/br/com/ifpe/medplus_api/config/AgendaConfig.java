@@ -0,0 +1,59 @@
+package br.com.ifpe.medplus_api.config;
+
+import br.com.ifpe.medplus_api.agenda.CanalAgenda;
+import br.com.ifpe.medplus_api.agenda.CanalAgendaLocal;
+import br.com.ifpe.medplus_api.agenda.CanalAgendaPostgres;
+import br.com.ifpe.medplus_api.agenda.DifusorAgenda;
+import br.com.ifpe.medplus_api.agenda.PublicadorAgenda;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+/**
+ * Agenda ao vivo dos médicos por SSE. Com {@code app.agenda.canal=postgres} (padrão) os eventos
+ * passam por LISTEN/NOTIFY e chegam ao médico em qualquer nó; {@code local} serve para um nó só.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.agenda.sse.habilitado", havingValue = "true", matchIfMissing = true)
+public class AgendaConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.agenda.canal", havingValue = "postgres", matchIfMissing = true)
+    public CanalAgendaPostgres canalAgendaPostgres(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                                                   DataSourceProperties properties) {
+        return new CanalAgendaPostgres(jdbcTemplate, objectMapper, properties.determineUrl(),
+                properties.determineUsername(), properties.determinePassword());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.agenda.canal", havingValue = "local")
+    public CanalAgendaLocal canalAgendaLocal() {
+        return new CanalAgendaLocal();
+    }
+
+    @Bean
+    public DifusorAgenda difusorAgenda(CanalAgenda canal,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${app.agenda.sse.timeout:30m}") Duration timeout,
+                                       @Value("${app.agenda.sse.fila:32}") int capacidadeFila,
+                                       @Value("${app.agenda.sse.historico:100}") int tamanhoHistorico,
+                                       @Value("${app.agenda.sse.conexoes-por-medico:5}") int conexoesPorMedico,
+                                       @Value("${app.agenda.sse.retomada:5m}") Duration horizonteRetomada) {
+        DifusorAgenda difusor = new DifusorAgenda(timeout, capacidadeFila, tamanhoHistorico, conexoesPorMedico,
+                horizonteRetomada, meterRegistry);
+        canal.assinar(difusor::entregar);
+        return difusor;
+    }
+
+    @Bean
+    public PublicadorAgenda publicadorAgenda(CanalAgenda canal) {
+        return new PublicadorAgenda(canal);
+    }
+}
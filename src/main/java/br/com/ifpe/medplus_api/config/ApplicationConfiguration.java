@@ -1,17 +1,21 @@
 
 package br.com.ifpe.medplus_api.config;
 
+import br.com.ifpe.medplus_api.cache.CanalInvalidacaoCache;
 import br.com.ifpe.medplus_api.repository.UsuarioRepository;
+import br.com.ifpe.medplus_api.security.UsuarioAutenticadoService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
+
 @Configuration
 @RequiredArgsConstructor // Usa Lombok para criar um construtor para as dependências 'final'
 public class ApplicationConfiguration {
@@ -23,19 +27,23 @@ public class ApplicationConfiguration {
     // == ESTE É O BEAN QUE ESTAVA FALTANDO E QUE PRECISAMOS CRIAR ==
     // =================================================================
     @Bean
-    public UserDetailsService userDetailsService() {
-        // Usamos uma expressão lambda para implementar o método 'loadUserByUsername'
-        return username -> usuarioRepository.findByEmail(username)
-                .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado com o email: " + username));
+    public UserDetailsService userDetailsService(
+            CanalInvalidacaoCache canalInvalidacao,
+            @Value("${app.seguranca.usuario-autenticado.ttl:60s}") Duration ttl,
+            @Value("${app.seguranca.usuario-autenticado.maximo:10000}") int maximo) {
+        // Login e filtro JWT leem só tb_usuario + perfis (ver UsuarioAutenticado)
+        UsuarioAutenticadoService service = new UsuarioAutenticadoService(usuarioRepository, ttl, maximo);
+        canalInvalidacao.assinar(service::invalidar);
+        return service;
     }
 
     // ===================================================================================
     // == Este bean agora usa os outros beans definidos DENTRO desta mesma classe ==
     // ===================================================================================
     @Bean
-    public AuthenticationProvider authenticationProvider() { // Retornar a interface é uma boa prática
+    public AuthenticationProvider authenticationProvider(UserDetailsService userDetailsService) { // Retornar a interface é uma boa prática
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
-        authProvider.setUserDetailsService(userDetailsService()); // Chama o método userDetailsService() acima
+        authProvider.setUserDetailsService(userDetailsService); // O bean userDetailsService() acima
         authProvider.setPasswordEncoder(passwordEncoder());   // Chama o método passwordEncoder() abaixo
         return authProvider;
     }
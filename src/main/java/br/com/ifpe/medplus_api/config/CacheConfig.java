@@ -0,0 +1,64 @@
+package br.com.ifpe.medplus_api.config;
+
+import br.com.ifpe.medplus_api.cache.CanalInvalidacaoCache;
+import br.com.ifpe.medplus_api.cache.CanalInvalidacaoLocal;
+import br.com.ifpe.medplus_api.cache.CanalInvalidacaoPostgres;
+import br.com.ifpe.medplus_api.cache.IdentificadorNo;
+import br.com.ifpe.medplus_api.cache.IntegradorInvalidacaoCache;
+import br.com.ifpe.medplus_api.cache.InvalidacaoCacheListener;
+import br.com.ifpe.medplus_api.cache.ReceptorInvalidacaoCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Invalidação do cache de segundo nível entre nós.
+ *
+ * As regiões (ehcache.xml) ficam no heap de cada nó; o Hibernate mantém o cache local coerente com
+ * as escritas do próprio nó, e o {@link CanalInvalidacaoCache} leva essas escritas aos demais.
+ * {@code app.cache.invalidacao.canal=local} troca o Postgres por um canal em memória (testes,
+ * execução com um único nó sem banco de escuta).
+ */
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.invalidacao.canal", havingValue = "postgres", matchIfMissing = true)
+    public CanalInvalidacaoPostgres canalInvalidacaoPostgres(DataSource dataSource, DataSourceProperties properties) {
+        return new CanalInvalidacaoPostgres(dataSource, properties.determineUrl(),
+                properties.determineUsername(), properties.determinePassword());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.invalidacao.canal", havingValue = "local")
+    public CanalInvalidacaoLocal canalInvalidacaoLocal() {
+        return new CanalInvalidacaoLocal();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer invalidacaoCacheHibernateCustomizer(CanalInvalidacaoCache canal) {
+        InvalidacaoCacheListener listener = new InvalidacaoCacheListener(canal, IdentificadorNo.ATUAL);
+        IntegratorProvider integradores = () -> List.of(new IntegradorInvalidacaoCache(listener));
+        // Mesma chave de org.hibernate.jpa.boot.spi.JpaSettings.INTEGRATOR_PROVIDER
+        return propriedades -> propriedades.put("hibernate.integrator_provider", integradores);
+    }
+
+    @Bean
+    public ReceptorInvalidacaoCache receptorInvalidacaoCache(EntityManagerFactory entityManagerFactory,
+                                                             CanalInvalidacaoCache canal,
+                                                             MeterRegistry meterRegistry) {
+        ReceptorInvalidacaoCache receptor = new ReceptorInvalidacaoCache(
+                entityManagerFactory.unwrap(SessionFactory.class).getCache(), IdentificadorNo.ATUAL, meterRegistry);
+        canal.assinar(receptor::aplicar);
+        return receptor;
+    }
+}
@@ -0,0 +1,65 @@
+package br.com.ifpe.medplus_api.config;
+
+import br.com.ifpe.medplus_api.carga.CargaTrabalhoAspect;
+import br.com.ifpe.medplus_api.carga.CargaTrabalhoInterceptor;
+import br.com.ifpe.medplus_api.carga.ClasseCarga;
+import br.com.ifpe.medplus_api.carga.LimitadorCarga;
+import br.com.ifpe.medplus_api.carga.PoolsCargaPostProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Isolamento por classe de carga ({@link ClasseCarga}): um pool de conexões e um limite de execuções
+ * simultâneas para cada classe, escolhida por {@code @CargaTrabalho} em controllers e serviços.
+ * {@code app.carga.isolamento.habilitado=false} volta ao pool único, sem limites.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.carga.isolamento.habilitado", havingValue = "true", matchIfMissing = true)
+public class CargaTrabalhoConfig {
+
+    @Bean
+    public static PoolsCargaPostProcessor poolsCargaPostProcessor(Environment environment) {
+        return new PoolsCargaPostProcessor(environment);
+    }
+
+    @Bean
+    public LimitadorCarga limitadorCarga(Environment environment, MeterRegistry meterRegistry,
+                                                PoolsCargaPostProcessor pools,
+                                                @Value("${app.carga.espera-maxima:50ms}") Duration esperaMaxima) {
+        Map<ClasseCarga, Integer> limites = new EnumMap<>(ClasseCarga.class);
+        for (ClasseCarga classe : ClasseCarga.values()) {
+            Integer limite = environment.getProperty("app.carga." + classe.chave() + ".concorrencia", Integer.class);
+            if (limite != null) {
+                limites.put(classe, limite);
+            }
+        }
+        return new LimitadorCarga(limites, esperaMaxima, meterRegistry, pools::getPool);
+    }
+
+    @Bean
+    public CargaTrabalhoAspect cargaTrabalhoAspect(LimitadorCarga limitadorCarga) {
+        return new CargaTrabalhoAspect(limitadorCarga);
+    }
+
+    @Bean
+    public WebMvcConfigurer cargaTrabalhoWebMvcConfigurer(LimitadorCarga limitadorCarga) {
+        CargaTrabalhoInterceptor interceptor = new CargaTrabalhoInterceptor(limitadorCarga);
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(@NonNull InterceptorRegistry registry) {
+                registry.addInterceptor(interceptor);
+            }
+        };
+    }
+}
@@ -0,0 +1,27 @@
+package br.com.ifpe.medplus_api.config;
+
+import br.com.ifpe.medplus_api.monitoramento.ConversorCborCronometrado;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Respostas em CBOR (RFC 8949) para quem envia {@code Accept: application/cbor}; sem esse pedido
+ * tudo continua em JSON. Os mesmos records das respostas JSON são serializados, com os mesmos
+ * nomes de campo e valores, descritos em {@code docs/esquemas/respostas.cddl}.
+ *
+ * O mapper sai do builder do Boot (um novo a cada injeção), então módulos e opções do
+ * {@code spring.jackson.*} valem para os dois formatos. O bean substitui o conversor CBOR padrão
+ * que o Spring MVC registraria ao encontrar a biblioteca.
+ */
+@Configuration
+public class CborConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter mappingJackson2CborHttpMessageConverter(
+            Jackson2ObjectMapperBuilder builder) {
+        return new ConversorCborCronometrado(builder.factory(new CBORFactory()).build());
+    }
+}
@@ -0,0 +1,46 @@
+package br.com.ifpe.medplus_api.config;
+
+import br.com.ifpe.medplus_api.idempotencia.ArmazemIdempotencia;
+import br.com.ifpe.medplus_api.idempotencia.IdempotenciaFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Idempotency-Key nos POSTs de agendamento e cadastro. O filtro roda logo depois da cadeia do
+ * Spring Security, para já conhecer o usuário autenticado que compõe a chave.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.idempotencia.habilitado", havingValue = "true", matchIfMissing = true)
+public class IdempotenciaConfig {
+
+    @Bean
+    public ArmazemIdempotencia armazemIdempotencia(JdbcTemplate jdbcTemplate,
+                                                   @Value("${app.idempotencia.validade:24h}") Duration validade,
+                                                   @Value("${app.idempotencia.memoria.maximo-entradas:10000}") int maximoEmMemoria) {
+        return new ArmazemIdempotencia(jdbcTemplate, validade, maximoEmMemoria);
+    }
+
+    @Bean
+    public FilterRegistrationBean<IdempotenciaFilter> idempotenciaFilter(
+            ArmazemIdempotencia armazem,
+            @Value("${app.idempotencia.caminhos:/pacientes/consultas/agendar,/auth/registrar/paciente}") Set<String> caminhos,
+            @Value("${app.idempotencia.espera-maxima:10s}") Duration esperaMaxima,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        FilterRegistrationBean<IdempotenciaFilter> registro = new FilterRegistrationBean<>(
+                new IdempotenciaFilter(armazem, caminhos, esperaMaxima, objectMapper, meterRegistry));
+        registro.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        registro.addUrlPatterns("/*");
+        return registro;
+    }
+}
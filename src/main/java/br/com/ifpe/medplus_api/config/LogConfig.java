@@ -0,0 +1,23 @@
+package br.com.ifpe.medplus_api.config;
+
+import br.com.ifpe.medplus_api.monitoramento.RequestIdFilter;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Correlação de logs por requisição. O filtro roda antes de todos os outros,
+ * para que até o log do filtro JWT já saia com o requestId.
+ */
+@Configuration
+public class LogConfig {
+
+    @Bean
+    public FilterRegistrationBean<RequestIdFilter> requestIdFilter() {
+        FilterRegistrationBean<RequestIdFilter> registro = new FilterRegistrationBean<>(new RequestIdFilter());
+        registro.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        registro.addUrlPatterns("/*");
+        return registro;
+    }
+}
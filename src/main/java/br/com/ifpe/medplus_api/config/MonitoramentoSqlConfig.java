@@ -0,0 +1,37 @@
+package br.com.ifpe.medplus_api.config;
+
+import br.com.ifpe.medplus_api.monitoramento.ContadorSqlInspector;
+import br.com.ifpe.medplus_api.monitoramento.OrcamentoSqlFilter;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Liga a contagem de instruções SQL por requisição.
+ * O inspector é registrado no Hibernate e o filtro roda antes do Spring Security.
+ */
+@Configuration
+public class MonitoramentoSqlConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer contadorSqlHibernateCustomizer() {
+        return propriedades -> propriedades.put(AvailableSettings.STATEMENT_INSPECTOR, new ContadorSqlInspector());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.sql.orcamento.habilitado", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<OrcamentoSqlFilter> orcamentoSqlFilter(
+            @Value("${app.sql.orcamento.padrao:15}") int orcamentoPadrao,
+            @Value("${app.sql.orcamento.limite-repeticoes:5}") int limiteRepeticoes) {
+        FilterRegistrationBean<OrcamentoSqlFilter> registro =
+                new FilterRegistrationBean<>(new OrcamentoSqlFilter(orcamentoPadrao, limiteRepeticoes));
+        registro.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        registro.addUrlPatterns("/*");
+        return registro;
+    }
+}
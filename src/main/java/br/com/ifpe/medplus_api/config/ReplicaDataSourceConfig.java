@@ -0,0 +1,76 @@
+package br.com.ifpe.medplus_api.config;
+
+import br.com.ifpe.medplus_api.datasource.FixacaoLeituraPrimario;
+import br.com.ifpe.medplus_api.datasource.MonitorAtrasoReplica;
+import br.com.ifpe.medplus_api.datasource.RoteamentoReplicaDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Envia transações {@code @Transactional(readOnly = true)} para uma réplica de leitura.
+ * Só é ativada quando {@code app.datasource.replica.url} está definida; sem ela, o DataSource
+ * auto-configurado do Spring Boot continua sendo usado.
+ *
+ * O {@link LazyConnectionDataSourceProxy} só obtém a conexão real no primeiro comando, quando a
+ * transação já marcou a conexão como somente leitura; conexões somente leitura vêm do
+ * {@link RoteamentoReplicaDataSource}, as demais do primário.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.url")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourcePrimario(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource dataSourceReplica(
+            @Value("${app.datasource.replica.url}") String url,
+            @Value("${app.datasource.replica.username:${spring.datasource.username}}") String usuario,
+            @Value("${app.datasource.replica.password:${spring.datasource.password}}") String senha) {
+        HikariDataSource replica = DataSourceBuilder.create().type(HikariDataSource.class)
+                .url(url).username(usuario).password(senha).build();
+        replica.setPoolName("replica");
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    @Bean
+    public MonitorAtrasoReplica monitorAtrasoReplica(
+            @Qualifier("dataSourceReplica") DataSource replica,
+            @Value("${app.datasource.replica.atraso-maximo:2s}") Duration atrasoMaximo) {
+        return new MonitorAtrasoReplica(replica, atrasoMaximo);
+    }
+
+    @Bean
+    public FixacaoLeituraPrimario fixacaoLeituraPrimario(
+            @Value("${app.datasource.replica.janela-leitura-propria:5s}") Duration janela) {
+        return new FixacaoLeituraPrimario(janela);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("dataSourcePrimario") DataSource primario,
+                                 @Qualifier("dataSourceReplica") DataSource replica,
+                                 MonitorAtrasoReplica monitor,
+                                 FixacaoLeituraPrimario fixacao) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primario);
+        proxy.setReadOnlyDataSource(new RoteamentoReplicaDataSource(primario, replica, monitor, fixacao));
+        return proxy;
+    }
+}
@@ -53,8 +53,14 @@ public class SecurityConfiguration {
                 .requestMatchers("/auth/**").permitAll()
 
                 .requestMatchers(HttpMethod.POST, "/medicos/registrar").permitAll()
+                // Feed iCalendar: autenticado pelo token secreto no próprio endereço
+                .requestMatchers(HttpMethod.GET, "/calendario/*.ics").permitAll()
                 .requestMatchers(HttpMethod.PUT, "/medicos/meu-perfil").hasRole("MEDICO")
 
+                // Actuator: health é público, métricas só para admin
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").hasRole(PerfilEnum.ROLE_ADMIN.getNome())
+
 
                                     //.hasAnyAuthority(PerfilEnum.ROLE_MEDICO.name()
         
@@ -78,8 +84,10 @@ public class SecurityConfiguration {
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
         configuration.setAllowedHeaders(Arrays.asList(
             "Authorization", "Content-Type", "Accept", "X-Requested-With",
-            "Origin", "Access-Control-Request-Method", "Access-Control-Request-Headers", "Access-Control-Allow-Origin"
+            "Origin", "Access-Control-Request-Method", "Access-Control-Request-Headers", "Access-Control-Allow-Origin",
+            "X-Server-Timing", "Idempotency-Key", "Last-Event-ID"
         ));
+        configuration.setExposedHeaders(List.of("Server-Timing", "Idempotent-Replayed"));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
 
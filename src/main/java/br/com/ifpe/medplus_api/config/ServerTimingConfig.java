@@ -0,0 +1,59 @@
+package br.com.ifpe.medplus_api.config;
+
+import br.com.ifpe.medplus_api.monitoramento.ConversorJsonCronometrado;
+import br.com.ifpe.medplus_api.monitoramento.DataSourceCronometrado;
+import br.com.ifpe.medplus_api.monitoramento.ServerTimingFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import javax.sql.DataSource;
+
+/**
+ * Detalhamento do tempo de cada requisição em fases (auth, db, lazy, ser).
+ * O filtro abre a medição antes de todos os outros; DataSource e conversor JSON alimentam as fases.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.server-timing.habilitado", havingValue = "true", matchIfMissing = true)
+public class ServerTimingConfig {
+
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter(
+            MeterRegistry meterRegistry,
+            @Value("${app.server-timing.debug:false}") boolean modoDebug) {
+        FilterRegistrationBean<ServerTimingFilter> registro =
+                new FilterRegistrationBean<>(new ServerTimingFilter(meterRegistry, modoDebug));
+        registro.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+        registro.addUrlPatterns("/*");
+        return registro;
+    }
+
+    /**
+     * Substitui o conversor Jackson do Boot (que recua quando já existe um bean do mesmo tipo).
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new ConversorJsonCronometrado(objectMapper);
+    }
+
+    @Bean
+    public static BeanPostProcessor dataSourceCronometradoPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource
+                        && !(bean instanceof DataSourceCronometrado)) {
+                    return new DataSourceCronometrado(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,15 @@
+package br.com.ifpe.medplus_api.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita as tarefas agendadas (@Scheduled) de manutenção do banco e os métodos @Async (e-mails e
+ * avisos), que rodam no executor padrão do Spring Boot (spring.task.execution.*).
+ */
+@Configuration
+@EnableScheduling
+@EnableAsync
+public class TarefasConfig {
+}
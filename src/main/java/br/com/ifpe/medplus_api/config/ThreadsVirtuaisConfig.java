@@ -0,0 +1,38 @@
+package br.com.ifpe.medplus_api.config;
+
+import br.com.ifpe.medplus_api.monitoramento.MonitorPinagemThreads;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Complementos do modo com threads virtuais ({@code spring.threads.virtual.enabled=true}, perfil
+ * "virtual"). O Spring Boot já troca o executor do Tomcat, o de @Async e o agendador; aqui fica só
+ * o monitor de pinagem.
+ *
+ * Pontos revisados para esse modo:
+ * <ul>
+ *   <li>Driver do PostgreSQL (42.7) e HikariCP: usam locks de java.util.concurrent, sem pinagem.</li>
+ *   <li>Jakarta Mail: o SMTPTransport envia dentro de {@code synchronized}, então cada envio prende o
+ *       carrier durante todo o diálogo SMTP. O EmailService limita os envios simultâneos
+ *       ({@code app.email.envios-simultaneos}) para não ocupar todos os carriers.</li>
+ *   <li>AmostragemLogTurboFilter: {@code synchronized} sem bloqueio dentro, inofensivo.</li>
+ *   <li>Sem o teto de threads do Tomcat, a concorrência é limitada pelos orçamentos por classe de
+ *       carga e pelo pool de conexões, com espera por conexão curta no perfil.</li>
+ * </ul>
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class ThreadsVirtuaisConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.threads.pinagem.habilitado", havingValue = "true", matchIfMissing = true)
+    public MonitorPinagemThreads monitorPinagemThreads(MeterRegistry meterRegistry,
+                                                       @Value("${app.threads.pinagem.limiar:20ms}") Duration limiar) {
+        return new MonitorPinagemThreads(meterRegistry, limiar);
+    }
+}
@@ -0,0 +1,42 @@
+package br.com.ifpe.medplus_api.config;
+
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.util.List;
+
+/**
+ * Impede a subida em produção com log de SQL síncrono e verboso: binds em TRACE
+ * escrevem uma linha por parâmetro de cada instrução, e show-sql ignora o logback
+ * e escreve direto no stdout.
+ */
+@Configuration
+@Profile("prod")
+public class ValidacaoLogProducao implements InitializingBean {
+
+    private static final List<String> LOGGERS_DE_BIND = List.of(
+            "org.hibernate.orm.jdbc.bind",
+            "org.hibernate.type.descriptor.sql.BasicBinder",
+            "org.hibernate.type.descriptor.sql");
+
+    private final boolean showSql;
+
+    public ValidacaoLogProducao(@Value("${spring.jpa.show-sql:false}") boolean showSql) {
+        this.showSql = showSql;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (showSql) {
+            throw new IllegalStateException("spring.jpa.show-sql=true não é permitido no perfil prod");
+        }
+        for (String nome : LOGGERS_DE_BIND) {
+            if (LoggerFactory.getLogger(nome).isTraceEnabled()) {
+                throw new IllegalStateException("Logger " + nome + " em TRACE não é permitido no perfil prod");
+            }
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package br.com.ifpe.medplus_api.controller;
 
+import br.com.ifpe.medplus_api.carga.CargaTrabalho;
+import br.com.ifpe.medplus_api.carga.ClasseCarga;
 import br.com.ifpe.medplus_api.dto.AdminRequest;
+import br.com.ifpe.medplus_api.dto.DesativacaoLoteRequest;
 import br.com.ifpe.medplus_api.dto.MedicoRequest;
 import br.com.ifpe.medplus_api.dto.PacienteRequest;
 import br.com.ifpe.medplus_api.dto.SenhaUpdateRequest;
@@ -10,6 +13,7 @@ import br.com.ifpe.medplus_api.model.consulta.Consulta;
 import br.com.ifpe.medplus_api.model.consulta.StatusConsulta;
 import br.com.ifpe.medplus_api.model.medico.Medico;
 import br.com.ifpe.medplus_api.model.paciente.Paciente;
+import br.com.ifpe.medplus_api.monitoramento.OrcamentoSql;
 import br.com.ifpe.medplus_api.service.*;
 import br.com.ifpe.medplus_api.util.exception.EntidadeNaoEncontradaException;
 import io.swagger.v3.oas.annotations.Operation;
@@ -41,6 +45,7 @@ import java.util.stream.Collectors;
  * Acesso restrito a usuários com perfil ROLE_ADMIN.
  */
 @RestController
+@CargaTrabalho(ClasseCarga.ADMINISTRATIVA)
 @RequestMapping("/admin")
 @Tag(name = "Administração", description = "Endpoints para gerenciamento do sistema por administradores")
 @SecurityRequirement(name = "bearerAuth")
@@ -52,17 +57,23 @@ public class AdminController {
     private final MedicoService medicoService;
     private final ConsultaService consultaService;
     private final AuthService authService;
+    private final DesativacaoUsuariosService desativacaoUsuariosService;
+    private final ProjecoesAdminService projecoesAdminService;
 
     public AdminController(AdminService adminService,
             PacienteService pacienteService,
             MedicoService medicoService,
             ConsultaService consultaService,
-            AuthService authService) {
+            AuthService authService,
+            DesativacaoUsuariosService desativacaoUsuariosService,
+            ProjecoesAdminService projecoesAdminService) {
         this.adminService = adminService;
         this.pacienteService = pacienteService;
         this.medicoService = medicoService;
         this.consultaService = consultaService;
         this.authService = authService;
+        this.desativacaoUsuariosService = desativacaoUsuariosService;
+        this.projecoesAdminService = projecoesAdminService;
     }
 
     // --- DTOs de Resposta (corrigidos para serem mais robustos) ---
@@ -161,6 +172,7 @@ public class AdminController {
     }
 
     // --- Gerenciamento de Administradores ---
+    @OrcamentoSql(4)
     @GetMapping("/usuarios/admins")
     public ResponseEntity<List<AdminResponse>> listarAdmins() {
         List<AdminResponse> admins = adminService.listarTodos().stream()
@@ -172,8 +184,17 @@ public class AdminController {
     // ... outros endpoints de admin ...
 
     // --- Gerenciamento de Pacientes pelo Admin ---
+    @Operation(summary = "Listar pacientes", description = "fields=nome,email,... traz só esses campos (o id vem sempre); ids=1,2,3 busca vários pacientes de uma vez, na ordem pedida.")
+    @OrcamentoSql(4)
     @GetMapping("/usuarios/pacientes")
-    public ResponseEntity<List<PacienteAdminResponse>> listarPacientes() {
+    public ResponseEntity<?> listarPacientes(@RequestParam(required = false) List<String> fields,
+            @RequestParam(required = false) List<Long> ids) {
+        if (ids != null) {
+            return ResponseEntity.ok(projecoesAdminService.buscarPacientes(ids, fields));
+        }
+        if (fields != null) {
+            return ResponseEntity.ok(projecoesAdminService.listarPacientes(fields));
+        }
         List<PacienteAdminResponse> pacientes = pacienteService.listarTodos().stream()
                 .map(PacienteAdminResponse::fromPaciente)
                 .collect(Collectors.toList());
@@ -181,7 +202,13 @@ public class AdminController {
     }
 
     @GetMapping("/usuarios/pacientes/{pacienteId}")
-    public ResponseEntity<PacienteAdminResponse> buscarPacientePorId(@PathVariable Long pacienteId) {
+    public ResponseEntity<?> buscarPacientePorId(@PathVariable Long pacienteId,
+            @RequestParam(required = false) List<String> fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(projecoesAdminService.buscarPacientes(List.of(pacienteId), fields).stream()
+                    .findFirst()
+                    .orElseThrow(() -> new EntidadeNaoEncontradaException("Paciente não encontrado com ID: " + pacienteId)));
+        }
         Paciente paciente = pacienteService.buscarPorId(pacienteId);
         return ResponseEntity.ok(PacienteAdminResponse.fromPaciente(paciente));
     }
@@ -199,10 +226,19 @@ public class AdminController {
         return ResponseEntity.ok(PacienteAdminResponse.fromPaciente(pacienteAtualizado));
     }
 
+    @Operation(summary = "Desativar conta de paciente", description = "Cancela as consultas futuras do paciente; os médicos são avisados em segundo plano.")
     @PatchMapping("/usuarios/pacientes/{pacienteId}/desativar")
-    public ResponseEntity<Map<String, String>> desativarPaciente(@PathVariable Long pacienteId) {
-        pacienteService.desativarPaciente(pacienteId);
-        return ResponseEntity.ok(Map.of("message", "Paciente ID " + pacienteId + " desativado."));
+    public ResponseEntity<Map<String, Object>> desativarPaciente(@PathVariable Long pacienteId) {
+        int canceladas = pacienteService.desativarPaciente(pacienteId, StatusConsulta.CANCELADA_ADMIN);
+        return ResponseEntity.ok(Map.of("message", "Paciente ID " + pacienteId + " desativado.",
+                "consultasCanceladas", canceladas));
+    }
+
+    @Operation(summary = "Desativar pacientes em lote", description = "Ids inexistentes são ignorados. Cancela as consultas futuras dos pacientes; os médicos são avisados em segundo plano.")
+    @PostMapping("/usuarios/pacientes/desativacoes")
+    public ResponseEntity<DesativacaoUsuariosService.Resultado> desativarPacientes(
+            @Valid @RequestBody DesativacaoLoteRequest request) {
+        return ResponseEntity.ok(desativacaoUsuariosService.desativarPacientes(request.getIds(), StatusConsulta.CANCELADA_ADMIN));
     }
 
     @PatchMapping("/usuarios/pacientes/{pacienteId}/ativar")
@@ -215,9 +251,17 @@ public class AdminController {
     }
 
     // --- Gerenciamento de Médicos pelo Admin ---
-    @Operation(summary = "Listar todos os médicos")
+    @Operation(summary = "Listar todos os médicos", description = "fields=nome,crm,... traz só esses campos (o id vem sempre); ids=1,2,3 busca vários médicos de uma vez, na ordem pedida.")
+    @OrcamentoSql(4)
     @GetMapping("/usuarios/medicos")
-    public ResponseEntity<List<MedicoAdminResponse>> listarMedicos() {
+    public ResponseEntity<?> listarMedicos(@RequestParam(required = false) List<String> fields,
+            @RequestParam(required = false) List<Long> ids) {
+        if (ids != null) {
+            return ResponseEntity.ok(projecoesAdminService.buscarMedicos(ids, fields));
+        }
+        if (fields != null) {
+            return ResponseEntity.ok(projecoesAdminService.listarMedicos(fields));
+        }
         List<MedicoAdminResponse> medicos = medicoService.listarTodos().stream()
                 .map(MedicoAdminResponse::fromMedico)
                 .collect(Collectors.toList());
@@ -239,7 +283,13 @@ public class AdminController {
 
     @Operation(summary = "Buscar médico por ID")
     @GetMapping("/usuarios/medicos/{medicoId}")
-    public ResponseEntity<?> buscarMedicoPorId(@PathVariable Long medicoId) {
+    public ResponseEntity<?> buscarMedicoPorId(@PathVariable Long medicoId,
+            @RequestParam(required = false) List<String> fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(projecoesAdminService.buscarMedicos(List.of(medicoId), fields).stream()
+                    .findFirst()
+                    .orElseThrow(() -> new EntidadeNaoEncontradaException("Médico não encontrado com ID: " + medicoId)));
+        }
         Medico medico = medicoService.buscarPorId(medicoId);
         return ResponseEntity.ok(MedicoAdminResponse.fromMedico(medico));
     }
@@ -259,11 +309,19 @@ public class AdminController {
         return ResponseEntity.ok(MedicoAdminResponse.fromMedico(medicoAtualizado));
     }
 
-    @Operation(summary = "Desativar conta de médico")
+    @Operation(summary = "Desativar conta de médico", description = "Cancela as consultas futuras do médico; os pacientes são avisados em segundo plano.")
     @PatchMapping("/usuarios/medicos/{medicoId}/desativar")
     public ResponseEntity<?> desativarMedico(@PathVariable Long medicoId) {
-        medicoService.desativarMedico(medicoId);
-        return ResponseEntity.ok(Map.of("message", "Médico ID " + medicoId + " desativado."));
+        int canceladas = medicoService.desativarMedico(medicoId, StatusConsulta.CANCELADA_ADMIN);
+        return ResponseEntity.ok(Map.of("message", "Médico ID " + medicoId + " desativado.",
+                "consultasCanceladas", canceladas));
+    }
+
+    @Operation(summary = "Desativar médicos em lote", description = "Ids inexistentes são ignorados. Cancela as consultas futuras dos médicos; os pacientes são avisados em segundo plano.")
+    @PostMapping("/usuarios/medicos/desativacoes")
+    public ResponseEntity<DesativacaoUsuariosService.Resultado> desativarMedicos(
+            @Valid @RequestBody DesativacaoLoteRequest request) {
+        return ResponseEntity.ok(desativacaoUsuariosService.desativarMedicos(request.getIds(), StatusConsulta.CANCELADA_ADMIN));
     }
 
     @Operation(summary = "Ativar conta de médico")
@@ -274,9 +332,17 @@ public class AdminController {
     }
 
     // --- Gerenciamento de Consultas pelo Admin ---
-    @Operation(summary = "Listar todas as consultas do sistema")
+    @Operation(summary = "Listar as consultas do sistema", description = "Retorna as consultas dentro da janela app.consultas.janela-passado-meses / janela-futuro-meses. Aceita fields= e ids= como a listagem de médicos; ids= não se limita à janela.")
+    @OrcamentoSql(4)
     @GetMapping("/consultas")
-    public ResponseEntity<List<ConsultaAdminResponse>> listarTodasConsultas() {
+    public ResponseEntity<?> listarTodasConsultas(@RequestParam(required = false) List<String> fields,
+            @RequestParam(required = false) List<Long> ids) {
+        if (ids != null) {
+            return ResponseEntity.ok(projecoesAdminService.buscarConsultas(ids, fields));
+        }
+        if (fields != null) {
+            return ResponseEntity.ok(projecoesAdminService.listarConsultas(fields));
+        }
         List<ConsultaAdminResponse> consultas = consultaService.listarTodasConsultas().stream()
                 .map(ConsultaAdminResponse::fromConsulta)
                 .collect(Collectors.toList());
@@ -284,8 +350,15 @@ public class AdminController {
     }
 
     @Operation(summary = "Buscar consulta por ID")
+    @OrcamentoSql(5)
     @GetMapping("/consultas/{consultaId}")
-    public ResponseEntity<?> buscarConsultaPorId(@PathVariable Long consultaId) {
+    public ResponseEntity<?> buscarConsultaPorId(@PathVariable Long consultaId,
+            @RequestParam(required = false) List<String> fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(projecoesAdminService.buscarConsultas(List.of(consultaId), fields).stream()
+                    .findFirst()
+                    .orElseThrow(() -> new EntidadeNaoEncontradaException("Consulta não encontrada com ID: " + consultaId)));
+        }
         Consulta consulta = consultaService.buscarPorId(consultaId);
         return ResponseEntity.ok(ConsultaAdminResponse.fromConsulta(consulta));
     }
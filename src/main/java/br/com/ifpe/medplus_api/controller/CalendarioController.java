@@ -0,0 +1,89 @@
+package br.com.ifpe.medplus_api.controller;
+
+import br.com.ifpe.medplus_api.condicional.PoliticaCache;
+import br.com.ifpe.medplus_api.condicional.RespostaCondicional;
+import br.com.ifpe.medplus_api.condicional.VersoesRecursos;
+import br.com.ifpe.medplus_api.model.acesso.PerfilEnum;
+import br.com.ifpe.medplus_api.service.CalendarioService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Feeds iCalendar (.ics) da agenda de médicos e pacientes, para assinatura em aplicativos de calendário.
+ */
+@RestController
+@RequestMapping("/calendario")
+@Tag(name = "Calendário", description = "Assinatura da agenda em aplicativos de calendário (iCalendar)")
+public class CalendarioController {
+
+    private static final MediaType TEXT_CALENDAR = new MediaType("text", "calendar", StandardCharsets.UTF_8);
+
+    private final CalendarioService calendarioService;
+
+    public CalendarioController(CalendarioService calendarioService) {
+        this.calendarioService = calendarioService;
+    }
+
+    @Operation(summary = "Feed iCalendar", description = "Público: o token do endereço é a credencial. Responde 304 quando o If-None-Match confere com a versão atual do feed.")
+    @GetMapping("/{token}.ics")
+    public ResponseEntity<?> getFeed(@PathVariable String token,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Optional<CalendarioService.Feed> feed = calendarioService.feed(token);
+        if (feed.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        var naoModificado = RespostaCondicional.naoModificado(ifNoneMatch, feed.get().etag(), PoliticaCache.CALENDARIO);
+        if (naoModificado.isPresent()) {
+            return naoModificado.get();
+        }
+        return ResponseEntity.ok()
+                .contentType(TEXT_CALENDAR)
+                .cacheControl(PoliticaCache.CALENDARIO.getCacheControl())
+                .eTag(feed.get().etag())
+                .body(feed.get().conteudo());
+    }
+
+    @Operation(summary = "Gerar endereço do feed", description = "Cria o token do feed do usuário logado (médico ou paciente), invalidando o anterior. O endereço só é exibido nesta resposta.")
+    @SecurityRequirement(name = "bearerAuth")
+    @PostMapping("/token")
+    @PreAuthorize("hasAnyRole('MEDICO', 'PACIENTE')")
+    public ResponseEntity<?> gerarToken(Authentication authentication) {
+        Long usuarioId = VersoesRecursos.usuarioId(authentication);
+        if (usuarioId == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Usuário não encontrado."));
+        }
+        PerfilEnum perfil = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .anyMatch(PerfilEnum.ROLE_MEDICO.getRoleName()::equals) ? PerfilEnum.ROLE_MEDICO : PerfilEnum.ROLE_PACIENTE;
+        String token = calendarioService.gerarToken(usuarioId, perfil);
+        String url = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/calendario/{token}.ics").buildAndExpand(token).toUriString();
+        return ResponseEntity.status(HttpStatus.CREATED).body(Map.of("url", url));
+    }
+
+    @Operation(summary = "Revogar endereço do feed", description = "O endereço atual deixa de funcionar (em até alguns minutos nos demais nós).")
+    @SecurityRequirement(name = "bearerAuth")
+    @DeleteMapping("/token")
+    @PreAuthorize("hasAnyRole('MEDICO', 'PACIENTE')")
+    public ResponseEntity<Void> revogarToken(Authentication authentication) {
+        Long usuarioId = VersoesRecursos.usuarioId(authentication);
+        if (usuarioId != null) {
+            calendarioService.revogarToken(usuarioId);
+        }
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,11 +1,23 @@
 package br.com.ifpe.medplus_api.controller;
 
+import br.com.ifpe.medplus_api.agenda.DifusorAgenda;
+import br.com.ifpe.medplus_api.busca.FiltroBuscaMedicos;
+import br.com.ifpe.medplus_api.busca.ResultadoBuscaMedicos;
+import br.com.ifpe.medplus_api.carga.CargaTrabalho;
+import br.com.ifpe.medplus_api.carga.ClasseCarga;
+import br.com.ifpe.medplus_api.condicional.PoliticaCache;
+import br.com.ifpe.medplus_api.condicional.RespostaCondicional;
+import br.com.ifpe.medplus_api.condicional.VersoesRecursos;
+import br.com.ifpe.medplus_api.dto.AlteracoesConsultasDTO;
 import br.com.ifpe.medplus_api.dto.DisponibilidadeRequest;
 import br.com.ifpe.medplus_api.dto.MedicoRequest;
+import br.com.ifpe.medplus_api.dto.PaginaHistoricoDTO;
 import br.com.ifpe.medplus_api.dto.SenhaUpdateRequest;
 import br.com.ifpe.medplus_api.model.consulta.Consulta;
 import br.com.ifpe.medplus_api.model.consulta.DisponibilidadeMedico;
+import br.com.ifpe.medplus_api.model.consulta.StatusConsulta;
 import br.com.ifpe.medplus_api.model.medico.Medico;
+import br.com.ifpe.medplus_api.monitoramento.OrcamentoSql;
 import br.com.ifpe.medplus_api.service.*;
 import br.com.ifpe.medplus_api.util.exception.EntidadeNaoEncontradaException;
 import io.swagger.v3.oas.annotations.Operation;
@@ -19,12 +31,18 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.persistence.EntityExistsException;
 import jakarta.validation.Valid;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
@@ -49,15 +67,30 @@ public class MedicoController {
     private final ConsultaService consultaService;
     private final DisponibilidadeMedicoService disponibilidadeMedicoService;
     private final AuthService authService;
+    private final HistoricoConsultasService historicoConsultasService;
+    private final BuscaMedicosService buscaMedicosService;
+    private final VersoesRecursos versoesRecursos;
+    private final ObjectProvider<DifusorAgenda> difusorAgenda;
+    private final SincronizacaoConsultasService sincronizacaoConsultasService;
 
     public MedicoController(MedicoService medicoService,
                             ConsultaService consultaService,
                             DisponibilidadeMedicoService disponibilidadeMedicoService,
-                            AuthService authService) {
+                            AuthService authService,
+                            HistoricoConsultasService historicoConsultasService,
+                            BuscaMedicosService buscaMedicosService,
+                            VersoesRecursos versoesRecursos,
+                            ObjectProvider<DifusorAgenda> difusorAgenda,
+                            SincronizacaoConsultasService sincronizacaoConsultasService) {
         this.medicoService = medicoService;
         this.consultaService = consultaService;
         this.disponibilidadeMedicoService = disponibilidadeMedicoService;
         this.authService = authService;
+        this.historicoConsultasService = historicoConsultasService;
+        this.buscaMedicosService = buscaMedicosService;
+        this.versoesRecursos = versoesRecursos;
+        this.difusorAgenda = difusorAgenda;
+        this.sincronizacaoConsultasService = sincronizacaoConsultasService;
     }
 
     // =================================================================================
@@ -109,6 +142,7 @@ public class MedicoController {
         @ApiResponse(responseCode = "403", description = "Acesso negado"),
         @ApiResponse(responseCode = "404", description = "Médico não encontrado")
     })
+    @OrcamentoSql(6)
     @GetMapping("/dashboard")
     @PreAuthorize("hasRole('MEDICO')")
     public ResponseEntity<?> getDashboardMedico(Authentication authentication) {
@@ -156,13 +190,19 @@ public class MedicoController {
             @ApiResponse(responseCode = "401", description = "Não autorizado"),
             @ApiResponse(responseCode = "404", description = "Médico não encontrado")
     })
+    @CargaTrabalho(ClasseCarga.PERFIL)
     @GetMapping("/meu-perfil")
     @PreAuthorize("hasRole('MEDICO')")
-    public ResponseEntity<?> getMeuPerfil(Authentication authentication) {
+    public ResponseEntity<?> getMeuPerfil(Authentication authentication, @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = versoesRecursos.perfil(VersoesRecursos.usuarioId(authentication));
+        var naoModificado = RespostaCondicional.naoModificado(ifNoneMatch, etag, PoliticaCache.PERFIL);
+        if (naoModificado.isPresent()) {
+            return naoModificado.get();
+        }
         try {
             String email = authentication.getName();
             Medico medico = medicoService.buscarPorEmail(email);
-            return ResponseEntity.ok(MedicoResponse.fromMedico(medico));
+            return RespostaCondicional.ok(MedicoResponse.fromMedico(medico), etag, PoliticaCache.PERFIL);
         } catch (UsernameNotFoundException | EntidadeNaoEncontradaException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Médico não encontrado."));
         }
@@ -239,9 +279,9 @@ public ResponseEntity<?> cadastrarMedico(@Valid @RequestBody MedicoRequest medic
         try {
             String email = authentication.getName();
             Medico medico = medicoService.buscarPorEmail(email);
-            medicoService.desativarMedico(medico.getId());
-            // Adicionar lógica para lidar com consultas futuras, etc.
-            return ResponseEntity.ok(Map.of("message", "Sua conta foi desativada com sucesso."));
+            int canceladas = medicoService.desativarMedico(medico.getId(), StatusConsulta.CANCELADA_MEDICO);
+            return ResponseEntity.ok(Map.of("message", "Sua conta foi desativada com sucesso.",
+                    "consultasCanceladas", canceladas));
         } catch (UsernameNotFoundException | EntidadeNaoEncontradaException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Médico não encontrado."));
         }
@@ -255,20 +295,115 @@ public ResponseEntity<?> cadastrarMedico(@Valid @RequestBody MedicoRequest medic
             @ApiResponse(responseCode = "401", description = "Não autorizado"),
             @ApiResponse(responseCode = "404", description = "Médico não encontrado")
     })
+    @OrcamentoSql(6)
     @GetMapping("/minhas-consultas")
     @PreAuthorize("hasRole('MEDICO')")
-    public ResponseEntity<?> getMinhasConsultas(Authentication authentication) {
+    public ResponseEntity<?> getMinhasConsultas(Authentication authentication, @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = versoesRecursos.consultasMedico(VersoesRecursos.usuarioId(authentication));
+        var naoModificado = RespostaCondicional.naoModificado(ifNoneMatch, etag, PoliticaCache.AGENDA);
+        if (naoModificado.isPresent()) {
+            return naoModificado.get();
+        }
         try {
             String email = authentication.getName();
             Medico medico = medicoService.buscarPorEmail(email);
             List<Consulta> consultas = consultaService.listarConsultasPorMedico(medico.getId());
             List<Object> response = consultas.stream().map(ConsultaMedicoResponse::fromConsulta).collect(Collectors.toList());
-            return ResponseEntity.ok(response);
+            return RespostaCondicional.ok(response, etag, PoliticaCache.AGENDA);
         } catch (UsernameNotFoundException | EntidadeNaoEncontradaException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Médico não encontrado."));
         }
     }
 
+    @Operation(summary = "Agenda ao vivo (SSE)", description = "Stream text/event-stream com um evento 'consulta' a cada agendamento, cancelamento, reagendamento ou mudança de status na agenda do médico logado. Reconexões com Last-Event-ID recebem os eventos perdidos; o evento 'ressincronizar' indica que a agenda deve ser recarregada por /medicos/minhas-consultas.")
+    @GetMapping(value = "/minhas-consultas/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('MEDICO')")
+    public ResponseEntity<SseEmitter> getEventosAgenda(Authentication authentication,
+            @RequestHeader(value = "Last-Event-ID", required = false) String ultimoEventoId) {
+        DifusorAgenda difusor = difusorAgenda.getIfAvailable();
+        Long medicoId = VersoesRecursos.usuarioId(authentication);
+        if (difusor == null || medicoId == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                // Sem buffer em proxies nginx, que segurariam os eventos
+                .header("X-Accel-Buffering", "no")
+                .body(difusor.conectar(medicoId, ultimoEventoId));
+    }
+
+    @Operation(summary = "Sincronização incremental de consultas (médico)", description = "Consultas criadas, alteradas ou canceladas desde o cursor (desde, desdeId), em ordem de atualização. Sem cursor, devolve todas as consultas da janela das listagens; guarde proximoDesde/proximoDesdeId para a próxima chamada.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Alterações desde o cursor", content = @Content(schema = @Schema(implementation = AlteracoesConsultasDTO.class))),
+            @ApiResponse(responseCode = "401", description = "Não autorizado"),
+            @ApiResponse(responseCode = "404", description = "Médico não encontrado.")
+    })
+    @OrcamentoSql(2)
+    @GetMapping("/minhas-consultas/alteracoes")
+    @PreAuthorize("hasRole('MEDICO')")
+    public ResponseEntity<?> getAlteracoesConsultas(
+            @Parameter(description = "Data de atualização do cursor (proximoDesde da chamada anterior)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @Parameter(description = "ID do cursor (proximoDesdeId da chamada anterior)") @RequestParam(required = false) Long desdeId,
+            @Parameter(description = "Quantidade de itens (máximo 500)") @RequestParam(defaultValue = "200") int tamanho,
+            Authentication authentication) {
+        Long usuarioId = VersoesRecursos.usuarioId(authentication);
+        if (usuarioId == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Médico não encontrado."));
+        }
+        return ResponseEntity.ok(sincronizacaoConsultasService.alteracoesMedico(usuarioId, desde, desdeId, tamanho));
+    }
+
+    @Operation(summary = "Histórico de consultas (médico)", description = "Histórico paginado, da consulta mais recente para a mais antiga. Consultas antigas já arquivadas aparecem com arquivada=true.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página do histórico", content = @Content(schema = @Schema(implementation = PaginaHistoricoDTO.class))),
+            @ApiResponse(responseCode = "401", description = "Não autorizado"),
+            @ApiResponse(responseCode = "404", description = "Médico não encontrado")
+    })
+    @OrcamentoSql(7)
+    @GetMapping("/minhas-consultas/historico")
+    @PreAuthorize("hasRole('MEDICO')")
+    public ResponseEntity<?> getHistoricoConsultas(
+            @Parameter(description = "Data/hora da última consulta recebida (proximoAntesDe da página anterior)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime antesDe,
+            @Parameter(description = "ID da última consulta recebida (proximoAntesDeId da página anterior)") @RequestParam(required = false) Long antesDeId,
+            @Parameter(description = "Quantidade de itens (máximo 100)") @RequestParam(defaultValue = "20") int tamanho,
+            Authentication authentication,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        PoliticaCache politica = antesDe != null ? PoliticaCache.HISTORICO_ANTIGO : PoliticaCache.AGENDA;
+        String etag = versoesRecursos.historicoMedico(VersoesRecursos.usuarioId(authentication), antesDe, antesDeId, tamanho);
+        var naoModificado = RespostaCondicional.naoModificado(ifNoneMatch, etag, politica);
+        if (naoModificado.isPresent()) {
+            return naoModificado.get();
+        }
+        try {
+            Medico medico = medicoService.buscarPorEmail(authentication.getName());
+            return RespostaCondicional.ok(historicoConsultasService.historicoMedico(medico.getId(), antesDe, antesDeId, tamanho),
+                    etag, politica);
+        } catch (UsernameNotFoundException | EntidadeNaoEncontradaException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Médico não encontrado."));
+        }
+    }
+
+    @Operation(summary = "Buscar médicos", description = "Diretório de médicos: busca por nome (prefixo e tolerante a erros de digitação) com filtros e facetas por especialidade, cidade, UF, situação e dia da semana com atendimento. Servido de um índice em memória.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de resultados com facetas", content = @Content(schema = @Schema(implementation = ResultadoBuscaMedicos.class))),
+            @ApiResponse(responseCode = "401", description = "Não autorizado")
+    })
+    @OrcamentoSql(0)
+    @GetMapping("/busca")
+    public ResponseEntity<ResultadoBuscaMedicos> buscarMedicos(
+            @Parameter(description = "Nome ou parte do nome") @RequestParam(required = false) String q,
+            @Parameter(description = "Especialidade") @RequestParam(required = false) String especialidade,
+            @Parameter(description = "Cidade") @RequestParam(required = false) String cidade,
+            @Parameter(description = "UF") @RequestParam(required = false) String uf,
+            @Parameter(description = "Dia da semana com atendimento (ex.: MONDAY)") @RequestParam(required = false) DayOfWeek dia,
+            @Parameter(description = "Somente ativos (true), somente inativos (false)") @RequestParam(defaultValue = "true") Boolean ativo,
+            @Parameter(description = "Página, a partir de 0") @RequestParam(defaultValue = "0") int pagina,
+            @Parameter(description = "Quantidade de itens (máximo 100)") @RequestParam(defaultValue = "20") int tamanho) {
+        FiltroBuscaMedicos filtro = new FiltroBuscaMedicos(q, especialidade, cidade, uf, ativo, dia,
+                Math.max(0, pagina), Math.min(Math.max(tamanho, 1), 100));
+        return ResponseEntity.ok(buscaMedicosService.buscar(filtro));
+    }
+
     @Operation(summary = "Cancelar consulta agendada (médico)", description = "Permite que o médico logado cancele uma consulta agendada.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Consulta cancelada com sucesso", content = @Content(schema = @Schema(implementation = ConsultaMedicoResponse.class))),
@@ -339,7 +474,12 @@ public ResponseEntity<?> cadastrarMedico(@Valid @RequestBody MedicoRequest medic
     })
     @GetMapping("/disponibilidade")
     @PreAuthorize("hasRole('MEDICO')")
-    public ResponseEntity<?> listarMinhasDisponibilidades(Authentication authentication) {
+    public ResponseEntity<?> listarMinhasDisponibilidades(Authentication authentication, @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = versoesRecursos.disponibilidades(VersoesRecursos.usuarioId(authentication));
+        var naoModificado = RespostaCondicional.naoModificado(ifNoneMatch, etag, PoliticaCache.AGENDA);
+        if (naoModificado.isPresent()) {
+            return naoModificado.get();
+        }
         try {
             String emailMedico = authentication.getName();
             Medico medico = medicoService.buscarPorEmail(emailMedico);
@@ -347,7 +487,7 @@ public ResponseEntity<?> cadastrarMedico(@Valid @RequestBody MedicoRequest medic
             List<Object> response = disponibilidades.stream()
                                                                   .map(DisponibilidadeResponse::fromDisponibilidade)
                                                                   .collect(Collectors.toList());
-            return ResponseEntity.ok(response);
+            return RespostaCondicional.ok(response, etag, PoliticaCache.AGENDA);
         } catch (UsernameNotFoundException | EntidadeNaoEncontradaException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
         }
@@ -1,12 +1,26 @@
 package br.com.ifpe.medplus_api.controller;
 
+import br.com.ifpe.medplus_api.busca.FiltroBuscaMedicos;
+import br.com.ifpe.medplus_api.busca.MedicoIndexado;
+import br.com.ifpe.medplus_api.carga.CargaTrabalho;
+import br.com.ifpe.medplus_api.carga.ClasseCarga;
+import br.com.ifpe.medplus_api.condicional.PoliticaCache;
+import br.com.ifpe.medplus_api.condicional.RespostaCondicional;
+import br.com.ifpe.medplus_api.condicional.VersoesRecursos;
+import br.com.ifpe.medplus_api.dto.AlteracoesConsultasDTO;
 import br.com.ifpe.medplus_api.dto.PacienteRequest;
+import br.com.ifpe.medplus_api.dto.PaginaHistoricoDTO;
 import br.com.ifpe.medplus_api.dto.SenhaUpdateRequest; // Será criado
 import br.com.ifpe.medplus_api.model.consulta.Consulta;
+import br.com.ifpe.medplus_api.model.consulta.StatusConsulta;
 import br.com.ifpe.medplus_api.model.paciente.Paciente;
+import br.com.ifpe.medplus_api.monitoramento.OrcamentoSql;
 import br.com.ifpe.medplus_api.service.AuthService;
+import br.com.ifpe.medplus_api.service.BuscaMedicosService;
 import br.com.ifpe.medplus_api.service.ConsultaService;
+import br.com.ifpe.medplus_api.service.HistoricoConsultasService;
 import br.com.ifpe.medplus_api.service.PacienteService;
+import br.com.ifpe.medplus_api.service.SincronizacaoConsultasService;
 import br.com.ifpe.medplus_api.util.exception.EntidadeNaoEncontradaException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -19,6 +33,8 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.persistence.EntityExistsException;
 import jakarta.validation.Valid;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -26,6 +42,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -42,12 +59,22 @@ public class PacienteController {
     private final PacienteService pacienteService;
     private final ConsultaService consultaService;
     private final AuthService authService;
+    private final HistoricoConsultasService historicoConsultasService;
+    private final BuscaMedicosService buscaMedicosService;
+    private final VersoesRecursos versoesRecursos;
+    private final SincronizacaoConsultasService sincronizacaoConsultasService;
 
     public PacienteController(PacienteService pacienteService, ConsultaService consultaService,
-            AuthService authService) {
+            AuthService authService, HistoricoConsultasService historicoConsultasService,
+            BuscaMedicosService buscaMedicosService, VersoesRecursos versoesRecursos,
+            SincronizacaoConsultasService sincronizacaoConsultasService) {
         this.pacienteService = pacienteService;
         this.consultaService = consultaService;
         this.authService = authService;
+        this.historicoConsultasService = historicoConsultasService;
+        this.buscaMedicosService = buscaMedicosService;
+        this.versoesRecursos = versoesRecursos;
+        this.sincronizacaoConsultasService = sincronizacaoConsultasService;
     }
 
     @PostMapping
@@ -102,13 +129,19 @@ public class PacienteController {
             @ApiResponse(responseCode = "401", description = "Não autorizado"),
             @ApiResponse(responseCode = "404", description = "Paciente não encontrado")
     })
+    @CargaTrabalho(ClasseCarga.PERFIL)
     @GetMapping("/meu-perfil")
     @PreAuthorize("hasRole('PACIENTE')") // Apenas pacientes podem acessar seu próprio perfil
-    public ResponseEntity<?> getMeuPerfil(Authentication authentication) {
+    public ResponseEntity<?> getMeuPerfil(Authentication authentication, @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = versoesRecursos.perfil(VersoesRecursos.usuarioId(authentication));
+        var naoModificado = RespostaCondicional.naoModificado(ifNoneMatch, etag, PoliticaCache.PERFIL);
+        if (naoModificado.isPresent()) {
+            return naoModificado.get();
+        }
         try {
             String email = authentication.getName();
             Paciente paciente = pacienteService.buscarPorEmail(email);
-            return ResponseEntity.ok(PacienteResponse.fromPaciente(paciente));
+            return RespostaCondicional.ok(PacienteResponse.fromPaciente(paciente), etag, PoliticaCache.PERFIL);
         } catch (UsernameNotFoundException | EntidadeNaoEncontradaException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Paciente não encontrado."));
         }
@@ -168,8 +201,9 @@ public class PacienteController {
         try {
             String email = authentication.getName();
             Paciente paciente = pacienteService.buscarPorEmail(email);
-            pacienteService.desativarPaciente(paciente.getId());
-            return ResponseEntity.ok(Map.of("message", "Sua conta foi desativada com sucesso."));
+            int canceladas = pacienteService.desativarPaciente(paciente.getId(), StatusConsulta.CANCELADA_PACIENTE);
+            return ResponseEntity.ok(Map.of("message", "Sua conta foi desativada com sucesso.",
+                    "consultasCanceladas", canceladas));
         } catch (UsernameNotFoundException | EntidadeNaoEncontradaException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Paciente não encontrado."));
         }
@@ -183,16 +217,73 @@ public class PacienteController {
             @ApiResponse(responseCode = "401", description = "Não autorizado"),
             @ApiResponse(responseCode = "404", description = "Paciente não encontrado")
     })
+    @OrcamentoSql(6)
     @GetMapping("/minhas-consultas")
     @PreAuthorize("hasRole('PACIENTE')")
-    public ResponseEntity<?> getMinhasConsultas(Authentication authentication) {
+    public ResponseEntity<?> getMinhasConsultas(Authentication authentication, @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = versoesRecursos.consultasPaciente(VersoesRecursos.usuarioId(authentication));
+        var naoModificado = RespostaCondicional.naoModificado(ifNoneMatch, etag, PoliticaCache.AGENDA);
+        if (naoModificado.isPresent()) {
+            return naoModificado.get();
+        }
         try {
             String email = authentication.getName();
             Paciente paciente = pacienteService.buscarPorEmail(email);
             List<Consulta> consultas = consultaService.listarConsultasPorPaciente(paciente.getId());
             List<ConsultaResponse> response = consultas.stream().map(ConsultaResponse::fromConsulta)
                     .collect(Collectors.toList());
-            return ResponseEntity.ok(response);
+            return RespostaCondicional.ok(response, etag, PoliticaCache.AGENDA);
+        } catch (UsernameNotFoundException | EntidadeNaoEncontradaException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Paciente não encontrado."));
+        }
+    }
+
+    @Operation(summary = "Sincronização incremental de consultas (paciente)", description = "Consultas criadas, alteradas ou canceladas desde o cursor (desde, desdeId), em ordem de atualização. Sem cursor, devolve todas as consultas da janela das listagens; guarde proximoDesde/proximoDesdeId para a próxima chamada.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Alterações desde o cursor", content = @Content(schema = @Schema(implementation = AlteracoesConsultasDTO.class))),
+            @ApiResponse(responseCode = "401", description = "Não autorizado"),
+            @ApiResponse(responseCode = "404", description = "Paciente não encontrado.")
+    })
+    @OrcamentoSql(2)
+    @GetMapping("/minhas-consultas/alteracoes")
+    @PreAuthorize("hasRole('PACIENTE')")
+    public ResponseEntity<?> getAlteracoesConsultas(
+            @Parameter(description = "Data de atualização do cursor (proximoDesde da chamada anterior)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @Parameter(description = "ID do cursor (proximoDesdeId da chamada anterior)") @RequestParam(required = false) Long desdeId,
+            @Parameter(description = "Quantidade de itens (máximo 500)") @RequestParam(defaultValue = "200") int tamanho,
+            Authentication authentication) {
+        Long usuarioId = VersoesRecursos.usuarioId(authentication);
+        if (usuarioId == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Paciente não encontrado."));
+        }
+        return ResponseEntity.ok(sincronizacaoConsultasService.alteracoesPaciente(usuarioId, desde, desdeId, tamanho));
+    }
+
+    @Operation(summary = "Histórico de consultas (paciente)", description = "Histórico paginado, da consulta mais recente para a mais antiga. Consultas antigas já arquivadas aparecem com arquivada=true.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página do histórico", content = @Content(schema = @Schema(implementation = PaginaHistoricoDTO.class))),
+            @ApiResponse(responseCode = "401", description = "Não autorizado"),
+            @ApiResponse(responseCode = "404", description = "Paciente não encontrado")
+    })
+    @OrcamentoSql(7)
+    @GetMapping("/minhas-consultas/historico")
+    @PreAuthorize("hasRole('PACIENTE')")
+    public ResponseEntity<?> getHistoricoConsultas(
+            @Parameter(description = "Data/hora da última consulta recebida (proximoAntesDe da página anterior)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime antesDe,
+            @Parameter(description = "ID da última consulta recebida (proximoAntesDeId da página anterior)") @RequestParam(required = false) Long antesDeId,
+            @Parameter(description = "Quantidade de itens (máximo 100)") @RequestParam(defaultValue = "20") int tamanho,
+            Authentication authentication,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        PoliticaCache politica = antesDe != null ? PoliticaCache.HISTORICO_ANTIGO : PoliticaCache.AGENDA;
+        String etag = versoesRecursos.historicoPaciente(VersoesRecursos.usuarioId(authentication), antesDe, antesDeId, tamanho);
+        var naoModificado = RespostaCondicional.naoModificado(ifNoneMatch, etag, politica);
+        if (naoModificado.isPresent()) {
+            return naoModificado.get();
+        }
+        try {
+            Paciente paciente = pacienteService.buscarPorEmail(authentication.getName());
+            return RespostaCondicional.ok(historicoConsultasService.historicoPaciente(paciente.getId(), antesDe, antesDeId, tamanho),
+                    etag, politica);
         } catch (UsernameNotFoundException | EntidadeNaoEncontradaException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Paciente não encontrado."));
         }
@@ -282,17 +373,10 @@ public class PacienteController {
     })
     @GetMapping("/medicos/especialidade/{especialidade}")
     @PreAuthorize("isAuthenticated()") // Ou hasRole('PACIENTE') se for exclusivo para pacientes
-    public ResponseEntity<?> listarMedicosPorEspecialidade(@PathVariable String especialidade) {
-        // Usar MedicoService para buscar. Criar um MedicoResponseDTO para não expor
-        // dados sensíveis.
-        // Exemplo:
-        // List<Medico> medicos =
-        // medicoService.listarAtivosPorEspecialidade(especialidade);
-        // List<MedicoResponseDTO> response =
-        // medicos.stream().map(MedicoResponseDTO::fromMedico).collect(Collectors.toList());
-        // return ResponseEntity.ok(response);
-        return ResponseEntity.ok(Map.of("message", "Endpoint para listar médicos por especialidade: " + especialidade
-                + " - Implementar com MedicoService e DTO de resposta."));
+    public ResponseEntity<List<MedicoIndexado>> listarMedicosPorEspecialidade(@PathVariable String especialidade) {
+        // Índice de busca em memória: só médicos ativos, ordenados por nome
+        FiltroBuscaMedicos filtro = new FiltroBuscaMedicos(null, especialidade, null, null, true, null, 0, Integer.MAX_VALUE);
+        return ResponseEntity.ok(buscaMedicosService.buscar(filtro).itens());
     }
 
     // O DTO SenhaUpdateRequest precisa ser criado.
@@ -1,12 +1,19 @@
 package br.com.ifpe.medplus_api.controller;
 
+import br.com.ifpe.medplus_api.carga.CargaTrabalho;
+import br.com.ifpe.medplus_api.carga.ClasseCarga;
+import br.com.ifpe.medplus_api.condicional.PoliticaCache;
+import br.com.ifpe.medplus_api.condicional.RespostaCondicional;
+import br.com.ifpe.medplus_api.condicional.VersoesRecursos;
 import br.com.ifpe.medplus_api.service.UsuarioService; // Importe seu serviço de usuário
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -14,6 +21,7 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 
 @RestController
+@CargaTrabalho(ClasseCarga.PERFIL)
 @RequestMapping("") // A base da URL
 @Tag(name = "Perfil do Usuário", description = "Endpoints para gerenciamento do próprio perfil do usuário")
 public class PerfilController {
@@ -21,6 +29,9 @@ public class PerfilController {
     @Autowired
     private UsuarioService usuarioService; // Assumindo que você tem um serviço para buscar usuários
 
+    @Autowired
+    private VersoesRecursos versoesRecursos;
+
     /**
      * Endpoint para retornar os dados do perfil do usuário autenticado.
      * Este endpoint é protegido e requer um token JWT válido.
@@ -31,10 +42,18 @@ public class PerfilController {
     @PreAuthorize("isAuthenticated()") // Garante que apenas usuários logados (qualquer perfil) podem acessar
     @Operation(summary = "Obter dados do perfil", description = "Retorna as informações detalhadas do usuário atualmente logado.")
     @SecurityRequirement(name = "bearerAuth") // Informa ao Swagger que este endpoint é protegido
-    public ResponseEntity<?> getMeuPerfil() {
+    public ResponseEntity<?> getMeuPerfil(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Pega o contexto de segurança do usuário que fez a requisição
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        // Versão atual do perfil; se o cliente já a tem, responde 304 sem buscar o usuário
+        String etag = versoesRecursos.perfil(VersoesRecursos.usuarioId(authentication));
+        var naoModificado = RespostaCondicional.naoModificado(ifNoneMatch, etag, PoliticaCache.PERFIL);
+        if (naoModificado.isPresent()) {
+            return naoModificado.get();
+        }
+
         try {
-            // Pega o contexto de segurança do usuário que fez a requisição
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             String userEmail = authentication.getName(); // O "name" é o email/username usado no login
 
             // Usa o email para buscar o objeto completo do usuário no banco de dados.
@@ -46,7 +65,7 @@ public class PerfilController {
                 return ResponseEntity.notFound().build();
             }
 
-            return ResponseEntity.ok(perfilDto);
+            return RespostaCondicional.ok(perfilDto, etag, PoliticaCache.PERFIL);
 
         } catch (Exception e) {
             // LINHA CRUCIAL PARA DEBUG: Imprime o erro completo no console
@@ -0,0 +1,71 @@
+package br.com.ifpe.medplus_api.datasource;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * "Read-your-writes": depois que um usuário confirma uma transação de escrita, as leituras dele
+ * vão para o primário durante uma janela curta, até a réplica alcançar o que ele acabou de gravar.
+ *
+ * Registrado como listener do gerenciador de transações; a chave é o nome do usuário autenticado.
+ */
+public class FixacaoLeituraPrimario implements TransactionExecutionListener {
+
+    private final long janelaNanos;
+    private final Map<String, Long> fixadosAte = new ConcurrentHashMap<>();
+
+    public FixacaoLeituraPrimario(Duration janela) {
+        this.janelaNanos = janela.toNanos();
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transacao, Throwable falha) {
+        if (falha != null || transacao.isReadOnly() || !transacao.isNewTransaction()) {
+            return;
+        }
+        String usuario = usuarioAtual();
+        if (usuario != null) {
+            fixadosAte.put(usuario, System.nanoTime() + janelaNanos);
+        }
+    }
+
+    /**
+     * Indica se o usuário da thread atual deve ler do primário.
+     */
+    public boolean usuarioAtualFixado() {
+        String usuario = usuarioAtual();
+        if (usuario == null) {
+            return false;
+        }
+        Long ate = fixadosAte.get(usuario);
+        if (ate == null) {
+            return false;
+        }
+        if (System.nanoTime() - ate >= 0) {
+            fixadosAte.remove(usuario, ate);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Remove fixações vencidas de usuários que não voltaram a ler.
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public void limparExpirados() {
+        long agora = System.nanoTime();
+        fixadosAte.entrySet().removeIf(entrada -> agora - entrada.getValue() >= 0);
+    }
+
+    private static String usuarioAtual() {
+        Authentication autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        return autenticacao != null && autenticacao.isAuthenticated() ? autenticacao.getName() : null;
+    }
+}
@@ -0,0 +1,70 @@
+package br.com.ifpe.medplus_api.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Mede periodicamente o atraso de replicação da réplica. Se o atraso passar do limite, ou se a
+ * réplica não responder, as leituras voltam para o primário até a próxima medição saudável.
+ */
+public class MonitorAtrasoReplica {
+
+    private static final Logger logger = LoggerFactory.getLogger(MonitorAtrasoReplica.class);
+
+    // Com WAL recebido e aplicado iguais a réplica está em dia, mesmo que o último replay seja antigo
+    // (primário sem escritas). Fora de um standby as funções retornam NULL e o atraso é zero.
+    private static final String SQL_ATRASO = """
+            SELECT CASE
+                       WHEN pg_last_wal_receive_lsn() IS NULL OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+                   END
+            """;
+
+    private final DataSource replica;
+    private final Duration atrasoMaximo;
+    private volatile boolean disponivel = true;
+    private volatile Duration ultimoAtraso = Duration.ZERO;
+
+    public MonitorAtrasoReplica(DataSource replica, Duration atrasoMaximo) {
+        this.replica = replica;
+        this.atrasoMaximo = atrasoMaximo;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.intervalo-verificacao-ms:1000}")
+    public void medir() {
+        boolean estavaDisponivel = disponivel;
+        try (Connection conexao = replica.getConnection();
+             Statement st = conexao.createStatement();
+             ResultSet rs = st.executeQuery(SQL_ATRASO)) {
+            rs.next();
+            ultimoAtraso = Duration.ofMillis(Math.round(rs.getDouble(1) * 1000));
+            disponivel = ultimoAtraso.compareTo(atrasoMaximo) <= 0;
+        } catch (SQLException e) {
+            disponivel = false;
+            logger.warn("Réplica inacessível; leituras vão para o primário: {}", e.getMessage());
+            return;
+        }
+        if (estavaDisponivel && !disponivel) {
+            logger.warn("Réplica atrasada {} ms (limite {} ms); leituras vão para o primário",
+                    ultimoAtraso.toMillis(), atrasoMaximo.toMillis());
+        } else if (!estavaDisponivel && disponivel) {
+            logger.info("Réplica em dia novamente ({} ms); leituras voltam para a réplica", ultimoAtraso.toMillis());
+        }
+    }
+
+    public boolean isDisponivel() {
+        return disponivel;
+    }
+
+    public Duration getUltimoAtraso() {
+        return ultimoAtraso;
+    }
+}
@@ -0,0 +1,33 @@
+package br.com.ifpe.medplus_api.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * DataSource das conexões somente leitura: usa a réplica, exceto quando ela está atrasada/inacessível
+ * ou quando o usuário atual acabou de escrever (ver {@link FixacaoLeituraPrimario}).
+ */
+public class RoteamentoReplicaDataSource extends AbstractRoutingDataSource {
+
+    private static final String PRIMARIO = "primario";
+    private static final String REPLICA = "replica";
+
+    private final MonitorAtrasoReplica monitor;
+    private final FixacaoLeituraPrimario fixacao;
+
+    public RoteamentoReplicaDataSource(DataSource primario, DataSource replica,
+                                       MonitorAtrasoReplica monitor, FixacaoLeituraPrimario fixacao) {
+        this.monitor = monitor;
+        this.fixacao = fixacao;
+        setTargetDataSources(Map.of(PRIMARIO, primario, REPLICA, replica));
+        setDefaultTargetDataSource(primario);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return monitor.isDisponivel() && !fixacao.usuarioAtualFixado() ? REPLICA : PRIMARIO;
+    }
+}
@@ -0,0 +1,22 @@
+package br.com.ifpe.medplus_api.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Consulta criada ou alterada desde o cursor da sincronização, com o estado atual completo.
+ * Traz o nome do médico na sincronização do paciente e o do paciente na do médico.
+ *
+ * @param operacao CRIADA (depois do cursor), CANCELADA ou ALTERADA
+ */
+public record AlteracaoConsultaDTO(
+    Long id,
+    String operacao,
+    LocalDateTime dataHora,
+    String status,
+    String medicoNome,
+    String especialidadeMedico,
+    String pacienteNome,
+    String observacoes,
+    LocalDateTime dataAtualizacao
+) {
+}
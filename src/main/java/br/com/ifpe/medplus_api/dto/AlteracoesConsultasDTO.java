@@ -0,0 +1,17 @@
+package br.com.ifpe.medplus_api.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Resultado da sincronização incremental. Guarde {@code proximoDesde} e {@code proximoDesdeId} e
+ * envie-os como {@code desde} e {@code desdeId} na próxima chamada; com {@code temMais} a próxima
+ * chamada pode ser feita em seguida. O cursor é nulo só quando ainda não houve nenhuma alteração.
+ */
+public record AlteracoesConsultasDTO(
+    List<AlteracaoConsultaDTO> itens,
+    LocalDateTime proximoDesde,
+    Long proximoDesdeId,
+    boolean temMais
+) {
+}
@@ -0,0 +1,42 @@
+package br.com.ifpe.medplus_api.dto;
+
+import br.com.ifpe.medplus_api.model.consulta.Consulta;
+import br.com.ifpe.medplus_api.model.consulta.ConsultaArquivada;
+
+import java.time.LocalDateTime;
+
+/**
+ * Item do histórico de consultas, vindo da tabela principal ou do arquivo ({@code arquivada = true}).
+ * Traz o nome do médico no histórico do paciente e o do paciente no histórico do médico.
+ */
+public record ConsultaHistoricoDTO(
+    Long id,
+    LocalDateTime dataHora,
+    String status,
+    String medicoNome,
+    String especialidadeMedico,
+    String pacienteNome,
+    String observacoes,
+    boolean arquivada
+) {
+
+    public static ConsultaHistoricoDTO paraPaciente(Consulta consulta) {
+        return new ConsultaHistoricoDTO(consulta.getId(), consulta.getDataHoraConsulta(), consulta.getStatus().getDescricao(),
+                consulta.getMedico().getNome(), consulta.getMedico().getEspecialidade(), null, consulta.getObservacoes(), false);
+    }
+
+    public static ConsultaHistoricoDTO paraPaciente(ConsultaArquivada consulta) {
+        return new ConsultaHistoricoDTO(consulta.getId(), consulta.getDataHoraConsulta(), consulta.getStatus().getDescricao(),
+                consulta.getMedico().getNome(), consulta.getMedico().getEspecialidade(), null, consulta.getObservacoes(), true);
+    }
+
+    public static ConsultaHistoricoDTO paraMedico(Consulta consulta) {
+        return new ConsultaHistoricoDTO(consulta.getId(), consulta.getDataHoraConsulta(), consulta.getStatus().getDescricao(),
+                null, null, consulta.getPaciente().getNome(), consulta.getObservacoes(), false);
+    }
+
+    public static ConsultaHistoricoDTO paraMedico(ConsultaArquivada consulta) {
+        return new ConsultaHistoricoDTO(consulta.getId(), consulta.getDataHoraConsulta(), consulta.getStatus().getDescricao(),
+                null, null, consulta.getPaciente().getNome(), consulta.getObservacoes(), true);
+    }
+}
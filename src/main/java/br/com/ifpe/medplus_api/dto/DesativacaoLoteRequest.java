@@ -0,0 +1,19 @@
+package br.com.ifpe.medplus_api.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO para desativação de usuários em lote (médicos ou pacientes).
+ */
+@Data
+public class DesativacaoLoteRequest {
+
+    @NotEmpty(message = "Informe ao menos um ID.")
+    @Size(max = 1000, message = "No máximo 1000 IDs por requisição.")
+    private List<@NotNull Long> ids;
+}
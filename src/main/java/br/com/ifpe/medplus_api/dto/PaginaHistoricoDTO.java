@@ -0,0 +1,15 @@
+package br.com.ifpe.medplus_api.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Página do histórico de consultas. Para a próxima página, envie {@code proximoAntesDe} e
+ * {@code proximoAntesDeId} como {@code antesDe} e {@code antesDeId}; ambos são nulos na última página.
+ */
+public record PaginaHistoricoDTO(
+    List<ConsultaHistoricoDTO> itens,
+    LocalDateTime proximoAntesDe,
+    Long proximoAntesDeId
+) {
+}
@@ -0,0 +1,110 @@
+package br.com.ifpe.medplus_api.idempotencia;
+
+import br.com.ifpe.medplus_api.carga.CargaTrabalho;
+import br.com.ifpe.medplus_api.carga.ClasseCarga;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Respostas guardadas por chave de idempotência em dois níveis: as mais recentes em memória (LRU
+ * limitado) e todas em tb_idempotencia até expirarem, o que cobre repetições que chegam a outro nó
+ * ou depois de um reinício.
+ */
+public class ArmazemIdempotencia {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArmazemIdempotencia.class);
+
+    private static final String SQL_BUSCAR = """
+            SELECT impressao, status, content_type, corpo, expira_em
+            FROM tb_idempotencia WHERE chave = ? AND expira_em > ?
+            """;
+
+    private static final String SQL_INSERIR = """
+            INSERT INTO tb_idempotencia (chave, impressao, status, content_type, corpo, expira_em)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT (chave) DO NOTHING
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration validade;
+    private final Map<String, RespostaGuardada> memoria;
+
+    public ArmazemIdempotencia(JdbcTemplate jdbcTemplate, Duration validade, int maximoEmMemoria) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.validade = validade;
+        this.memoria = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, RespostaGuardada> maisAntiga) {
+                return size() > maximoEmMemoria;
+            }
+        };
+    }
+
+    public Optional<RespostaGuardada> buscar(String chave) {
+        LocalDateTime agora = LocalDateTime.now();
+        synchronized (memoria) {
+            RespostaGuardada resposta = memoria.get(chave);
+            if (resposta != null) {
+                if (!resposta.expirada(agora)) {
+                    return Optional.of(resposta);
+                }
+                memoria.remove(chave);
+            }
+        }
+        List<RespostaGuardada> doBanco = jdbcTemplate.query(SQL_BUSCAR,
+                (rs, i) -> new RespostaGuardada(rs.getString(1), rs.getInt(2), rs.getString(3), rs.getBytes(4),
+                        rs.getTimestamp(5).toLocalDateTime()),
+                chave, Timestamp.valueOf(agora));
+        if (doBanco.isEmpty()) {
+            return Optional.empty();
+        }
+        synchronized (memoria) {
+            memoria.put(chave, doBanco.get(0));
+        }
+        return Optional.of(doBanco.get(0));
+    }
+
+    /**
+     * Guarda a resposta; se outro nó já gravou a mesma chave, a dele prevalece no banco.
+     */
+    public RespostaGuardada guardar(String chave, String impressao, int status, String contentType, byte[] corpo) {
+        RespostaGuardada resposta = new RespostaGuardada(impressao, status, contentType, corpo,
+                LocalDateTime.now().plus(validade));
+        synchronized (memoria) {
+            memoria.put(chave, resposta);
+        }
+        try {
+            jdbcTemplate.update(SQL_INSERIR, chave, impressao, status, contentType, corpo,
+                    Timestamp.valueOf(resposta.expiraEm()));
+        } catch (DataAccessException e) {
+            // A resposta já foi produzida; sem o banco a repetição só é reconhecida por este nó
+            logger.warn("Falha ao gravar resposta idempotente em tb_idempotencia: {}", e.getMessage());
+        }
+        return resposta;
+    }
+
+    @CargaTrabalho(ClasseCarga.BACKGROUND)
+    @Scheduled(cron = "${app.idempotencia.limpeza.cron:0 45 * * * *}")
+    public void removerExpiradas() {
+        try {
+            int removidas = jdbcTemplate.update("DELETE FROM tb_idempotencia WHERE expira_em <= ?",
+                    Timestamp.valueOf(LocalDateTime.now()));
+            if (removidas > 0) {
+                logger.info("{} resposta(s) idempotente(s) expirada(s) removida(s)", removidas);
+            }
+        } catch (DataAccessException e) {
+            logger.error("Falha ao remover respostas idempotentes expiradas: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package br.com.ifpe.medplus_api.idempotencia;
+
+import br.com.ifpe.medplus_api.security.UsuarioAutenticado;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * POSTs com o cabeçalho {@code Idempotency-Key} nos caminhos configurados
+ * ({@code app.idempotencia.caminhos}) são executados uma única vez por chave.
+ *
+ * <ul>
+ *   <li>Repetição de uma requisição já concluída: devolve a resposta guardada (status, Content-Type e
+ *       corpo, com {@code Idempotent-Replayed: true}) sem chegar ao controller.</li>
+ *   <li>Repetição enquanto a primeira ainda executa neste nó: espera o resultado dela até
+ *       {@code app.idempotencia.espera-maxima}; passado esse tempo, 409 com Retry-After.</li>
+ *   <li>Mesma chave com outro corpo: 422.</li>
+ * </ul>
+ *
+ * A chave vale por usuário (ou anônimo) e caminho. Respostas 5xx e as que dependem do momento
+ * (401, 403, 408, 409, 429) não são guardadas: a repetição executa de novo.
+ */
+public class IdempotenciaFilter extends OncePerRequestFilter {
+
+    public static final String CABECALHO = "Idempotency-Key";
+    public static final String CABECALHO_REPETICAO = "Idempotent-Replayed";
+    private static final int TAMANHO_MAXIMO_CHAVE = 255;
+    private static final Set<Integer> NAO_GUARDADOS = Set.of(401, 403, 408, 409, 429);
+
+    private final ArmazemIdempotencia armazem;
+    private final Set<String> caminhos;
+    private final Duration esperaMaxima;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, CompletableFuture<Optional<RespostaGuardada>>> emAndamento = new ConcurrentHashMap<>();
+
+    public IdempotenciaFilter(ArmazemIdempotencia armazem, Set<String> caminhos, Duration esperaMaxima,
+                              ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.armazem = armazem;
+        this.caminhos = Set.copyOf(caminhos);
+        this.esperaMaxima = esperaMaxima;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !"POST".equals(request.getMethod())
+                || request.getHeader(CABECALHO) == null
+                || !caminhos.contains(caminho(request));
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        String valor = request.getHeader(CABECALHO).trim();
+        if (valor.isEmpty() || valor.length() > TAMANHO_MAXIMO_CHAVE) {
+            erro(response, HttpStatus.BAD_REQUEST,
+                    "Idempotency-Key deve ter entre 1 e " + TAMANHO_MAXIMO_CHAVE + " caracteres.");
+            return;
+        }
+        byte[] corpo = request.getInputStream().readAllBytes();
+        String chave = sha256((usuario() + "\n" + caminho(request) + "\n" + valor).getBytes(StandardCharsets.UTF_8));
+        String impressao = sha256(corpo);
+
+        while (true) {
+            Optional<RespostaGuardada> guardada = armazem.buscar(chave);
+            if (guardada.isPresent()) {
+                repetir(guardada.get(), impressao, response, "armazenada");
+                return;
+            }
+            CompletableFuture<Optional<RespostaGuardada>> minha = new CompletableFuture<>();
+            CompletableFuture<Optional<RespostaGuardada>> primeira = emAndamento.putIfAbsent(chave, minha);
+            if (primeira == null) {
+                try {
+                    minha.complete(executar(new RequisicaoComCorpo(request, corpo), response, filterChain,
+                            chave, impressao));
+                } finally {
+                    // Em caso de exceção as requisições em espera tentam de novo
+                    minha.complete(Optional.empty());
+                    emAndamento.remove(chave, minha);
+                }
+                return;
+            }
+            Optional<RespostaGuardada> resultado;
+            try {
+                resultado = primeira.get(esperaMaxima.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                erro(response, HttpStatus.CONFLICT,
+                        "Uma requisição com a mesma Idempotency-Key ainda está em processamento.");
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServletException(e);
+            } catch (ExecutionException e) {
+                resultado = Optional.empty();
+            }
+            if (resultado.isPresent()) {
+                repetir(resultado.get(), impressao, response, "espera");
+                return;
+            }
+            // A primeira não deixou resposta guardada (5xx, 409...): esta passa a executar
+        }
+    }
+
+    private Optional<RespostaGuardada> executar(HttpServletRequest request, HttpServletResponse response,
+                                                FilterChain filterChain, String chave, String impressao)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper resposta = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, resposta);
+            int status = resposta.getStatus();
+            if (status >= 500 || NAO_GUARDADOS.contains(status) || request.isAsyncStarted()) {
+                return Optional.empty();
+            }
+            return Optional.of(armazem.guardar(chave, impressao, status, resposta.getContentType(),
+                    resposta.getContentAsByteArray()));
+        } finally {
+            resposta.copyBodyToResponse();
+        }
+    }
+
+    private void repetir(RespostaGuardada guardada, String impressao, HttpServletResponse response, String origem)
+            throws IOException {
+        if (!guardada.impressao().equals(impressao)) {
+            erro(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency-Key já usada com outro corpo de requisição.");
+            return;
+        }
+        meterRegistry.counter("medplus.idempotencia.repeticoes", "origem", origem).increment();
+        response.setStatus(guardada.status());
+        if (guardada.contentType() != null) {
+            response.setContentType(guardada.contentType());
+        }
+        response.setHeader(CABECALHO_REPETICAO, "true");
+        response.setContentLength(guardada.corpo().length);
+        response.getOutputStream().write(guardada.corpo());
+    }
+
+    private void erro(HttpServletResponse response, HttpStatus status, String mensagem) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), Map.of("error", mensagem));
+    }
+
+    private static String caminho(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static String usuario() {
+        Authentication autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        return autenticacao != null && autenticacao.getPrincipal() instanceof UsuarioAutenticado usuario
+                ? String.valueOf(usuario.getId()) : "anonimo";
+    }
+
+    private static String sha256(byte[] dados) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(dados));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Devolve ao restante da cadeia o corpo já lido para calcular a impressão. */
+    private static final class RequisicaoComCorpo extends HttpServletRequestWrapper {
+
+        private final byte[] corpo;
+
+        private RequisicaoComCorpo(HttpServletRequest request, byte[] corpo) {
+            super(request);
+            this.corpo = corpo;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream entrada = new ByteArrayInputStream(corpo);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return entrada.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return entrada.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return entrada.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    // O corpo já está todo em memória: avisa na hora, sem esperar pelo container
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            listener.onAllDataRead();
+                        }
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return corpo.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return corpo.length;
+        }
+    }
+}
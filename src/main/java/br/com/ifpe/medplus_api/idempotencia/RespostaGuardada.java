@@ -0,0 +1,16 @@
+package br.com.ifpe.medplus_api.idempotencia;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resposta concluída de uma requisição com Idempotency-Key, devolvida às repetições.
+ *
+ * @param impressao hash do corpo da requisição original
+ */
+public record RespostaGuardada(String impressao, int status, String contentType, byte[] corpo,
+                               LocalDateTime expiraEm) {
+
+    boolean expirada(LocalDateTime agora) {
+        return !expiraEm.isAfter(agora);
+    }
+}
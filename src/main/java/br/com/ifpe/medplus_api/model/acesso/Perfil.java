@@ -6,6 +6,8 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
 
 import java.util.Objects;
@@ -13,8 +15,11 @@ import java.util.Objects;
 /**
  * Entidade que representa um perfil (role) de usuário no sistema.
  * Implementa GrantedAuthority para integração com o Spring Security.
+ * Os perfis são fixos (inseridos pela migração V2), por isso o cache é somente leitura.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "perfil")
 @Table(name = "tb_perfil")
 @Getter
 @Setter
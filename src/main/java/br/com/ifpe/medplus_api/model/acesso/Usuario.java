@@ -10,6 +10,10 @@ import jakarta.validation.constraints.Size;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
@@ -21,6 +25,9 @@ import java.util.Set;
 /**
  * Classe base abstrata para todos os usuários do sistema (Paciente, Médico, Admin).
  * Implementa UserDetails para o Spring Security.
+ *
+ * Fica no cache de segundo nível (região "usuario", compartilhada por Paciente, Medico e Admin),
+ * assim como o email como natural id e os perfis. Ver ehcache.xml.
  */
 @Getter
 @Setter
@@ -31,6 +38,9 @@ import java.util.Set;
         @UniqueConstraint(columnNames = "cpf", name = "uk_usuario_cpf")
 })
 @Inheritance(strategy = InheritanceType.JOINED)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "usuario")
+@NaturalIdCache(region = "usuario.email")
 public abstract class Usuario extends EntidadeAuditavel implements UserDetails {
 
     @NotBlank(message = "Nome é obrigatório")
@@ -41,6 +51,7 @@ public abstract class Usuario extends EntidadeAuditavel implements UserDetails {
     @NotBlank(message = "Email é obrigatório")
     @Email(message = "Email deve ser válido")
     @Size(max = 100, message = "Email deve ter no máximo 100 caracteres")
+    @NaturalId(mutable = true)
     @Column(nullable = false, length = 100, unique = true)
     private String email;
 
@@ -68,6 +79,7 @@ public abstract class Usuario extends EntidadeAuditavel implements UserDetails {
     private boolean ativo = true;
 
     @ManyToMany(fetch = FetchType.EAGER, cascade = {CascadeType.PERSIST, CascadeType.MERGE})
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "usuario.perfis")
     @JoinTable(
             name = "tb_usuario_perfil",
             joinColumns = @JoinColumn(name = "usuario_id"),
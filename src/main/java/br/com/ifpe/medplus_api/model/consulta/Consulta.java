@@ -55,6 +55,11 @@ public class Consulta extends EntidadeAuditavel {
     @Column(name = "link_atendimento_online", length = 255)
     private String linkAtendimentoOnline;
 
+    // Lock otimista: alterações concorrentes na mesma consulta geram conflito em vez de sobrescrever
+    @Version
+    @Column(name = "versao", nullable = false)
+    private Long versao;
+
     @PrePersist
     public void prePersist() {
         if (this.status == null) {
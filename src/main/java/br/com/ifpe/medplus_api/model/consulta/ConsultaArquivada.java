@@ -0,0 +1,50 @@
+package br.com.ifpe.medplus_api.model.consulta;
+
+import br.com.ifpe.medplus_api.model.medico.Medico;
+import br.com.ifpe.medplus_api.model.paciente.Paciente;
+import jakarta.persistence.*;
+import lombok.Getter;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Consulta encerrada movida para a camada fria (tb_consulta_arquivo) pelo ArquivamentoConsultasService.
+ * Somente leitura: as linhas são gravadas por SQL no arquivamento e nunca alteradas pela aplicação.
+ */
+@Getter
+@Entity
+@Immutable
+@Table(name = "tb_consulta_arquivo")
+public class ConsultaArquivada {
+
+    @Id
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "paciente_id", nullable = false)
+    private Paciente paciente;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "medico_id", nullable = false)
+    private Medico medico;
+
+    @Column(name = "data_hora_consulta", nullable = false)
+    private LocalDateTime dataHoraConsulta;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status_consulta", nullable = false, length = 30)
+    private StatusConsulta status;
+
+    @Column(columnDefinition = "TEXT")
+    private String observacoes;
+
+    @Column(name = "motivo_cancelamento", columnDefinition = "TEXT")
+    private String motivoCancelamento;
+
+    @Column(name = "data_criacao", nullable = false)
+    private LocalDateTime dataCriacao;
+
+    @Column(name = "data_arquivamento", nullable = false)
+    private LocalDateTime dataArquivamento;
+}
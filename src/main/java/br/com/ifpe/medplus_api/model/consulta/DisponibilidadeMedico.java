@@ -7,6 +7,8 @@ import jakarta.validation.constraints.NotNull;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.DayOfWeek;
 import java.time.LocalTime;
@@ -19,6 +21,8 @@ import java.time.LocalTime;
 @Setter
 @NoArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "disponibilidade")
 @Table(name = "tb_disponibilidade_medico", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"medico_id", "dia_semana", "hora_inicio", "hora_fim"}, name = "uk_disponibilidade_medico_horario")
 })
@@ -45,6 +49,10 @@ public class DisponibilidadeMedico extends EntidadeNegocio { // EntidadeNegocio
     @Column(name = "ativo", nullable = false)
     private boolean ativo = true; // Se este slot de disponibilidade está ativo ou não
 
+    @Version
+    @Column(name = "versao", nullable = false)
+    private Long versao;
+
     // Campos de auditoria simples (sem herdar EntidadeAuditavel para manter a tabela mais leve, se desejado)
     @Column(name = "data_criacao", nullable = false, updatable = false)
     @Temporal(TemporalType.TIMESTAMP)
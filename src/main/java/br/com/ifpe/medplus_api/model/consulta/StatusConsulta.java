@@ -11,7 +11,8 @@ public enum StatusConsulta {
     CANCELADA_MEDICO("Cancelada pelo Médico"),   // A consulta foi cancelada pelo médico.
     CANCELADA_ADMIN("Cancelada pelo Administrador"), // A consulta foi cancelada pelo administrador.
     REAGENDADA("Reagendada"),      // A consulta foi remarcada.
-    NAO_COMPARECEU("Não Compareceu"); // O paciente não compareceu à consulta.
+    NAO_COMPARECEU("Não Compareceu"), // O paciente não compareceu à consulta.
+    PENDENTE_REVISAO("Pendente de Revisão"); // Passou do horário sem desfecho registrado (ver LiquidacaoConsultasService).
 
     private final String descricao;
 
@@ -19,6 +20,14 @@ public enum StatusConsulta {
         this.descricao = descricao;
     }
 
+    /**
+     * Indica se a consulta ainda ocupa o horário do médico e do paciente.
+     * Deve corresponder a {@code ConsultaRepository.STATUS_ATIVOS_SQL} e aos índices parciais da migração V5.
+     */
+    public boolean isAtivo() {
+        return this == AGENDADA || this == CONFIRMADA || this == REAGENDADA;
+    }
+
     public String getDescricao() {
         return descricao;
     }
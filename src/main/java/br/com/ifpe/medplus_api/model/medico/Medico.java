@@ -10,6 +10,8 @@ import jakarta.validation.constraints.Size;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -41,6 +43,7 @@ public class Medico extends Usuario {
     private List<Consulta> consultasAgendadas = new ArrayList<>();
 
     @OneToMany(mappedBy = "medico", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "medico.disponibilidades")
     private List<DisponibilidadeMedico> disponibilidades = new ArrayList<>();
 
     public Medico(String nome, String email, String senha, String cpf, LocalDate dataNascimento, String telefone, Endereco endereco, String crm, String especialidade) {
@@ -0,0 +1,104 @@
+package br.com.ifpe.medplus_api.monitoramento;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limita, por logger, quantos eventos abaixo de WARN passam por segundo (balde de fichas).
+ * Aplica-se só aos loggers cujos nomes começam com um dos prefixos configurados
+ * (por padrão SQL e binds do Hibernate); o excedente é descartado antes de formatar a mensagem.
+ *
+ * Configurado no logback-spring.xml:
+ * <pre>
+ * &lt;turboFilter class="br.com.ifpe.medplus_api.monitoramento.AmostragemLogTurboFilter"&gt;
+ *     &lt;prefixos&gt;org.hibernate.SQL,org.hibernate.orm.jdbc.bind&lt;/prefixos&gt;
+ *     &lt;eventosPorSegundo&gt;20&lt;/eventosPorSegundo&gt;
+ * &lt;/turboFilter&gt;
+ * </pre>
+ */
+public class AmostragemLogTurboFilter extends TurboFilter {
+
+    private List<String> prefixos = List.of("org.hibernate.SQL", "org.hibernate.orm.jdbc.bind",
+            "org.hibernate.type.descriptor.sql");
+    private int eventosPorSegundo = 20;
+
+    private final ConcurrentMap<String, Balde> baldes = new ConcurrentHashMap<>();
+    private final AtomicLong descartados = new AtomicLong();
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level == null || level.isGreaterOrEqual(Level.WARN) || !isStarted() || !amostrado(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        // Consultas isDebugEnabled() chegam sem mensagem e não consomem ficha; eventos abaixo
+        // do nível efetivo também não (logger.isEnabledFor chamaria este filtro de novo).
+        if (format == null || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        Balde balde = baldes.computeIfAbsent(logger.getName(), nome -> new Balde(eventosPorSegundo));
+        if (balde.consumir()) {
+            return FilterReply.NEUTRAL;
+        }
+        descartados.incrementAndGet();
+        return FilterReply.DENY;
+    }
+
+    private boolean amostrado(String nomeLogger) {
+        for (String prefixo : prefixos) {
+            if (nomeLogger.startsWith(prefixo)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void setPrefixos(String prefixos) {
+        this.prefixos = Arrays.stream(prefixos.split(","))
+                .map(String::trim)
+                .filter(p -> !p.isEmpty())
+                .toList();
+    }
+
+    public void setEventosPorSegundo(int eventosPorSegundo) {
+        this.eventosPorSegundo = eventosPorSegundo;
+    }
+
+    public long getDescartados() {
+        return descartados.get();
+    }
+
+    /**
+     * Balde de fichas reabastecido continuamente, com capacidade de um segundo de eventos.
+     */
+    private static final class Balde {
+
+        private final int capacidade;
+        private double fichas;
+        private long ultimaRecarga = System.nanoTime();
+
+        private Balde(int capacidade) {
+            this.capacidade = capacidade;
+            this.fichas = capacidade;
+        }
+
+        private synchronized boolean consumir() {
+            long agora = System.nanoTime();
+            fichas = Math.min(capacidade, fichas + (agora - ultimaRecarga) * capacidade / 1_000_000_000.0);
+            ultimaRecarga = agora;
+            if (fichas >= 1) {
+                fichas--;
+                return true;
+            }
+            return false;
+        }
+    }
+}
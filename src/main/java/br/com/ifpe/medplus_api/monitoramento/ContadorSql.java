@@ -0,0 +1,103 @@
+package br.com.ifpe.medplus_api.monitoramento;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Coletor de instruções SQL por escopo (normalmente uma requisição HTTP).
+ * O registro fica em um ThreadLocal e é alimentado pelo {@link ContadorSqlInspector},
+ * que o Hibernate chama para cada instrução preparada.
+ *
+ * Escopos podem ser aninhados: um teste pode abrir um escopo externo e disparar
+ * requisições que abrem os seus próprios; cada instrução é contada em todos os escopos ativos.
+ */
+public final class ContadorSql {
+
+    private static final ThreadLocal<Registro> ATUAL = new ThreadLocal<>();
+
+    private ContadorSql() {
+    }
+
+    /**
+     * Abre um novo escopo de contagem na thread atual.
+     */
+    public static void iniciar() {
+        ATUAL.set(new Registro(ATUAL.get()));
+    }
+
+    /**
+     * Fecha o escopo mais interno e restaura o anterior, se houver.
+     *
+     * @return O registro do escopo encerrado, ou um registro vazio se nenhum estava aberto.
+     */
+    public static Registro encerrar() {
+        Registro registro = ATUAL.get();
+        if (registro == null) {
+            return new Registro(null);
+        }
+        if (registro.anterior != null) {
+            ATUAL.set(registro.anterior);
+        } else {
+            ATUAL.remove();
+        }
+        return registro;
+    }
+
+    /**
+     * Contabiliza uma instrução no escopo atual e nos escopos externos.
+     *
+     * @param sql A instrução SQL, já com os parâmetros como '?'.
+     */
+    public static void registrar(String sql) {
+        for (Registro registro = ATUAL.get(); registro != null; registro = registro.anterior) {
+            registro.registrar(sql);
+        }
+    }
+
+    /**
+     * @return O total de instruções do escopo atual, ou 0 se nenhum estiver aberto.
+     */
+    public static int totalAtual() {
+        Registro registro = ATUAL.get();
+        return registro != null ? registro.getTotal() : 0;
+    }
+
+    /**
+     * Instruções contadas em um escopo. Como o Hibernate gera o mesmo texto para a mesma
+     * consulta com parâmetros diferentes, repetições do mesmo SQL indicam carregamentos N+1.
+     */
+    public static final class Registro {
+
+        private final Registro anterior;
+        private final Map<String, Integer> porInstrucao = new HashMap<>();
+        private int total;
+
+        private Registro(Registro anterior) {
+            this.anterior = anterior;
+        }
+
+        private void registrar(String sql) {
+            total++;
+            porInstrucao.merge(sql, 1, Integer::sum);
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public Map<String, Integer> getPorInstrucao() {
+            return Map.copyOf(porInstrucao);
+        }
+
+        /**
+         * @return A instrução executada mais vezes no escopo e a quantidade de execuções.
+         */
+        public Optional<Map.Entry<String, Integer>> getInstrucaoMaisRepetida() {
+            return porInstrucao.entrySet().stream()
+                    .max(Comparator.comparingInt(Map.Entry::getValue))
+                    .map(e -> Map.entry(e.getKey(), e.getValue()));
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package br.com.ifpe.medplus_api.monitoramento;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * StatementInspector do Hibernate que repassa cada instrução preparada ao {@link ContadorSql}.
+ * Não altera o SQL; apenas observa.
+ */
+public class ContadorSqlInspector implements StatementInspector {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public String inspect(String sql) {
+        ContadorSql.registrar(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,32 @@
+package br.com.ifpe.medplus_api.monitoramento;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Conversor CBOR com a mesma medição do {@link ConversorJsonCronometrado}: o tempo de escrita
+ * entra na fase {@code ser}, qualquer que seja o formato pedido.
+ */
+public class ConversorCborCronometrado extends MappingJackson2CborHttpMessageConverter {
+
+    public ConversorCborCronometrado(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        long inicio = System.nanoTime();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            RegistroTempos.adicionar(RegistroTempos.Fase.SERIALIZACAO, System.nanoTime() - inicio);
+        }
+    }
+}
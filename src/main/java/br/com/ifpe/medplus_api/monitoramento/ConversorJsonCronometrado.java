@@ -0,0 +1,32 @@
+package br.com.ifpe.medplus_api.monitoramento;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Conversor JSON padrão com medição do tempo de serialização (fase {@code ser}).
+ * SQL disparado por carga lazy durante a escrita aparece também em {@code lazy}.
+ */
+public class ConversorJsonCronometrado extends MappingJackson2HttpMessageConverter {
+
+    public ConversorJsonCronometrado(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        long inicio = System.nanoTime();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            RegistroTempos.adicionar(RegistroTempos.Fase.SERIALIZACAO, System.nanoTime() - inicio);
+        }
+    }
+}
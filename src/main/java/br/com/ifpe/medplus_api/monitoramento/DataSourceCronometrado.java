@@ -0,0 +1,107 @@
+package br.com.ifpe.medplus_api.monitoramento;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * DataSource que mede o tempo de execução das instruções SQL e lança em {@link RegistroTempos}.
+ * Instruções executadas com transação ativa contam como {@code db}; as demais (tipicamente
+ * inicialização lazy durante a serialização) contam como {@code lazy}.
+ */
+public class DataSourceCronometrado extends DelegatingDataSource {
+
+    public DataSourceCronometrado(DataSource alvo) {
+        super(alvo);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return envolver(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return envolver(super.getConnection(username, password));
+    }
+
+    private static Connection envolver(Connection conexao) {
+        return (Connection) Proxy.newProxyInstance(
+                DataSourceCronometrado.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new ConexaoHandler(conexao));
+    }
+
+    private static Object invocar(Object alvo, Method metodo, Object[] args) throws Throwable {
+        try {
+            return metodo.invoke(alvo, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private record ConexaoHandler(Connection alvo) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            String nome = metodo.getName();
+            if (nome.equals("unwrap") || nome.equals("isWrapperFor")) {
+                Class<?> tipo = (Class<?>) args[0];
+                if (tipo.isInstance(alvo)) {
+                    return nome.equals("unwrap") ? alvo : true;
+                }
+            }
+            Object resultado = invocar(alvo, metodo, args);
+            if (resultado instanceof Statement instrucao) {
+                return envolverInstrucao(instrucao);
+            }
+            return resultado;
+        }
+
+        private static Statement envolverInstrucao(Statement instrucao) {
+            Class<?> interfaceInstrucao = instrucao instanceof CallableStatement ? CallableStatement.class
+                    : instrucao instanceof PreparedStatement ? PreparedStatement.class
+                    : Statement.class;
+            return (Statement) Proxy.newProxyInstance(
+                    DataSourceCronometrado.class.getClassLoader(),
+                    new Class<?>[]{interfaceInstrucao},
+                    new InstrucaoHandler(instrucao));
+        }
+    }
+
+    private record InstrucaoHandler(Statement alvo) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            String nome = metodo.getName();
+            if (nome.equals("unwrap") || nome.equals("isWrapperFor")) {
+                Class<?> tipo = (Class<?>) args[0];
+                if (tipo.isInstance(alvo)) {
+                    return nome.equals("unwrap") ? alvo : true;
+                }
+            }
+            if (!nome.startsWith("execute")) {
+                return invocar(alvo, metodo, args);
+            }
+            long inicio = System.nanoTime();
+            try {
+                return invocar(alvo, metodo, args);
+            } finally {
+                RegistroTempos.Fase fase = TransactionSynchronizationManager.isActualTransactionActive()
+                        ? RegistroTempos.Fase.DB
+                        : RegistroTempos.Fase.LAZY;
+                RegistroTempos.adicionar(fase, System.nanoTime() - inicio);
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package br.com.ifpe.medplus_api.monitoramento;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Acompanha, via JFR ({@code jdk.VirtualThreadPinned}), as threads virtuais que ficaram presas à
+ * thread de plataforma (carrier) por mais que o limiar: bloqueio dentro de {@code synchronized} ou
+ * de código nativo. Cada ocorrência vai para o timer {@code medplus.threads.virtuais.pinadas},
+ * com a tag {@code origem} (primeiro quadro fora do JDK); a primeira de cada origem é logada com a
+ * pilha, para encontrar o ponto a corrigir.
+ */
+public class MonitorPinagemThreads implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(MonitorPinagemThreads.class);
+    private static final String EVENTO = "jdk.VirtualThreadPinned";
+    private static final int MAXIMO_ORIGENS = 50;
+    private static final int QUADROS_LOG = 12;
+
+    private final MeterRegistry meterRegistry;
+    private final Duration limiar;
+    private final Set<String> origensConhecidas = ConcurrentHashMap.newKeySet();
+    private volatile RecordingStream stream;
+
+    public MonitorPinagemThreads(MeterRegistry meterRegistry, Duration limiar) {
+        this.meterRegistry = meterRegistry;
+        this.limiar = limiar;
+    }
+
+    @Override
+    public void start() {
+        RecordingStream novo = new RecordingStream();
+        novo.enable(EVENTO).withThreshold(limiar).withStackTrace();
+        novo.onEvent(EVENTO, this::registrar);
+        novo.startAsync();
+        stream = novo;
+        logger.info("Monitorando pinagem de threads virtuais acima de {} ms", limiar.toMillis());
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream atual = stream;
+        stream = null;
+        if (atual != null) {
+            atual.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    private void registrar(RecordedEvent evento) {
+        List<RecordedFrame> quadros = evento.getStackTrace() != null
+                ? evento.getStackTrace().getFrames() : List.of();
+        String origem = origem(quadros);
+        boolean nova = false;
+        if (!origensConhecidas.contains(origem)) {
+            // Limita a cardinalidade da tag; origens além do limite são somadas em "outras"
+            nova = origensConhecidas.size() < MAXIMO_ORIGENS && origensConhecidas.add(origem);
+            if (!nova) {
+                origem = "outras";
+            }
+        }
+        meterRegistry.timer("medplus.threads.virtuais.pinadas", "origem", origem).record(evento.getDuration());
+        if (nova) {
+            logger.warn("Thread virtual presa ao carrier por {} ms em {}:\n{}",
+                    evento.getDuration().toMillis(), origem, descrever(evento.getStackTrace()));
+        }
+    }
+
+    private static String origem(List<RecordedFrame> quadros) {
+        for (RecordedFrame quadro : quadros) {
+            String classe = quadro.getMethod().getType().getName();
+            if (!classe.startsWith("java.") && !classe.startsWith("jdk.") && !classe.startsWith("sun.")) {
+                return classe + "." + quadro.getMethod().getName();
+            }
+        }
+        return quadros.isEmpty() ? "desconhecida"
+                : quadros.get(0).getMethod().getType().getName() + "." + quadros.get(0).getMethod().getName();
+    }
+
+    private static String descrever(RecordedStackTrace pilha) {
+        if (pilha == null) {
+            return "    (sem pilha)";
+        }
+        return pilha.getFrames().stream()
+                .limit(QUADROS_LOG)
+                .map(q -> "    at " + q.getMethod().getType().getName() + "." + q.getMethod().getName()
+                        + ":" + q.getLineNumber())
+                .collect(Collectors.joining("\n"));
+    }
+}
@@ -0,0 +1,24 @@
+package br.com.ifpe.medplus_api.monitoramento;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Define o número máximo de instruções SQL esperado para um endpoint.
+ * Pode ser usada no método do controller ou na classe (vale para todos os métodos).
+ * Endpoints sem a anotação usam o orçamento padrão de {@code app.sql.orcamento.padrao}.
+ * O limite conta também as consultas feitas pela autenticação JWT.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface OrcamentoSql {
+
+    /**
+     * @return Quantidade máxima de instruções SQL por requisição.
+     */
+    int value();
+}
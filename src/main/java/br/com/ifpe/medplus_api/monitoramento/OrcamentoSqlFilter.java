@@ -0,0 +1,97 @@
+package br.com.ifpe.medplus_api.monitoramento;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Conta as instruções SQL de cada requisição HTTP e emite um aviso quando o endpoint
+ * ultrapassa o seu orçamento ({@link OrcamentoSql}) ou quando a mesma instrução se repete
+ * muitas vezes, o padrão típico de N+1 em associações LAZY.
+ *
+ * Deve ficar antes da cadeia do Spring Security para que a consulta do usuário
+ * feita pelo {@code JwtAuthenticationFilter} também seja contabilizada.
+ */
+public class OrcamentoSqlFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrcamentoSqlFilter.class);
+    private static final int TAMANHO_MAXIMO_SQL_LOG = 300;
+
+    private final int orcamentoPadrao;
+    private final int limiteRepeticoes;
+
+    public OrcamentoSqlFilter(int orcamentoPadrao, int limiteRepeticoes) {
+        this.orcamentoPadrao = orcamentoPadrao;
+        this.limiteRepeticoes = limiteRepeticoes;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        ContadorSql.iniciar();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            avaliar(request, ContadorSql.encerrar());
+        }
+    }
+
+    private void avaliar(HttpServletRequest request, ContadorSql.Registro registro) {
+        if (registro.getTotal() == 0) {
+            return;
+        }
+        String endpoint = descreverEndpoint(request);
+        int orcamento = resolverOrcamento(request);
+
+        if (registro.getTotal() > orcamento) {
+            logger.warn("Orçamento de SQL excedido em {}: {} instruções (limite {})",
+                    endpoint, registro.getTotal(), orcamento);
+        } else if (logger.isDebugEnabled()) {
+            logger.debug("{} executou {} instruções SQL (limite {})", endpoint, registro.getTotal(), orcamento);
+        }
+
+        registro.getInstrucaoMaisRepetida()
+                .filter(instrucao -> instrucao.getValue() >= limiteRepeticoes)
+                .ifPresent(instrucao -> logger.warn("Possível N+1 em {}: instrução executada {} vezes: {}",
+                        endpoint, instrucao.getValue(), abreviar(instrucao.getKey())));
+    }
+
+    private int resolverOrcamento(HttpServletRequest request) {
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (handler instanceof HandlerMethod handlerMethod) {
+            OrcamentoSql anotacao = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getMethod(), OrcamentoSql.class);
+            if (anotacao == null) {
+                anotacao = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), OrcamentoSql.class);
+            }
+            if (anotacao != null) {
+                return anotacao.value();
+            }
+        }
+        return orcamentoPadrao;
+    }
+
+    private static String descreverEndpoint(HttpServletRequest request) {
+        Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (padrao != null ? padrao : request.getRequestURI());
+    }
+
+    private static String abreviar(String sql) {
+        String umaLinha = sql.replaceAll("\\s+", " ").trim();
+        return umaLinha.length() > TAMANHO_MAXIMO_SQL_LOG
+                ? umaLinha.substring(0, TAMANHO_MAXIMO_SQL_LOG) + "..."
+                : umaLinha;
+    }
+}
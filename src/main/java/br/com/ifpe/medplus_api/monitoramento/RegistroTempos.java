@@ -0,0 +1,111 @@
+package br.com.ifpe.medplus_api.monitoramento;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Registro, por thread, do tempo gasto em cada fase de uma requisição.
+ * Aberto e fechado pelo {@link ServerTimingFilter}; as fases são alimentadas pelo filtro JWT,
+ * pelo DataSource cronometrado e pelo conversor JSON. Fora de uma requisição as chamadas são ignoradas.
+ *
+ * As fases podem se sobrepor: o tempo de {@code usuario} está contido em {@code auth}, e as
+ * instruções SQL disparadas durante a autenticação também somam em {@code db}.
+ */
+public final class RegistroTempos {
+
+    public enum Fase {
+        // Descrições sem acentos: valores de cabeçalho HTTP devem ser ASCII
+        AUTH("auth", "Filtro JWT"),
+        USUARIO("usuario", "Carga do usuario"),
+        DB("db", "SQL em transacao"),
+        LAZY("lazy", "SQL fora de transacao (lazy loading)"),
+        SERIALIZACAO("ser", "Serializacao da resposta");
+
+        private final String chave;
+        private final String descricao;
+
+        Fase(String chave, String descricao) {
+            this.chave = chave;
+            this.descricao = descricao;
+        }
+
+        public String getChave() {
+            return chave;
+        }
+
+        public String getDescricao() {
+            return descricao;
+        }
+    }
+
+    private static final ThreadLocal<Medicao> ATUAL = new ThreadLocal<>();
+
+    private RegistroTempos() {
+    }
+
+    static Medicao iniciar() {
+        Medicao medicao = new Medicao();
+        ATUAL.set(medicao);
+        return medicao;
+    }
+
+    static void encerrar() {
+        ATUAL.remove();
+    }
+
+    public static void adicionar(Fase fase, long nanos) {
+        Medicao medicao = ATUAL.get();
+        if (medicao != null) {
+            medicao.adicionar(fase, nanos);
+        }
+    }
+
+    /**
+     * Libera o cabeçalho Server-Timing para a requisição atual (chamado quando o usuário autenticado é admin).
+     */
+    public static void permitirExposicao() {
+        Medicao medicao = ATUAL.get();
+        if (medicao != null) {
+            medicao.exposicaoPermitida = true;
+        }
+    }
+
+    /**
+     * Tempos acumulados de uma requisição.
+     */
+    static final class Medicao {
+
+        private final long inicio = System.nanoTime();
+        private final Map<Fase, Long> porFase = new EnumMap<>(Fase.class);
+        private boolean exposicaoPermitida;
+
+        private void adicionar(Fase fase, long nanos) {
+            porFase.merge(fase, nanos, Long::sum);
+        }
+
+        long getInicio() {
+            return inicio;
+        }
+
+        Map<Fase, Long> getPorFase() {
+            return porFase;
+        }
+
+        boolean isExposicaoPermitida() {
+            return exposicaoPermitida;
+        }
+
+        /**
+         * Monta o valor do cabeçalho no formato {@code auth;dur=1.2;desc="Filtro JWT", ..., total;dur=8.4}.
+         */
+        String formatarServerTiming(long totalNanos) {
+            StringJoiner cabecalho = new StringJoiner(", ");
+            porFase.forEach((fase, nanos) -> cabecalho.add(String.format(Locale.ROOT, "%s;dur=%.2f;desc=\"%s\"",
+                    fase.getChave(), nanos / 1_000_000.0, fase.getDescricao())));
+            cabecalho.add(String.format(Locale.ROOT, "total;dur=%.2f", totalNanos / 1_000_000.0));
+            return cabecalho.toString();
+        }
+    }
+}
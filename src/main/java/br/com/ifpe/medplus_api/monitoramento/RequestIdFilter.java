@@ -0,0 +1,46 @@
+package br.com.ifpe.medplus_api.monitoramento;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Associa um identificador a cada requisição e o coloca no MDC ({@value #CHAVE_MDC}),
+ * de modo que todas as linhas de log da requisição possam ser correlacionadas.
+ * Reaproveita o {@value #CABECALHO} enviado pelo cliente ou proxy quando ele é válido.
+ */
+public class RequestIdFilter extends OncePerRequestFilter {
+
+    public static final String CABECALHO = "X-Request-Id";
+    public static final String CHAVE_MDC = "requestId";
+
+    private static final Pattern FORMATO_VALIDO = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        String recebido = request.getHeader(CABECALHO);
+        String requestId = recebido != null && FORMATO_VALIDO.matcher(recebido).matches()
+                ? recebido
+                : UUID.randomUUID().toString();
+
+        MDC.put(CHAVE_MDC, requestId);
+        response.setHeader(CABECALHO, requestId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(CHAVE_MDC);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package br.com.ifpe.medplus_api.monitoramento;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede as fases de cada requisição ({@link RegistroTempos}) e registra um histograma
+ * {@code medplus.requisicao.fase} por endpoint e fase.
+ *
+ * O cabeçalho {@code Server-Timing} só é enviado quando o cliente pede com
+ * {@value #CABECALHO_SOLICITACAO} e o usuário autenticado é admin (ou o modo debug está ligado).
+ * Nesse caso a resposta é mantida em buffer para que a serialização entre na medição,
+ * já que o cabeçalho precisa ser escrito antes do corpo.
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String CABECALHO_SOLICITACAO = "X-Server-Timing";
+    private static final String METRICA = "medplus.requisicao.fase";
+    private static final String URI_DESCONHECIDA = "DESCONHECIDA";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean modoDebug;
+
+    public ServerTimingFilter(MeterRegistry meterRegistry, boolean modoDebug) {
+        this.meterRegistry = meterRegistry;
+        this.modoDebug = modoDebug;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        RegistroTempos.Medicao medicao = RegistroTempos.iniciar();
+        ContentCachingResponseWrapper buffer = solicitouServerTiming(request)
+                ? new ContentCachingResponseWrapper(response)
+                : null;
+        try {
+            filterChain.doFilter(request, buffer != null ? buffer : response);
+        } finally {
+            RegistroTempos.encerrar();
+            long total = System.nanoTime() - medicao.getInicio();
+            registrarHistogramas(request, medicao, total);
+            if (buffer != null) {
+                if (modoDebug || medicao.isExposicaoPermitida()) {
+                    buffer.setHeader("Server-Timing", medicao.formatarServerTiming(total));
+                }
+                buffer.copyBodyToResponse();
+            }
+        }
+    }
+
+    private boolean solicitouServerTiming(HttpServletRequest request) {
+        if (request.getHeader(CABECALHO_SOLICITACAO) == null) {
+            return false;
+        }
+        // Fluxos SSE não podem ficar em buffer
+        String accept = request.getHeader("Accept");
+        return accept == null || !accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE);
+    }
+
+    private void registrarHistogramas(HttpServletRequest request, RegistroTempos.Medicao medicao, long total) {
+        Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = padrao != null ? padrao.toString() : URI_DESCONHECIDA;
+        medicao.getPorFase().forEach((fase, nanos) -> timer(request.getMethod(), uri, fase.getChave()).record(nanos, TimeUnit.NANOSECONDS));
+        timer(request.getMethod(), uri, "total").record(total, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(String metodo, String uri, String fase) {
+        return Timer.builder(METRICA)
+                .description("Tempo por fase da requisição")
+                .tag("metodo", metodo)
+                .tag("uri", uri)
+                .tag("fase", fase)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,25 @@
+package br.com.ifpe.medplus_api.projecao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Set;
+
+/**
+ * Campo que pode ser pedido em {@code fields=}.
+ *
+ * @param nome      nome no JSON (o mesmo dos DTOs de resposta)
+ * @param expressao expressão SQL do valor
+ * @param juncoes   junções do {@link RecursoProjetado} de que a expressão depende
+ * @param leitor    como ler o valor da coluna (conversões de tipo e formato)
+ */
+public record CampoProjetado(String nome, String expressao, Set<String> juncoes, Leitor leitor) {
+
+    @FunctionalInterface
+    public interface Leitor {
+        Object ler(ResultSet rs, int coluna) throws SQLException;
+    }
+
+    public static CampoProjetado simples(String nome, String expressao, String... juncoes) {
+        return new CampoProjetado(nome, expressao, Set.of(juncoes), ResultSet::getObject);
+    }
+}
@@ -0,0 +1,90 @@
+package br.com.ifpe.medplus_api.projecao;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Recurso consultável com campos escolhidos pelo cliente ({@code fields=}): o SELECT só traz as
+ * colunas pedidas e só faz as junções de que esses campos precisam.
+ *
+ * O id é sempre lido e devolvido, mesmo fora de {@code fields}: é a chave para o cliente
+ * relacionar as linhas, principalmente no multi-get ({@code ids=}).
+ */
+public final class RecursoProjetado {
+
+    private final String from;
+    private final String colunaId;
+    private final Map<String, String> juncoes;
+    private final Map<String, CampoProjetado> campos = new LinkedHashMap<>();
+
+    /**
+     * @param from     tabela principal com alias (e junções obrigatórias)
+     * @param colunaId expressão do id, usada no multi-get
+     * @param juncoes  junções opcionais por nome, incluídas só quando algum campo pedido precisa
+     */
+    public RecursoProjetado(String from, String colunaId, Map<String, String> juncoes, List<CampoProjetado> campos) {
+        this.from = from;
+        this.colunaId = colunaId;
+        this.juncoes = Map.copyOf(juncoes);
+        campos.forEach(campo -> this.campos.put(campo.nome(), campo));
+    }
+
+    public String getColunaId() {
+        return colunaId;
+    }
+
+    /**
+     * Valida e ordena os campos pedidos. Lista vazia ou nula significa todos os campos.
+     *
+     * @throws IllegalArgumentException com os nomes válidos, se algum campo não existe
+     */
+    public List<CampoProjetado> resolver(List<String> pedidos) {
+        if (pedidos == null || pedidos.stream().allMatch(String::isBlank)) {
+            return List.copyOf(campos.values());
+        }
+        Set<String> nomes = new LinkedHashSet<>();
+        nomes.add("id");
+        for (String pedido : pedidos) {
+            String nome = pedido.trim();
+            if (nome.isEmpty()) {
+                continue;
+            }
+            if (!campos.containsKey(nome)) {
+                throw new IllegalArgumentException("Campo desconhecido em fields: '" + nome + "'. Campos disponíveis: "
+                        + String.join(", ", campos.keySet()));
+            }
+            nomes.add(nome);
+        }
+        return nomes.stream().map(campos::get).toList();
+    }
+
+    /**
+     * @param filtro condição do WHERE (com parâmetros posicionais), ou null
+     * @param ordem  expressão do ORDER BY, ou null
+     */
+    public String sql(List<CampoProjetado> selecionados, String filtro, String ordem) {
+        Set<String> necessarias = selecionados.stream()
+                .flatMap(campo -> campo.juncoes().stream())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        List<String> partes = new ArrayList<>();
+        partes.add("SELECT " + selecionados.stream().map(CampoProjetado::expressao).collect(Collectors.joining(", ")));
+        partes.add("FROM " + from);
+        juncoes.forEach((nome, juncao) -> {
+            if (necessarias.contains(nome)) {
+                partes.add(juncao);
+            }
+        });
+        if (filtro != null) {
+            partes.add("WHERE " + filtro);
+        }
+        if (ordem != null) {
+            partes.add("ORDER BY " + ordem);
+        }
+        return String.join("\n", partes);
+    }
+}
@@ -0,0 +1,21 @@
+package br.com.ifpe.medplus_api.repository;
+
+import br.com.ifpe.medplus_api.model.acesso.Usuario;
+
+import java.util.Optional;
+
+/**
+ * Fragmento do {@link UsuarioRepository} para busca pelo natural id (email).
+ */
+public interface BuscaUsuarioPorEmail {
+
+    /**
+     * Busca um usuário (paciente, médico ou admin) pelo email usando o natural id do Hibernate.
+     * Diferente de {@code findByEmail}, que sempre executa uma query, esta busca resolve o email
+     * pelo cache de natural id e carrega a entidade do cache de segundo nível quando possível.
+     *
+     * @param email O email do usuário.
+     * @return Um Optional contendo o usuário, caso encontrado.
+     */
+    Optional<Usuario> buscarPorEmail(String email);
+}
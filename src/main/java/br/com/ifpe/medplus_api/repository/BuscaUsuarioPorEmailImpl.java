@@ -0,0 +1,24 @@
+package br.com.ifpe.medplus_api.repository;
+
+import br.com.ifpe.medplus_api.model.acesso.Usuario;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+
+import java.util.Optional;
+
+/**
+ * Implementação do fragmento {@link BuscaUsuarioPorEmail}, detectada pelo Spring Data pelo sufixo Impl.
+ */
+public class BuscaUsuarioPorEmailImpl implements BuscaUsuarioPorEmail {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Usuario> buscarPorEmail(String email) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Usuario.class)
+                .loadOptional(email);
+    }
+}
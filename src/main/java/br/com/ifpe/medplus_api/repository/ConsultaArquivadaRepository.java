@@ -0,0 +1,39 @@
+package br.com.ifpe.medplus_api.repository;
+
+import br.com.ifpe.medplus_api.model.consulta.ConsultaArquivada;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repositório (somente leitura) das consultas arquivadas.
+ * As buscas paginam por (dataHoraConsulta, id) decrescente, continuando a partir do último item recebido.
+ */
+@Repository
+public interface ConsultaArquivadaRepository extends JpaRepository<ConsultaArquivada, Long> {
+
+    @Query("SELECT c FROM ConsultaArquivada c JOIN FETCH c.medico " +
+           "WHERE c.paciente.id = :pacienteId " +
+           "AND c.dataHoraConsulta <= :antesDe AND (c.dataHoraConsulta < :antesDe OR c.id < :antesDeId) " +
+           "ORDER BY c.dataHoraConsulta DESC, c.id DESC")
+    List<ConsultaArquivada> findHistoricoPaciente(
+            @Param("pacienteId") Long pacienteId,
+            @Param("antesDe") LocalDateTime antesDe,
+            @Param("antesDeId") Long antesDeId,
+            Pageable pageable);
+
+    @Query("SELECT c FROM ConsultaArquivada c JOIN FETCH c.paciente " +
+           "WHERE c.medico.id = :medicoId " +
+           "AND c.dataHoraConsulta <= :antesDe AND (c.dataHoraConsulta < :antesDe OR c.id < :antesDeId) " +
+           "ORDER BY c.dataHoraConsulta DESC, c.id DESC")
+    List<ConsultaArquivada> findHistoricoMedico(
+            @Param("medicoId") Long medicoId,
+            @Param("antesDe") LocalDateTime antesDe,
+            @Param("antesDeId") Long antesDeId,
+            Pageable pageable);
+}
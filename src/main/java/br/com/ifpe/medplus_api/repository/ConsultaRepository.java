@@ -2,7 +2,6 @@
 package br.com.ifpe.medplus_api.repository;
 
 import br.com.ifpe.medplus_api.model.consulta.Consulta;
-import br.com.ifpe.medplus_api.model.consulta.StatusConsulta;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -12,12 +11,26 @@ import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
 import java.util.List;
 
+/**
+ * Repositório de consultas.
+ * tb_consulta é particionada por mês em data_hora_consulta: toda consulta aqui recebe um limite
+ * de data para que o Postgres leia só as partições do intervalo. A exceção é o findById herdado,
+ * que consulta o índice da PK de cada partição.
+ */
 @Repository
 public interface ConsultaRepository extends JpaRepository<Consulta, Long> {
 
-    List<Consulta> findByPacienteIdOrderByDataHoraConsultaDesc(Long pacienteId);
+    List<Consulta> findByPacienteIdAndDataHoraConsultaBetweenOrderByDataHoraConsultaDesc(
+            Long pacienteId, LocalDateTime inicio, LocalDateTime fim);
 
-    List<Consulta> findByMedicoIdOrderByDataHoraConsultaAsc(Long medicoId);
+    // Listagem do admin: médico e paciente (com os perfis, que são EAGER) vêm na mesma query
+    @Query("SELECT c FROM Consulta c " +
+           "JOIN FETCH c.medico m LEFT JOIN FETCH m.perfis " +
+           "JOIN FETCH c.paciente p LEFT JOIN FETCH p.perfis " +
+           "WHERE c.dataHoraConsulta BETWEEN :inicio AND :fim ORDER BY c.dataHoraConsulta DESC")
+    List<Consulta> findByDataHoraConsultaBetweenOrderByDataHoraConsultaDesc(
+            @Param("inicio") LocalDateTime inicio,
+            @Param("fim") LocalDateTime fim);
 
     @Query("SELECT c FROM Consulta c WHERE c.medico.id = :medicoId AND c.dataHoraConsulta >= :inicio AND c.dataHoraConsulta <= :fim ORDER BY c.dataHoraConsulta ASC")
     List<Consulta> findByMedicoIdAndDataHoraConsultaBetween(
@@ -31,47 +44,69 @@ public interface ConsultaRepository extends JpaRepository<Consulta, Long> {
             @Param("inicio") LocalDateTime inicio,
             @Param("fim") LocalDateTime fim);
 
-    List<Consulta> findByMedicoIdAndDataHoraConsultaAfterOrderByDataHoraConsultaAsc(Long medicoId, LocalDateTime dataHoraConsulta, Pageable pageable);
+    List<Consulta> findByMedicoIdAndDataHoraConsultaAfterAndDataHoraConsultaBeforeOrderByDataHoraConsultaAsc(
+            Long medicoId, LocalDateTime aPartirDe, LocalDateTime ate, Pageable pageable);
+
+    /**
+     * Status que ocupam o horário, em SQL literal. Precisa ser idêntico ao predicado dos índices
+     * parciais idx_consulta_medico_ativa/idx_consulta_paciente_ativa (V5) para que o Postgres os use.
+     */
+    String STATUS_ATIVOS_SQL = "('AGENDADA', 'CONFIRMADA', 'REAGENDADA')";
 
-    @Query("SELECT CASE WHEN COUNT(c) > 0 THEN TRUE ELSE FALSE END " +
-           "FROM Consulta c WHERE c.medico.id = :medicoId " +
-           "AND c.dataHoraConsulta = :dataHoraConsulta " +
-           "AND c.status NOT IN :statusExcluidos")
-    boolean existsByMedicoIdAndDataHoraConsultaAndStatusNotIn(
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM tb_consulta c " +
+                   "WHERE c.medico_id = :medicoId AND c.data_hora_consulta = :dataHora " +
+                   "AND c.status_consulta IN " + STATUS_ATIVOS_SQL + " LIMIT 1)",
+           nativeQuery = true)
+    boolean existeConsultaAtivaMedico(
             @Param("medicoId") Long medicoId,
-            @Param("dataHoraConsulta") LocalDateTime dataHoraConsulta,
-            @Param("statusExcluidos") List<StatusConsulta> statusExcluidos);
-
-    @Query("SELECT CASE WHEN COUNT(c) > 0 THEN TRUE ELSE FALSE END " +
-           "FROM Consulta c WHERE c.paciente.id = :pacienteId " +
-           "AND c.dataHoraConsulta = :dataHoraConsulta " +
-           "AND c.status NOT IN :statusExcluidos")
-    boolean existsByPacienteIdAndDataHoraConsultaAndStatusNotIn(
+            @Param("dataHora") LocalDateTime dataHora);
+
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM tb_consulta c " +
+                   "WHERE c.paciente_id = :pacienteId AND c.data_hora_consulta = :dataHora " +
+                   "AND c.status_consulta IN " + STATUS_ATIVOS_SQL + " LIMIT 1)",
+           nativeQuery = true)
+    boolean existeConsultaAtivaPaciente(
             @Param("pacienteId") Long pacienteId,
-            @Param("dataHoraConsulta") LocalDateTime dataHoraConsulta,
-            @Param("statusExcluidos") List<StatusConsulta> statusExcluidos);
-
-    // Métodos para verificar existência ignorando uma consulta específica (para reagendamento)
-    @Query("SELECT CASE WHEN COUNT(c) > 0 THEN TRUE ELSE FALSE END " +
-           "FROM Consulta c WHERE c.medico.id = :medicoId " +
-           "AND c.dataHoraConsulta = :dataHoraConsulta " +
-           "AND c.status NOT IN :statusExcluidos " +
-           "AND c.id <> :consultaId")
-    boolean existsByMedicoIdAndDataHoraConsultaAndStatusNotInAndIdNot(
+            @Param("dataHora") LocalDateTime dataHora);
+
+    // Histórico paginado por (dataHoraConsulta, id) decrescente; antesDe é o limite superior de data
+    @Query("SELECT c FROM Consulta c JOIN FETCH c.medico " +
+           "WHERE c.paciente.id = :pacienteId " +
+           "AND c.dataHoraConsulta <= :antesDe AND (c.dataHoraConsulta < :antesDe OR c.id < :antesDeId) " +
+           "ORDER BY c.dataHoraConsulta DESC, c.id DESC")
+    List<Consulta> findHistoricoPaciente(
+            @Param("pacienteId") Long pacienteId,
+            @Param("antesDe") LocalDateTime antesDe,
+            @Param("antesDeId") Long antesDeId,
+            Pageable pageable);
+
+    @Query("SELECT c FROM Consulta c JOIN FETCH c.paciente " +
+           "WHERE c.medico.id = :medicoId " +
+           "AND c.dataHoraConsulta <= :antesDe AND (c.dataHoraConsulta < :antesDe OR c.id < :antesDeId) " +
+           "ORDER BY c.dataHoraConsulta DESC, c.id DESC")
+    List<Consulta> findHistoricoMedico(
+            @Param("medicoId") Long medicoId,
+            @Param("antesDe") LocalDateTime antesDe,
+            @Param("antesDeId") Long antesDeId,
+            Pageable pageable);
+
+    // Mesmas verificações ignorando a própria consulta (para reagendamento)
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM tb_consulta c " +
+                   "WHERE c.medico_id = :medicoId AND c.data_hora_consulta = :dataHora " +
+                   "AND c.status_consulta IN " + STATUS_ATIVOS_SQL + " AND c.id <> :consultaId LIMIT 1)",
+           nativeQuery = true)
+    boolean existeOutraConsultaAtivaMedico(
             @Param("medicoId") Long medicoId,
-            @Param("dataHoraConsulta") LocalDateTime dataHoraConsulta,
-            @Param("statusExcluidos") List<StatusConsulta> statusExcluidos,
+            @Param("dataHora") LocalDateTime dataHora,
             @Param("consultaId") Long consultaId);
 
-    @Query("SELECT CASE WHEN COUNT(c) > 0 THEN TRUE ELSE FALSE END " +
-           "FROM Consulta c WHERE c.paciente.id = :pacienteId " +
-           "AND c.dataHoraConsulta = :dataHoraConsulta " +
-           "AND c.status NOT IN :statusExcluidos " +
-           "AND c.id <> :consultaId")
-    boolean existsByPacienteIdAndDataHoraConsultaAndStatusNotInAndIdNot(
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM tb_consulta c " +
+                   "WHERE c.paciente_id = :pacienteId AND c.data_hora_consulta = :dataHora " +
+                   "AND c.status_consulta IN " + STATUS_ATIVOS_SQL + " AND c.id <> :consultaId LIMIT 1)",
+           nativeQuery = true)
+    boolean existeOutraConsultaAtivaPaciente(
             @Param("pacienteId") Long pacienteId,
-            @Param("dataHoraConsulta") LocalDateTime dataHoraConsulta,
-            @Param("statusExcluidos") List<StatusConsulta> statusExcluidos,
+            @Param("dataHora") LocalDateTime dataHora,
             @Param("consultaId") Long consultaId);
 
 }
@@ -1,8 +1,11 @@
 package br.com.ifpe.medplus_api.repository;
 
 import br.com.ifpe.medplus_api.model.medico.Medico;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -33,9 +36,11 @@ public interface MedicoRepository extends JpaRepository<Medico, Long> {
 
     /**
      * Busca um médico pelo seu CRM.
+     * O resultado fica no cache de queries (o CRM não pode ser natural id: só a raiz Usuario tem um).
      * @param crm O CRM do médico.
      * @return Um Optional contendo o médico, se encontrado.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Medico> findByCrm(String crm);
 
     /**
@@ -79,5 +84,13 @@ public interface MedicoRepository extends JpaRepository<Medico, Long> {
      * @return Uma lista de todos os médicos ativos.
      */
     List<Medico> findAllByAtivoTrue();
+
+    /**
+     * Busca todos os médicos já com os perfis, que são EAGER: sem o fetch, cada médico
+     * carregado dispara uma consulta própria de perfis.
+     * @return Uma lista de todos os médicos.
+     */
+    @Query("SELECT m FROM Medico m LEFT JOIN FETCH m.perfis")
+    List<Medico> findAllWithPerfis();
 }
 
@@ -2,8 +2,10 @@ package br.com.ifpe.medplus_api.repository;
 
 import br.com.ifpe.medplus_api.model.paciente.Paciente;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -41,4 +43,12 @@ public interface PacienteRepository extends JpaRepository<Paciente, Long> {
      * @return true se existir, false caso contrário.
      */
     boolean existsByCpf(String cpf);
+
+    /**
+     * Busca todos os pacientes já com os perfis, que são EAGER: sem o fetch, cada paciente
+     * carregado dispara uma consulta própria de perfis.
+     * @return Uma lista de todos os pacientes.
+     */
+    @Query("SELECT p FROM Paciente p LEFT JOIN FETCH p.perfis")
+    List<Paciente> findAllWithPerfis();
 }
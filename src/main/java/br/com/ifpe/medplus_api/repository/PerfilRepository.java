@@ -2,7 +2,10 @@ package br.com.ifpe.medplus_api.repository;
 
 import br.com.ifpe.medplus_api.model.acesso.Perfil;
 import br.com.ifpe.medplus_api.model.acesso.PerfilEnum;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -18,5 +21,6 @@ public interface PerfilRepository extends JpaRepository<Perfil, Long> {
      * @param nomeEnum O enum do perfil (ex: PerfilEnum.ROLE_ADMIN).
      * @return Um Optional contendo o perfil, se encontrado.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Perfil> findByNome(PerfilEnum nomeEnum);
 }
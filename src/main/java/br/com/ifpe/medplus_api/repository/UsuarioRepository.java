@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -13,7 +14,7 @@ import java.util.Optional;
  * Fornece métodos para buscar usuários, incluindo a busca por email para autenticação.
  */
 @Repository
-public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
+public interface UsuarioRepository extends JpaRepository<Usuario, Long>, BuscaUsuarioPorEmail {
 
     /**
      * Busca um usuário pelo seu endereço de email, junto com os perfis.
@@ -25,6 +26,21 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
     @Query("SELECT u FROM Usuario u LEFT JOIN FETCH u.perfis WHERE u.email = :email")
     Optional<Usuario> findByEmailWithPerfis(@Param("email") String email);
 
+    /**
+     * Dados de login de um usuário, uma linha por perfil (perfil nulo se ele não tiver nenhum).
+     * Lê só tb_usuario e os perfis: carregar a entidade Usuario, com herança JOINED, juntaria
+     * também tb_paciente, tb_medico e tb_admin.
+     *
+     * @param email O email do usuário.
+     * @return As linhas encontradas; vazia se o email não existir.
+     */
+    @Query(value = "SELECT u.id AS id, u.email AS email, u.senha AS senha, u.ativo AS ativo, p.nome AS perfil "
+            + "FROM tb_usuario u "
+            + "LEFT JOIN tb_usuario_perfil up ON up.usuario_id = u.id "
+            + "LEFT JOIN tb_perfil p ON p.id = up.perfil_id "
+            + "WHERE u.email = :email", nativeQuery = true)
+    List<CredencialUsuario> buscarCredenciais(@Param("email") String email);
+
     /**
      * Busca um usuário pelo seu endereço de email.
      * Útil para validações ou buscas simples (sem os perfis explicitamente carregados).
@@ -57,4 +73,19 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
      * @return Um Optional contendo o usuário.
      */
     Optional<Usuario> findByCpf(String cpf);
+
+    /**
+     * Projeção de {@link #buscarCredenciais(String)}.
+     */
+    interface CredencialUsuario {
+        Long getId();
+
+        String getEmail();
+
+        String getSenha();
+
+        Boolean getAtivo();
+
+        String getPerfil();
+    }
 }
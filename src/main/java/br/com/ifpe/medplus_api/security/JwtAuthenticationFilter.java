@@ -1,5 +1,7 @@
 package br.com.ifpe.medplus_api.security;
 
+import br.com.ifpe.medplus_api.model.acesso.PerfilEnum;
+import br.com.ifpe.medplus_api.monitoramento.RegistroTempos;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -51,13 +53,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // Extrai o token JWT (remove o prefixo "Bearer ").
         jwt = authHeader.substring(BEARER_PREFIX.length());
 
+        long inicioAuth = System.nanoTime(); // Tempo da fase "auth" no Server-Timing
         try {
             userEmail = jwtService.extractUsername(jwt); // Extrai o email do usuário do token.
 
             // Se o email foi extraído e não há autenticação no contexto de segurança atual.
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
                 // Carrega os detalhes do usuário a partir do email.
+                long inicioUsuario = System.nanoTime();
                 UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+                RegistroTempos.adicionar(RegistroTempos.Fase.USUARIO, System.nanoTime() - inicioUsuario);
 
                 // Valida o token.
                 if (jwtService.isTokenValid(jwt, userDetails)) {
@@ -71,6 +76,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     // Define o objeto de autenticação no SecurityContextHolder.
                     SecurityContextHolder.getContext().setAuthentication(authToken);
+
+                    // Somente administradores podem receber o detalhamento de tempos.
+                    if (userDetails.getAuthorities().stream().anyMatch(a -> PerfilEnum.ROLE_ADMIN.name().equals(a.getAuthority()))) {
+                        RegistroTempos.permitirExposicao();
+                    }
                 }
             }
         } catch (Exception e) {
@@ -80,6 +90,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             logger.warn("Não foi possível processar o token JWT: " + e.getMessage());
             // response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Token JWT inválido ou expirado");
             // return; // Opcional: pode retornar um erro 401 aqui ou deixar o Spring Security tratar
+        } finally {
+            RegistroTempos.adicionar(RegistroTempos.Fase.AUTH, System.nanoTime() - inicioAuth);
         }
 
         // Continua a cadeia de filtros.
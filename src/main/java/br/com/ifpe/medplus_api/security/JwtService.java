@@ -1,6 +1,5 @@
 package br.com.ifpe.medplus_api.security;
 
-import br.com.ifpe.medplus_api.model.acesso.Usuario;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -39,8 +38,7 @@ public class JwtService {
 
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> extraClaims = new HashMap<>();
-        if (userDetails instanceof Usuario) {
-            Usuario usuario = (Usuario) userDetails;
+        if (userDetails instanceof UsuarioAutenticado usuario) {
             extraClaims.put("userId", usuario.getId());
             
             // --- CORREÇÃO CRÍTICA AQUI ---
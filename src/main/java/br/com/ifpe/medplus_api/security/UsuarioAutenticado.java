@@ -0,0 +1,61 @@
+package br.com.ifpe.medplus_api.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Principal das requisições autenticadas: só o que o login e a validação do token usam.
+ *
+ * Vem de uma consulta apenas em tb_usuario e nos perfis ({@link UsuarioAutenticadoService}), sem
+ * carregar a entidade {@code Usuario}, cuja herança JOINED obriga o Hibernate a juntar as tabelas
+ * de paciente, médico e admin para descobrir o tipo.
+ */
+public final class UsuarioAutenticado implements UserDetails {
+
+    private final Long id;
+    private final String email;
+    private final String senha;
+    private final boolean ativo;
+    private final Set<GrantedAuthority> perfis;
+
+    public UsuarioAutenticado(Long id, String email, String senha, boolean ativo, Set<GrantedAuthority> perfis) {
+        this.id = id;
+        this.email = email;
+        this.senha = senha;
+        this.ativo = ativo;
+        this.perfis = Set.copyOf(perfis);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return perfis;
+    }
+
+    @Override
+    public String getPassword() {
+        return senha;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return ativo;
+    }
+
+    @Override
+    public String toString() {
+        // Sem a senha: o principal pode acabar em logs
+        return "UsuarioAutenticado[id=" + id + ", email=" + email + ", ativo=" + ativo + ", perfis=" + perfis + "]";
+    }
+}
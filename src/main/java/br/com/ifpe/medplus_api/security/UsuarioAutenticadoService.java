@@ -0,0 +1,106 @@
+package br.com.ifpe.medplus_api.security;
+
+import br.com.ifpe.medplus_api.cache.Invalidacao;
+import br.com.ifpe.medplus_api.model.acesso.Usuario;
+import br.com.ifpe.medplus_api.model.admin.Admin;
+import br.com.ifpe.medplus_api.model.medico.Medico;
+import br.com.ifpe.medplus_api.model.paciente.Paciente;
+import br.com.ifpe.medplus_api.repository.UsuarioRepository;
+import br.com.ifpe.medplus_api.repository.UsuarioRepository.CredencialUsuario;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link UserDetailsService} do login e do filtro JWT, baseado em {@link UsuarioAutenticado}.
+ *
+ * Como o filtro carrega o usuário a cada requisição, os resultados ficam guardados por e-mail
+ * durante {@code ttl}. Escritas em usuários ou nos seus perfis, de qualquer nó, chegam pelo canal
+ * de invalidação do cache ({@link #invalidar(Invalidacao)}) e descartam a entrada na hora; o
+ * {@code ttl} só limita o tempo de uma entrada se uma mensagem se perder.
+ */
+public class UsuarioAutenticadoService implements UserDetailsService {
+
+    private static final Set<String> ENTIDADES_USUARIO = Set.of(Usuario.class.getName(), Paciente.class.getName(),
+            Medico.class.getName(), Admin.class.getName());
+    private static final String PERFIS_USUARIO = Usuario.class.getName() + ".perfis";
+
+    private final UsuarioRepository usuarioRepository;
+    private final long ttlNanos;
+    private final int maximoEntradas;
+    private final Map<String, Entrada> cache = new ConcurrentHashMap<>();
+
+    private record Entrada(UsuarioAutenticado usuario, long expiraEm) {
+    }
+
+    public UsuarioAutenticadoService(UsuarioRepository usuarioRepository, Duration ttl, int maximoEntradas) {
+        this.usuarioRepository = usuarioRepository;
+        this.ttlNanos = ttl.toNanos();
+        this.maximoEntradas = maximoEntradas;
+    }
+
+    @Override
+    public UsuarioAutenticado loadUserByUsername(String email) throws UsernameNotFoundException {
+        long agora = System.nanoTime();
+        Entrada entrada = cache.get(email);
+        if (entrada != null && agora - entrada.expiraEm() < 0) {
+            return entrada.usuario();
+        }
+        UsuarioAutenticado usuario = carregar(email);
+        if (ttlNanos > 0) {
+            if (cache.size() >= maximoEntradas) {
+                cache.clear();
+            }
+            cache.put(email, new Entrada(usuario, agora + ttlNanos));
+        }
+        return usuario;
+    }
+
+    private UsuarioAutenticado carregar(String email) {
+        List<CredencialUsuario> linhas = usuarioRepository.buscarCredenciais(email);
+        if (linhas.isEmpty()) {
+            throw new UsernameNotFoundException("Usuário não encontrado com o email: " + email);
+        }
+        CredencialUsuario primeira = linhas.get(0);
+        Set<GrantedAuthority> perfis = new HashSet<>();
+        for (CredencialUsuario linha : linhas) {
+            if (linha.getPerfil() != null) {
+                perfis.add(new SimpleGrantedAuthority(linha.getPerfil()));
+            }
+        }
+        return new UsuarioAutenticado(primeira.getId(), primeira.getEmail(), primeira.getSenha(),
+                Boolean.TRUE.equals(primeira.getAtivo()), perfis);
+    }
+
+    /**
+     * Assinante do canal de invalidação. Recebe também as mensagens do próprio nó, que chegam
+     * depois do commit da escrita.
+     */
+    public void invalidar(Invalidacao invalidacao) {
+        switch (invalidacao.tipo()) {
+            case ENTIDADE -> {
+                if (ENTIDADES_USUARIO.contains(invalidacao.nome())) {
+                    removerPorId(invalidacao.id());
+                }
+            }
+            case COLECAO -> {
+                if (PERFIS_USUARIO.equals(invalidacao.nome())) {
+                    removerPorId(invalidacao.id());
+                }
+            }
+            case TUDO -> cache.clear();
+        }
+    }
+
+    private void removerPorId(String id) {
+        cache.values().removeIf(entrada -> String.valueOf(entrada.usuario().getId()).equals(id));
+    }
+}
@@ -114,7 +114,9 @@ public class AdminService {
      */
     @Transactional(readOnly = true)
     public Admin buscarPorEmail(String email) {
-        return adminRepository.findByEmail(email)
+        return usuarioRepository.buscarPorEmail(email)
+                .filter(Admin.class::isInstance)
+                .map(Admin.class::cast)
                 .orElseThrow(() -> new EntidadeNaoEncontradaException("Administrador não encontrado com email: " + email));
     }
 
@@ -0,0 +1,97 @@
+package br.com.ifpe.medplus_api.service;
+
+import br.com.ifpe.medplus_api.carga.CargaTrabalho;
+import br.com.ifpe.medplus_api.carga.ClasseCarga;
+import br.com.ifpe.medplus_api.model.consulta.StatusConsulta;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Move para tb_consulta_arquivo as consultas encerradas mais antigas que
+ * {@code app.consultas.arquivamento.idade-meses}.
+ *
+ * Cada lote é um único comando (DELETE ... RETURNING alimentando o INSERT), portanto atômico, e
+ * usa SKIP LOCKED para não esperar por consultas que estejam sendo alteradas no momento. Um id
+ * que já esteja no arquivo é sobrescrito com o estado que acabou de sair de tb_consulta, nunca
+ * descartado.
+ */
+@Service
+@CargaTrabalho(ClasseCarga.BACKGROUND)
+@ConditionalOnProperty(name = "app.consultas.arquivamento.habilitado", havingValue = "true", matchIfMissing = true)
+public class ArquivamentoConsultasService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArquivamentoConsultasService.class);
+
+    /** Status que não mudam mais; consultas ainda em aberto nunca são arquivadas. */
+    public static final Set<StatusConsulta> STATUS_ENCERRADOS = EnumSet.of(
+            StatusConsulta.REALIZADA, StatusConsulta.NAO_COMPARECEU, StatusConsulta.CANCELADA_PACIENTE,
+            StatusConsulta.CANCELADA_MEDICO, StatusConsulta.CANCELADA_ADMIN);
+
+    private static final String SQL_ARQUIVAR_LOTE = """
+            WITH lote AS (
+                SELECT id, data_hora_consulta FROM tb_consulta
+                WHERE data_hora_consulta < ? AND status_consulta IN (%s)
+                ORDER BY data_hora_consulta
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            ), movidas AS (
+                DELETE FROM tb_consulta c USING lote
+                WHERE c.id = lote.id AND c.data_hora_consulta = lote.data_hora_consulta
+                RETURNING c.id, c.paciente_id, c.medico_id, c.data_hora_consulta, c.status_consulta,
+                          c.observacoes, c.motivo_cancelamento, c.data_criacao
+            )
+            INSERT INTO tb_consulta_arquivo (id, paciente_id, medico_id, data_hora_consulta, status_consulta,
+                                             observacoes, motivo_cancelamento, data_criacao)
+            SELECT * FROM movidas
+            ON CONFLICT (id) DO UPDATE SET
+                paciente_id = EXCLUDED.paciente_id, medico_id = EXCLUDED.medico_id,
+                data_hora_consulta = EXCLUDED.data_hora_consulta, status_consulta = EXCLUDED.status_consulta,
+                observacoes = EXCLUDED.observacoes, motivo_cancelamento = EXCLUDED.motivo_cancelamento,
+                data_criacao = EXCLUDED.data_criacao, data_arquivamento = now()
+            """.formatted(STATUS_ENCERRADOS.stream().map(s -> "'" + s.name() + "'").collect(Collectors.joining(", ")));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.consultas.arquivamento.idade-meses:24}")
+    private int idadeMeses;
+
+    @Value("${app.consultas.arquivamento.lote:5000}")
+    private int tamanhoLote;
+
+    public ArquivamentoConsultasService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Scheduled(cron = "${app.consultas.arquivamento.cron:0 30 3 * * *}")
+    public void arquivar() {
+        Timestamp limite = Timestamp.valueOf(LocalDateTime.now().minusMonths(idadeMeses));
+        long inicio = System.nanoTime();
+        long total = 0;
+        try {
+            int movidas;
+            do {
+                movidas = jdbcTemplate.update(SQL_ARQUIVAR_LOTE, limite, tamanhoLote);
+                total += movidas;
+            } while (movidas == tamanhoLote);
+        } catch (DataAccessException e) {
+            logger.error("Arquivamento de consultas interrompido após {} consultas: {}", total, e.getMessage());
+            return;
+        }
+        if (total > 0) {
+            logger.info("{} consultas anteriores a {} arquivadas em {} ms",
+                    total, limite, (System.nanoTime() - inicio) / 1_000_000);
+        }
+    }
+}
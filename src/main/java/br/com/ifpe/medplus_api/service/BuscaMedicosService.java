@@ -0,0 +1,172 @@
+package br.com.ifpe.medplus_api.service;
+
+import br.com.ifpe.medplus_api.busca.FiltroBuscaMedicos;
+import br.com.ifpe.medplus_api.busca.IndiceMedicos;
+import br.com.ifpe.medplus_api.busca.MedicoAlteradoEvent;
+import br.com.ifpe.medplus_api.busca.MedicoIndexado;
+import br.com.ifpe.medplus_api.busca.ResultadoBuscaMedicos;
+import br.com.ifpe.medplus_api.cache.CanalInvalidacaoCache;
+import br.com.ifpe.medplus_api.cache.IdentificadorNo;
+import br.com.ifpe.medplus_api.cache.Invalidacao;
+import br.com.ifpe.medplus_api.carga.CargaTrabalho;
+import br.com.ifpe.medplus_api.carga.ClasseCarga;
+import br.com.ifpe.medplus_api.model.common.Endereco;
+import br.com.ifpe.medplus_api.model.consulta.DisponibilidadeMedico;
+import br.com.ifpe.medplus_api.model.medico.Medico;
+import br.com.ifpe.medplus_api.repository.DisponibilidadeMedicoRepository;
+import br.com.ifpe.medplus_api.repository.MedicoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Diretório de médicos servido pelo {@link IndiceMedicos} em memória.
+ *
+ * O índice é carregado na subida e atualizado médico a médico: pelas escritas deste nó
+ * ({@link MedicoAlteradoEvent}, depois do commit) e pelas dos outros nós (mensagens do
+ * {@link CanalInvalidacaoCache}). A reconstrução periódica cobre escritas que não passam por
+ * nenhum dos dois, como SQL direto no banco.
+ *
+ * Uma alteração que chega durante a reconstrução pode ter sido lida antes do instantâneo, mas
+ * aplicada ao índice antigo, que o {@code substituirTudo} descarta. Por isso a reconstrução anota os
+ * médicos reindexados enquanto ela roda e os relê depois de trocar o índice.
+ */
+@Service
+public class BuscaMedicosService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BuscaMedicosService.class);
+
+    private final IndiceMedicos indice = new IndiceMedicos();
+    private final MedicoRepository medicoRepository;
+    private final DisponibilidadeMedicoRepository disponibilidadeRepository;
+    private final TransactionTemplate transacaoLeitura;
+
+    /** Médicos reindexados durante a reconstrução em curso; null fora dela. */
+    private final AtomicReference<Set<Long>> alteradosDuranteReconstrucao = new AtomicReference<>();
+
+    public BuscaMedicosService(MedicoRepository medicoRepository,
+                               DisponibilidadeMedicoRepository disponibilidadeRepository,
+                               PlatformTransactionManager transactionManager,
+                               CanalInvalidacaoCache canalInvalidacao) {
+        this.medicoRepository = medicoRepository;
+        this.disponibilidadeRepository = disponibilidadeRepository;
+        this.transacaoLeitura = new TransactionTemplate(transactionManager);
+        this.transacaoLeitura.setReadOnly(true);
+        this.transacaoLeitura.setPropagationBehavior(TransactionTemplate.PROPAGATION_REQUIRES_NEW);
+        canalInvalidacao.assinar(this::aplicarAlteracaoDeOutroNo);
+    }
+
+    public ResultadoBuscaMedicos buscar(FiltroBuscaMedicos filtro) {
+        return indice.buscar(filtro);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @CargaTrabalho(ClasseCarga.BACKGROUND)
+    @Scheduled(initialDelayString = "${app.busca.medicos.reconstrucao-ms:600000}",
+               fixedDelayString = "${app.busca.medicos.reconstrucao-ms:600000}")
+    public synchronized void reconstruir() {
+        long inicio = System.nanoTime();
+        alteradosDuranteReconstrucao.set(ConcurrentHashMap.newKeySet());
+        List<MedicoIndexado> todos;
+        try {
+            todos = transacaoLeitura.execute(status -> {
+                Map<Long, Set<DayOfWeek>> dias = new HashMap<>();
+                for (DisponibilidadeMedico disponibilidade : disponibilidadeRepository.findAll()) {
+                    if (disponibilidade.isAtivo()) {
+                        dias.computeIfAbsent(disponibilidade.getMedico().getId(), id -> EnumSet.noneOf(DayOfWeek.class))
+                                .add(disponibilidade.getDiaSemana());
+                    }
+                }
+                return medicoRepository.findAll().stream()
+                        .map(medico -> indexar(medico, dias.getOrDefault(medico.getId(), Set.of())))
+                        .toList();
+            });
+            indice.substituirTudo(todos);
+        } finally {
+            // Relê quem mudou enquanto o instantâneo era montado: a versão aplicada ao índice antigo se perdeu
+            alteradosDuranteReconstrucao.getAndSet(null).forEach(this::reindexar);
+        }
+        logger.info("Índice de busca de médicos reconstruído: {} médicos em {} ms",
+                todos.size(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarMedico(MedicoAlteradoEvent evento) {
+        reindexar(evento.medicoId());
+    }
+
+    private void reindexar(Long medicoId) {
+        Set<Long> alterados = alteradosDuranteReconstrucao.get();
+        if (alterados != null) {
+            alterados.add(medicoId);
+        }
+        MedicoIndexado atualizado = transacaoLeitura.execute(status -> medicoRepository.findById(medicoId)
+                .map(medico -> indexar(medico, diasComDisponibilidade(medico.getDisponibilidades())))
+                .orElse(null));
+        if (atualizado == null) {
+            indice.remover(medicoId);
+        } else {
+            indice.atualizar(atualizado);
+        }
+    }
+
+    private void aplicarAlteracaoDeOutroNo(Invalidacao invalidacao) {
+        if (IdentificadorNo.ATUAL.equals(invalidacao.origem())) {
+            return;
+        }
+        switch (invalidacao.tipo()) {
+            case ENTIDADE -> {
+                if (Medico.class.getName().equals(invalidacao.nome())) {
+                    reindexar(Long.valueOf(invalidacao.id()));
+                } else if (DisponibilidadeMedico.class.getName().equals(invalidacao.nome())) {
+                    Long medicoId = transacaoLeitura.execute(status -> disponibilidadeRepository
+                            .findById(Long.valueOf(invalidacao.id()))
+                            .map(d -> d.getMedico().getId())
+                            .orElse(null));
+                    if (medicoId != null) {
+                        reindexar(medicoId);
+                    }
+                }
+            }
+            case COLECAO -> {
+                // Disponibilidade removida: a mensagem da coleção traz o id do médico
+                if ((Medico.class.getName() + ".disponibilidades").equals(invalidacao.nome())) {
+                    reindexar(Long.valueOf(invalidacao.id()));
+                }
+            }
+            case TUDO -> reconstruir();
+        }
+    }
+
+    private static Set<DayOfWeek> diasComDisponibilidade(List<DisponibilidadeMedico> disponibilidades) {
+        Set<DayOfWeek> dias = EnumSet.noneOf(DayOfWeek.class);
+        for (DisponibilidadeMedico disponibilidade : disponibilidades) {
+            if (disponibilidade.isAtivo()) {
+                dias.add(disponibilidade.getDiaSemana());
+            }
+        }
+        return dias;
+    }
+
+    private static MedicoIndexado indexar(Medico medico, Set<DayOfWeek> dias) {
+        Endereco endereco = medico.getEndereco();
+        return new MedicoIndexado(medico.getId(), medico.getNome(), medico.getCrm(), medico.getEspecialidade(),
+                endereco != null ? endereco.getCidade() : null, endereco != null ? endereco.getUf() : null,
+                medico.isAtivo(), dias);
+    }
+}
@@ -0,0 +1,282 @@
+package br.com.ifpe.medplus_api.service;
+
+import br.com.ifpe.medplus_api.agenda.CanalAgenda;
+import br.com.ifpe.medplus_api.agenda.EventoAgenda;
+import br.com.ifpe.medplus_api.calendario.EventoCalendario;
+import br.com.ifpe.medplus_api.calendario.GeradorIcs;
+import br.com.ifpe.medplus_api.concorrencia.Coalescer;
+import br.com.ifpe.medplus_api.model.acesso.PerfilEnum;
+import br.com.ifpe.medplus_api.model.consulta.StatusConsulta;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Feeds iCalendar das agendas de médicos e pacientes, acessados por token secreto.
+ *
+ * Aplicativos de calendário consultam o feed a cada poucos minutos, quase sempre sem mudança. Por
+ * isso o feed gerado fica em memória com o seu ETag e só é refeito depois que uma consulta do
+ * titular muda: os mesmos eventos de {@link ConsultaService} (e dos cancelamentos em lote) que
+ * alimentam a agenda ao vivo invalidam o feed do médico e do paciente envolvidos. Com o canal de
+ * agenda ativo, a invalidação chega também aos outros nós. A validade
+ * ({@code app.calendario.validade}) cobre o deslizamento da janela de datas e eventos perdidos.
+ *
+ * Na consulta já em cache, nem o token vai ao banco: o mapeamento token → titular também fica em
+ * memória por alguns minutos. Só valem tokens de usuários ativos; a desativação apaga o token e,
+ * neste nó, esquece o mapeamento na hora.
+ */
+@Service
+public class CalendarioService {
+
+    private static final SecureRandom ALEATORIO = new SecureRandom();
+    private static final Duration VALIDADE_TOKEN_EM_MEMORIA = Duration.ofMinutes(5);
+
+    private static final String SQL_TITULAR = """
+            SELECT t.usuario_id, t.titular
+            FROM tb_calendario_token t
+            JOIN tb_usuario u ON u.id = t.usuario_id
+            WHERE t.token_hash = ? AND u.ativo
+            """;
+
+    private static final String SQL_FEED_MEDICO = """
+            SELECT c.id, c.data_hora_consulta, c.status_consulta, coalesce(c.data_atualizacao, c.data_criacao),
+                   c.versao, u.nome, NULL
+            FROM tb_consulta c
+            JOIN tb_usuario u ON u.id = c.paciente_id
+            WHERE c.medico_id = ? AND c.data_hora_consulta BETWEEN ? AND ?
+            ORDER BY c.data_hora_consulta, c.id
+            """;
+
+    private static final String SQL_FEED_PACIENTE = """
+            SELECT c.id, c.data_hora_consulta, c.status_consulta, coalesce(c.data_atualizacao, c.data_criacao),
+                   c.versao, u.nome, m.especialidade
+            FROM tb_consulta c
+            JOIN tb_usuario u ON u.id = c.medico_id
+            JOIN tb_medico m ON m.usuario_id = c.medico_id
+            WHERE c.paciente_id = ? AND c.data_hora_consulta BETWEEN ? AND ?
+            ORDER BY c.data_hora_consulta, c.id
+            """;
+
+    /** Dono de um feed. */
+    public record Titular(Long usuarioId, PerfilEnum perfil) {
+    }
+
+    /** Feed gerado, com o ETag do conteúdo. */
+    public record Feed(byte[] conteudo, String etag, LocalDateTime geradoEm) {
+    }
+
+    private record TokenEmMemoria(Titular titular, LocalDateTime carregadoEm) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final GeradorIcs gerador;
+    private final Duration validade;
+    private final int janelaPassadoDias;
+    private final Map<String, TokenEmMemoria> tokens;
+    private final Map<Titular, Feed> feeds;
+    private final AtomicLong sequencia = new AtomicLong();
+    private final Map<Titular, Long> invalidadoEm = new ConcurrentHashMap<>();
+
+    @Value("${app.consultas.janela-futuro-meses:6}")
+    private int janelaFuturoMeses;
+
+    public CalendarioService(JdbcTemplate jdbcTemplate,
+                             ObjectProvider<CanalAgenda> canalAgenda,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.calendario.fuso:America/Recife}") ZoneId fuso,
+                             @Value("${app.calendario.duracao-consulta:30m}") Duration duracaoConsulta,
+                             @Value("${app.calendario.validade:15m}") Duration validade,
+                             @Value("${app.calendario.janela-passado-dias:30}") int janelaPassadoDias,
+                             @Value("${app.calendario.maximo-feeds:5000}") int maximoFeeds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.gerador = new GeradorIcs(fuso, duracaoConsulta, "medplus");
+        this.validade = validade;
+        this.janelaPassadoDias = janelaPassadoDias;
+        this.tokens = lru(maximoFeeds);
+        this.feeds = lru(maximoFeeds);
+        meterRegistry.gauge("medplus.calendario.feeds", feeds, mapa -> {
+            synchronized (mapa) {
+                return mapa.size();
+            }
+        });
+        canalAgenda.ifAvailable(canal -> canal.assinar(this::aoReceberEventoAgenda));
+    }
+
+    /**
+     * Gera um token novo para o usuário, substituindo o anterior. O token só é devolvido aqui.
+     */
+    @Transactional
+    public String gerarToken(Long usuarioId, PerfilEnum perfil) {
+        byte[] bytes = new byte[32];
+        ALEATORIO.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        jdbcTemplate.update("""
+                INSERT INTO tb_calendario_token (usuario_id, token_hash, titular) VALUES (?, ?, ?)
+                ON CONFLICT (usuario_id) DO UPDATE SET token_hash = excluded.token_hash,
+                    titular = excluded.titular, criado_em = now()
+                """, usuarioId, hash(token), perfil.getNome());
+        esquecerTokens(usuarioId);
+        return token;
+    }
+
+    @Transactional
+    public void revogarToken(Long usuarioId) {
+        jdbcTemplate.update("DELETE FROM tb_calendario_token WHERE usuario_id = ?", usuarioId);
+        esquecerTokens(usuarioId);
+    }
+
+    /**
+     * @return feed do titular do token, ou vazio se o token não existe (ou foi revogado)
+     */
+    @Coalescer
+    @Transactional(readOnly = true)
+    public Optional<Feed> feed(String token) {
+        return titular(token).map(this::feed);
+    }
+
+    private Feed feed(Titular titular) {
+        LocalDateTime agora = LocalDateTime.now();
+        synchronized (feeds) {
+            Feed emCache = feeds.get(titular);
+            if (emCache != null && emCache.geradoEm().plus(validade).isAfter(agora)) {
+                return emCache;
+            }
+        }
+        long inicio = sequencia.get();
+        Feed novo = gerar(titular, agora);
+        // Se o feed foi invalidado enquanto era gerado, serve este mas não guarda
+        if (invalidadoEm.getOrDefault(titular, -1L) <= inicio) {
+            synchronized (feeds) {
+                feeds.put(titular, novo);
+            }
+        }
+        return novo;
+    }
+
+    private Feed gerar(Titular titular, LocalDateTime agora) {
+        boolean medico = titular.perfil() == PerfilEnum.ROLE_MEDICO;
+        List<EventoCalendario> eventos = jdbcTemplate.query(medico ? SQL_FEED_MEDICO : SQL_FEED_PACIENTE,
+                (rs, i) -> new EventoCalendario(rs.getLong(1), rs.getTimestamp(2).toLocalDateTime(),
+                        medico ? "Consulta: " + rs.getString(6)
+                                : "Consulta com Dr(a). " + rs.getString(6) + " (" + rs.getString(7) + ")",
+                        StatusConsulta.valueOf(rs.getString(3)), rs.getTimestamp(4).toLocalDateTime(), rs.getLong(5)),
+                titular.usuarioId(),
+                Timestamp.valueOf(agora.minusDays(janelaPassadoDias)),
+                Timestamp.valueOf(agora.plusMonths(janelaFuturoMeses)));
+        byte[] conteudo = gerador.gerar(medico ? "MedPlus - Agenda" : "MedPlus - Minhas consultas", eventos)
+                .getBytes(StandardCharsets.UTF_8);
+        return new Feed(conteudo, "\"" + hash(conteudo).substring(0, 32) + "\"", agora);
+    }
+
+    private Optional<Titular> titular(String token) {
+        String tokenHash = hash(token);
+        LocalDateTime agora = LocalDateTime.now();
+        synchronized (tokens) {
+            TokenEmMemoria emMemoria = tokens.get(tokenHash);
+            if (emMemoria != null && emMemoria.carregadoEm().plus(VALIDADE_TOKEN_EM_MEMORIA).isAfter(agora)) {
+                return Optional.of(emMemoria.titular());
+            }
+        }
+        List<Titular> encontrados = jdbcTemplate.query(SQL_TITULAR,
+                (rs, i) -> new Titular(rs.getLong(1), PerfilEnum.fromString(rs.getString(2))), tokenHash);
+        if (encontrados.isEmpty()) {
+            return Optional.empty();
+        }
+        synchronized (tokens) {
+            tokens.put(tokenHash, new TokenEmMemoria(encontrados.get(0), agora));
+        }
+        return Optional.of(encontrados.get(0));
+    }
+
+    @TransactionalEventListener
+    public void aoAlterarConsulta(ConsultaAlteradaEvent evento) {
+        invalidar(evento.medicoId(), evento.pacienteId());
+    }
+
+    @TransactionalEventListener
+    public void aoCancelarConsultas(ConsultasCanceladasEvent evento) {
+        evento.consultas().forEach(consulta -> invalidar(consulta.medicoId(), consulta.pacienteId()));
+    }
+
+    /**
+     * A liquidação roda fora de transação; o evento já traz os titulares de cada consulta do lote.
+     */
+    @EventListener
+    public void aoLiquidarConsultas(ConsultasLiquidadasEvent evento) {
+        evento.consultas().forEach(consulta -> invalidar(consulta.medicoId(), consulta.pacienteId()));
+    }
+
+    @TransactionalEventListener
+    public void aoDesativarUsuarios(UsuariosDesativadosEvent evento) {
+        for (Long usuarioId : evento.usuarioIds()) {
+            esquecerTokens(usuarioId);
+            // O id é de um médico ou de um paciente; invalidar os dois perfis cobre ambos
+            invalidar(usuarioId, usuarioId);
+        }
+    }
+
+    private void aoReceberEventoAgenda(EventoAgenda evento) {
+        invalidar(evento.medicoId(), evento.pacienteId());
+    }
+
+    private void invalidar(Long medicoId, Long pacienteId) {
+        long seq = sequencia.incrementAndGet();
+        Titular medico = new Titular(medicoId, PerfilEnum.ROLE_MEDICO);
+        Titular paciente = new Titular(pacienteId, PerfilEnum.ROLE_PACIENTE);
+        invalidadoEm.put(medico, seq);
+        invalidadoEm.put(paciente, seq);
+        synchronized (feeds) {
+            feeds.remove(medico);
+            feeds.remove(paciente);
+        }
+    }
+
+    private void esquecerTokens(Long usuarioId) {
+        synchronized (tokens) {
+            tokens.values().removeIf(token -> token.titular().usuarioId().equals(usuarioId));
+        }
+    }
+
+    private static <K, V> Map<K, V> lru(int maximo) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> maisAntiga) {
+                return size() > maximo;
+            }
+        };
+    }
+
+    private static String hash(String valor) {
+        return hash(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String hash(byte[] valor) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(valor));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
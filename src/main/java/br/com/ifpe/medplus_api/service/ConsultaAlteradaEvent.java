@@ -0,0 +1,19 @@
+package br.com.ifpe.medplus_api.service;
+
+import br.com.ifpe.medplus_api.model.consulta.StatusConsulta;
+
+import java.time.LocalDateTime;
+
+/**
+ * Publicado pelo {@link ConsultaService} a cada agendamento, cancelamento, reagendamento ou mudança
+ * de status; os ouvintes reagem depois do commit (agenda ao vivo dos médicos).
+ *
+ * @param pacienteNome nome do paciente já carregado na transação, para o ouvinte não consultar o banco
+ */
+public record ConsultaAlteradaEvent(Tipo tipo, Long consultaId, Long medicoId, Long pacienteId, String pacienteNome,
+                                    LocalDateTime dataHora, StatusConsulta status) {
+
+    public enum Tipo {
+        AGENDADA, CANCELADA, REAGENDADA, STATUS_ALTERADO
+    }
+}
@@ -1,5 +1,6 @@
 package br.com.ifpe.medplus_api.service;
 
+import br.com.ifpe.medplus_api.concorrencia.RetentarEmConflito;
 import br.com.ifpe.medplus_api.model.acesso.PerfilEnum;
 import br.com.ifpe.medplus_api.model.consulta.Consulta;
 import br.com.ifpe.medplus_api.model.consulta.DisponibilidadeMedico;
@@ -14,6 +15,8 @@ import br.com.ifpe.medplus_api.util.exception.EntidadeNaoEncontradaException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,7 +25,6 @@ import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
@@ -42,19 +44,29 @@ public class ConsultaService {
     private final MedicoRepository medicoRepository;
     private final DisponibilidadeMedicoRepository disponibilidadeMedicoRepository;
     private final EmailService emailService;
+    private final ApplicationEventPublisher eventPublisher;
 
     private static final Duration DURACAO_CONSULTA_PADRAO = Duration.ofMinutes(30);
 
+    // Janela de datas das listagens; mantém as consultas restritas às partições recentes de tb_consulta
+    @Value("${app.consultas.janela-passado-meses:12}")
+    private int janelaPassadoMeses;
+
+    @Value("${app.consultas.janela-futuro-meses:6}")
+    private int janelaFuturoMeses;
+
     public ConsultaService(ConsultaRepository consultaRepository,
                            PacienteRepository pacienteRepository,
                            MedicoRepository medicoRepository,
                            DisponibilidadeMedicoRepository disponibilidadeMedicoRepository,
-                           EmailService emailService) {
+                           EmailService emailService,
+                           ApplicationEventPublisher eventPublisher) {
         this.consultaRepository = consultaRepository;
         this.pacienteRepository = pacienteRepository;
         this.medicoRepository = medicoRepository;
         this.disponibilidadeMedicoRepository = disponibilidadeMedicoRepository;
         this.emailService = emailService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
@@ -79,20 +91,14 @@ public class ConsultaService {
             throw new IllegalArgumentException("Horário não disponível para o médico selecionado.");
         }
 
-        // Validar se o médico já tem consulta nesse horário (status relevantes)
-        List<StatusConsulta> statusExcluidos = Arrays.asList(
-            StatusConsulta.CANCELADA_ADMIN, StatusConsulta.CANCELADA_MEDICO,
-            StatusConsulta.CANCELADA_PACIENTE, StatusConsulta.NAO_COMPARECEU, StatusConsulta.REAGENDADA);
-
-        boolean medicoTemConsultaConflito = consultaRepository.existsByMedicoIdAndDataHoraConsultaAndStatusNotIn(
-            medicoId, dataHoraConsulta, statusExcluidos);
+        // Validar se o médico já tem consulta ativa nesse horário (ver StatusConsulta.isAtivo)
+        boolean medicoTemConsultaConflito = consultaRepository.existeConsultaAtivaMedico(medicoId, dataHoraConsulta);
 
         if (medicoTemConsultaConflito) {
             throw new IllegalArgumentException("Médico já possui uma consulta agendada para este horário.");
         }
 
-        boolean pacienteTemConsultaConflito = consultaRepository.existsByPacienteIdAndDataHoraConsultaAndStatusNotIn(
-            pacienteId, dataHoraConsulta, statusExcluidos);
+        boolean pacienteTemConsultaConflito = consultaRepository.existeConsultaAtivaPaciente(pacienteId, dataHoraConsulta);
 
         if (pacienteTemConsultaConflito) {
             throw new IllegalArgumentException("Paciente já possui uma consulta agendada para este horário.");
@@ -110,6 +116,7 @@ public class ConsultaService {
                 consultaSalva.getId(), paciente.getNome(), medico.getNome(), dataHoraConsulta);
 
         emailService.sendConsultaAgendadaEmail(paciente.getEmail(), paciente.getNome(), medico.getNome(), dataHoraConsulta.toString());
+        publicarAlteracao(ConsultaAlteradaEvent.Tipo.AGENDADA, consultaSalva);
 
         // Notificar médico, se desejar
 
@@ -152,10 +159,12 @@ public class ConsultaService {
             throw new EntidadeNaoEncontradaException("Médico não encontrado com ID: " + medicoId);
         }
         Pageable pageable = PageRequest.of(0, limite);
-        return consultaRepository.findByMedicoIdAndDataHoraConsultaAfterOrderByDataHoraConsultaAsc(medicoId, aPartirDe, pageable);
+        return consultaRepository.findByMedicoIdAndDataHoraConsultaAfterAndDataHoraConsultaBeforeOrderByDataHoraConsultaAsc(
+                medicoId, aPartirDe, aPartirDe.plusMonths(janelaFuturoMeses), pageable);
     }
 
     @Transactional
+    @RetentarEmConflito
     public Consulta cancelarConsulta(Long consultaId, String motivo, PerfilEnum canceladoPor) {
         Consulta consulta = consultaRepository.findById(consultaId)
                 .orElseThrow(() -> new EntidadeNaoEncontradaException("Consulta não encontrada com ID: " + consultaId));
@@ -185,6 +194,7 @@ public class ConsultaService {
         consulta.setMotivoCancelamento(motivo);
         Consulta consultaCancelada = consultaRepository.save(consulta);
         logger.info("Consulta ID {} cancelada por {}. Motivo: {}", consultaId, canceladoPor.getNome(), motivo);
+        publicarAlteracao(ConsultaAlteradaEvent.Tipo.CANCELADA, consultaCancelada);
 
         // Notificar paciente e médico
 
@@ -192,6 +202,7 @@ public class ConsultaService {
     }
 
     @Transactional
+    @RetentarEmConflito
     public Consulta reagendarConsulta(Long consultaId, LocalDateTime novaDataHora, String observacoesNova) {
         Consulta consultaOriginal = consultaRepository.findById(consultaId)
                 .orElseThrow(() -> new EntidadeNaoEncontradaException("Consulta original não encontrada com ID: " + consultaId));
@@ -213,18 +224,13 @@ public class ConsultaService {
             throw new IllegalArgumentException("Novo horário não disponível para o médico selecionado.");
         }
 
-        List<StatusConsulta> statusValidos = Arrays.asList(StatusConsulta.AGENDADA, StatusConsulta.CONFIRMADA, StatusConsulta.REALIZADA);
-
-        List<StatusConsulta> statusExcluidos = null;
-        boolean medicoConflito = consultaRepository.existsByMedicoIdAndDataHoraConsultaAndStatusNotInAndIdNot(
-            medicoId, novaDataHora, statusExcluidos, consultaId);
+        boolean medicoConflito = consultaRepository.existeOutraConsultaAtivaMedico(medicoId, novaDataHora, consultaId);
 
         if (medicoConflito) {
             throw new IllegalArgumentException("Médico já possui outra consulta agendada para este novo horário.");
         }
 
-        boolean pacienteConflito = consultaRepository.existsByPacienteIdAndDataHoraConsultaAndStatusNotInAndIdNot(
-            pacienteId, novaDataHora, statusExcluidos, consultaId);
+        boolean pacienteConflito = consultaRepository.existeOutraConsultaAtivaPaciente(pacienteId, novaDataHora, consultaId);
 
         if (pacienteConflito) {
             throw new IllegalArgumentException("Paciente já possui outra consulta agendada para este novo horário.");
@@ -239,6 +245,7 @@ public class ConsultaService {
 
         Consulta consultaReagendada = consultaRepository.save(consultaOriginal);
         logger.info("Consulta ID {} reagendada para {}", consultaId, novaDataHora);
+        publicarAlteracao(ConsultaAlteradaEvent.Tipo.REAGENDADA, consultaReagendada);
 
         // Notificar paciente e médico
 
@@ -256,7 +263,9 @@ public class ConsultaService {
         if (!pacienteRepository.existsById(pacienteId)) {
             throw new EntidadeNaoEncontradaException("Paciente não encontrado com ID: " + pacienteId);
         }
-        return consultaRepository.findByPacienteIdOrderByDataHoraConsultaDesc(pacienteId);
+        LocalDateTime agora = LocalDateTime.now();
+        return consultaRepository.findByPacienteIdAndDataHoraConsultaBetweenOrderByDataHoraConsultaDesc(
+                pacienteId, agora.minusMonths(janelaPassadoMeses), agora.plusMonths(janelaFuturoMeses));
     }
 
     @Transactional(readOnly = true)
@@ -264,20 +273,36 @@ public class ConsultaService {
         if (!medicoRepository.existsById(medicoId)) {
             throw new EntidadeNaoEncontradaException("Médico não encontrado com ID: " + medicoId);
         }
-        return consultaRepository.findByMedicoIdOrderByDataHoraConsultaAsc(medicoId);
+        LocalDateTime agora = LocalDateTime.now();
+        return consultaRepository.findByMedicoIdAndDataHoraConsultaBetween(
+                medicoId, agora.minusMonths(janelaPassadoMeses), agora.plusMonths(janelaFuturoMeses));
     }
 
+    /**
+     * Lista as consultas de todos os médicos dentro da janela configurada (antes era um findAll sem limite).
+     */
     @Transactional(readOnly = true)
     public List<Consulta> listarTodasConsultas() {
-        return consultaRepository.findAll();
+        LocalDateTime agora = LocalDateTime.now();
+        return consultaRepository.findByDataHoraConsultaBetweenOrderByDataHoraConsultaDesc(
+                agora.minusMonths(janelaPassadoMeses), agora.plusMonths(janelaFuturoMeses));
     }
 
     @Transactional
+    @RetentarEmConflito
     public Consulta atualizarStatusConsulta(Long consultaId, StatusConsulta novoStatus) {
         Consulta consulta = buscarPorId(consultaId);
         consulta.setStatus(novoStatus);
         logger.info("Status da consulta ID {} atualizado para {}", consultaId, novoStatus);
-        return consultaRepository.save(consulta);
+        Consulta consultaAtualizada = consultaRepository.save(consulta);
+        publicarAlteracao(ConsultaAlteradaEvent.Tipo.STATUS_ALTERADO, consultaAtualizada);
+        return consultaAtualizada;
+    }
+
+    private void publicarAlteracao(ConsultaAlteradaEvent.Tipo tipo, Consulta consulta) {
+        eventPublisher.publishEvent(new ConsultaAlteradaEvent(tipo, consulta.getId(),
+                consulta.getMedico().getId(), consulta.getPaciente().getId(), consulta.getPaciente().getNome(),
+                consulta.getDataHoraConsulta(), consulta.getStatus()));
     }
 }
 
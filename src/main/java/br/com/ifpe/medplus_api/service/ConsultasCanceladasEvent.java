@@ -0,0 +1,21 @@
+package br.com.ifpe.medplus_api.service;
+
+import br.com.ifpe.medplus_api.model.consulta.StatusConsulta;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Publicado pelo {@link DesativacaoUsuariosService} a cada lote de consultas futuras canceladas
+ * porque o médico ou o paciente foi desativado. Os participantes que continuam ativos são avisados
+ * depois do commit ({@link NotificacaoCancelamentoService}).
+ *
+ * @param usuariosDesativados usuários que motivaram o cancelamento (não recebem aviso)
+ */
+public record ConsultasCanceladasEvent(List<ConsultaCancelada> consultas, StatusConsulta status, String motivo,
+                                       Set<Long> usuariosDesativados) {
+
+    public record ConsultaCancelada(Long consultaId, Long pacienteId, Long medicoId, LocalDateTime dataHora) {
+    }
+}
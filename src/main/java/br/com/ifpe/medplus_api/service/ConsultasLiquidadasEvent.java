@@ -0,0 +1,22 @@
+package br.com.ifpe.medplus_api.service;
+
+import br.com.ifpe.medplus_api.model.consulta.StatusConsulta;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Publicado pelo {@link LiquidacaoConsultasService} a cada lote de consultas vencidas que mudou de status.
+ * O lote já está gravado; o evento é publicado fora de transação.
+ *
+ * @param janelaInicio início (inclusivo) da janela de datas do lote
+ * @param janelaFim    fim (exclusivo) da janela de datas do lote
+ * @param consultas    consultas alteradas no lote, com os participantes devolvidos pelo próprio UPDATE
+ * @param duracaoMs    tempo do UPDATE do lote
+ */
+public record ConsultasLiquidadasEvent(StatusConsulta destino, LocalDateTime janelaInicio, LocalDateTime janelaFim,
+                                       List<ConsultaLiquidada> consultas, long duracaoMs) {
+
+    public record ConsultaLiquidada(Long consultaId, Long medicoId, Long pacienteId, LocalDateTime dataHora) {
+    }
+}
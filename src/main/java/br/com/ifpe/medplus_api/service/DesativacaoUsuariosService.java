@@ -0,0 +1,170 @@
+package br.com.ifpe.medplus_api.service;
+
+import br.com.ifpe.medplus_api.busca.MedicoAlteradoEvent;
+import br.com.ifpe.medplus_api.model.consulta.StatusConsulta;
+import br.com.ifpe.medplus_api.model.medico.Medico;
+import br.com.ifpe.medplus_api.model.paciente.Paciente;
+import br.com.ifpe.medplus_api.repository.ConsultaRepository;
+import br.com.ifpe.medplus_api.repository.MedicoRepository;
+import br.com.ifpe.medplus_api.repository.PacienteRepository;
+import br.com.ifpe.medplus_api.service.ConsultasCanceladasEvent.ConsultaCancelada;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Desativação de médicos e pacientes, individual ou em lote, com o cancelamento das consultas futuras
+ * ainda ativas.
+ *
+ * Os usuários são desativados pela entidade (o Hibernate mantém o cache de segundo nível e avisa os
+ * outros nós); as consultas são canceladas por UPDATEs em lote direto em tb_consulta, que não é
+ * cacheada. Tudo numa transação: ou o usuário é desativado com a agenda cancelada, ou nada muda.
+ * Os avisos aos participantes saem depois do commit, em segundo plano. Os tokens de calendário dos
+ * desativados são apagados na mesma transação.
+ */
+@Service
+public class DesativacaoUsuariosService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DesativacaoUsuariosService.class);
+
+    private static final String MOTIVO_MEDICO = "Cancelada automaticamente: o médico foi desativado.";
+    private static final String MOTIVO_PACIENTE = "Cancelada automaticamente: o paciente foi desativado.";
+
+    private static final String SQL_CANCELAR_LOTE = """
+            WITH lote AS (
+                SELECT id, data_hora_consulta FROM tb_consulta
+                WHERE %s = ANY (?) AND data_hora_consulta > ? AND status_consulta IN %s
+                ORDER BY data_hora_consulta
+                LIMIT ?
+                FOR UPDATE
+            )
+            UPDATE tb_consulta c SET status_consulta = ?, motivo_cancelamento = ?, versao = c.versao + 1
+            FROM lote
+            WHERE c.id = lote.id AND c.data_hora_consulta = lote.data_hora_consulta
+            RETURNING c.id, c.paciente_id, c.medico_id, c.data_hora_consulta
+            """;
+
+    private final MedicoRepository medicoRepository;
+    private final PacienteRepository pacienteRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.usuarios.desativacao.lote:500}")
+    private int tamanhoLote;
+
+    /**
+     * @param usuariosDesativados usuários que estavam ativos e foram desativados agora
+     * @param consultasCanceladas consultas futuras canceladas por causa deles
+     */
+    public record Resultado(int usuariosDesativados, int consultasCanceladas) {
+    }
+
+    public DesativacaoUsuariosService(MedicoRepository medicoRepository,
+                                      PacienteRepository pacienteRepository,
+                                      JdbcTemplate jdbcTemplate,
+                                      ApplicationEventPublisher eventPublisher) {
+        this.medicoRepository = medicoRepository;
+        this.pacienteRepository = pacienteRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Desativa os médicos encontrados entre {@code ids} (ids inexistentes são ignorados) e cancela as
+     * consultas futuras deles com o status informado.
+     */
+    @Transactional
+    public Resultado desativarMedicos(Collection<Long> ids, StatusConsulta statusCancelamento) {
+        Set<Long> desativados = new HashSet<>();
+        for (Medico medico : medicoRepository.findAllById(ids)) {
+            if (medico.isAtivo()) {
+                medico.setAtivo(false);
+                desativados.add(medico.getId());
+                eventPublisher.publishEvent(new MedicoAlteradoEvent(medico.getId()));
+            }
+        }
+        revogarTokensCalendario(desativados);
+        int canceladas = cancelarConsultasFuturas("medico_id", ids, statusCancelamento, MOTIVO_MEDICO, desativados);
+        logger.info("{} médicos desativados, {} consultas futuras canceladas", desativados.size(), canceladas);
+        return new Resultado(desativados.size(), canceladas);
+    }
+
+    /**
+     * Desativa os pacientes encontrados entre {@code ids} (ids inexistentes são ignorados) e cancela as
+     * consultas futuras deles com o status informado.
+     */
+    @Transactional
+    public Resultado desativarPacientes(Collection<Long> ids, StatusConsulta statusCancelamento) {
+        Set<Long> desativados = new HashSet<>();
+        for (Paciente paciente : pacienteRepository.findAllById(ids)) {
+            if (paciente.isAtivo()) {
+                paciente.setAtivo(false);
+                desativados.add(paciente.getId());
+            }
+        }
+        revogarTokensCalendario(desativados);
+        int canceladas = cancelarConsultasFuturas("paciente_id", ids, statusCancelamento, MOTIVO_PACIENTE, desativados);
+        logger.info("{} pacientes desativados, {} consultas futuras canceladas", desativados.size(), canceladas);
+        return new Resultado(desativados.size(), canceladas);
+    }
+
+    /**
+     * Apaga os tokens de calendário dos usuários desativados: os feeds deles deixam de ser servidos.
+     */
+    private void revogarTokensCalendario(Set<Long> desativados) {
+        if (desativados.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(conexao -> {
+            PreparedStatement ps = conexao.prepareStatement("DELETE FROM tb_calendario_token WHERE usuario_id = ANY (?)");
+            ps.setArray(1, conexao.createArrayOf("bigint", desativados.toArray(Long[]::new)));
+            return ps;
+        });
+        eventPublisher.publishEvent(new UsuariosDesativadosEvent(Set.copyOf(desativados)));
+    }
+
+    /**
+     * Cancela em lotes as consultas ativas futuras dos usuários; cada lote vira um {@link ConsultasCanceladasEvent}.
+     * Usa as mesmas condições dos índices parciais de consultas ativas (V5).
+     */
+    private int cancelarConsultasFuturas(String coluna, Collection<Long> ids, StatusConsulta status, String motivo,
+                                         Set<Long> desativados) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String sql = SQL_CANCELAR_LOTE.formatted(coluna, ConsultaRepository.STATUS_ATIVOS_SQL);
+        Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+        Long[] usuarios = ids.toArray(Long[]::new);
+        int total = 0;
+        List<ConsultaCancelada> lote;
+        do {
+            lote = jdbcTemplate.query(conexao -> {
+                PreparedStatement ps = conexao.prepareStatement(sql);
+                ps.setArray(1, conexao.createArrayOf("bigint", usuarios));
+                ps.setTimestamp(2, agora);
+                ps.setInt(3, tamanhoLote);
+                ps.setString(4, status.name());
+                ps.setString(5, motivo);
+                return ps;
+            }, (rs, i) -> new ConsultaCancelada(rs.getLong(1), rs.getLong(2), rs.getLong(3),
+                    rs.getTimestamp(4).toLocalDateTime()));
+            if (!lote.isEmpty()) {
+                total += lote.size();
+                eventPublisher.publishEvent(new ConsultasCanceladasEvent(lote, status, motivo, Set.copyOf(desativados)));
+            }
+        } while (lote.size() == tamanhoLote);
+        return total;
+    }
+}
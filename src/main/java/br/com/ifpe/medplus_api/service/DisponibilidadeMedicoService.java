@@ -1,5 +1,7 @@
 package br.com.ifpe.medplus_api.service;
 
+import br.com.ifpe.medplus_api.concorrencia.RetentarEmConflito;
+import br.com.ifpe.medplus_api.busca.MedicoAlteradoEvent;
 import br.com.ifpe.medplus_api.model.consulta.DisponibilidadeMedico;
 import br.com.ifpe.medplus_api.model.medico.Medico;
 import br.com.ifpe.medplus_api.repository.DisponibilidadeMedicoRepository;
@@ -7,6 +9,7 @@ import br.com.ifpe.medplus_api.repository.MedicoRepository;
 import br.com.ifpe.medplus_api.util.exception.EntidadeNaoEncontradaException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,12 +27,15 @@ public class DisponibilidadeMedicoService {
 
     private final DisponibilidadeMedicoRepository disponibilidadeRepository;
     private final MedicoRepository medicoRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     
     public DisponibilidadeMedicoService(DisponibilidadeMedicoRepository disponibilidadeRepository,
-                                        MedicoRepository medicoRepository) {
+                                        MedicoRepository medicoRepository,
+                                        ApplicationEventPublisher eventPublisher) {
         this.disponibilidadeRepository = disponibilidadeRepository;
         this.medicoRepository = medicoRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -69,6 +75,7 @@ public class DisponibilidadeMedicoService {
         disponibilidade.setAtivo(true); // Por padrão, nova disponibilidade é ativa
 
         DisponibilidadeMedico salvo = disponibilidadeRepository.save(disponibilidade);
+        eventPublisher.publishEvent(new MedicoAlteradoEvent(medicoId));
         logger.info("Disponibilidade adicionada para Médico ID {}: {} de {} às {}", medicoId, diaSemana, horaInicio, horaFim);
         return salvo;
     }
@@ -94,6 +101,7 @@ public class DisponibilidadeMedicoService {
      * @throws EntidadeNaoEncontradaException Se a disponibilidade não for encontrada.
      */
     @Transactional
+    @RetentarEmConflito
     public void removerDisponibilidade(Long disponibilidadeId) {
         DisponibilidadeMedico disponibilidade = disponibilidadeRepository.findById(disponibilidadeId)
                 .orElseThrow(() -> new EntidadeNaoEncontradaException("Disponibilidade não encontrada com ID: " + disponibilidadeId));
@@ -102,6 +110,7 @@ public class DisponibilidadeMedicoService {
         // disponibilidadeRepository.delete(disponibilidade);
         disponibilidade.setAtivo(false);
         disponibilidadeRepository.save(disponibilidade);
+        eventPublisher.publishEvent(new MedicoAlteradoEvent(disponibilidade.getMedico().getId()));
         logger.info("Disponibilidade ID {} desativada.", disponibilidadeId);
     }
     
@@ -118,6 +127,7 @@ public class DisponibilidadeMedicoService {
      * @throws IllegalArgumentException Se o novo horário for inválido ou conflitante.
      */
     @Transactional
+    @RetentarEmConflito
     public DisponibilidadeMedico atualizarDisponibilidade(Long disponibilidadeId, DayOfWeek novoDiaSemana, LocalTime novaHoraInicio, LocalTime novaHoraFim, boolean ativo) {
         DisponibilidadeMedico disponibilidade = disponibilidadeRepository.findById(disponibilidadeId)
                 .orElseThrow(() -> new EntidadeNaoEncontradaException("Disponibilidade não encontrada com ID: " + disponibilidadeId));
@@ -151,6 +161,7 @@ public class DisponibilidadeMedicoService {
         disponibilidade.setAtivo(ativo);
 
         DisponibilidadeMedico atualizada = disponibilidadeRepository.save(disponibilidade);
+        eventPublisher.publishEvent(new MedicoAlteradoEvent(disponibilidade.getMedico().getId()));
         logger.info("Disponibilidade ID {} atualizada.", disponibilidadeId);
         return atualizada;
     }
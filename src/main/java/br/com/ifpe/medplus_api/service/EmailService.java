@@ -9,6 +9,8 @@ import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.Semaphore;
+
 /**
  * Serviço para envio de emails.
  * Esta é uma implementação básica/placeholder. Para produção, configure
@@ -26,8 +28,18 @@ public class EmailService {
     private String fromEmail;
 
 
-    public EmailService(JavaMailSender mailSender) {
+    /**
+     * Limita os envios SMTP simultâneos só no perfil "virtual": o Jakarta Mail envia dentro de
+     * synchronized, e cada envio prende uma thread carrier até o servidor responder. Com threads de
+     * plataforma o pool de @Async já limita, e um teto aqui só prenderia as threads dele esperando.
+     * Nulo quando {@code app.email.envios-simultaneos} é 0 (padrão): sem limite.
+     */
+    private final Semaphore enviosSimultaneos;
+
+    public EmailService(JavaMailSender mailSender,
+                        @Value("${app.email.envios-simultaneos:0}") int enviosSimultaneos) {
         this.mailSender = mailSender;
+        this.enviosSimultaneos = enviosSimultaneos > 0 ? new Semaphore(enviosSimultaneos) : null;
     }
 
     /**
@@ -38,6 +50,15 @@ public class EmailService {
      * @param text    Conteúdo do email.
      */
     public void sendSimpleMessage(String to, String subject, String text) {
+        if (enviosSimultaneos != null) {
+            try {
+                enviosSimultaneos.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.warn("Envio de email para {} interrompido antes de começar", to);
+                return;
+            }
+        }
         try {
             SimpleMailMessage message = new SimpleMailMessage();
             message.setFrom(fromEmail);
@@ -49,6 +70,10 @@ public class EmailService {
         } catch (MailException e) {
             logger.error("Erro ao enviar email para {}: {}", to, e.getMessage());
             // Tratar a exceção (ex: logar, tentar novamente, notificar admin)
+        } finally {
+            if (enviosSimultaneos != null) {
+                enviosSimultaneos.release();
+            }
         }
     }
 
@@ -97,6 +122,23 @@ public class EmailService {
         sendSimpleMessage(emailPaciente, subject, text);
     }
 
+    /**
+     * Envia o aviso de cancelamento de uma consulta. Síncrono: chamado a partir do
+     * {@link NotificacaoCancelamentoService}, que já roda em segundo plano.
+     * @param email Email do destinatário.
+     * @param nome Nome do destinatário.
+     * @param comQuem Outro participante (ex.: "com Dr(a). Fulano").
+     * @param dataHoraConsulta Data e hora da consulta.
+     * @param motivo Motivo do cancelamento.
+     */
+    public void sendConsultaCanceladaEmail(String email, String nome, String comQuem, String dataHoraConsulta, String motivo) {
+        String subject = "Consulta Cancelada - MedPlus";
+        String text = String.format("Olá %s,\n\nSua consulta %s marcada para %s foi cancelada.\n%s\n\n" +
+                "Acesse a MedPlus para agendar um novo horário.\n\nAtenciosamente,\nEquipe MedPlus",
+                nome, comQuem, dataHoraConsulta, motivo);
+        sendSimpleMessage(email, subject, text);
+    }
+
     /**
      * Envia um email para recuperação de senha.
      * @param emailUsuario Email do usuário.
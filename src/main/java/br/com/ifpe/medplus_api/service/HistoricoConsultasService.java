@@ -0,0 +1,119 @@
+package br.com.ifpe.medplus_api.service;
+
+import br.com.ifpe.medplus_api.dto.ConsultaHistoricoDTO;
+import br.com.ifpe.medplus_api.dto.PaginaHistoricoDTO;
+import br.com.ifpe.medplus_api.repository.ConsultaArquivadaRepository;
+import br.com.ifpe.medplus_api.repository.ConsultaRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Histórico paginado de consultas de pacientes e médicos, unindo a tabela principal e o arquivo.
+ *
+ * O arquivo só contém consultas anteriores ao horizonte de arquivamento (agora - idade-meses), então
+ * ele só é lido quando a página não se completa com a tabela principal ou já alcança esse horizonte.
+ * Nas primeiras páginas, que são a grande maioria dos acessos, o arquivo não é consultado.
+ */
+@Service
+public class HistoricoConsultasService {
+
+    public static final int TAMANHO_MAXIMO = 100;
+    private static final Comparator<ConsultaHistoricoDTO> MAIS_RECENTE_PRIMEIRO =
+            Comparator.comparing(ConsultaHistoricoDTO::dataHora).thenComparing(ConsultaHistoricoDTO::id).reversed();
+
+    private final ConsultaRepository consultaRepository;
+    private final ConsultaArquivadaRepository consultaArquivadaRepository;
+
+    @Value("${app.consultas.janela-futuro-meses:6}")
+    private int janelaFuturoMeses;
+
+    @Value("${app.consultas.arquivamento.idade-meses:24}")
+    private int idadeArquivamentoMeses;
+
+    public HistoricoConsultasService(ConsultaRepository consultaRepository,
+                                     ConsultaArquivadaRepository consultaArquivadaRepository) {
+        this.consultaRepository = consultaRepository;
+        this.consultaArquivadaRepository = consultaArquivadaRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public PaginaHistoricoDTO historicoPaciente(Long pacienteId, LocalDateTime antesDe, Long antesDeId, int tamanho) {
+        Cursor cursor = cursor(antesDe, antesDeId, tamanho);
+        List<ConsultaHistoricoDTO> recentes = consultaRepository
+                .findHistoricoPaciente(pacienteId, cursor.antesDe(), cursor.antesDeId(), cursor.pagina()).stream()
+                .map(ConsultaHistoricoDTO::paraPaciente)
+                .toList();
+        if (!precisaDoArquivo(recentes, cursor)) {
+            return montarPagina(recentes, cursor);
+        }
+        List<ConsultaHistoricoDTO> arquivadas = consultaArquivadaRepository
+                .findHistoricoPaciente(pacienteId, cursor.antesDe(), cursor.antesDeId(), cursor.pagina()).stream()
+                .map(ConsultaHistoricoDTO::paraPaciente)
+                .toList();
+        return montarPagina(intercalar(recentes, arquivadas), cursor);
+    }
+
+    @Transactional(readOnly = true)
+    public PaginaHistoricoDTO historicoMedico(Long medicoId, LocalDateTime antesDe, Long antesDeId, int tamanho) {
+        Cursor cursor = cursor(antesDe, antesDeId, tamanho);
+        List<ConsultaHistoricoDTO> recentes = consultaRepository
+                .findHistoricoMedico(medicoId, cursor.antesDe(), cursor.antesDeId(), cursor.pagina()).stream()
+                .map(ConsultaHistoricoDTO::paraMedico)
+                .toList();
+        if (!precisaDoArquivo(recentes, cursor)) {
+            return montarPagina(recentes, cursor);
+        }
+        List<ConsultaHistoricoDTO> arquivadas = consultaArquivadaRepository
+                .findHistoricoMedico(medicoId, cursor.antesDe(), cursor.antesDeId(), cursor.pagina()).stream()
+                .map(ConsultaHistoricoDTO::paraMedico)
+                .toList();
+        return montarPagina(intercalar(recentes, arquivadas), cursor);
+    }
+
+    private record Cursor(LocalDateTime antesDe, Long antesDeId, int tamanho) {
+        Pageable pagina() {
+            return PageRequest.of(0, tamanho);
+        }
+    }
+
+    private Cursor cursor(LocalDateTime antesDe, Long antesDeId, int tamanho) {
+        // Sem cursor, começa pelas consultas futuras dentro da janela das listagens
+        LocalDateTime limite = antesDe != null ? antesDe : LocalDateTime.now().plusMonths(janelaFuturoMeses);
+        Long limiteId = antesDe != null && antesDeId != null ? antesDeId : Long.MAX_VALUE;
+        return new Cursor(limite, limiteId, Math.max(1, Math.min(tamanho, TAMANHO_MAXIMO)));
+    }
+
+    private boolean precisaDoArquivo(List<ConsultaHistoricoDTO> recentes, Cursor cursor) {
+        if (recentes.size() < cursor.tamanho()) {
+            return true;
+        }
+        LocalDateTime horizonte = LocalDateTime.now().minusMonths(idadeArquivamentoMeses);
+        return recentes.get(recentes.size() - 1).dataHora().isBefore(horizonte);
+    }
+
+    private static List<ConsultaHistoricoDTO> intercalar(List<ConsultaHistoricoDTO> recentes,
+                                                         List<ConsultaHistoricoDTO> arquivadas) {
+        List<ConsultaHistoricoDTO> todas = new ArrayList<>(recentes.size() + arquivadas.size());
+        todas.addAll(recentes);
+        todas.addAll(arquivadas);
+        todas.sort(MAIS_RECENTE_PRIMEIRO);
+        return todas;
+    }
+
+    private static PaginaHistoricoDTO montarPagina(List<ConsultaHistoricoDTO> itens, Cursor cursor) {
+        List<ConsultaHistoricoDTO> pagina = itens.size() > cursor.tamanho() ? itens.subList(0, cursor.tamanho()) : itens;
+        if (pagina.size() < cursor.tamanho()) {
+            return new PaginaHistoricoDTO(List.copyOf(pagina), null, null);
+        }
+        ConsultaHistoricoDTO ultimo = pagina.get(pagina.size() - 1);
+        return new PaginaHistoricoDTO(List.copyOf(pagina), ultimo.dataHora(), ultimo.id());
+    }
+}
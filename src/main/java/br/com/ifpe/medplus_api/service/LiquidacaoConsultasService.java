@@ -0,0 +1,142 @@
+package br.com.ifpe.medplus_api.service;
+
+import br.com.ifpe.medplus_api.carga.CargaTrabalho;
+import br.com.ifpe.medplus_api.carga.ClasseCarga;
+import br.com.ifpe.medplus_api.model.consulta.StatusConsulta;
+import br.com.ifpe.medplus_api.repository.ConsultaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fechamento diário das consultas que passaram do horário ainda em aberto (agendadas, confirmadas ou
+ * reagendadas): elas passam para {@code app.consultas.liquidacao.status-destino}, por padrão
+ * {@link StatusConsulta#PENDENTE_REVISAO}, para o médico registrar o desfecho.
+ *
+ * Percorre janelas de {@code janela-dias} dias, da consulta em aberto mais antiga até o início do dia
+ * atual. Em cada janela, lotes de {@code lote} consultas são alterados por um único UPDATE com
+ * SKIP LOCKED: consultas travadas por um agendamento em andamento ficam para a próxima execução.
+ * Cada lote é publicado como {@link ConsultasLiquidadasEvent}.
+ */
+@Service
+@CargaTrabalho(ClasseCarga.BACKGROUND)
+@ConditionalOnProperty(name = "app.consultas.liquidacao.habilitado", havingValue = "true", matchIfMissing = true)
+public class LiquidacaoConsultasService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiquidacaoConsultasService.class);
+
+    private static final String SQL_MAIS_ANTIGA = "SELECT min(data_hora_consulta) FROM tb_consulta "
+            + "WHERE data_hora_consulta < ? AND status_consulta IN " + ConsultaRepository.STATUS_ATIVOS_SQL;
+
+    private static final String SQL_LIQUIDAR_LOTE = """
+            WITH lote AS (
+                SELECT id, data_hora_consulta FROM tb_consulta
+                WHERE data_hora_consulta >= ? AND data_hora_consulta < ? AND status_consulta IN %s
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            )
+            UPDATE tb_consulta c SET status_consulta = ?, versao = c.versao + 1
+            FROM lote
+            WHERE c.id = lote.id AND c.data_hora_consulta = lote.data_hora_consulta
+            RETURNING c.id, c.medico_id, c.paciente_id, c.data_hora_consulta
+            """.formatted(ConsultaRepository.STATUS_ATIVOS_SQL);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StatusConsulta destino;
+    private final Timer tempoLote;
+    private final Counter consultasLiquidadas;
+
+    @Value("${app.consultas.liquidacao.lote:1000}")
+    private int tamanhoLote;
+
+    @Value("${app.consultas.liquidacao.janela-dias:1}")
+    private int janelaDias;
+
+    public LiquidacaoConsultasService(JdbcTemplate jdbcTemplate,
+                                      ApplicationEventPublisher eventPublisher,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${app.consultas.liquidacao.status-destino:PENDENTE_REVISAO}") StatusConsulta destino) {
+        if (destino.isAtivo()) {
+            throw new IllegalStateException("app.consultas.liquidacao.status-destino não pode ser um status ativo: " + destino.name());
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.destino = destino;
+        this.tempoLote = Timer.builder("medplus.consultas.liquidacao.lote")
+                .description("Tempo de cada lote da liquidação de consultas vencidas")
+                .tag("destino", destino.name())
+                .register(meterRegistry);
+        this.consultasLiquidadas = Counter.builder("medplus.consultas.liquidacao.consultas")
+                .description("Consultas vencidas movidas para o status de destino")
+                .tag("destino", destino.name())
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return quantidade de consultas alteradas nesta execução
+     */
+    @Scheduled(cron = "${app.consultas.liquidacao.cron:0 15 0 * * *}")
+    public long liquidar() {
+        LocalDateTime limite = LocalDate.now().atStartOfDay();
+        Timestamp maisAntiga = jdbcTemplate.queryForObject(SQL_MAIS_ANTIGA, Timestamp.class, Timestamp.valueOf(limite));
+        if (maisAntiga == null) {
+            return 0;
+        }
+        long inicio = System.nanoTime();
+        long total = 0;
+        int lotes = 0;
+        LocalDateTime janelaInicio = maisAntiga.toLocalDateTime().toLocalDate().atStartOfDay();
+        try {
+            while (janelaInicio.isBefore(limite)) {
+                LocalDateTime janelaFim = janelaInicio.plusDays(Math.max(1, janelaDias));
+                if (janelaFim.isAfter(limite)) {
+                    janelaFim = limite;
+                }
+                List<ConsultasLiquidadasEvent.ConsultaLiquidada> liquidadas;
+                do {
+                    long inicioLote = System.nanoTime();
+                    liquidadas = jdbcTemplate.query(SQL_LIQUIDAR_LOTE,
+                            (rs, i) -> new ConsultasLiquidadasEvent.ConsultaLiquidada(rs.getLong(1), rs.getLong(2),
+                                    rs.getLong(3), rs.getTimestamp(4).toLocalDateTime()),
+                            Timestamp.valueOf(janelaInicio), Timestamp.valueOf(janelaFim), tamanhoLote, destino.name());
+                    long duracaoLote = System.nanoTime() - inicioLote;
+                    if (!liquidadas.isEmpty()) {
+                        lotes++;
+                        total += liquidadas.size();
+                        tempoLote.record(duracaoLote, TimeUnit.NANOSECONDS);
+                        consultasLiquidadas.increment(liquidadas.size());
+                        logger.info("Liquidação [{}, {}): {} consultas -> {} em {} ms",
+                                janelaInicio, janelaFim, liquidadas.size(), destino.name(), duracaoLote / 1_000_000);
+                        eventPublisher.publishEvent(new ConsultasLiquidadasEvent(destino, janelaInicio, janelaFim,
+                                List.copyOf(liquidadas), duracaoLote / 1_000_000));
+                    }
+                } while (liquidadas.size() == tamanhoLote);
+                janelaInicio = janelaFim;
+            }
+        } catch (DataAccessException e) {
+            logger.error("Liquidação de consultas interrompida após {} consultas: {}", total, e.getMessage());
+            return total;
+        }
+        if (total > 0) {
+            logger.info("Liquidação concluída: {} consultas anteriores a {} em {} lotes, {} ms",
+                    total, limite, lotes, (System.nanoTime() - inicio) / 1_000_000);
+        }
+        return total;
+    }
+}
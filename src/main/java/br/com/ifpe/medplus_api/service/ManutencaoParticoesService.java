@@ -0,0 +1,56 @@
+package br.com.ifpe.medplus_api.service;
+
+import br.com.ifpe.medplus_api.carga.CargaTrabalho;
+import br.com.ifpe.medplus_api.carga.ClasseCarga;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Mantém criadas as partições mensais futuras de tb_consulta (ver V3__particionar_consulta.sql).
+ * Roda na subida da aplicação e diariamente; a função no banco é idempotente e serializada
+ * por advisory lock, então várias instâncias podem executá-la ao mesmo tempo.
+ */
+@Service
+@CargaTrabalho(ClasseCarga.BACKGROUND)
+public class ManutencaoParticoesService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ManutencaoParticoesService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.consultas.particoes.meses-a-frente:3}")
+    private int mesesAFrente;
+
+    public ManutencaoParticoesService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void aoIniciar() {
+        criarParticoesFuturas();
+    }
+
+    @Scheduled(cron = "${app.consultas.particoes.cron:0 0 3 * * *}")
+    public void criarParticoesFuturas() {
+        try {
+            Integer criadas = jdbcTemplate.queryForObject(
+                    "SELECT criar_particoes_consulta(0, ?)", Integer.class, mesesAFrente);
+            if (criadas != null && criadas > 0) {
+                logger.info("{} partição(ões) de tb_consulta criada(s) para os próximos {} meses", criadas, mesesAFrente);
+            }
+            Long naPadrao = jdbcTemplate.queryForObject("SELECT count(*) FROM tb_consulta_padrao", Long.class);
+            if (naPadrao != null && naPadrao > 0) {
+                logger.warn("{} consulta(s) na partição padrão tb_consulta_padrao; crie as partições dos meses correspondentes", naPadrao);
+            }
+        } catch (DataAccessException e) {
+            logger.error("Falha ao criar partições de tb_consulta: {}", e.getMessage());
+        }
+    }
+}
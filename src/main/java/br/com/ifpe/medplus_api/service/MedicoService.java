@@ -1,16 +1,19 @@
 package br.com.ifpe.medplus_api.service;
 
+import br.com.ifpe.medplus_api.busca.MedicoAlteradoEvent;
 import br.com.ifpe.medplus_api.dto.EnderecoRequest;
 import br.com.ifpe.medplus_api.dto.MedicoRequest;
 import br.com.ifpe.medplus_api.model.acesso.Perfil;
 import br.com.ifpe.medplus_api.model.acesso.PerfilEnum;
 import br.com.ifpe.medplus_api.model.common.Endereco;
+import br.com.ifpe.medplus_api.model.consulta.StatusConsulta;
 import br.com.ifpe.medplus_api.model.medico.Medico;
 import br.com.ifpe.medplus_api.repository.MedicoRepository;
 import br.com.ifpe.medplus_api.repository.PerfilRepository;
 import br.com.ifpe.medplus_api.repository.UsuarioRepository;
 import br.com.ifpe.medplus_api.util.exception.EntidadeNaoEncontradaException;
 import jakarta.persistence.EntityExistsException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -30,17 +33,23 @@ public class MedicoService {
     private final PerfilRepository perfilRepository;
     private final PasswordEncoder passwordEncoder;
     private final EmailService emailService; // Opcional, para notificações
+    private final ApplicationEventPublisher eventPublisher; // Mantém o índice de busca em dia
+    private final DesativacaoUsuariosService desativacaoUsuariosService;
 
     public MedicoService(MedicoRepository medicoRepository,
                          UsuarioRepository usuarioRepository,
                          PerfilRepository perfilRepository,
                          PasswordEncoder passwordEncoder,
-                         EmailService emailService) {
+                         EmailService emailService,
+                         ApplicationEventPublisher eventPublisher,
+                         DesativacaoUsuariosService desativacaoUsuariosService) {
         this.medicoRepository = medicoRepository;
         this.usuarioRepository = usuarioRepository;
         this.perfilRepository = perfilRepository;
         this.passwordEncoder = passwordEncoder;
         this.emailService = emailService;
+        this.eventPublisher = eventPublisher;
+        this.desativacaoUsuariosService = desativacaoUsuariosService;
     }
 
     /**
@@ -88,6 +97,7 @@ public class MedicoService {
         medico.setPerfis(perfis);
 
         Medico medicoSalvo = medicoRepository.save(medico);
+        eventPublisher.publishEvent(new MedicoAlteradoEvent(medicoSalvo.getId()));
 
         // Enviar email de boas-vindas ou notificação (opcional)
         emailService.sendWelcomeEmail(medicoSalvo.getNome(), medicoSalvo.getEmail());
@@ -117,7 +127,10 @@ public class MedicoService {
      */
     @Transactional(readOnly = true)
     public Medico buscarPorEmail(String email) {
-        return medicoRepository.findByEmail(email)
+        // Pelo natural id, servido pelo cache de segundo nível na maioria das requisições
+        return usuarioRepository.buscarPorEmail(email)
+                .filter(Medico.class::isInstance)
+                .map(Medico.class::cast)
                 .orElseThrow(() -> new EntidadeNaoEncontradaException("Médico não encontrado com email: " + email));
     }
 
@@ -128,7 +141,7 @@ public class MedicoService {
      */
     @Transactional(readOnly = true)
     public List<Medico> listarTodos() {
-        return medicoRepository.findAll();
+        return medicoRepository.findAllWithPerfis();
     }
 
     /**
@@ -192,21 +205,23 @@ public class MedicoService {
             medico.setEndereco(null);
         }
 
-        return medicoRepository.save(medico);
+        Medico medicoAtualizado = medicoRepository.save(medico);
+        eventPublisher.publishEvent(new MedicoAlteradoEvent(id));
+        return medicoAtualizado;
     }
 
     /**
-     * Desativa um médico.
+     * Desativa um médico e cancela as consultas futuras dele (os pacientes são avisados em segundo plano).
      *
      * @param id O ID do médico a ser desativado.
+     * @param statusCancelamento Status das consultas canceladas (CANCELADA_ADMIN ou CANCELADA_MEDICO).
+     * @return Quantidade de consultas futuras canceladas.
      * @throws EntidadeNaoEncontradaException Se o médico não for encontrado.
      */
     @Transactional
-    public void desativarMedico(Long id) {
-        Medico medico = buscarPorId(id);
-        medico.setAtivo(false);
-        // Adicionar lógica para tratar agendas futuras, notificar pacientes, etc.
-        medicoRepository.save(medico);
+    public int desativarMedico(Long id, StatusConsulta statusCancelamento) {
+        buscarPorId(id);
+        return desativacaoUsuariosService.desativarMedicos(List.of(id), statusCancelamento).consultasCanceladas();
     }
 
     /**
@@ -220,6 +235,7 @@ public class MedicoService {
         Medico medico = buscarPorId(id);
         medico.setAtivo(true);
         medicoRepository.save(medico);
+        eventPublisher.publishEvent(new MedicoAlteradoEvent(id));
     }
     
     /**
@@ -236,6 +252,7 @@ public class MedicoService {
         }
         // Adicionar lógica para tratar dependências (consultas, disponibilidades, etc.) antes de excluir.
         medicoRepository.deleteById(id);
+        eventPublisher.publishEvent(new MedicoAlteradoEvent(id));
     }
 }
 
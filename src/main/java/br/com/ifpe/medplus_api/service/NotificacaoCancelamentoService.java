@@ -0,0 +1,86 @@
+package br.com.ifpe.medplus_api.service;
+
+import br.com.ifpe.medplus_api.carga.CargaTrabalho;
+import br.com.ifpe.medplus_api.carga.ClasseCarga;
+import br.com.ifpe.medplus_api.service.ConsultasCanceladasEvent.ConsultaCancelada;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.PreparedStatement;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Avisa por e-mail os participantes das consultas canceladas em lote. Roda depois do commit, numa
+ * thread do executor de @Async, e busca nome e e-mail de todos os envolvidos do lote numa consulta só.
+ */
+@Service
+@CargaTrabalho(ClasseCarga.BACKGROUND)
+public class NotificacaoCancelamentoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificacaoCancelamentoService.class);
+
+    private static final DateTimeFormatter FORMATO_DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy 'às' HH:mm");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EmailService emailService;
+
+    private record Contato(String nome, String email) {
+    }
+
+    public NotificacaoCancelamentoService(JdbcTemplate jdbcTemplate, EmailService emailService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.emailService = emailService;
+    }
+
+    @Async
+    @TransactionalEventListener
+    public void aoCancelarConsultas(ConsultasCanceladasEvent evento) {
+        Set<Long> ids = new HashSet<>();
+        for (ConsultaCancelada consulta : evento.consultas()) {
+            ids.add(consulta.pacienteId());
+            ids.add(consulta.medicoId());
+        }
+        Map<Long, Contato> contatos = buscarContatos(ids);
+
+        int enviados = 0;
+        for (ConsultaCancelada consulta : evento.consultas()) {
+            Contato paciente = contatos.get(consulta.pacienteId());
+            Contato medico = contatos.get(consulta.medicoId());
+            if (paciente == null || medico == null) {
+                continue;
+            }
+            String quando = consulta.dataHora().format(FORMATO_DATA);
+            if (!evento.usuariosDesativados().contains(consulta.pacienteId())) {
+                emailService.sendConsultaCanceladaEmail(paciente.email(), paciente.nome(),
+                        "com Dr(a). " + medico.nome(), quando, evento.motivo());
+                enviados++;
+            }
+            if (!evento.usuariosDesativados().contains(consulta.medicoId())) {
+                emailService.sendConsultaCanceladaEmail(medico.email(), medico.nome(),
+                        "com o paciente " + paciente.nome(), quando, evento.motivo());
+                enviados++;
+            }
+        }
+        logger.info("Avisos de cancelamento: {} e-mails para {} consultas", enviados, evento.consultas().size());
+    }
+
+    private Map<Long, Contato> buscarContatos(Set<Long> ids) {
+        Map<Long, Contato> contatos = new HashMap<>();
+        jdbcTemplate.query(conexao -> {
+            PreparedStatement ps = conexao.prepareStatement("SELECT id, nome, email FROM tb_usuario WHERE id = ANY (?)");
+            ps.setArray(1, conexao.createArrayOf("bigint", ids.toArray(Long[]::new)));
+            return ps;
+        }, rs -> {
+            contatos.put(rs.getLong(1), new Contato(rs.getString(2), rs.getString(3)));
+        });
+        return contatos;
+    }
+}
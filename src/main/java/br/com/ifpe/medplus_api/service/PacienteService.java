@@ -7,6 +7,7 @@ import br.com.ifpe.medplus_api.dto.PacienteRequest;
 import br.com.ifpe.medplus_api.model.acesso.Perfil;
 import br.com.ifpe.medplus_api.model.acesso.PerfilEnum;
 import br.com.ifpe.medplus_api.model.common.Endereco;
+import br.com.ifpe.medplus_api.model.consulta.StatusConsulta;
 import br.com.ifpe.medplus_api.model.paciente.Paciente;
 import br.com.ifpe.medplus_api.repository.PacienteRepository;
 import br.com.ifpe.medplus_api.repository.PerfilRepository;
@@ -32,18 +33,21 @@ public class PacienteService {
     private final PerfilRepository perfilRepository;
     private final PasswordEncoder passwordEncoder;
     private final EmailService emailService;
+    private final DesativacaoUsuariosService desativacaoUsuariosService;
 
     
     public PacienteService(PacienteRepository pacienteRepository,
                            UsuarioRepository usuarioRepository,
                            PerfilRepository perfilRepository,
                            PasswordEncoder passwordEncoder,
-                           EmailService emailService) {
+                           EmailService emailService,
+                           DesativacaoUsuariosService desativacaoUsuariosService) {
         this.pacienteRepository = pacienteRepository;
         this.usuarioRepository = usuarioRepository;
         this.perfilRepository = perfilRepository;
         this.passwordEncoder = passwordEncoder;
         this.emailService = emailService;
+        this.desativacaoUsuariosService = desativacaoUsuariosService;
     }
 
     /**
@@ -117,7 +121,9 @@ public Paciente cadastrarPaciente(PacienteRequest request) {
      */
     @Transactional(readOnly = true)
     public Paciente buscarPorEmail(String email) {
-        return pacienteRepository.findByEmail(email)
+        return usuarioRepository.buscarPorEmail(email)
+                .filter(Paciente.class::isInstance)
+                .map(Paciente.class::cast)
                 .orElseThrow(() -> new EntidadeNaoEncontradaException("Paciente não encontrado com email: " + email));
     }
 
@@ -128,7 +134,7 @@ public Paciente cadastrarPaciente(PacienteRequest request) {
      */
     @Transactional(readOnly = true)
     public List<Paciente> listarTodos() {
-        return pacienteRepository.findAll();
+        return pacienteRepository.findAllWithPerfis();
     }
 
     /**
@@ -173,17 +179,18 @@ public Paciente cadastrarPaciente(PacienteRequest request) {
     }
 
     /**
-     * Desativa um paciente (exclusão lógica).
+     * Desativa um paciente (exclusão lógica) e cancela as consultas futuras dele (os médicos são
+     * avisados em segundo plano).
      *
      * @param id O ID do paciente a ser desativado.
+     * @param statusCancelamento Status das consultas canceladas (CANCELADA_ADMIN ou CANCELADA_PACIENTE).
+     * @return Quantidade de consultas futuras canceladas.
      * @throws EntidadeNaoEncontradaException Se o paciente não for encontrado.
      */
     @Transactional
-    public void desativarPaciente(Long id) {
-        Paciente paciente = buscarPorId(id);
-        paciente.setAtivo(false);
-        // Adicionar lógica para cancelar consultas futuras, etc.
-        pacienteRepository.save(paciente);
+    public int desativarPaciente(Long id, StatusConsulta statusCancelamento) {
+        buscarPorId(id);
+        return desativacaoUsuariosService.desativarPacientes(List.of(id), statusCancelamento).consultasCanceladas();
     }
     
     // MÉTODO ADICIONADO PARA CORRIGIR A FUNCIONALIDADE DO ADMINCONTROLLER
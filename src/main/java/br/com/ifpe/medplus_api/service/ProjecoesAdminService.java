@@ -0,0 +1,189 @@
+package br.com.ifpe.medplus_api.service;
+
+import br.com.ifpe.medplus_api.model.consulta.StatusConsulta;
+import br.com.ifpe.medplus_api.projecao.CampoProjetado;
+import br.com.ifpe.medplus_api.projecao.RecursoProjetado;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Leituras do painel administrativo com campos escolhidos ({@code fields=}) e busca de vários
+ * registros por id ({@code ids=}) em uma única consulta.
+ *
+ * Os nomes e formatos dos campos são os mesmos dos DTOs do {@code AdminController} (roles sem o
+ * prefixo ROLE_, status pela descrição, dataHora no formato de {@link LocalDateTime#toString()}),
+ * para que a resposta com {@code fields} seja um recorte da resposta completa.
+ */
+@Service
+public class ProjecoesAdminService {
+
+    /** Limite de ids por chamada de multi-get. */
+    public static final int MAXIMO_IDS = 1000;
+
+    private static final String SQL_ROLES = """
+            ARRAY(SELECT replace(p.nome, 'ROLE_', '') FROM tb_usuario_perfil up
+                  JOIN tb_perfil p ON p.id = up.perfil_id WHERE up.usuario_id = u.id ORDER BY p.nome)""";
+
+    private static final CampoProjetado.Leitor LER_ROLES = (rs, coluna) -> {
+        Array roles = rs.getArray(coluna);
+        return roles == null ? List.of() : Arrays.asList((String[]) roles.getArray());
+    };
+
+    private static final RecursoProjetado MEDICOS = new RecursoProjetado(
+            "tb_medico m JOIN tb_usuario u ON u.id = m.usuario_id", "u.id", Map.of(), List.of(
+            CampoProjetado.simples("id", "u.id"),
+            CampoProjetado.simples("nome", "u.nome"),
+            CampoProjetado.simples("email", "u.email"),
+            CampoProjetado.simples("crm", "m.crm"),
+            CampoProjetado.simples("especialidade", "m.especialidade"),
+            CampoProjetado.simples("ativo", "u.ativo"),
+            new CampoProjetado("roles", SQL_ROLES, Set.of(), LER_ROLES)));
+
+    private static final RecursoProjetado PACIENTES = new RecursoProjetado(
+            "tb_paciente pa JOIN tb_usuario u ON u.id = pa.usuario_id", "u.id", Map.of(), List.of(
+            CampoProjetado.simples("id", "u.id"),
+            CampoProjetado.simples("nome", "u.nome"),
+            CampoProjetado.simples("email", "u.email"),
+            CampoProjetado.simples("cpf", "u.cpf"),
+            CampoProjetado.simples("ativo", "u.ativo"),
+            new CampoProjetado("roles", SQL_ROLES, Set.of(), LER_ROLES)));
+
+    private static final RecursoProjetado CONSULTAS = new RecursoProjetado(
+            "tb_consulta c", "c.id",
+            Map.of("paciente", "LEFT JOIN tb_usuario up ON up.id = c.paciente_id",
+                    "medico", "LEFT JOIN tb_usuario um ON um.id = c.medico_id"),
+            List.of(
+                    CampoProjetado.simples("id", "c.id"),
+                    new CampoProjetado("pacienteNome", "up.nome", Set.of("paciente"),
+                            (rs, coluna) -> Optional.ofNullable(rs.getString(coluna)).orElse("N/A")),
+                    new CampoProjetado("medicoNome", "um.nome", Set.of("medico"),
+                            (rs, coluna) -> Optional.ofNullable(rs.getString(coluna)).orElse("N/A")),
+                    new CampoProjetado("dataHora", "c.data_hora_consulta", Set.of(), (rs, coluna) -> {
+                        Timestamp dataHora = rs.getTimestamp(coluna);
+                        return dataHora == null ? "N/A" : dataHora.toLocalDateTime().toString();
+                    }),
+                    new CampoProjetado("status", "c.status_consulta", Set.of(), (rs, coluna) -> {
+                        String status = rs.getString(coluna);
+                        return status == null ? "N/A" : StatusConsulta.valueOf(status).getDescricao();
+                    })));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.consultas.janela-passado-meses:12}")
+    private int janelaPassadoMeses;
+
+    @Value("${app.consultas.janela-futuro-meses:6}")
+    private int janelaFuturoMeses;
+
+    public ProjecoesAdminService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> listarMedicos(List<String> campos) {
+        return listar(MEDICOS, campos, "u.nome, u.id");
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> buscarMedicos(Collection<Long> ids, List<String> campos) {
+        return buscarPorIds(MEDICOS, ids, campos);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> listarPacientes(List<String> campos) {
+        return listar(PACIENTES, campos, "u.nome, u.id");
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> buscarPacientes(Collection<Long> ids, List<String> campos) {
+        return buscarPorIds(PACIENTES, ids, campos);
+    }
+
+    /**
+     * Mesma janela e ordem de {@link ConsultaService#listarTodasConsultas()}, que limita a leitura
+     * às partições recentes de tb_consulta.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> listarConsultas(List<String> campos) {
+        List<CampoProjetado> selecionados = CONSULTAS.resolver(campos);
+        String sql = CONSULTAS.sql(selecionados, "c.data_hora_consulta BETWEEN ? AND ?",
+                "c.data_hora_consulta DESC, c.id");
+        LocalDateTime agora = LocalDateTime.now();
+        return jdbcTemplate.query(sql, mapeador(selecionados),
+                Timestamp.valueOf(agora.minusMonths(janelaPassadoMeses)),
+                Timestamp.valueOf(agora.plusMonths(janelaFuturoMeses)));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> buscarConsultas(Collection<Long> ids, List<String> campos) {
+        return buscarPorIds(CONSULTAS, ids, campos);
+    }
+
+    private List<Map<String, Object>> listar(RecursoProjetado recurso, List<String> campos, String ordem) {
+        List<CampoProjetado> selecionados = recurso.resolver(campos);
+        return jdbcTemplate.query(recurso.sql(selecionados, null, ordem), mapeador(selecionados));
+    }
+
+    /**
+     * Um único SELECT com {@code id = ANY(?)}. As linhas voltam na ordem dos ids pedidos, sem
+     * repetições; ids inexistentes são omitidos.
+     */
+    private List<Map<String, Object>> buscarPorIds(RecursoProjetado recurso, Collection<Long> ids, List<String> campos) {
+        Set<Long> distintos = new LinkedHashSet<>(ids);
+        distintos.remove(null);
+        if (distintos.size() > MAXIMO_IDS) {
+            throw new IllegalArgumentException("No máximo " + MAXIMO_IDS + " ids por requisição.");
+        }
+        List<CampoProjetado> selecionados = recurso.resolver(campos);
+        if (distintos.isEmpty()) {
+            return List.of();
+        }
+        String sql = recurso.sql(selecionados, recurso.getColunaId() + " = ANY(?)", null);
+        Long[] valores = distintos.toArray(Long[]::new);
+        List<Map<String, Object>> linhas = jdbcTemplate.query(conexao -> {
+            PreparedStatement ps = conexao.prepareStatement(sql);
+            ps.setArray(1, conexao.createArrayOf("bigint", valores));
+            return ps;
+        }, mapeador(selecionados));
+
+        Map<Long, Map<String, Object>> porId = new HashMap<>();
+        linhas.forEach(linha -> porId.put(((Number) linha.get("id")).longValue(), linha));
+        List<Map<String, Object>> ordenadas = new ArrayList<>(linhas.size());
+        for (Long id : distintos) {
+            Map<String, Object> linha = porId.get(id);
+            if (linha != null) {
+                ordenadas.add(linha);
+            }
+        }
+        return ordenadas;
+    }
+
+    private static RowMapper<Map<String, Object>> mapeador(List<CampoProjetado> selecionados) {
+        return (rs, numeroLinha) -> {
+            Map<String, Object> linha = new LinkedHashMap<>();
+            for (int i = 0; i < selecionados.size(); i++) {
+                CampoProjetado campo = selecionados.get(i);
+                linha.put(campo.nome(), campo.leitor().ler(rs, i + 1));
+            }
+            return linha;
+        };
+    }
+}
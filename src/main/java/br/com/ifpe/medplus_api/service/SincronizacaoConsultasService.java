@@ -0,0 +1,135 @@
+package br.com.ifpe.medplus_api.service;
+
+import br.com.ifpe.medplus_api.dto.AlteracaoConsultaDTO;
+import br.com.ifpe.medplus_api.dto.AlteracoesConsultasDTO;
+import br.com.ifpe.medplus_api.model.consulta.StatusConsulta;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Sincronização incremental das consultas para clientes offline: devolve só as consultas criadas ou
+ * alteradas depois do cursor (data_atualizacao, id), na ordem desse par, usando os índices de V8.
+ *
+ * Segue a mesma janela de datas das listagens; consultas que saem da janela com o passar do tempo
+ * não são informadas, o cliente as descarta pela data.
+ *
+ * data_atualizacao vem do relógio do banco, na hora em que a linha é escrita (gatilho de V10), e é
+ * gravada antes do commit: uma transação ainda aberta pode tornar visível depois uma linha com data
+ * anterior a um cursor já entregue. Por isso o corte fica no início da transação de escrita mais
+ * antiga ainda aberta (pg_stat_activity) e, no máximo, {@code app.consultas.sincronizacao.margem}
+ * atrás do relógio do banco, folga para a escrita que ainda não apareceu como transação de escrita.
+ * Escritas e corte usam o mesmo relógio, então o relógio dos nós da API não interfere.
+ *
+ * Sem transação somente leitura de propósito: a consulta vai ao primário, porque na réplica
+ * pg_stat_activity não mostra as transações abertas no primário.
+ */
+@Service
+public class SincronizacaoConsultasService {
+
+    private static final int TAMANHO_MAXIMO = 500;
+    private static final LocalDateTime INICIO = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    // least() ignora o NULL de quando não há transação de escrita aberta
+    private static final String SQL_CORTE = """
+            SELECT least(LOCALTIMESTAMP - ?::interval, min(xact_start)::timestamp)
+            FROM pg_stat_activity
+            WHERE datname = current_database() AND backend_xid IS NOT NULL""";
+
+    private static final String SQL_PACIENTE = """
+            SELECT c.id, c.data_hora_consulta, c.status_consulta, c.observacoes, c.data_criacao, c.data_atualizacao,
+                   u.nome, m.especialidade, NULL
+            FROM tb_consulta c
+            JOIN tb_usuario u ON u.id = c.medico_id
+            JOIN tb_medico m ON m.usuario_id = c.medico_id
+            WHERE c.paciente_id = ? AND c.data_hora_consulta BETWEEN ? AND ?
+              AND (c.data_atualizacao, c.id) > (?, ?) AND c.data_atualizacao <= (%s)
+            ORDER BY c.data_atualizacao, c.id
+            LIMIT ?
+            """.formatted(SQL_CORTE);
+
+    private static final String SQL_MEDICO = """
+            SELECT c.id, c.data_hora_consulta, c.status_consulta, c.observacoes, c.data_criacao, c.data_atualizacao,
+                   NULL, NULL, u.nome
+            FROM tb_consulta c
+            JOIN tb_usuario u ON u.id = c.paciente_id
+            WHERE c.medico_id = ? AND c.data_hora_consulta BETWEEN ? AND ?
+              AND (c.data_atualizacao, c.id) > (?, ?) AND c.data_atualizacao <= (%s)
+            ORDER BY c.data_atualizacao, c.id
+            LIMIT ?
+            """.formatted(SQL_CORTE);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.consultas.janela-passado-meses:12}")
+    private int janelaPassadoMeses;
+
+    @Value("${app.consultas.janela-futuro-meses:6}")
+    private int janelaFuturoMeses;
+
+    @Value("${app.consultas.sincronizacao.margem:10s}")
+    private Duration margem;
+
+    public SincronizacaoConsultasService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public AlteracoesConsultasDTO alteracoesPaciente(Long pacienteId, LocalDateTime desde, Long desdeId, int tamanho) {
+        return alteracoes(SQL_PACIENTE, pacienteId, desde, desdeId, tamanho);
+    }
+
+    public AlteracoesConsultasDTO alteracoesMedico(Long medicoId, LocalDateTime desde, Long desdeId, int tamanho) {
+        return alteracoes(SQL_MEDICO, medicoId, desde, desdeId, tamanho);
+    }
+
+    private AlteracoesConsultasDTO alteracoes(String sql, Long usuarioId, LocalDateTime desde, Long desdeId,
+                                             int tamanho) {
+        if (desde == null && desdeId != null) {
+            throw new IllegalArgumentException("desdeId exige desde.");
+        }
+        int limite = Math.max(1, Math.min(tamanho, TAMANHO_MAXIMO));
+        LocalDateTime inicio = desde != null ? desde : INICIO;
+        long inicioId = desde != null && desdeId != null ? desdeId : 0L;
+        LocalDateTime agora = LocalDateTime.now();
+
+        // Uma linha a mais só para saber se há outra página
+        List<AlteracaoConsultaDTO> itens = jdbcTemplate.query(sql, mapeador(desde),
+                usuarioId,
+                Timestamp.valueOf(agora.minusMonths(janelaPassadoMeses)),
+                Timestamp.valueOf(agora.plusMonths(janelaFuturoMeses)),
+                Timestamp.valueOf(inicio), inicioId,
+                margem.toMillis() + " milliseconds",
+                limite + 1);
+        boolean temMais = itens.size() > limite;
+        List<AlteracaoConsultaDTO> pagina = temMais ? itens.subList(0, limite) : itens;
+        if (pagina.isEmpty()) {
+            return new AlteracoesConsultasDTO(List.of(), desde, desde != null ? inicioId : null, false);
+        }
+        AlteracaoConsultaDTO ultima = pagina.get(pagina.size() - 1);
+        return new AlteracoesConsultasDTO(List.copyOf(pagina), ultima.dataAtualizacao(), ultima.id(), temMais);
+    }
+
+    private static RowMapper<AlteracaoConsultaDTO> mapeador(LocalDateTime desde) {
+        return (rs, i) -> {
+            StatusConsulta status = StatusConsulta.valueOf(rs.getString(3));
+            LocalDateTime criacao = rs.getTimestamp(5).toLocalDateTime();
+            String operacao;
+            if (status.name().startsWith("CANCELADA")) {
+                operacao = "CANCELADA";
+            } else if (desde == null || criacao.isAfter(desde)) {
+                operacao = "CRIADA";
+            } else {
+                operacao = "ALTERADA";
+            }
+            return new AlteracaoConsultaDTO(rs.getLong(1), operacao, rs.getTimestamp(2).toLocalDateTime(),
+                    status.getDescricao(), rs.getString(7), rs.getString(8), rs.getString(9), rs.getString(4),
+                    rs.getTimestamp(6).toLocalDateTime());
+        };
+    }
+}
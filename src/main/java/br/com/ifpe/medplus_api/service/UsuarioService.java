@@ -1,5 +1,6 @@
 package br.com.ifpe.medplus_api.service;
 
+import br.com.ifpe.medplus_api.concorrencia.Coalescer;
 import br.com.ifpe.medplus_api.dto.PerfilResponseDTO;
 import br.com.ifpe.medplus_api.model.acesso.Usuario;
 import br.com.ifpe.medplus_api.model.medico.Medico;
@@ -49,6 +50,7 @@ public class UsuarioService implements UserDetailsService {
      * @param userEmail O email do usuário a ser buscado.
      * @return um PerfilResponseDTO com os dados do usuário.
      */
+    @Coalescer
     @Transactional(readOnly = true)
     public PerfilResponseDTO buscarPorEmailComoDto(String userEmail) {
         // Usa o mesmo método do repositório para garantir que os perfis sejam carregados
@@ -66,7 +68,7 @@ public class UsuarioService implements UserDetailsService {
         // Extrai os nomes dos perfis (roles)
         Set<String> roles = usuario.getPerfis().stream()
                                    .map(perfil -> perfil.getNome().toString()) // ex: "ROLE_ADMIN"
-                                   .collect(Collectors.toSet());
+                                   .collect(Collectors.toUnmodifiableSet());
 
         String cpf = null;
         String crm = null;
@@ -0,0 +1,13 @@
+package br.com.ifpe.medplus_api.service;
+
+import java.util.Set;
+
+/**
+ * Publicado pelo {@link DesativacaoUsuariosService} na transação que desativa os usuários, já com os
+ * tokens de calendário deles apagados. O {@link CalendarioService} esquece, depois do commit, o que
+ * guardava em memória desses usuários.
+ *
+ * @param usuarioIds usuários que estavam ativos e foram desativados
+ */
+public record UsuariosDesativadosEvent(Set<Long> usuarioIds) {
+}
@@ -1,9 +1,12 @@
 package br.com.ifpe.medplus_api.util;
 
+import br.com.ifpe.medplus_api.util.exception.CargaRejeitadaException;
+import br.com.ifpe.medplus_api.util.exception.ConflitoConcorrenciaException;
 import br.com.ifpe.medplus_api.util.exception.EntidadeNaoEncontradaException;
 import jakarta.persistence.EntityExistsException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
@@ -74,6 +77,46 @@ public class TratadorErros extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
     }
 
+    /**
+     * Corpo do 409 de conflito de concorrência: o erro padrão mais o estado atual do registro.
+     */
+    private record ConflitoResponse(int status, String error, String message, String path, LocalDateTime timestamp,
+                                    Map<String, Object> estadoAtual) {
+    }
+
+    /**
+     * Trata ConflitoConcorrenciaException (HTTP 409 Conflict).
+     * Lançada quando uma alteração perde para outra transação mesmo depois das novas tentativas.
+     */
+    @ExceptionHandler(ConflitoConcorrenciaException.class)
+    public ResponseEntity<Object> handleConflitoConcorrencia(ConflitoConcorrenciaException ex, WebRequest request) {
+        ConflitoResponse errorResponse = new ConflitoResponse(HttpStatus.CONFLICT.value(), HttpStatus.CONFLICT.getReasonPhrase(),
+                ex.getMessage(), request.getDescription(false), LocalDateTime.now(), ex.getEstadoAtual());
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Trata OptimisticLockingFailureException (HTTP 409 Conflict) em operações sem @RetentarEmConflito.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Object> handleOptimisticLocking(OptimisticLockingFailureException ex, WebRequest request) {
+        loggerGlobal.warn("Conflito de versão: {}", ex.getMessage());
+        ApiErrorResponse errorResponse = new ApiErrorResponse(HttpStatus.CONFLICT,
+                "O registro foi alterado por outra operação ao mesmo tempo. Recarregue e tente novamente.", request.getDescription(false));
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Trata CargaRejeitadaException (HTTP 503 Service Unavailable).
+     * A classe de carga da requisição está no limite; o cliente pode repetir logo em seguida.
+     */
+    @ExceptionHandler(CargaRejeitadaException.class)
+    public ResponseEntity<Object> handleCargaRejeitada(CargaRejeitadaException ex, WebRequest request) {
+        loggerGlobal.debug("Requisição recusada por limite de carga: {}", ex.getMessage());
+        ApiErrorResponse errorResponse = new ApiErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage(), request.getDescription(false));
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(errorResponse);
+    }
+
     /**
      * Trata BadCredentialsException (HTTP 401 Unauthorized).
      * Lançada pelo Spring Security quando as credenciais de login são inválidas.
@@ -0,0 +1,18 @@
+package br.com.ifpe.medplus_api.util.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção para requisições recusadas porque a classe de carga delas está no limite de execuções
+ * simultâneas. Resulta em um status HTTP 503 (Service Unavailable) com Retry-After.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class CargaRejeitadaException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public CargaRejeitadaException(String mensagem) {
+        super(mensagem);
+    }
+}
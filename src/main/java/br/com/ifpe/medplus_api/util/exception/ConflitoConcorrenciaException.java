@@ -0,0 +1,30 @@
+package br.com.ifpe.medplus_api.util.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.Map;
+
+/**
+ * Exceção para alterações que perderam a disputa com outra transação (lock otimista) mesmo após as
+ * novas tentativas. Resulta em um status HTTP 409 (Conflict) com o estado atual do registro.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ConflitoConcorrenciaException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient Map<String, Object> estadoAtual;
+
+    public ConflitoConcorrenciaException(String mensagem, Map<String, Object> estadoAtual, Throwable causa) {
+        super(mensagem, causa);
+        this.estadoAtual = estadoAtual;
+    }
+
+    /**
+     * @return estado atual do registro em disputa, ou null se não foi possível lê-lo
+     */
+    public Map<String, Object> getEstadoAtual() {
+        return estadoAtual;
+    }
+}
@@ -0,0 +1,29 @@
+-- Flyway Migration Script: V10__relogio_banco_consulta.sql
+-- data_atualizacao de tb_consulta passa a vir do relógio do banco, no momento da escrita de cada linha.
+--
+-- A sincronização incremental (SincronizacaoConsultasService) usa (data_atualizacao, id) como cursor
+-- e corta pelo relógio do banco. Antes, as escritas pela entidade gravavam o LocalDateTime.now() do
+-- nó da API e os UPDATEs em lote gravavam now(), o início da transação: um nó atrasado ou uma
+-- desativação longa deixavam linhas atrás de um cursor já entregue.
+--
+-- clock_timestamp() é a hora da própria escrita, nunca anterior ao início da transação que escreve;
+-- é isso que deixa a sincronização cortar pela transação de escrita mais antiga ainda aberta.
+-- data_criacao também sai daqui, para que CRIADA/ALTERADA compare datas do mesmo relógio. Só na
+-- criação de fato (versao = 0): um UPDATE que muda data_hora_consulta de mês move a linha de
+-- partição e dispara o gatilho de INSERT na partição nova, mas chega com a versão já incrementada
+-- (a entidade e os UPDATEs em lote sempre incrementam) e mantém a data de criação original.
+-- Gatilho na tabela particionada vale para todas as partições, inclusive as criadas depois.
+
+CREATE FUNCTION fn_consulta_relogio_banco() RETURNS trigger AS $$
+BEGIN
+    NEW.data_atualizacao := clock_timestamp()::timestamp;
+    IF TG_OP = 'INSERT' AND NEW.versao = 0 THEN
+        NEW.data_criacao := NEW.data_atualizacao;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER tg_consulta_relogio_banco
+    BEFORE INSERT OR UPDATE ON tb_consulta
+    FOR EACH ROW EXECUTE FUNCTION fn_consulta_relogio_banco();
@@ -0,0 +1,105 @@
+-- Flyway Migration Script: V3__particionar_consulta.sql
+-- Converte tb_consulta em tabela particionada por mês (RANGE em data_hora_consulta).
+-- Cada mês vira uma tabela própria: consultas filtradas por data só leem os meses do intervalo,
+-- e vacuum/reindexação dos meses antigos não disputam com o mês corrente.
+-- Requer PostgreSQL 11+ (FKs e índices em tabela particionada); o docker-compose usa a 16.
+
+-- 1. Tira a tabela atual do caminho, preservando a sequência dos IDs
+ALTER TABLE tb_consulta RENAME TO tb_consulta_legado;
+ALTER TABLE tb_consulta_legado RENAME CONSTRAINT tb_consulta_pkey TO tb_consulta_legado_pkey;
+ALTER INDEX idx_consulta_paciente_data RENAME TO idx_consulta_legado_paciente_data;
+ALTER INDEX idx_consulta_medico_data RENAME TO idx_consulta_legado_medico_data;
+ALTER SEQUENCE tb_consulta_id_seq OWNED BY NONE;
+
+-- 2. Nova tabela particionada. A chave de partição precisa fazer parte da PK;
+--    a unicidade do id continua garantida pela sequência.
+CREATE TABLE tb_consulta (
+    id BIGINT NOT NULL DEFAULT nextval('tb_consulta_id_seq'),
+    paciente_id BIGINT NOT NULL,
+    medico_id BIGINT NOT NULL,
+    data_hora_consulta TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    status_consulta VARCHAR(30) NOT NULL,
+    observacoes TEXT,
+    motivo_cancelamento TEXT,
+    link_atendimento_online VARCHAR(255),
+    data_criacao TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    data_atualizacao TIMESTAMP WITHOUT TIME ZONE,
+    CONSTRAINT tb_consulta_pkey PRIMARY KEY (id, data_hora_consulta),
+    FOREIGN KEY (paciente_id) REFERENCES tb_paciente (usuario_id) ON DELETE CASCADE,
+    FOREIGN KEY (medico_id) REFERENCES tb_medico (usuario_id) ON DELETE CASCADE
+) PARTITION BY RANGE (data_hora_consulta);
+
+ALTER SEQUENCE tb_consulta_id_seq OWNED BY tb_consulta.id;
+
+-- Recebe linhas de meses que ainda não têm partição (nunca deveria crescer)
+CREATE TABLE tb_consulta_padrao PARTITION OF tb_consulta DEFAULT;
+
+CREATE INDEX idx_consulta_paciente_data ON tb_consulta (paciente_id, data_hora_consulta);
+CREATE INDEX idx_consulta_medico_data ON tb_consulta (medico_id, data_hora_consulta);
+-- Listagem geral do admin, que filtra só por data
+CREATE INDEX idx_consulta_data ON tb_consulta (data_hora_consulta);
+
+-- 3. Criação de partições mensais (tb_consulta_AAAA_MM). Idempotente; se houver linhas do mês
+--    na partição padrão, elas são movidas para a nova partição.
+CREATE OR REPLACE FUNCTION criar_particao_consulta(mes DATE) RETURNS BOOLEAN AS $$
+DECLARE
+    inicio DATE := date_trunc('month', mes)::DATE;
+    fim DATE := (date_trunc('month', mes) + INTERVAL '1 month')::DATE;
+    nome TEXT := 'tb_consulta_' || to_char(date_trunc('month', mes), 'YYYY_MM');
+BEGIN
+    -- Serializa execuções concorrentes (várias instâncias rodando a manutenção ao mesmo tempo)
+    PERFORM pg_advisory_xact_lock(hashtext('criar_particao_consulta'));
+
+    IF to_regclass(nome) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    CREATE TEMP TABLE consultas_sem_particao AS
+        SELECT * FROM tb_consulta_padrao WHERE data_hora_consulta >= inicio AND data_hora_consulta < fim;
+    DELETE FROM tb_consulta_padrao WHERE data_hora_consulta >= inicio AND data_hora_consulta < fim;
+
+    EXECUTE format('CREATE TABLE %I PARTITION OF tb_consulta FOR VALUES FROM (%L) TO (%L)', nome, inicio, fim);
+
+    INSERT INTO tb_consulta SELECT * FROM consultas_sem_particao;
+    DROP TABLE consultas_sem_particao;
+    RETURN TRUE;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Garante partições do mês atual - meses_atras até o mês atual + meses_a_frente.
+-- Retorna quantas partições foram criadas.
+CREATE OR REPLACE FUNCTION criar_particoes_consulta(meses_atras INT, meses_a_frente INT) RETURNS INT AS $$
+DECLARE
+    criadas INT := 0;
+    mes DATE;
+BEGIN
+    FOR mes IN
+        SELECT generate_series(date_trunc('month', now()) - make_interval(months => meses_atras),
+                               date_trunc('month', now()) + make_interval(months => meses_a_frente),
+                               INTERVAL '1 month')::DATE
+    LOOP
+        IF criar_particao_consulta(mes) THEN
+            criadas := criadas + 1;
+        END IF;
+    END LOOP;
+    RETURN criadas;
+END;
+$$ LANGUAGE plpgsql;
+
+-- 4. Partições para todos os meses com dados e para os próximos 3 meses
+SELECT criar_particoes_consulta(
+    COALESCE((SELECT (EXTRACT(YEAR FROM age(date_trunc('month', now()), date_trunc('month', min(data_hora_consulta)))) * 12
+                    + EXTRACT(MONTH FROM age(date_trunc('month', now()), date_trunc('month', min(data_hora_consulta)))))::INT
+              FROM tb_consulta_legado), 0),
+    3);
+
+-- 5. Copia os dados e remove a tabela antiga
+INSERT INTO tb_consulta (id, paciente_id, medico_id, data_hora_consulta, status_consulta, observacoes,
+                         motivo_cancelamento, link_atendimento_online, data_criacao, data_atualizacao)
+SELECT id, paciente_id, medico_id, data_hora_consulta, status_consulta, observacoes,
+       motivo_cancelamento, link_atendimento_online, data_criacao, data_atualizacao
+FROM tb_consulta_legado;
+
+DROP TABLE tb_consulta_legado;
+
+ANALYZE tb_consulta;
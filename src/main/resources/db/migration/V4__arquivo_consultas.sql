@@ -0,0 +1,22 @@
+-- Flyway Migration Script: V4__arquivo_consultas.sql
+-- Camada fria de consultas: consultas encerradas (realizadas, canceladas, não comparecimento)
+-- mais antigas que app.consultas.arquivamento.idade-meses saem de tb_consulta e vêm para cá.
+-- Tabela só de inserção: sem colunas de atualização/link e com fillfactor 100 (páginas cheias).
+
+CREATE TABLE tb_consulta_arquivo (
+    id BIGINT PRIMARY KEY, -- Mesmo id que a consulta tinha em tb_consulta
+    paciente_id BIGINT NOT NULL,
+    medico_id BIGINT NOT NULL,
+    data_hora_consulta TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    status_consulta VARCHAR(30) NOT NULL,
+    observacoes TEXT,
+    motivo_cancelamento TEXT,
+    data_criacao TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    data_arquivamento TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT now(),
+    FOREIGN KEY (paciente_id) REFERENCES tb_paciente (usuario_id) ON DELETE CASCADE,
+    FOREIGN KEY (medico_id) REFERENCES tb_medico (usuario_id) ON DELETE CASCADE
+) WITH (fillfactor = 100);
+
+-- Paginação do histórico por (data, id) decrescente
+CREATE INDEX idx_consulta_arquivo_paciente_data ON tb_consulta_arquivo (paciente_id, data_hora_consulta DESC, id DESC);
+CREATE INDEX idx_consulta_arquivo_medico_data ON tb_consulta_arquivo (medico_id, data_hora_consulta DESC, id DESC);
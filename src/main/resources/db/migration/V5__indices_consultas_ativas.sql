@@ -0,0 +1,22 @@
+-- Flyway Migration Script: V5__indices_consultas_ativas.sql
+-- Índices parciais só com as consultas que ainda ocupam o horário (AGENDADA, CONFIRMADA, REAGENDADA).
+-- São uma fração pequena da tabela (o passado é quase todo REALIZADA/cancelada), então a verificação
+-- de conflito ao agendar/reagendar lê um índice pequeno em vez do índice de todas as consultas.
+--
+-- REAGENDADA entra no conjunto porque reagendarConsulta grava a consulta movida com esse status no
+-- novo horário: ela ocupa o horário tanto quanto uma AGENDADA.
+--
+-- O predicado precisa ser repetido literalmente nas queries (ConsultaRepository.STATUS_ATIVOS_SQL):
+-- o planner só usa um índice parcial quando consegue provar o WHERE dele a partir do texto da query,
+-- o que não acontece com a lista de status passada como parâmetro.
+--
+-- INCLUDE traz as colunas da projeção de agenda (id, a outra parte e o status), permitindo
+-- Index Only Scan nas partições já vacuumadas.
+
+CREATE INDEX idx_consulta_medico_ativa ON tb_consulta (medico_id, data_hora_consulta)
+    INCLUDE (id, paciente_id, status_consulta)
+    WHERE status_consulta IN ('AGENDADA', 'CONFIRMADA', 'REAGENDADA');
+
+CREATE INDEX idx_consulta_paciente_ativa ON tb_consulta (paciente_id, data_hora_consulta)
+    INCLUDE (id, medico_id, status_consulta)
+    WHERE status_consulta IN ('AGENDADA', 'CONFIRMADA', 'REAGENDADA');
@@ -0,0 +1,13 @@
+-- Flyway Migration Script: V6__versao_otimista.sql
+-- Coluna de versão para o lock otimista (@Version) de Consulta e DisponibilidadeMedico.
+-- Cada UPDATE do Hibernate confere a versão lida e a incrementa; se outra transação alterou a linha
+-- antes, o UPDATE não encontra a versão e a operação é repetida (@RetentarEmConflito) ou vira 409.
+--
+-- Os UPDATEs em lote feitos por SQL (liquidação, desativação de usuários) também incrementam a
+-- versão, para que uma edição concorrente feita pela entidade não sobrescreva a mudança deles.
+--
+-- Com DEFAULT constante o ADD COLUMN não reescreve a tabela; em tb_consulta a coluna é propagada
+-- para todas as partições.
+
+ALTER TABLE tb_consulta ADD COLUMN versao BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE tb_disponibilidade_medico ADD COLUMN versao BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,20 @@
+-- Flyway Migration Script: V7__idempotencia.sql
+-- Respostas já concluídas de POSTs enviados com o cabeçalho Idempotency-Key (ver IdempotenciaFilter).
+-- Uma repetição com a mesma chave recebe a resposta guardada sem executar de novo o endpoint.
+--
+-- chave: hash de usuário (ou anônimo) + caminho + Idempotency-Key, para que clientes diferentes não
+-- colidam usando a mesma chave. impressao: hash do corpo da requisição original; a mesma chave com
+-- outro corpo é recusada. As linhas valem por app.idempotencia.validade (24h) e são apagadas por
+-- tarefa agendada; a consulta por chave já ignora as expiradas.
+
+CREATE TABLE tb_idempotencia (
+    chave        VARCHAR(64) PRIMARY KEY,
+    impressao    VARCHAR(64) NOT NULL,
+    status       SMALLINT NOT NULL,
+    content_type VARCHAR(255),
+    corpo        BYTEA NOT NULL,
+    criado_em    TIMESTAMP NOT NULL DEFAULT now(),
+    expira_em    TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_idempotencia_expira_em ON tb_idempotencia (expira_em);
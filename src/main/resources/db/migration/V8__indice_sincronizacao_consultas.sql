@@ -0,0 +1,15 @@
+-- Flyway Migration Script: V8__indice_sincronizacao_consultas.sql
+-- Sincronização incremental das consultas (SincronizacaoConsultasService): "o que mudou desde o
+-- cursor (data_atualizacao, id)" do paciente ou do médico, em ordem de data_atualizacao.
+--
+-- Os índices seguem exatamente o filtro e a ordem da query, então cada sincronização lê só as
+-- linhas alteradas. Como tb_consulta é particionada, cada partição ganha o seu índice; o filtro pela
+-- janela de data_hora_consulta da query descarta as partições fora dela.
+--
+-- data_atualizacao é preenchida pela auditoria do JPA e pelos UPDATEs em lote; linhas antigas sem
+-- ela recebem a data de criação, para não ficarem de fora da comparação do cursor.
+
+UPDATE tb_consulta SET data_atualizacao = data_criacao WHERE data_atualizacao IS NULL;
+
+CREATE INDEX idx_consulta_paciente_atualizacao ON tb_consulta (paciente_id, data_atualizacao, id);
+CREATE INDEX idx_consulta_medico_atualizacao ON tb_consulta (medico_id, data_atualizacao, id);
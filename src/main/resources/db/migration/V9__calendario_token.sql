@@ -0,0 +1,13 @@
+-- Flyway Migration Script: V9__calendario_token.sql
+-- Token secreto do feed iCalendar de cada médico/paciente (GET /calendario/{token}.ics).
+-- Aplicativos de calendário não enviam Authorization; o próprio endereço é a credencial.
+--
+-- Guarda-se só o SHA-256 do token: quem lê a tabela não consegue montar o endereço do feed.
+-- Um token por usuário; gerar outro substitui (e invalida) o anterior.
+
+CREATE TABLE tb_calendario_token (
+    usuario_id BIGINT PRIMARY KEY REFERENCES tb_usuario (id) ON DELETE CASCADE,
+    token_hash VARCHAR(64) NOT NULL UNIQUE,
+    titular    VARCHAR(10) NOT NULL,
+    criado_em  TIMESTAMP NOT NULL DEFAULT now()
+);
@@ -0,0 +1,68 @@
+package br.com.ifpe.medplus_api.agenda;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+class ConexaoAgendaTest {
+
+    private final EmitterRegistrador emitter = new EmitterRegistrador();
+    /** Executor manual: as escritas só rodam quando o teste manda. */
+    private final Deque<Runnable> tarefas = new ArrayDeque<>();
+    private final ConexaoAgenda conexao = new ConexaoAgenda(1L, emitter, tarefas::add, 2);
+
+    private static SseEmitter.SseEventBuilder evento(String nome) {
+        return SseEmitter.event().name(nome).data("x");
+    }
+
+    private void rodarTarefas() {
+        while (!tarefas.isEmpty()) {
+            tarefas.poll().run();
+        }
+    }
+
+    @Test
+    void filaLimitadaRecusaQuandoCheia() {
+        assertTrue(conexao.enviar(evento("a")));
+        assertTrue(conexao.enviar(evento("b")));
+        assertFalse(conexao.enviar(evento("c")));
+        // Uma única tarefa de escrita por vez, mesmo com vários eventos na fila
+        assertEquals(1, tarefas.size());
+
+        rodarTarefas();
+
+        assertEquals(List.of("a", "b"), emitter.nomes());
+        assertTrue(conexao.enviar(evento("c")));
+        rodarTarefas();
+        assertEquals(List.of("a", "b", "c"), emitter.nomes());
+    }
+
+    @Test
+    void encerradaNaoAceitaMaisEventos() {
+        conexao.enviar(evento("a"));
+        conexao.encerrar();
+        rodarTarefas();
+
+        assertTrue(emitter.encerrado);
+        assertTrue(emitter.nomes().isEmpty());
+        assertFalse(conexao.enviar(evento("b")));
+    }
+
+    @Test
+    void falhaDeEscritaEncerraAConexao() {
+        emitter.falharEscrita = true;
+        conexao.enviar(evento("a"));
+        rodarTarefas();
+
+        assertTrue(conexao.isEncerrada());
+        assertTrue(emitter.encerrado);
+        assertFalse(conexao.enviar(evento("b")));
+    }
+}
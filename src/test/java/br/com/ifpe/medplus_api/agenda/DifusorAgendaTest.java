@@ -0,0 +1,206 @@
+package br.com.ifpe.medplus_api.agenda;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import br.com.ifpe.medplus_api.model.consulta.StatusConsulta;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+class DifusorAgendaTest {
+
+    private static final Long MEDICO = 10L;
+    private static final Duration RETOMADA = Duration.ofMinutes(5);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CanalAgendaLocal canal = new CanalAgendaLocal();
+    /** Tarefas de escrita guardadas sem rodar: simula clientes que não leem. */
+    private final List<Runnable> escritasPendentes = new ArrayList<>();
+    /** Relógio do difusor, em nanossegundos; só anda quando o teste manda. */
+    private final AtomicLong agora = new AtomicLong();
+
+    private DifusorAgenda difusor(Executor executor, int fila, int historico, int conexoesPorMedico) {
+        DifusorAgenda difusor = new DifusorAgenda(EmitterRegistrador::new, executor, fila, historico,
+                conexoesPorMedico, RETOMADA, agora::get, registry);
+        canal.assinar(difusor::entregar);
+        return difusor;
+    }
+
+    private DifusorAgenda difusor(int historico, int conexoesPorMedico) {
+        // Escrita na própria thread: cada evento já está no emitter quando publicar retorna
+        return difusor(Runnable::run, 32, historico, conexoesPorMedico);
+    }
+
+    private static EmitterRegistrador conectar(DifusorAgenda difusor, Long medicoId, String ultimoEventoId) {
+        return (EmitterRegistrador) difusor.conectar(medicoId, ultimoEventoId);
+    }
+
+    private void publicar(Long medicoId, long consultaId) {
+        canal.publicar(new EventoAgenda("AGENDADA", consultaId, medicoId, 20L, "Paciente",
+                LocalDateTime.of(2025, 3, 10, 14, 30), StatusConsulta.AGENDADA));
+    }
+
+    private static List<Long> consultas(EmitterRegistrador emitter) {
+        return emitter.dados.stream().map(dado -> ((EventoAgenda) dado).consultaId()).toList();
+    }
+
+    private static Map<?, ?> agendas(DifusorAgenda difusor) {
+        return (Map<?, ?>) ReflectionTestUtils.getField(difusor, "agendas");
+    }
+
+    @Test
+    void eventoChegaSoAsConexoesDoMedico() {
+        DifusorAgenda difusor = difusor(100, 5);
+        EmitterRegistrador doMedico = conectar(difusor, MEDICO, null);
+        EmitterRegistrador deOutro = conectar(difusor, 99L, null);
+
+        publicar(MEDICO, 1L);
+
+        assertEquals(List.of("comentario", DifusorAgenda.EVENTO_CONSULTA), doMedico.nomes());
+        assertEquals(List.of(1L), consultas(doMedico));
+        assertEquals(List.of("comentario"), deOutro.nomes());
+    }
+
+    @Test
+    void reconexaoComLastEventIdRecebeSoOQuePerdeu() {
+        DifusorAgenda difusor = difusor(100, 5);
+        EmitterRegistrador primeira = conectar(difusor, MEDICO, null);
+        publicar(MEDICO, 1L);
+        publicar(MEDICO, 2L);
+        publicar(MEDICO, 3L);
+        String primeiroId = primeira.ids().get(0);
+
+        EmitterRegistrador segunda = conectar(difusor, MEDICO, primeiroId);
+
+        assertEquals(List.of(2L, 3L), consultas(segunda));
+        assertEquals(primeira.ids().subList(1, 3), segunda.ids());
+        assertFalse(segunda.nomes().contains(DifusorAgenda.EVENTO_RESSINCRONIZAR));
+    }
+
+    @Test
+    void idDeOutraExecucaoOuInvalidoPedeRessincronizacao() {
+        DifusorAgenda difusor = difusor(100, 5);
+        publicar(MEDICO, 1L);
+
+        for (String id : List.of("outraepoca-1", "sem-formato-x", "lixo")) {
+            EmitterRegistrador emitter = conectar(difusor, MEDICO, id);
+            assertEquals(List.of("comentario", DifusorAgenda.EVENTO_RESSINCRONIZAR), emitter.nomes(), id);
+            assertTrue(emitter.dados.stream().noneMatch(EventoAgenda.class::isInstance), id);
+        }
+    }
+
+    @Test
+    void idAnteriorAoHistoricoGuardadoPedeRessincronizacao() {
+        DifusorAgenda difusor = difusor(2, 5);
+        EmitterRegistrador primeira = conectar(difusor, MEDICO, null);
+        for (long consulta = 1; consulta <= 4; consulta++) {
+            publicar(MEDICO, consulta);
+        }
+        List<String> ids = primeira.ids();
+
+        // O evento 1 saiu do histórico (só restam 3 e 4): não há como saber o que se perdeu
+        EmitterRegistrador expirada = conectar(difusor, MEDICO, ids.get(0));
+        assertEquals(List.of("comentario", DifusorAgenda.EVENTO_RESSINCRONIZAR), expirada.nomes());
+
+        // Quem viu o evento 2 perdeu só 3 e 4, ainda guardados
+        EmitterRegistrador recente = conectar(difusor, MEDICO, ids.get(1));
+        assertEquals(List.of(3L, 4L), consultas(recente));
+    }
+
+    @Test
+    void filaCheiaEncerraAConexaoAtrasada() {
+        DifusorAgenda difusor = difusor(escritasPendentes::add, 3, 100, 5);
+        EmitterRegistrador lenta = conectar(difusor, MEDICO, null);
+
+        publicar(MEDICO, 1L);
+        publicar(MEDICO, 2L);
+        assertFalse(lenta.encerrado);
+
+        // "conectado" + 2 eventos enchem a fila de 3
+        publicar(MEDICO, 3L);
+
+        assertTrue(lenta.encerrado);
+        assertEquals(1.0, registry.counter("medplus.agenda.conexoes.encerradas", "motivo", "fila-cheia").count());
+        // Removida do médico: o próximo evento não tenta entregar de novo
+        publicar(MEDICO, 4L);
+        assertEquals(1.0, registry.counter("medplus.agenda.conexoes.encerradas", "motivo", "fila-cheia").count());
+    }
+
+    @Test
+    void limiteDeConexoesPorMedicoEncerraAMaisAntiga() {
+        DifusorAgenda difusor = difusor(100, 2);
+        EmitterRegistrador primeira = conectar(difusor, MEDICO, null);
+        EmitterRegistrador segunda = conectar(difusor, MEDICO, null);
+        EmitterRegistrador terceira = conectar(difusor, MEDICO, null);
+        EmitterRegistrador deOutro = conectar(difusor, 99L, null);
+
+        assertTrue(primeira.encerrado);
+        assertFalse(segunda.encerrado);
+        assertFalse(terceira.encerrado);
+        assertFalse(deOutro.encerrado);
+
+        publicar(MEDICO, 1L);
+        assertTrue(consultas(primeira).isEmpty());
+        assertEquals(List.of(1L), consultas(segunda));
+        assertEquals(List.of(1L), consultas(terceira));
+    }
+
+    @Test
+    void eventoDeMedicoSemConexaoNaoGuardaHistorico() {
+        DifusorAgenda difusor = difusor(100, 5);
+
+        publicar(MEDICO, 1L);
+
+        assertTrue(agendas(difusor).isEmpty());
+    }
+
+    @Test
+    void agendaOciosaSaiDaMemoriaDepoisDoHorizonteDeRetomada() {
+        DifusorAgenda difusor = difusor(100, 5);
+        EmitterRegistrador primeira = conectar(difusor, MEDICO, null);
+        publicar(MEDICO, 1L);
+        String visto = primeira.ids().get(0);
+        primeira.complete();
+
+        agora.addAndGet(RETOMADA.toNanos() - 1);
+        difusor.enviarHeartbeat();
+        assertEquals(1, agendas(difusor).size());
+
+        agora.addAndGet(1);
+        difusor.enviarHeartbeat();
+        assertTrue(agendas(difusor).isEmpty());
+
+        // O evento 2 chega sem agenda; quem reconecta depois não tem como saber o que perdeu
+        publicar(MEDICO, 2L);
+        EmitterRegistrador segunda = conectar(difusor, MEDICO, visto);
+        assertEquals(List.of("comentario", DifusorAgenda.EVENTO_RESSINCRONIZAR), segunda.nomes());
+    }
+
+    @Test
+    void reconexaoDentroDoHorizonteRecebeOQuePerdeuDesconectada() {
+        DifusorAgenda difusor = difusor(100, 5);
+        EmitterRegistrador primeira = conectar(difusor, MEDICO, null);
+        publicar(MEDICO, 1L);
+        primeira.complete();
+
+        agora.addAndGet(RETOMADA.toNanos() - 1);
+        publicar(MEDICO, 2L);
+        // O evento recente renova o horizonte
+        agora.addAndGet(RETOMADA.toNanos() - 1);
+        difusor.enviarHeartbeat();
+
+        EmitterRegistrador segunda = conectar(difusor, MEDICO, primeira.ids().get(0));
+        assertEquals(List.of(2L), consultas(segunda));
+        assertFalse(segunda.nomes().contains(DifusorAgenda.EVENTO_RESSINCRONIZAR));
+    }
+}
@@ -0,0 +1,94 @@
+package br.com.ifpe.medplus_api.agenda;
+
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * SseEmitter sem requisição por trás: guarda o que seria escrito e o encerramento.
+ */
+class EmitterRegistrador extends SseEmitter {
+
+    private static final Pattern ID = Pattern.compile("^id:(\\S+)$", Pattern.MULTILINE);
+    private static final Pattern NOME = Pattern.compile("^event:(\\S+)$", Pattern.MULTILINE);
+
+    /** Um item por evento: o texto SSE, com os dados que não são texto como {@code <objeto>}. */
+    final List<String> enviados = new ArrayList<>();
+    final List<Object> dados = new ArrayList<>();
+    volatile boolean encerrado;
+    volatile boolean falharEscrita;
+    private Runnable aoEncerrar;
+
+    @Override
+    public void send(SseEventBuilder evento) throws IOException {
+        if (falharEscrita) {
+            throw new IOException("Conexão fechada pelo cliente");
+        }
+        StringBuilder texto = new StringBuilder();
+        for (ResponseBodyEmitter.DataWithMediaType parte : evento.build()) {
+            if (parte.getData() instanceof String s) {
+                texto.append(s);
+            } else {
+                texto.append("<objeto>");
+                dados.add(parte.getData());
+            }
+        }
+        synchronized (enviados) {
+            enviados.add(texto.toString());
+        }
+    }
+
+    @Override
+    public synchronized void complete() {
+        encerrar();
+    }
+
+    @Override
+    public synchronized void completeWithError(Throwable erro) {
+        encerrar();
+    }
+
+    @Override
+    public synchronized void onCompletion(Runnable callback) {
+        aoEncerrar = callback;
+    }
+
+    private void encerrar() {
+        if (!encerrado) {
+            encerrado = true;
+            if (aoEncerrar != null) {
+                aoEncerrar.run();
+            }
+        }
+    }
+
+    /** Nomes dos eventos enviados ({@code comentario} para os que só têm comentário). */
+    List<String> nomes() {
+        synchronized (enviados) {
+            return enviados.stream().map(texto -> {
+                Matcher nome = NOME.matcher(texto);
+                return nome.find() ? nome.group(1) : "comentario";
+            }).collect(Collectors.toList());
+        }
+    }
+
+    /** Ids dos eventos enviados, na ordem. */
+    List<String> ids() {
+        synchronized (enviados) {
+            List<String> ids = new ArrayList<>();
+            for (String texto : enviados) {
+                Matcher id = ID.matcher(texto);
+                if (id.find()) {
+                    ids.add(id.group(1));
+                }
+            }
+            return ids;
+        }
+    }
+}
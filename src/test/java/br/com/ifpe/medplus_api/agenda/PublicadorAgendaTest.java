@@ -0,0 +1,36 @@
+package br.com.ifpe.medplus_api.agenda;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import br.com.ifpe.medplus_api.model.consulta.StatusConsulta;
+import br.com.ifpe.medplus_api.service.ConsultaAlteradaEvent;
+import br.com.ifpe.medplus_api.service.ConsultasLiquidadasEvent;
+import br.com.ifpe.medplus_api.service.ConsultasLiquidadasEvent.ConsultaLiquidada;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+class PublicadorAgendaTest {
+
+    private final CanalAgendaLocal canal = new CanalAgendaLocal();
+    private final PublicadorAgenda publicador = new PublicadorAgenda(canal);
+
+    @Test
+    void liquidacaoChegaAAgendaDeCadaMedico() {
+        List<EventoAgenda> recebidos = new ArrayList<>();
+        canal.assinar(recebidos::add);
+        LocalDateTime inicio = LocalDateTime.of(2025, 3, 10, 0, 0);
+
+        publicador.aoLiquidarConsultas(new ConsultasLiquidadasEvent(StatusConsulta.PENDENTE_REVISAO, inicio,
+                inicio.plusDays(1), List.of(new ConsultaLiquidada(1L, 10L, 20L, inicio.plusHours(9)),
+                new ConsultaLiquidada(2L, 11L, 21L, inicio.plusHours(10))), 5));
+
+        assertEquals(List.of(
+                new EventoAgenda(ConsultaAlteradaEvent.Tipo.STATUS_ALTERADO.name(), 1L, 10L, 20L, null,
+                        inicio.plusHours(9), StatusConsulta.PENDENTE_REVISAO),
+                new EventoAgenda(ConsultaAlteradaEvent.Tipo.STATUS_ALTERADO.name(), 2L, 11L, 21L, null,
+                        inicio.plusHours(10), StatusConsulta.PENDENTE_REVISAO)), recebidos);
+    }
+}
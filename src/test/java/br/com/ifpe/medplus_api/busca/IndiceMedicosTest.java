@@ -0,0 +1,90 @@
+package br.com.ifpe.medplus_api.busca;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+class IndiceMedicosTest {
+
+    private final IndiceMedicos indice = new IndiceMedicos();
+
+    IndiceMedicosTest() {
+        indice.substituirTudo(List.of(
+                new MedicoIndexado(1L, "Ana Beatriz Souza", "CRM1", "Cardiologia", "Recife", "PE", true,
+                        Set.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY)),
+                new MedicoIndexado(2L, "João Albuquerque", "CRM2", "Cardiologia", "Olinda", "PE", true,
+                        Set.of(DayOfWeek.TUESDAY)),
+                new MedicoIndexado(3L, "Anabela Lima", "CRM3", "Pediatria", "Recife", "PE", true,
+                        Set.of(DayOfWeek.MONDAY)),
+                new MedicoIndexado(4L, "Carlos Souza", "CRM4", "Pediatria", "João Pessoa", "PB", false, Set.of())));
+    }
+
+    private static FiltroBuscaMedicos texto(String texto) {
+        return new FiltroBuscaMedicos(texto, null, null, null, null, null, 0, 20);
+    }
+
+    private static List<Long> ids(ResultadoBuscaMedicos resultado) {
+        return resultado.itens().stream().map(MedicoIndexado::id).toList();
+    }
+
+    @Test
+    void buscaPorPrefixoColocaTermoExatoPrimeiro() {
+        assertEquals(List.of(1L, 3L), ids(indice.buscar(texto("ana"))));
+    }
+
+    @Test
+    void buscaIgnoraAcentoEToleraErroDeDigitacao() {
+        assertEquals(List.of(2L), ids(indice.buscar(texto("joao albuqerque"))));
+        assertEquals(List.of(1L, 4L), ids(indice.buscar(texto("sousa"))));
+    }
+
+    @Test
+    void todosOsTermosPrecisamCasar() {
+        assertEquals(List.of(4L), ids(indice.buscar(texto("carlos souza"))));
+        assertTrue(indice.buscar(texto("carlos lima")).itens().isEmpty());
+    }
+
+    @Test
+    void facetaIgnoraOProprioFiltro() {
+        FiltroBuscaMedicos filtro = new FiltroBuscaMedicos(null, "cardiologia", null, null, true, null, 0, 20);
+        ResultadoBuscaMedicos resultado = indice.buscar(filtro);
+
+        assertEquals(List.of(1L, 2L), ids(resultado));
+        assertEquals(Map.of("Cardiologia", 2, "Pediatria", 1), resultado.facetas().get(IndiceMedicos.FACETA_ESPECIALIDADE));
+        assertEquals(Map.of("Recife", 1, "Olinda", 1), resultado.facetas().get(IndiceMedicos.FACETA_CIDADE));
+        assertEquals(Map.of("true", 2), resultado.facetas().get(IndiceMedicos.FACETA_ATIVO));
+    }
+
+    @Test
+    void paginaEContaOTotal() {
+        ResultadoBuscaMedicos resultado = indice.buscar(new FiltroBuscaMedicos(null, null, null, null, null, null, 1, 3));
+
+        assertEquals(4, resultado.total());
+        assertEquals(List.of(2L), ids(resultado));
+    }
+
+    @Test
+    void atualizacaoIncrementalTrocaOsTermosDoMedico() {
+        indice.atualizar(new MedicoIndexado(3L, "Anabela Ferraz", "CRM3", "Pediatria", "Recife", "PE", true,
+                Set.of(DayOfWeek.FRIDAY)));
+        indice.remover(2L);
+
+        assertTrue(indice.buscar(texto("lima")).itens().isEmpty());
+        assertEquals(List.of(3L), ids(indice.buscar(texto("ferraz"))));
+        assertEquals(List.of(3L), ids(indice.buscar(
+                new FiltroBuscaMedicos(null, null, null, null, null, DayOfWeek.FRIDAY, 0, 20))));
+        assertEquals(3, indice.tamanho());
+    }
+
+    @Test
+    void distanciaEdicaoParaNoMaximo() {
+        assertEquals(1, IndiceMedicos.distanciaEdicao("souza", "sousa", 2));
+        assertEquals(2, IndiceMedicos.distanciaEdicao("abcdef", "zzzzzz", 1));
+    }
+}
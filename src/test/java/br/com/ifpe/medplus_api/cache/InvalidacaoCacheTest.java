@@ -0,0 +1,62 @@
+package br.com.ifpe.medplus_api.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.Cache;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+/**
+ * Dois "nós" ligados pelo {@link CanalInvalidacaoLocal}: a escrita de um invalida o cache do outro.
+ */
+class InvalidacaoCacheTest {
+
+    private static final String USUARIO = "br.com.ifpe.medplus_api.model.acesso.Usuario";
+    private static final String DISPONIBILIDADES = "br.com.ifpe.medplus_api.model.medico.Medico.disponibilidades";
+
+    private final CanalInvalidacaoLocal canal = new CanalInvalidacaoLocal();
+    private final Cache cacheNoA = mock(Cache.class);
+    private final Cache cacheNoB = mock(Cache.class);
+
+    InvalidacaoCacheTest() {
+        canal.assinar(new ReceptorInvalidacaoCache(cacheNoA, "no-a", new SimpleMeterRegistry())::aplicar);
+        canal.assinar(new ReceptorInvalidacaoCache(cacheNoB, "no-b", new SimpleMeterRegistry())::aplicar);
+    }
+
+    @Test
+    void escritaDeEntidadeInvalidaSoOsOutrosNos() {
+        canal.publicar(List.of(Invalidacao.entidade("no-a", USUARIO, 42L)));
+
+        verifyNoInteractions(cacheNoA);
+        verify(cacheNoB).evictEntityData(USUARIO, 42L);
+        verify(cacheNoB).evictNaturalIdData(USUARIO);
+        verify(cacheNoB).evictDefaultQueryRegion();
+    }
+
+    @Test
+    void escritaDeColecaoInvalidaAColecaoDoDono() {
+        canal.publicar(List.of(Invalidacao.colecao("no-b", DISPONIBILIDADES, 7L)));
+
+        verify(cacheNoA).evictCollectionData(DISPONIBILIDADES, 7L);
+        verifyNoInteractions(cacheNoB);
+    }
+
+    @Test
+    void reconexaoLimpaTudo() {
+        canal.publicar(List.of(Invalidacao.tudo("")));
+
+        verify(cacheNoA).evictAllRegions();
+        verify(cacheNoB).evictAllRegions();
+    }
+
+    @Test
+    void mensagemSobreviveAoPayloadDoNotify() {
+        Invalidacao original = Invalidacao.entidade("123@servidor", USUARIO, 42L);
+        assertEquals(original, Invalidacao.ler(original.serializar()));
+    }
+}
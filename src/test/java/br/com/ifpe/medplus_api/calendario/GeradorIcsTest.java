@@ -0,0 +1,50 @@
+package br.com.ifpe.medplus_api.calendario;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import br.com.ifpe.medplus_api.model.consulta.StatusConsulta;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+class GeradorIcsTest {
+
+    private final GeradorIcs gerador = new GeradorIcs(ZoneId.of("America/Recife"), Duration.ofMinutes(30), "medplus");
+
+    @Test
+    void eventoEmUtcComStatusESequencia() {
+        String ics = gerador.gerar("Agenda", List.of(new EventoCalendario(7L, LocalDateTime.of(2026, 3, 10, 14, 0),
+                "Consulta: Ana", StatusConsulta.CANCELADA_MEDICO, LocalDateTime.of(2026, 3, 1, 9, 30), 3)));
+
+        assertTrue(ics.startsWith("BEGIN:VCALENDAR\r\n"));
+        assertTrue(ics.endsWith("END:VCALENDAR\r\n"));
+        assertTrue(ics.contains("UID:consulta-7@medplus\r\n"));
+        // Recife é UTC-3
+        assertTrue(ics.contains("DTSTART:20260310T170000Z\r\n"));
+        assertTrue(ics.contains("DTEND:20260310T173000Z\r\n"));
+        assertTrue(ics.contains("DTSTAMP:20260301T123000Z\r\n"));
+        assertTrue(ics.contains("SEQUENCE:3\r\n"));
+        assertTrue(ics.contains("STATUS:CANCELLED\r\n"));
+    }
+
+    @Test
+    void escapaCaracteresEspeciais() {
+        assertEquals("a\\, b\\; c\\\\d\\ne", GeradorIcs.escapar("a, b; c\\d\ne"));
+    }
+
+    @Test
+    void dobraLinhasLongasSemPartirCaracteres() {
+        StringBuilder ics = new StringBuilder();
+        GeradorIcs.linha(ics, "SUMMARY:" + "ã".repeat(80));
+
+        for (String linha : ics.toString().split("\r\n")) {
+            assertTrue(linha.getBytes(StandardCharsets.UTF_8).length <= 75, linha);
+        }
+        assertEquals("SUMMARY:" + "ã".repeat(80), ics.toString().replace("\r\n ", "").replace("\r\n", ""));
+    }
+}
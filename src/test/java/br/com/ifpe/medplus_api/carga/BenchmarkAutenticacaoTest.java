@@ -0,0 +1,123 @@
+package br.com.ifpe.medplus_api.carga;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compara a carga do usuário no login e na validação do token: antes, a entidade Usuario com os
+ * perfis (herança JOINED, outer join com tb_paciente, tb_medico e tb_admin); depois, a projeção de
+ * UsuarioRepository.buscarCredenciais, só com tb_usuario e os perfis.
+ *
+ * Usa a base sintética do {@link CargaTest} e só roda com o profile "carga":
+ * <pre>
+ * mvn test -Pcarga -Dtest=BenchmarkAutenticacaoTest -Dcarga.benchmark.iteracoes=20000
+ * </pre>
+ * Mede só o banco; o cache de UsuarioAutenticadoService, que evita a consulta na maior parte das
+ * requisições, fica de fora.
+ */
+@Tag("carga")
+class BenchmarkAutenticacaoTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(BenchmarkAutenticacaoTest.class);
+
+    // Forma do SQL que o Hibernate gera para UsuarioRepository.findByEmailWithPerfis
+    private static final String SQL_ANTES = """
+            SELECT u.id, u.ativo, u.bairro, u.cep, u.cidade, u.complemento, u.logradouro, u.numero, u.uf,
+                   u.cpf, u.data_atualizacao, u.data_criacao, u.data_nascimento, u.email, u.nome, u.senha, u.telefone,
+                   CASE WHEN pa.usuario_id IS NOT NULL THEN 1 WHEN m.usuario_id IS NOT NULL THEN 2
+                        WHEN a.usuario_id IS NOT NULL THEN 3 END,
+                   pa.historico_medico, m.crm, m.especialidade, a.nivel_acesso, p.id, p.nome
+            FROM tb_usuario u
+            LEFT JOIN tb_paciente pa ON pa.usuario_id = u.id
+            LEFT JOIN tb_medico m ON m.usuario_id = u.id
+            LEFT JOIN tb_admin a ON a.usuario_id = u.id
+            LEFT JOIN tb_usuario_perfil up ON up.usuario_id = u.id
+            LEFT JOIN tb_perfil p ON p.id = up.perfil_id
+            WHERE u.email = ?
+            """;
+
+    // Mesmo SQL de UsuarioRepository.buscarCredenciais
+    private static final String SQL_DEPOIS = "SELECT u.id AS id, u.email AS email, u.senha AS senha, u.ativo AS ativo, "
+            + "p.nome AS perfil FROM tb_usuario u "
+            + "LEFT JOIN tb_usuario_perfil up ON up.usuario_id = u.id "
+            + "LEFT JOIN tb_perfil p ON p.id = up.perfil_id "
+            + "WHERE u.email = ?";
+
+    private final ConfiguracaoCarga configuracao = ConfiguracaoCarga.doSistema();
+    private final int iteracoes = Integer.getInteger("carga.benchmark.iteracoes", 10_000);
+
+    @Test
+    void compararCargaDoUsuarioAutenticado() throws SQLException {
+        Flyway.configure()
+                .dataSource(configuracao.jdbcUrl(), configuracao.jdbcUsuario(), configuracao.jdbcSenha())
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .load()
+                .migrate();
+
+        try (Connection conexao = DriverManager.getConnection(
+                configuracao.jdbcUrl(), configuracao.jdbcUsuario(), configuracao.jdbcSenha())) {
+            List<String> emails = sortearEmails(conexao);
+            assumeTrue(!emails.isEmpty(), "Base sintética vazia; rode CargaTest#gerarBaseSintetica antes");
+
+            try (PreparedStatement antes = conexao.prepareStatement(SQL_ANTES);
+                 PreparedStatement depois = conexao.prepareStatement(SQL_DEPOIS)) {
+                medir(antes, emails, iteracoes / 10);
+                medir(depois, emails, iteracoes / 10);
+
+                registrar("entidade Usuario + perfis (antes)", medir(antes, emails, iteracoes));
+                registrar("tb_usuario + perfis (depois)", medir(depois, emails, iteracoes));
+            }
+        }
+    }
+
+    // Médicos e pacientes misturados, na proporção da base
+    private List<String> sortearEmails(Connection conexao) throws SQLException {
+        String sql = "SELECT email FROM tb_usuario WHERE email LIKE ? ORDER BY random() LIMIT 2000";
+        List<String> emails = new ArrayList<>();
+        try (PreparedStatement ps = conexao.prepareStatement(sql)) {
+            ps.setString(1, "%" + ConfiguracaoCarga.DOMINIO_EMAIL);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    emails.add(rs.getString(1));
+                }
+            }
+        }
+        return emails;
+    }
+
+    private static RegistroLatencias.Resumo medir(PreparedStatement ps, List<String> emails, int iteracoes)
+            throws SQLException {
+        RegistroLatencias registro = new RegistroLatencias();
+        long inicioTotal = System.nanoTime();
+        for (int i = 0; i < iteracoes; i++) {
+            ps.setString(1, emails.get(i % emails.size()));
+            long inicio = System.nanoTime();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    // Lê todas as linhas (uma por perfil), como o Hibernate faria
+                }
+            }
+            registro.registrar((System.nanoTime() - inicio) / 1_000, 200);
+        }
+        return registro.resumir((System.nanoTime() - inicioTotal) / 1_000_000_000.0);
+    }
+
+    private static void registrar(String nome, RegistroLatencias.Resumo resumo) {
+        logger.info(String.format("%-34s %8.0f q/s  p50=%5d us  p99=%6d us  max=%7d us",
+                nome, resumo.porSegundo(), resumo.p50(), resumo.p99(), resumo.maximo()));
+    }
+}
@@ -0,0 +1,149 @@
+package br.com.ifpe.medplus_api.carga;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import br.com.ifpe.medplus_api.repository.ConsultaRepository;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compara a verificação de conflito de horário antiga (COUNT com NOT IN, sobre o índice de todas
+ * as consultas) com a atual (EXISTS ... LIMIT 1 sobre os índices parciais de consultas ativas).
+ *
+ * Usa a base sintética do {@link CargaTest} e só roda com o profile "carga":
+ * <pre>
+ * mvn test -Pcarga -Dtest=CargaTest#gerarBaseSintetica       # se a base ainda não existe
+ * mvn test -Pcarga -Dtest=BenchmarkConflitoConsultaTest -Dcarga.benchmark.iteracoes=20000
+ * </pre>
+ * Os resultados (latências por query e tamanho dos índices) saem no log; não há asserção de tempo,
+ * que dependeria da máquina.
+ */
+@Tag("carga")
+class BenchmarkConflitoConsultaTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(BenchmarkConflitoConsultaTest.class);
+
+    // SQL que o Hibernate gerava para existsByMedicoIdAndDataHoraConsultaAndStatusNotIn
+    private static final String SQL_ANTES = "SELECT CASE WHEN count(c.id) > 0 THEN true ELSE false END "
+            + "FROM tb_consulta c WHERE c.medico_id = ? AND c.data_hora_consulta = ? "
+            + "AND c.status_consulta NOT IN (?, ?, ?, ?, ?)";
+    private static final String[] STATUS_EXCLUIDOS_ANTES = {
+            "CANCELADA_ADMIN", "CANCELADA_MEDICO", "CANCELADA_PACIENTE", "NAO_COMPARECEU", "REAGENDADA"};
+
+    // Mesmo SQL de ConsultaRepository.existeConsultaAtivaMedico
+    private static final String SQL_DEPOIS = "SELECT EXISTS (SELECT 1 FROM tb_consulta c "
+            + "WHERE c.medico_id = ? AND c.data_hora_consulta = ? "
+            + "AND c.status_consulta IN " + ConsultaRepository.STATUS_ATIVOS_SQL + " LIMIT 1)";
+
+    private final ConfiguracaoCarga configuracao = ConfiguracaoCarga.doSistema();
+    private final int iteracoes = Integer.getInteger("carga.benchmark.iteracoes", 10_000);
+
+    private record Horario(long medicoId, Timestamp dataHora) {
+    }
+
+    @Test
+    void compararVerificacaoDeConflito() throws SQLException {
+        Flyway.configure()
+                .dataSource(configuracao.jdbcUrl(), configuracao.jdbcUsuario(), configuracao.jdbcSenha())
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .load()
+                .migrate();
+
+        try (Connection conexao = DriverManager.getConnection(
+                configuracao.jdbcUrl(), configuracao.jdbcUsuario(), configuracao.jdbcSenha())) {
+            List<Horario> horarios = sortearHorarios(conexao);
+            assumeTrue(!horarios.isEmpty(), "Base sintética vazia; rode CargaTest#gerarBaseSintetica antes");
+
+            logger.info("Tamanho dos índices: todas as consultas = {}, só ativas = {}",
+                    tamanhoIndice(conexao, "idx_consulta_medico_data"), tamanhoIndice(conexao, "idx_consulta_medico_ativa"));
+
+            try (PreparedStatement antes = conexao.prepareStatement(SQL_ANTES);
+                 PreparedStatement depois = conexao.prepareStatement(SQL_DEPOIS)) {
+                for (int i = 0; i < STATUS_EXCLUIDOS_ANTES.length; i++) {
+                    antes.setString(i + 3, STATUS_EXCLUIDOS_ANTES[i]);
+                }
+                // Aquecimento: planos em cache no servidor e páginas dos índices em memória
+                medir(antes, horarios, iteracoes / 10);
+                medir(depois, horarios, iteracoes / 10);
+
+                RegistroLatencias.Resumo resumoAntes = medir(antes, horarios, iteracoes);
+                RegistroLatencias.Resumo resumoDepois = medir(depois, horarios, iteracoes);
+                registrar("COUNT + NOT IN (antes)", resumoAntes);
+                registrar("EXISTS + índice parcial (depois)", resumoDepois);
+            }
+        }
+    }
+
+    /**
+     * Metade dos horários tem consulta marcada (futura, em qualquer status), a outra metade é um
+     * horário sem consulta do mesmo médico, que é o caso comum ao agendar.
+     */
+    private List<Horario> sortearHorarios(Connection conexao) throws SQLException {
+        String sql = """
+                SELECT medico_id, data_hora_consulta FROM tb_consulta
+                WHERE data_hora_consulta > now() AND data_hora_consulta < now() + INTERVAL '3 months'
+                ORDER BY random() LIMIT 2000
+                """;
+        Random aleatorio = new Random(configuracao.semente());
+        List<Horario> horarios = new ArrayList<>();
+        try (PreparedStatement ps = conexao.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                long medicoId = rs.getLong(1);
+                Timestamp dataHora = rs.getTimestamp(2);
+                horarios.add(new Horario(medicoId, dataHora));
+                long deslocamentoMinutos = (aleatorio.nextInt(48) + 1) * 7L;
+                horarios.add(new Horario(medicoId, new Timestamp(dataHora.getTime() + deslocamentoMinutos * 60_000)));
+            }
+        }
+        return horarios;
+    }
+
+    private static RegistroLatencias.Resumo medir(PreparedStatement ps, List<Horario> horarios, int iteracoes)
+            throws SQLException {
+        RegistroLatencias registro = new RegistroLatencias();
+        long inicioTotal = System.nanoTime();
+        for (int i = 0; i < iteracoes; i++) {
+            Horario horario = horarios.get(i % horarios.size());
+            ps.setLong(1, horario.medicoId());
+            ps.setTimestamp(2, horario.dataHora());
+            long inicio = System.nanoTime();
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+            }
+            registro.registrar((System.nanoTime() - inicio) / 1_000, 200);
+        }
+        return registro.resumir((System.nanoTime() - inicioTotal) / 1_000_000_000.0);
+    }
+
+    // Índices de tabela particionada não têm tamanho próprio: soma os das partições
+    private static String tamanhoIndice(Connection conexao, String indice) throws SQLException {
+        String sql = "SELECT pg_size_pretty(sum(pg_relation_size(relid))) FROM pg_partition_tree(?::regclass)";
+        try (PreparedStatement ps = conexao.prepareStatement(sql)) {
+            ps.setString(1, indice);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getString(1);
+            }
+        }
+    }
+
+    private static void registrar(String nome, RegistroLatencias.Resumo resumo) {
+        logger.info(String.format("%-34s %8.0f q/s  p50=%5d us  p99=%6d us  max=%7d us",
+                nome, resumo.porSegundo(), resumo.p50(), resumo.p99(), resumo.maximo()));
+    }
+}
@@ -0,0 +1,158 @@
+package br.com.ifpe.medplus_api.carga;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import br.com.ifpe.medplus_api.dto.AlteracaoConsultaDTO;
+import br.com.ifpe.medplus_api.dto.AlteracoesConsultasDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntFunction;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compara JSON e CBOR nas respostas de listagem que o app baixa: tamanho do corpo (cru e com gzip,
+ * caso um proxy comprima) e CPU de serialização por resposta, para listas de
+ * {@code carga.serializacao.tamanhos} itens.
+ *
+ * Os mappers saem do mesmo builder que o Boot usa (datas ISO, módulo java.time), como os
+ * conversores da aplicação. A lista de consultas tem o formato de {@code ConsultaResponse} de
+ * /pacientes/minhas-consultas; a sincronização usa o próprio {@link AlteracoesConsultasDTO}.
+ * Antes de medir, confere que o CBOR decodifica na mesma árvore que o JSON.
+ *
+ * Não usa banco, mas segue os outros benchmarks e só roda com o profile "carga":
+ * <pre>
+ * mvn test -Pcarga -Dtest=BenchmarkSerializacaoTest -Dcarga.serializacao.tamanhos=10,100,1000,5000
+ * </pre>
+ */
+@Tag("carga")
+class BenchmarkSerializacaoTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(BenchmarkSerializacaoTest.class);
+
+    private static final String[] NOMES = {"Ana", "Bruno", "Carla", "Diego", "Fernanda", "Gustavo", "Helena",
+            "Igor", "Juliana", "Lucas", "Mariana", "Rafael"};
+    private static final String[] SOBRENOMES = {"Silva", "Souza", "Oliveira", "Santos", "Lima", "Pereira",
+            "Ferreira", "Albuquerque", "Cavalcanti", "Barbosa"};
+    private static final String[] ESPECIALIDADES = {"Cardiologia", "Dermatologia", "Pediatria", "Ortopedia",
+            "Clínica Geral", "Ginecologia"};
+    private static final String[] STATUS = {"Agendada", "Confirmada", "Realizada", "Cancelada pelo Paciente"};
+
+    /** Mesmo formato de PacienteController.ConsultaResponse (privado ao controller). */
+    record ConsultaResponse(Long id, String medicoNome, String especialidadeMedico, String dataHora,
+                            String status, String observacoes) {
+    }
+
+    private final ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper cbor = Jackson2ObjectMapperBuilder.cbor().build();
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final int[] tamanhos = Arrays.stream(System.getProperty("carga.serializacao.tamanhos", "10,100,1000,5000")
+            .split(",")).mapToInt(t -> Integer.parseInt(t.trim())).toArray();
+    // Itens serializados por formato e tamanho; as listas pequenas repetem mais vezes
+    private final int itensPorMedicao = Integer.getInteger("carga.serializacao.itens", 2_000_000);
+
+    @Test
+    void compararJsonECbor() throws IOException {
+        logger.info(String.format("%-22s %6s %10s %10s %6s %9s %9s %10s %10s %6s",
+                "resposta", "itens", "json B", "cbor B", "cbor%", "json gz", "cbor gz", "json us", "cbor us", "cpu%"));
+        for (int tamanho : tamanhos) {
+            Random aleatorio = new Random(tamanho);
+            List<ConsultaResponse> consultas = gerar(tamanho, i -> consulta(aleatorio, i));
+            medir("minhas-consultas", tamanho, consultas);
+
+            List<AlteracaoConsultaDTO> itens = gerar(tamanho, i -> alteracao(aleatorio, i));
+            AlteracaoConsultaDTO ultimo = itens.get(itens.size() - 1);
+            medir("alteracoes", tamanho, new AlteracoesConsultasDTO(itens, ultimo.dataAtualizacao(), ultimo.id(), false));
+        }
+    }
+
+    private void medir(String nome, int tamanho, Object corpo) throws IOException {
+        byte[] emJson = json.writeValueAsBytes(corpo);
+        byte[] emCbor = cbor.writeValueAsBytes(corpo);
+        assertEquals(json.readTree(emJson), cbor.readTree(emCbor), "CBOR deve carregar os mesmos dados do JSON");
+
+        int repeticoes = Math.max(20, itensPorMedicao / tamanho);
+        cpuPorResposta(json, corpo, repeticoes / 2);
+        cpuPorResposta(cbor, corpo, repeticoes / 2);
+        double cpuJson = cpuPorResposta(json, corpo, repeticoes);
+        double cpuCbor = cpuPorResposta(cbor, corpo, repeticoes);
+
+        logger.info(String.format("%-22s %6d %10d %10d %5.0f%% %9d %9d %10.1f %10.1f %5.0f%%",
+                nome, tamanho, emJson.length, emCbor.length, 100.0 * emCbor.length / emJson.length,
+                gzip(emJson), gzip(emCbor), cpuJson, cpuCbor, 100.0 * cpuCbor / cpuJson));
+    }
+
+    /**
+     * @return microssegundos de CPU da thread por resposta serializada (corpo inteiro num buffer)
+     */
+    private double cpuPorResposta(ObjectMapper mapper, Object corpo, int repeticoes) throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(64 * 1024);
+        long bytes = 0;
+        long inicio = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < repeticoes; i++) {
+            saida.reset();
+            mapper.writeValue(saida, corpo);
+            bytes += saida.size();
+        }
+        long cpu = threads.getCurrentThreadCpuTime() - inicio;
+        if (bytes == 0) {
+            throw new IllegalStateException("Nada serializado");
+        }
+        return cpu / 1_000.0 / repeticoes;
+    }
+
+    private static int gzip(byte[] dados) throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        try (GZIPOutputStream gz = new GZIPOutputStream(saida)) {
+            gz.write(dados);
+        }
+        return saida.size();
+    }
+
+    private static <T> List<T> gerar(int tamanho, IntFunction<T> item) {
+        List<T> itens = new ArrayList<>(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            itens.add(item.apply(i));
+        }
+        return itens;
+    }
+
+    private static ConsultaResponse consulta(Random aleatorio, int i) {
+        return new ConsultaResponse(1_000_000L + i, "Dr(a). " + nome(aleatorio),
+                ESPECIALIDADES[aleatorio.nextInt(ESPECIALIDADES.length)], dataHora(aleatorio).toString(),
+                STATUS[aleatorio.nextInt(STATUS.length)],
+                aleatorio.nextInt(4) == 0 ? "Trazer exames anteriores e lista de medicamentos em uso." : null);
+    }
+
+    private static AlteracaoConsultaDTO alteracao(Random aleatorio, int i) {
+        LocalDateTime dataHora = dataHora(aleatorio);
+        return new AlteracaoConsultaDTO(1_000_000L + i, i % 5 == 0 ? "CANCELADA" : "ALTERADA", dataHora,
+                STATUS[aleatorio.nextInt(STATUS.length)], "Dr(a). " + nome(aleatorio),
+                ESPECIALIDADES[aleatorio.nextInt(ESPECIALIDADES.length)], null, null,
+                dataHora.minusDays(3).plusSeconds(aleatorio.nextInt(86_400)));
+    }
+
+    private static String nome(Random aleatorio) {
+        return NOMES[aleatorio.nextInt(NOMES.length)] + " " + SOBRENOMES[aleatorio.nextInt(SOBRENOMES.length)]
+                + " " + SOBRENOMES[aleatorio.nextInt(SOBRENOMES.length)];
+    }
+
+    private static LocalDateTime dataHora(Random aleatorio) {
+        return LocalDateTime.of(2025, 3, 3, 8, 0)
+                .plusDays(aleatorio.nextInt(120))
+                .plusMinutes(30L * aleatorio.nextInt(20));
+    }
+}
@@ -0,0 +1,178 @@
+package br.com.ifpe.medplus_api.carga;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o modo padrão (pool de threads de plataforma, como o do Tomcat) com o perfil "virtual"
+ * (uma thread virtual por requisição) sob a mesma carga: {@code carga.virtual.clientes} clientes
+ * fazendo requisições seguidas, cada uma com uma consulta de agenda no banco e uma espera que
+ * simula o diálogo SMTP do agendamento. A latência inclui a fila do executor.
+ *
+ * O terceiro cenário repete o virtual com a espera dentro de {@code synchronized}, como o
+ * SMTPTransport do Jakarta Mail faz: cada requisição prende um carrier e o ganho desaparece, o
+ * motivo de o EmailService limitar os envios simultâneos.
+ *
+ * Usa a base sintética do {@link CargaTest} e só roda com o profile "carga":
+ * <pre>
+ * mvn test -Pcarga -Dtest=BenchmarkThreadsVirtuaisTest -Dcarga.virtual.clientes=1000 -Dcarga.virtual.smtp-ms=30
+ * </pre>
+ */
+@Tag("carga")
+class BenchmarkThreadsVirtuaisTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(BenchmarkThreadsVirtuaisTest.class);
+
+    private static final String SQL_AGENDA = """
+            SELECT id, paciente_id, data_hora_consulta, status_consulta FROM tb_consulta
+            WHERE medico_id = ? AND data_hora_consulta >= ? AND data_hora_consulta < ?
+            ORDER BY data_hora_consulta
+            """;
+
+    private final ConfiguracaoCarga configuracao = ConfiguracaoCarga.doSistema();
+    private final int clientes = Integer.getInteger("carga.virtual.clientes", 1_000);
+    // Padrão de server.tomcat.threads.max
+    private final int threadsPlataforma = Integer.getInteger("carga.virtual.threads-plataforma", 200);
+    private final int conexoes = Integer.getInteger("carga.virtual.conexoes", 10);
+    private final long smtpMs = Integer.getInteger("carga.virtual.smtp-ms", 30);
+    private final long duracaoSegundos = Integer.getInteger("carga.virtual.duracao", 20);
+
+    @Test
+    void compararThreadsDePlataformaEVirtuais() throws Exception {
+        Flyway.configure()
+                .dataSource(configuracao.jdbcUrl(), configuracao.jdbcUsuario(), configuracao.jdbcSenha())
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .load()
+                .migrate();
+
+        try (HikariDataSource pool = new HikariDataSource()) {
+            pool.setJdbcUrl(configuracao.jdbcUrl());
+            pool.setUsername(configuracao.jdbcUsuario());
+            pool.setPassword(configuracao.jdbcSenha());
+            pool.setMaximumPoolSize(conexoes);
+            pool.setPoolName("benchmark-virtual");
+
+            List<Long> medicos = sortearMedicos(pool);
+            assumeTrue(!medicos.isEmpty(), "Base sintética vazia; rode CargaTest#gerarBaseSintetica antes");
+
+            logger.info("{} clientes, {} conexões, SMTP simulado de {} ms, {} s por cenário",
+                    clientes, conexoes, smtpMs, duracaoSegundos);
+            try (ExecutorService plataforma = Executors.newFixedThreadPool(threadsPlataforma)) {
+                executar(plataforma, pool, medicos, false, 3);
+                registrar("plataforma (" + threadsPlataforma + " threads)",
+                        executar(plataforma, pool, medicos, false, duracaoSegundos));
+            }
+            try (ExecutorService virtual = Executors.newVirtualThreadPerTaskExecutor()) {
+                executar(virtual, pool, medicos, false, 3);
+                registrar("virtual", executar(virtual, pool, medicos, false, duracaoSegundos));
+                registrar("virtual, SMTP em synchronized", executar(virtual, pool, medicos, true, duracaoSegundos));
+            }
+        }
+    }
+
+    /**
+     * Modelo fechado: cada cliente (thread virtual, barata) envia uma requisição ao executor e espera
+     * a resposta antes da próxima.
+     */
+    private RegistroLatencias.Resumo executar(ExecutorService servidor, HikariDataSource pool, List<Long> medicos,
+                                              boolean smtpSincronizado, long segundos) throws Exception {
+        long fim = System.nanoTime() + TimeUnit.SECONDS.toNanos(segundos);
+        List<Future<RegistroLatencias>> resultados = new ArrayList<>();
+        long inicioTotal = System.nanoTime();
+        try (ExecutorService geradores = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clientes; i++) {
+                // Um "transporte SMTP" por cliente: o synchronized prende o carrier sem disputa entre clientes
+                Object transporte = new Object();
+                resultados.add(geradores.submit(() -> {
+                    RegistroLatencias registro = new RegistroLatencias();
+                    while (System.nanoTime() < fim) {
+                        long medicoId = medicos.get(ThreadLocalRandom.current().nextInt(medicos.size()));
+                        long inicio = System.nanoTime();
+                        int status = 200;
+                        try {
+                            servidor.submit(() -> {
+                                atender(pool, medicoId, transporte, smtpSincronizado);
+                                return null;
+                            }).get();
+                        } catch (ExecutionException e) {
+                            status = 500;
+                        }
+                        registro.registrar((System.nanoTime() - inicio) / 1_000, status);
+                    }
+                    return registro;
+                }));
+            }
+        }
+        RegistroLatencias total = new RegistroLatencias();
+        for (Future<RegistroLatencias> resultado : resultados) {
+            total.combinar(resultado.get());
+        }
+        return total.resumir((System.nanoTime() - inicioTotal) / 1_000_000_000.0);
+    }
+
+    private void atender(HikariDataSource pool, long medicoId, Object transporte, boolean smtpSincronizado)
+            throws SQLException, InterruptedException {
+        LocalDateTime agora = LocalDateTime.now();
+        try (Connection conexao = pool.getConnection();
+             PreparedStatement ps = conexao.prepareStatement(SQL_AGENDA)) {
+            ps.setLong(1, medicoId);
+            ps.setTimestamp(2, Timestamp.valueOf(agora));
+            ps.setTimestamp(3, Timestamp.valueOf(agora.plusDays(7)));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    // Lê a agenda inteira, como o serviço faria
+                }
+            }
+        }
+        if (smtpSincronizado) {
+            synchronized (transporte) {
+                Thread.sleep(smtpMs);
+            }
+        } else {
+            Thread.sleep(smtpMs);
+        }
+    }
+
+    private static List<Long> sortearMedicos(HikariDataSource pool) throws SQLException {
+        String sql = "SELECT m.usuario_id FROM tb_medico m JOIN tb_usuario u ON u.id = m.usuario_id "
+                + "WHERE u.email LIKE ? ORDER BY random() LIMIT 500";
+        List<Long> medicos = new ArrayList<>();
+        try (Connection conexao = pool.getConnection();
+             PreparedStatement ps = conexao.prepareStatement(sql)) {
+            ps.setString(1, "%" + ConfiguracaoCarga.DOMINIO_EMAIL);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    medicos.add(rs.getLong(1));
+                }
+            }
+        }
+        return medicos;
+    }
+
+    private static void registrar(String nome, RegistroLatencias.Resumo resumo) {
+        logger.info(String.format("%-32s %8.0f req/s  p50=%6d us  p99=%7d us  max=%8d us  erros=%d",
+                nome, resumo.porSegundo(), resumo.p50(), resumo.p99(), resumo.maximo(), resumo.erros()));
+    }
+}
@@ -0,0 +1,44 @@
+package br.com.ifpe.medplus_api.carga;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import java.util.Map;
+
+/**
+ * Teste de carga reprodutível. Fica fora do {@code mvn test} normal (tag "carga") e roda com:
+ * <pre>
+ * docker compose up -d db
+ * mvn spring-boot:run                      # em outro terminal, com as migrações aplicadas
+ * mvn test -Pcarga -Dcarga.pacientes=20000 -Dcarga.consultas=200000 -Dcarga.duracao=120
+ * </pre>
+ * Use {@code -Dcarga.gerar=false} para reaproveitar uma base já gerada com a mesma semente.
+ * Parâmetros disponíveis em {@link ConfiguracaoCarga}.
+ */
+@Tag("carga")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class CargaTest {
+
+    private final ConfiguracaoCarga configuracao = ConfiguracaoCarga.doSistema();
+
+    @Test
+    @Order(1)
+    void gerarBaseSintetica() throws Exception {
+        if (configuracao.gerarDados()) {
+            new GeradorDadosSinteticos(configuracao).gerar();
+        }
+    }
+
+    @Test
+    @Order(2)
+    void executarCenariosMistos() throws Exception {
+        Map<ExecutorCenarios.Cenario, RegistroLatencias.Resumo> resultado = new ExecutorCenarios(configuracao).executar();
+        long requisicoes = resultado.values().stream().mapToLong(RegistroLatencias.Resumo::requisicoes).sum();
+        assertTrue(requisicoes > 0, "Nenhuma requisição foi concluída durante a medição");
+    }
+}
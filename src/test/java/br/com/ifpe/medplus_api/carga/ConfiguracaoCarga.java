@@ -0,0 +1,73 @@
+package br.com.ifpe.medplus_api.carga;
+
+import java.time.Duration;
+
+/**
+ * Parâmetros do teste de carga, lidos de propriedades de sistema ({@code -Dcarga.*}).
+ * Os valores padrão geram uma base do porte de produção; para uma rodada rápida local,
+ * reduza {@code carga.pacientes} e {@code carga.consultas}.
+ */
+public record ConfiguracaoCarga(
+        String jdbcUrl,
+        String jdbcUsuario,
+        String jdbcSenha,
+        boolean gerarDados,
+        int medicos,
+        int pacientes,
+        int consultas,
+        long semente,
+        String urlBase,
+        int threads,
+        Duration aquecimento,
+        Duration duracao,
+        int usuariosLogados,
+        int pesoLogin,
+        int pesoDashboard,
+        int pesoAgendar,
+        int pesoCancelar,
+        int pesoMinhasConsultas) {
+
+    /** Domínio dos emails sintéticos; usado também para limpar uma base gerada anteriormente. */
+    public static final String DOMINIO_EMAIL = "@carga.medplus";
+    /** Senha de todos os usuários sintéticos. */
+    public static final String SENHA_PADRAO = "carga123";
+
+    public static ConfiguracaoCarga doSistema() {
+        return new ConfiguracaoCarga(
+                texto("carga.jdbc.url", "jdbc:postgresql://localhost:5445/medplus-api"),
+                texto("carga.jdbc.usuario", "medplus"),
+                texto("carga.jdbc.senha", "medplus"),
+                Boolean.parseBoolean(texto("carga.gerar", "true")),
+                inteiro("carga.medicos", 2_000),
+                inteiro("carga.pacientes", 200_000),
+                inteiro("carga.consultas", 2_000_000),
+                Long.parseLong(texto("carga.semente", "42")),
+                texto("carga.url", "http://localhost:8080"),
+                inteiro("carga.threads", 32),
+                Duration.ofSeconds(inteiro("carga.aquecimento", 15)),
+                Duration.ofSeconds(inteiro("carga.duracao", 60)),
+                inteiro("carga.usuarios-logados", 300),
+                inteiro("carga.peso.login", 5),
+                inteiro("carga.peso.dashboard", 15),
+                inteiro("carga.peso.agendar", 20),
+                inteiro("carga.peso.cancelar", 10),
+                inteiro("carga.peso.minhas-consultas", 50));
+    }
+
+    /**
+     * Cópia com outro volume de dados, para suítes que precisam de uma base menor que a de carga.
+     */
+    public ConfiguracaoCarga comVolume(int medicos, int pacientes, int consultas) {
+        return new ConfiguracaoCarga(jdbcUrl, jdbcUsuario, jdbcSenha, gerarDados, medicos, pacientes, consultas,
+                semente, urlBase, threads, aquecimento, duracao, usuariosLogados, pesoLogin, pesoDashboard,
+                pesoAgendar, pesoCancelar, pesoMinhasConsultas);
+    }
+
+    private static String texto(String chave, String padrao) {
+        return System.getProperty(chave, padrao);
+    }
+
+    private static int inteiro(String chave, int padrao) {
+        return Integer.parseInt(texto(chave, String.valueOf(padrao)));
+    }
+}
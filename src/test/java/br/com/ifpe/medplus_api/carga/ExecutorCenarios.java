@@ -0,0 +1,285 @@
+package br.com.ifpe.medplus_api.carga;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Dispara uma mistura ponderada de cenários contra uma instância da API em execução
+ * (modelo fechado: cada thread faz uma requisição após a outra, sem tempo de espera).
+ *
+ * Antes da medição, autentica um conjunto de pacientes e médicos sintéticos e aquece a
+ * aplicação pelo tempo configurado. Ao final, imprime e grava em {@code target/carga/}
+ * a vazão e os percentis de latência de cada cenário.
+ */
+public class ExecutorCenarios {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutorCenarios.class);
+
+    public enum Cenario { LOGIN, DASHBOARD, AGENDAR, CANCELAR, MINHAS_CONSULTAS }
+
+    private record Sessao(String email, String token) {
+    }
+
+    private record Agenda(long medicoId, DayOfWeek dia, LocalTime inicio, LocalTime fim) {
+    }
+
+    private record ConsultaAgendada(Sessao paciente, long consultaId) {
+    }
+
+    private final ConfiguracaoCarga configuracao;
+    private final HttpClient http;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final List<Sessao> pacientes = new ArrayList<>();
+    private final List<Sessao> medicos = new ArrayList<>();
+    private final List<Agenda> agendas = new ArrayList<>();
+    private final List<Cenario> roleta = new ArrayList<>();
+
+    public ExecutorCenarios(ConfiguracaoCarga configuracao) {
+        this.configuracao = configuracao;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        adicionarNaRoleta(Cenario.LOGIN, configuracao.pesoLogin());
+        adicionarNaRoleta(Cenario.DASHBOARD, configuracao.pesoDashboard());
+        adicionarNaRoleta(Cenario.AGENDAR, configuracao.pesoAgendar());
+        adicionarNaRoleta(Cenario.CANCELAR, configuracao.pesoCancelar());
+        adicionarNaRoleta(Cenario.MINHAS_CONSULTAS, configuracao.pesoMinhasConsultas());
+    }
+
+    public Map<Cenario, RegistroLatencias.Resumo> executar() throws Exception {
+        carregarAgendas();
+        autenticarUsuarios();
+
+        ExecutorService executor = Executors.newFixedThreadPool(configuracao.threads());
+        try {
+            logger.info("Aquecendo por {} s com {} threads", configuracao.aquecimento().toSeconds(), configuracao.threads());
+            rodada(executor, configuracao.aquecimento());
+
+            logger.info("Medindo por {} s", configuracao.duracao().toSeconds());
+            long inicio = System.nanoTime();
+            List<Map<Cenario, RegistroLatencias>> porThread = rodada(executor, configuracao.duracao());
+            double segundos = (System.nanoTime() - inicio) / 1e9;
+
+            Map<Cenario, RegistroLatencias.Resumo> resultado = new EnumMap<>(Cenario.class);
+            for (Cenario cenario : Cenario.values()) {
+                RegistroLatencias total = new RegistroLatencias();
+                porThread.forEach(registros -> total.combinar(registros.get(cenario)));
+                resultado.put(cenario, total.resumir(segundos));
+            }
+            publicar(resultado);
+            return resultado;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<Map<Cenario, RegistroLatencias>> rodada(ExecutorService executor, Duration duracao) throws Exception {
+        long fim = System.nanoTime() + duracao.toNanos();
+        List<Future<Map<Cenario, RegistroLatencias>>> futuros = new ArrayList<>();
+        for (int t = 0; t < configuracao.threads(); t++) {
+            Random random = new Random(configuracao.semente() * 31 + t);
+            futuros.add(executor.submit(() -> executarAte(fim, random)));
+        }
+        List<Map<Cenario, RegistroLatencias>> resultados = new ArrayList<>();
+        for (Future<Map<Cenario, RegistroLatencias>> futuro : futuros) {
+            resultados.add(futuro.get());
+        }
+        return resultados;
+    }
+
+    private Map<Cenario, RegistroLatencias> executarAte(long fim, Random random) {
+        Map<Cenario, RegistroLatencias> registros = new EnumMap<>(Cenario.class);
+        for (Cenario cenario : Cenario.values()) {
+            registros.put(cenario, new RegistroLatencias());
+        }
+        Deque<ConsultaAgendada> agendadas = new ArrayDeque<>();
+
+        while (System.nanoTime() < fim) {
+            Cenario cenario = roleta.get(random.nextInt(roleta.size()));
+            if (cenario == Cenario.CANCELAR && agendadas.isEmpty()) {
+                cenario = Cenario.AGENDAR;
+            }
+            long inicio = System.nanoTime();
+            int status = executarCenario(cenario, random, agendadas);
+            registros.get(cenario).registrar((System.nanoTime() - inicio) / 1_000, status);
+        }
+        return registros;
+    }
+
+    private int executarCenario(Cenario cenario, Random random, Deque<ConsultaAgendada> agendadas) {
+        try {
+            return switch (cenario) {
+                case LOGIN -> {
+                    Sessao paciente = sortear(pacientes, random);
+                    yield enviar(HttpRequest.newBuilder(uri("/auth/login"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(
+                                    Map.of("email", paciente.email(), "senha", ConfiguracaoCarga.SENHA_PADRAO))))
+                            .build()).statusCode();
+                }
+                case DASHBOARD -> enviar(autenticado("/medicos/dashboard", sortear(medicos, random)).GET().build()).statusCode();
+                case MINHAS_CONSULTAS -> enviar(autenticado("/pacientes/minhas-consultas", sortear(pacientes, random)).GET().build()).statusCode();
+                case AGENDAR -> agendar(random, agendadas);
+                case CANCELAR -> {
+                    ConsultaAgendada consulta = agendadas.pollFirst();
+                    yield enviar(autenticado("/pacientes/consultas/" + consulta.consultaId() + "/cancelar?motivo=carga",
+                            consulta.paciente()).method("PATCH", HttpRequest.BodyPublishers.noBody()).build()).statusCode();
+                }
+            };
+        } catch (IOException e) {
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    private int agendar(Random random, Deque<ConsultaAgendada> agendadas) throws IOException, InterruptedException {
+        Sessao paciente = sortear(pacientes, random);
+        Agenda agenda = sortear(agendas, random);
+        int slots = (int) Duration.between(agenda.inicio(), agenda.fim()).toMinutes() / 30;
+        LocalDateTime dataHora = LocalDate.now().plusWeeks(1 + random.nextInt(8))
+                .with(TemporalAdjusters.nextOrSame(agenda.dia()))
+                .atTime(agenda.inicio().plusMinutes(30L * random.nextInt(Math.max(1, slots))));
+        String consulta = "/pacientes/consultas/agendar?medicoId=" + agenda.medicoId()
+                + "&dataHoraConsulta=" + URLEncoder.encode(dataHora.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME), StandardCharsets.UTF_8);
+
+        HttpResponse<String> resposta = enviar(autenticado(consulta, paciente)
+                .POST(HttpRequest.BodyPublishers.noBody()).build());
+        if (resposta.statusCode() == 201) {
+            JsonNode corpo = mapper.readTree(resposta.body());
+            agendadas.addLast(new ConsultaAgendada(paciente, corpo.path("id").asLong()));
+        }
+        return resposta.statusCode();
+    }
+
+    private void carregarAgendas() throws SQLException {
+        String sql = "SELECT d.medico_id, d.dia_semana, d.hora_inicio, d.hora_fim FROM tb_disponibilidade_medico d "
+                + "JOIN tb_usuario u ON u.id = d.medico_id WHERE d.ativo AND u.ativo AND u.email LIKE ?";
+        try (Connection conexao = DriverManager.getConnection(configuracao.jdbcUrl(), configuracao.jdbcUsuario(), configuracao.jdbcSenha());
+                PreparedStatement ps = conexao.prepareStatement(sql)) {
+            ps.setString(1, "%" + ConfiguracaoCarga.DOMINIO_EMAIL);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    agendas.add(new Agenda(rs.getLong(1), DayOfWeek.valueOf(rs.getString(2)),
+                            rs.getTime(3).toLocalTime(), rs.getTime(4).toLocalTime()));
+                }
+            }
+        }
+        if (agendas.isEmpty()) {
+            throw new IllegalStateException("Nenhuma agenda sintética encontrada; gere a base com carga.gerar=true.");
+        }
+    }
+
+    private void autenticarUsuarios() throws IOException, InterruptedException {
+        Random random = new Random(configuracao.semente());
+        int quantidadeMedicos = Math.max(1, configuracao.usuariosLogados() / 5);
+        for (int i = 0; i < configuracao.usuariosLogados(); i++) {
+            String email = "paciente" + random.nextInt(configuracao.pacientes()) + ConfiguracaoCarga.DOMINIO_EMAIL;
+            login(email).ifPresent(pacientes::add);
+        }
+        for (int i = 0; i < quantidadeMedicos; i++) {
+            String email = "medico" + random.nextInt(configuracao.medicos()) + ConfiguracaoCarga.DOMINIO_EMAIL;
+            login(email).ifPresent(medicos::add);
+        }
+        logger.info("Sessões abertas: {} pacientes, {} médicos", pacientes.size(), medicos.size());
+        if (pacientes.isEmpty() || medicos.isEmpty()) {
+            throw new IllegalStateException("Não foi possível autenticar usuários sintéticos em " + configuracao.urlBase());
+        }
+    }
+
+    private Optional<Sessao> login(String email) throws IOException, InterruptedException {
+        HttpResponse<String> resposta = enviar(HttpRequest.newBuilder(uri("/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(
+                        Map.of("email", email, "senha", ConfiguracaoCarga.SENHA_PADRAO))))
+                .build());
+        if (resposta.statusCode() != 200) {
+            // Usuários inativos da base sintética não conseguem autenticar
+            return Optional.empty();
+        }
+        return Optional.of(new Sessao(email, mapper.readTree(resposta.body()).path("token").asText()));
+    }
+
+    private HttpRequest.Builder autenticado(String caminho, Sessao sessao) {
+        return HttpRequest.newBuilder(uri(caminho))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + sessao.token());
+    }
+
+    private HttpResponse<String> enviar(HttpRequest requisicao) throws IOException, InterruptedException {
+        return http.send(requisicao, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String caminho) {
+        return URI.create(configuracao.urlBase() + caminho);
+    }
+
+    private void adicionarNaRoleta(Cenario cenario, int peso) {
+        for (int i = 0; i < peso; i++) {
+            roleta.add(cenario);
+        }
+    }
+
+    private static <T> T sortear(List<T> itens, Random random) {
+        return itens.get(random.nextInt(itens.size()));
+    }
+
+    private void publicar(Map<Cenario, RegistroLatencias.Resumo> resultado) throws IOException {
+        StringBuilder tabela = new StringBuilder(String.format(Locale.ROOT, "%n%-18s %9s %7s %7s %9s %9s %9s %9s %9s %9s%n",
+                "cenario", "requisic", "erros", "4xx", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        StringBuilder csv = new StringBuilder("cenario,requisicoes,erros,rejeitadas,req_s,p50_us,p90_us,p99_us,p999_us,max_us\n");
+        resultado.forEach((cenario, r) -> {
+            tabela.append(String.format(Locale.ROOT, "%-18s %9d %7d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    cenario, r.requisicoes(), r.erros(), r.rejeitadas(), r.porSegundo(),
+                    r.p50() / 1000.0, r.p90() / 1000.0, r.p99() / 1000.0, r.p999() / 1000.0, r.maximo() / 1000.0));
+            csv.append(String.format(Locale.ROOT, "%s,%d,%d,%d,%.2f,%d,%d,%d,%d,%d%n",
+                    cenario, r.requisicoes(), r.erros(), r.rejeitadas(), r.porSegundo(),
+                    r.p50(), r.p90(), r.p99(), r.p999(), r.maximo()));
+        });
+        logger.info(tabela.toString());
+
+        Path diretorio = Path.of("target", "carga");
+        Files.createDirectories(diretorio);
+        Path arquivo = diretorio.resolve("relatorio-" + System.currentTimeMillis() + ".csv");
+        Files.writeString(arquivo, csv);
+        logger.info("Relatório gravado em {}", arquivo.toAbsolutePath());
+    }
+}
@@ -0,0 +1,314 @@
+package br.com.ifpe.medplus_api.carga;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Popula o Postgres com uma base sintética reprodutível (mesma semente, mesmo conteúdo)
+ * usando COPY FROM STDIN, que é ordens de grandeza mais rápido que INSERTs via JPA.
+ *
+ * Gera médicos com agenda semanal (dois blocos por dia útil escolhido), pacientes e consultas
+ * distribuídas entre os últimos 24 meses e os próximos 3, cobrindo todos os valores de
+ * StatusConsulta. Os usuários usam o domínio {@link ConfiguracaoCarga#DOMINIO_EMAIL} e a
+ * senha {@link ConfiguracaoCarga#SENHA_PADRAO}; uma base gerada anteriormente é removida antes.
+ */
+public class GeradorDadosSinteticos {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeradorDadosSinteticos.class);
+
+    private static final int TAMANHO_BUFFER_COPY = 1 << 16;
+    private static final int DIAS_PASSADOS = 730;
+    private static final int DIAS_FUTUROS = 90;
+    private static final int SLOTS_POR_BLOCO = 8; // blocos de 4h com consultas de 30 min
+
+    private static final String[] NOMES = {"Ana", "Bruno", "Carla", "Daniel", "Eduarda", "Felipe", "Gabriela",
+            "Henrique", "Isabela", "João", "Larissa", "Marcos", "Natália", "Otávio", "Paula", "Rafael", "Sofia",
+            "Thiago", "Vitória", "Wesley"};
+    private static final String[] SOBRENOMES = {"Silva", "Santos", "Oliveira", "Souza", "Lima", "Pereira",
+            "Ferreira", "Almeida", "Costa", "Rodrigues", "Gomes", "Martins", "Araújo", "Barbosa", "Cavalcanti"};
+    private static final String[] ESPECIALIDADES = {"Cardiologia", "Dermatologia", "Pediatria", "Ortopedia",
+            "Ginecologia", "Neurologia", "Oftalmologia", "Psiquiatria", "Clínica Geral", "Endocrinologia"};
+    private static final String[][] CIDADES = {{"Recife", "PE"}, {"Olinda", "PE"}, {"Caruaru", "PE"},
+            {"Jaboatão dos Guararapes", "PE"}, {"João Pessoa", "PB"}, {"Natal", "RN"}, {"Maceió", "AL"},
+            {"Salvador", "BA"}, {"Fortaleza", "CE"}, {"São Paulo", "SP"}};
+    private static final LocalTime[] INICIO_BLOCOS = {LocalTime.of(8, 0), LocalTime.of(14, 0)};
+
+    // Distribuições de status (pesos somam 100)
+    private static final String[] STATUS_PASSADO = {"REALIZADA", "CANCELADA_PACIENTE", "CANCELADA_MEDICO",
+            "CANCELADA_ADMIN", "NAO_COMPARECEU", "REAGENDADA", "AGENDADA", "CONFIRMADA"};
+    private static final int[] PESOS_PASSADO = {68, 10, 5, 2, 8, 3, 2, 2};
+    private static final String[] STATUS_FUTURO = {"AGENDADA", "CONFIRMADA", "REAGENDADA", "CANCELADA_PACIENTE",
+            "CANCELADA_MEDICO"};
+    private static final int[] PESOS_FUTURO = {60, 25, 5, 7, 3};
+
+    private final ConfiguracaoCarga configuracao;
+    private final Random random;
+
+    public GeradorDadosSinteticos(ConfiguracaoCarga configuracao) {
+        this.configuracao = configuracao;
+        this.random = new Random(configuracao.semente());
+    }
+
+    public void gerar() throws SQLException {
+        try (Connection conexao = DriverManager.getConnection(
+                configuracao.jdbcUrl(), configuracao.jdbcUsuario(), configuracao.jdbcSenha())) {
+            conexao.setAutoCommit(false);
+            long inicio = System.nanoTime();
+
+            limparBaseAnterior(conexao);
+            Map<String, Long> perfis = carregarPerfis(conexao);
+            long primeiroMedico = proximoIdUsuario(conexao);
+            long primeiroPaciente = primeiroMedico + configuracao.medicos();
+            String senhaHash = new BCryptPasswordEncoder().encode(ConfiguracaoCarga.SENHA_PADRAO);
+            CopyManager copy = conexao.unwrap(PGConnection.class).getCopyAPI();
+
+            copiarUsuarios(copy, primeiroMedico, senhaHash);
+            copiarUsuarioPerfil(copy, primeiroMedico, perfis);
+            copiarMedicos(copy, primeiroMedico);
+            copiarPacientes(copy, primeiroPaciente);
+            DayOfWeek[][] diasPorMedico = copiarDisponibilidades(copy, primeiroMedico);
+            garantirParticoesConsulta(conexao);
+            copiarConsultas(copy, primeiroMedico, primeiroPaciente, diasPorMedico);
+
+            try (Statement st = conexao.createStatement()) {
+                st.execute("SELECT setval(pg_get_serial_sequence('tb_usuario', 'id'), (SELECT MAX(id) FROM tb_usuario))");
+            }
+            conexao.commit();
+
+            conexao.setAutoCommit(true);
+            try (Statement st = conexao.createStatement()) {
+                // VACUUM marca as páginas recém-copiadas como visíveis: sem isso os index-only scans
+                // custam (e demoram) como se lessem a tabela, até o autovacuum passar
+                st.execute("VACUUM ANALYZE");
+            }
+            logger.info("Base sintética gerada em {} s", (System.nanoTime() - inicio) / 1_000_000_000);
+        }
+    }
+
+    private void limparBaseAnterior(Connection conexao) throws SQLException {
+        String usuariosSinteticos = "SELECT id FROM tb_usuario WHERE email LIKE '%" + ConfiguracaoCarga.DOMINIO_EMAIL + "'";
+        try (Statement st = conexao.createStatement()) {
+            int consultas = st.executeUpdate("DELETE FROM tb_consulta WHERE paciente_id IN (" + usuariosSinteticos
+                    + ") OR medico_id IN (" + usuariosSinteticos + ")");
+            int usuarios = st.executeUpdate("DELETE FROM tb_usuario WHERE id IN (" + usuariosSinteticos + ")");
+            if (usuarios > 0) {
+                logger.info("Base sintética anterior removida: {} usuários, {} consultas", usuarios, consultas);
+            }
+        }
+    }
+
+    /**
+     * tb_consulta é particionada por mês; sem as partições, as consultas geradas cairiam na partição padrão.
+     */
+    private void garantirParticoesConsulta(Connection conexao) throws SQLException {
+        int mesesAtras = DIAS_PASSADOS / 30 + 1;
+        int mesesAFrente = DIAS_FUTUROS / 30 + 1;
+        try (PreparedStatement ps = conexao.prepareStatement("SELECT criar_particoes_consulta(?, ?)")) {
+            ps.setInt(1, mesesAtras);
+            ps.setInt(2, mesesAFrente);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                logger.info("Partições de tb_consulta criadas: {}", rs.getInt(1));
+            }
+        }
+    }
+
+    private Map<String, Long> carregarPerfis(Connection conexao) throws SQLException {
+        Map<String, Long> perfis = new HashMap<>();
+        try (PreparedStatement ps = conexao.prepareStatement("SELECT id, nome FROM tb_perfil");
+                ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                perfis.put(rs.getString("nome"), rs.getLong("id"));
+            }
+        }
+        if (!perfis.containsKey("ROLE_MEDICO") || !perfis.containsKey("ROLE_PACIENTE")) {
+            throw new IllegalStateException("Perfis iniciais ausentes; rode as migrações do Flyway antes de gerar a base.");
+        }
+        return perfis;
+    }
+
+    private long proximoIdUsuario(Connection conexao) throws SQLException {
+        try (Statement st = conexao.createStatement();
+                ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM tb_usuario")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private void copiarUsuarios(CopyManager copy, long primeiroMedico, String senhaHash) throws SQLException {
+        EscritorCopy escritor = new EscritorCopy(copy, "COPY tb_usuario (id, nome, email, senha, cpf, data_nascimento, "
+                + "telefone, ativo, data_criacao, data_atualizacao, logradouro, numero, complemento, bairro, cidade, uf, cep) "
+                + "FROM STDIN WITH (FORMAT csv)");
+        int total = configuracao.medicos() + configuracao.pacientes();
+        LocalDateTime agora = LocalDateTime.now();
+        for (int i = 0; i < total; i++) {
+            long id = primeiroMedico + i;
+            boolean medico = i < configuracao.medicos();
+            String email = (medico ? "medico" + i : "paciente" + (i - configuracao.medicos())) + ConfiguracaoCarga.DOMINIO_EMAIL;
+            String[] cidade = CIDADES[random.nextInt(CIDADES.length)];
+            LocalDateTime criacao = agora.minusDays(DIAS_PASSADOS + random.nextInt(365));
+            escritor.linha(id, nomeAleatorio(), email, senhaHash, String.format("9%010d", i),
+                    LocalDate.of(1950 + random.nextInt(55), 1 + random.nextInt(12), 1 + random.nextInt(28)),
+                    String.format("81 9%04d-%04d", random.nextInt(10_000), random.nextInt(10_000)),
+                    random.nextInt(100) < (medico ? 97 : 98), criacao, criacao,
+                    "Rua " + SOBRENOMES[random.nextInt(SOBRENOMES.length)], 1 + random.nextInt(2000), null,
+                    "Centro", cidade[0], cidade[1], String.format("%05d-%03d", 50_000 + random.nextInt(10_000), random.nextInt(1000)));
+        }
+        logger.info("tb_usuario: {} linhas", escritor.finalizar());
+    }
+
+    private void copiarUsuarioPerfil(CopyManager copy, long primeiroMedico, Map<String, Long> perfis) throws SQLException {
+        EscritorCopy escritor = new EscritorCopy(copy, "COPY tb_usuario_perfil (usuario_id, perfil_id) FROM STDIN WITH (FORMAT csv)");
+        int total = configuracao.medicos() + configuracao.pacientes();
+        for (int i = 0; i < total; i++) {
+            escritor.linha(primeiroMedico + i, perfis.get(i < configuracao.medicos() ? "ROLE_MEDICO" : "ROLE_PACIENTE"));
+        }
+        logger.info("tb_usuario_perfil: {} linhas", escritor.finalizar());
+    }
+
+    private void copiarMedicos(CopyManager copy, long primeiroMedico) throws SQLException {
+        EscritorCopy escritor = new EscritorCopy(copy, "COPY tb_medico (usuario_id, crm, especialidade) FROM STDIN WITH (FORMAT csv)");
+        for (int i = 0; i < configuracao.medicos(); i++) {
+            escritor.linha(primeiroMedico + i, String.format("CARGA%07d", i), ESPECIALIDADES[random.nextInt(ESPECIALIDADES.length)]);
+        }
+        logger.info("tb_medico: {} linhas", escritor.finalizar());
+    }
+
+    private void copiarPacientes(CopyManager copy, long primeiroPaciente) throws SQLException {
+        EscritorCopy escritor = new EscritorCopy(copy, "COPY tb_paciente (usuario_id, historico_medico) FROM STDIN WITH (FORMAT csv)");
+        for (int i = 0; i < configuracao.pacientes(); i++) {
+            escritor.linha(primeiroPaciente + i, null);
+        }
+        logger.info("tb_paciente: {} linhas", escritor.finalizar());
+    }
+
+    private DayOfWeek[][] copiarDisponibilidades(CopyManager copy, long primeiroMedico) throws SQLException {
+        EscritorCopy escritor = new EscritorCopy(copy, "COPY tb_disponibilidade_medico (medico_id, dia_semana, hora_inicio, "
+                + "hora_fim, ativo, data_criacao, data_atualizacao) FROM STDIN WITH (FORMAT csv)");
+        DayOfWeek[][] diasPorMedico = new DayOfWeek[configuracao.medicos()][];
+        LocalDateTime agora = LocalDateTime.now();
+        List<DayOfWeek> diasUteis = new ArrayList<>(List.of(DayOfWeek.MONDAY, DayOfWeek.TUESDAY,
+                DayOfWeek.WEDNESDAY, DayOfWeek.THURSDAY, DayOfWeek.FRIDAY, DayOfWeek.SATURDAY));
+        for (int i = 0; i < configuracao.medicos(); i++) {
+            Collections.shuffle(diasUteis, random);
+            DayOfWeek[] dias = diasUteis.subList(0, 3 + random.nextInt(3)).toArray(new DayOfWeek[0]);
+            diasPorMedico[i] = dias;
+            for (DayOfWeek dia : dias) {
+                for (LocalTime inicioBloco : INICIO_BLOCOS) {
+                    escritor.linha(primeiroMedico + i, dia, inicioBloco, inicioBloco.plusHours(4), true, agora, agora);
+                }
+            }
+        }
+        logger.info("tb_disponibilidade_medico: {} linhas", escritor.finalizar());
+        return diasPorMedico;
+    }
+
+    private void copiarConsultas(CopyManager copy, long primeiroMedico, long primeiroPaciente,
+            DayOfWeek[][] diasPorMedico) throws SQLException {
+        EscritorCopy escritor = new EscritorCopy(copy, "COPY tb_consulta (paciente_id, medico_id, data_hora_consulta, "
+                + "status_consulta, observacoes, motivo_cancelamento, data_criacao, data_atualizacao) FROM STDIN WITH (FORMAT csv)");
+        LocalDate hoje = LocalDate.now();
+        LocalDateTime agora = LocalDateTime.now();
+        for (int i = 0; i < configuracao.consultas(); i++) {
+            int medico = random.nextInt(configuracao.medicos());
+            DayOfWeek[] dias = diasPorMedico[medico];
+            LocalDate data = hoje.plusDays(random.nextInt(DIAS_PASSADOS + DIAS_FUTUROS) - DIAS_PASSADOS)
+                    .with(TemporalAdjusters.nextOrSame(dias[random.nextInt(dias.length)]));
+            LocalDateTime dataHora = data.atTime(INICIO_BLOCOS[random.nextInt(INICIO_BLOCOS.length)])
+                    .plusMinutes(30L * random.nextInt(SLOTS_POR_BLOCO));
+
+            String status = dataHora.isBefore(agora)
+                    ? sortear(STATUS_PASSADO, PESOS_PASSADO)
+                    : sortear(STATUS_FUTURO, PESOS_FUTURO);
+            String motivo = status.startsWith("CANCELADA") ? "Cancelamento sintético" : null;
+            LocalDateTime criacao = dataHora.minusDays(1 + random.nextInt(30));
+            LocalDateTime atualizacao = criacao.isAfter(agora) ? agora : criacao.plusHours(random.nextInt(48));
+
+            escritor.linha(primeiroPaciente + random.nextInt(configuracao.pacientes()), primeiroMedico + medico,
+                    dataHora, status, null, motivo, criacao.isAfter(agora) ? agora : criacao, atualizacao);
+            if (i > 0 && i % 500_000 == 0) {
+                logger.info("tb_consulta: {} linhas enviadas", i);
+            }
+        }
+        logger.info("tb_consulta: {} linhas", escritor.finalizar());
+    }
+
+    private String nomeAleatorio() {
+        return NOMES[random.nextInt(NOMES.length)] + " " + SOBRENOMES[random.nextInt(SOBRENOMES.length)]
+                + " " + SOBRENOMES[random.nextInt(SOBRENOMES.length)];
+    }
+
+    private String sortear(String[] valores, int[] pesos) {
+        int sorteio = random.nextInt(100);
+        for (int i = 0; i < valores.length; i++) {
+            sorteio -= pesos[i];
+            if (sorteio < 0) {
+                return valores[i];
+            }
+        }
+        return valores[valores.length - 1];
+    }
+
+    /**
+     * Acumula linhas CSV e envia ao servidor em blocos de {@link #TAMANHO_BUFFER_COPY} bytes.
+     * Valores nulos viram campos vazios, que o COPY em CSV interpreta como NULL.
+     */
+    private static final class EscritorCopy {
+
+        private final CopyIn copyIn;
+        private final StringBuilder buffer = new StringBuilder(TAMANHO_BUFFER_COPY + 1024);
+
+        EscritorCopy(CopyManager copy, String sql) throws SQLException {
+            this.copyIn = copy.copyIn(sql);
+        }
+
+        void linha(Object... colunas) throws SQLException {
+            for (int i = 0; i < colunas.length; i++) {
+                if (i > 0) {
+                    buffer.append(',');
+                }
+                if (colunas[i] != null) {
+                    buffer.append(colunas[i]);
+                }
+            }
+            buffer.append('\n');
+            if (buffer.length() >= TAMANHO_BUFFER_COPY) {
+                descarregar();
+            }
+        }
+
+        long finalizar() throws SQLException {
+            descarregar();
+            return copyIn.endCopy();
+        }
+
+        private void descarregar() throws SQLException {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+    }
+}
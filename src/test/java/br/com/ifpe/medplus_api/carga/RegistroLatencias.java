@@ -0,0 +1,61 @@
+package br.com.ifpe.medplus_api.carga;
+
+import java.util.Arrays;
+
+/**
+ * Acumula latências (em microssegundos) de um cenário em uma única thread.
+ * Os registros das threads são combinados no final com {@link #combinar(RegistroLatencias)},
+ * e os percentis são exatos (ordenação completa), o que é aceitável para alguns milhões de amostras.
+ */
+public class RegistroLatencias {
+
+    private long[] amostras = new long[1024];
+    private int quantidade;
+    private long erros;
+    private long rejeitadas;
+
+    public void registrar(long microssegundos, int status) {
+        if (quantidade == amostras.length) {
+            amostras = Arrays.copyOf(amostras, amostras.length * 2);
+        }
+        amostras[quantidade++] = microssegundos;
+        if (status >= 500 || status < 0) {
+            erros++;
+        } else if (status >= 400) {
+            rejeitadas++;
+        }
+    }
+
+    public void combinar(RegistroLatencias outro) {
+        if (quantidade + outro.quantidade > amostras.length) {
+            amostras = Arrays.copyOf(amostras, quantidade + outro.quantidade);
+        }
+        System.arraycopy(outro.amostras, 0, amostras, quantidade, outro.quantidade);
+        quantidade += outro.quantidade;
+        erros += outro.erros;
+        rejeitadas += outro.rejeitadas;
+    }
+
+    public Resumo resumir(double segundos) {
+        long[] ordenadas = Arrays.copyOf(amostras, quantidade);
+        Arrays.sort(ordenadas);
+        return new Resumo(quantidade, erros, rejeitadas, quantidade / segundos,
+                percentil(ordenadas, 50), percentil(ordenadas, 90), percentil(ordenadas, 99),
+                percentil(ordenadas, 99.9), quantidade == 0 ? 0 : ordenadas[quantidade - 1]);
+    }
+
+    private static long percentil(long[] ordenadas, double percentil) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        int indice = (int) Math.ceil(percentil / 100.0 * ordenadas.length) - 1;
+        return ordenadas[Math.max(0, Math.min(indice, ordenadas.length - 1))];
+    }
+
+    /**
+     * Resultado consolidado de um cenário. Latências em microssegundos.
+     */
+    public record Resumo(long requisicoes, long erros, long rejeitadas, double porSegundo,
+            long p50, long p90, long p99, long p999, long maximo) {
+    }
+}
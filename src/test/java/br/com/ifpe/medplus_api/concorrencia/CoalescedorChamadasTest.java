@@ -0,0 +1,136 @@
+package br.com.ifpe.medplus_api.concorrencia;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import br.com.ifpe.medplus_api.concorrencia.CoalescedorChamadas.Origem;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+class CoalescedorChamadasTest {
+
+    private final AtomicLong agora = new AtomicLong();
+    private final CoalescedorChamadas coalescedor = new CoalescedorChamadas(agora::get);
+    private final AtomicInteger execucoes = new AtomicInteger();
+
+    /** Dispara {@code quantidade} chamadas da mesma chave enquanto a primeira execução está presa. */
+    private List<Future<CoalescedorChamadas.Resultado>> simultaneas(int quantidade, CountDownLatch liberar,
+                                                                  Object valor, RuntimeException erro)
+            throws Exception {
+        CountDownLatch emExecucao = new CountDownLatch(1);
+        CoalescedorChamadas.Chamada chamada = () -> {
+            execucoes.incrementAndGet();
+            emExecucao.countDown();
+            liberar.await();
+            if (erro != null) {
+                throw erro;
+            }
+            return valor;
+        };
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        List<Future<CoalescedorChamadas.Resultado>> resultados = new ArrayList<>();
+        resultados.add(executor.submit(() -> executar("chave", chamada)));
+        assertTrue(emExecucao.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i < quantidade; i++) {
+            resultados.add(executor.submit(() -> executar("chave", chamada)));
+        }
+        // Dá tempo para as demais chegarem ao futuro antes de liberar a primeira
+        Thread.sleep(200);
+        liberar.countDown();
+        executor.shutdown();
+        return resultados;
+    }
+
+    private CoalescedorChamadas.Resultado executar(Object chave, CoalescedorChamadas.Chamada chamada) throws Exception {
+        try {
+            return coalescedor.executar(chave, 0, 5000, chamada);
+        } catch (Exception e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    @Test
+    void chamadasSimultaneasCompartilhamUmaExecucao() throws Exception {
+        Object valor = new Object();
+        List<Future<CoalescedorChamadas.Resultado>> resultados = simultaneas(20, new CountDownLatch(1), valor, null);
+
+        int compartilhadas = 0;
+        for (Future<CoalescedorChamadas.Resultado> futuro : resultados) {
+            CoalescedorChamadas.Resultado resultado = futuro.get(5, TimeUnit.SECONDS);
+            assertSame(valor, resultado.valor());
+            compartilhadas += resultado.origem() == Origem.COMPARTILHADA ? 1 : 0;
+        }
+        assertEquals(1, execucoes.get());
+        assertEquals(19, compartilhadas);
+        assertEquals(0, coalescedor.tamanho());
+    }
+
+    @Test
+    void falhaChegaATodosENaoFicaGuardada() throws Throwable {
+        IllegalStateException erro = new IllegalStateException("banco fora");
+        List<Future<CoalescedorChamadas.Resultado>> resultados = simultaneas(5, new CountDownLatch(1), null, erro);
+
+        for (Future<CoalescedorChamadas.Resultado> futuro : resultados) {
+            Exception falha = assertThrows(Exception.class, () -> futuro.get(5, TimeUnit.SECONDS));
+            assertSame(erro, falha.getCause());
+        }
+        assertEquals(1, execucoes.get());
+
+        CoalescedorChamadas.Resultado seguinte = coalescedor.executar("chave", 1000, 5000, () -> "ok");
+        assertEquals(Origem.EXECUTADA, seguinte.origem());
+    }
+
+    @Test
+    void retencaoServeResultadoAteExpirar() throws Throwable {
+        CoalescedorChamadas.Chamada chamada = () -> "v" + execucoes.incrementAndGet();
+
+        assertEquals(Origem.EXECUTADA, coalescedor.executar("k", 500, 5000, chamada).origem());
+        agora.addAndGet(TimeUnit.MILLISECONDS.toNanos(499));
+        CoalescedorChamadas.Resultado retido = coalescedor.executar("k", 500, 5000, chamada);
+        assertEquals(Origem.RETIDA, retido.origem());
+        assertEquals("v1", retido.valor());
+
+        agora.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        CoalescedorChamadas.Resultado novo = coalescedor.executar("k", 500, 5000, chamada);
+        assertEquals(Origem.EXECUTADA, novo.origem());
+        assertEquals("v2", novo.valor());
+    }
+
+    @Test
+    void esperaEsgotadaExecutaSozinha() throws Throwable {
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch emExecucao = new CountDownLatch(1);
+        Thread lider = Thread.ofVirtual().start(() -> {
+            try {
+                coalescedor.executar("k", 0, 5000, () -> {
+                    emExecucao.countDown();
+                    liberar.await();
+                    return "lento";
+                });
+            } catch (Throwable e) {
+                throw new AssertionError(e);
+            }
+        });
+        assertTrue(emExecucao.await(5, TimeUnit.SECONDS));
+
+        CoalescedorChamadas.Resultado resultado = coalescedor.executar("k", 0, 20, () -> "proprio");
+
+        assertEquals(Origem.ISOLADA, resultado.origem());
+        assertEquals("proprio", resultado.valor());
+        liberar.countDown();
+        lider.join();
+    }
+}
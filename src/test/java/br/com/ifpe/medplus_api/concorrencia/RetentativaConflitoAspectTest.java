@@ -0,0 +1,76 @@
+package br.com.ifpe.medplus_api.concorrencia;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import br.com.ifpe.medplus_api.util.exception.ConflitoConcorrenciaException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.Map;
+
+class RetentativaConflitoAspectTest {
+
+    private static final String CONSULTA = "br.com.ifpe.medplus_api.model.consulta.Consulta";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final EstadoAtualEntidade estadoAtual = mock(EstadoAtualEntidade.class);
+
+    /** Falha com conflito de versão nas primeiras {@code falhas} chamadas. */
+    static class Operacao {
+        int falhas;
+        int chamadas;
+
+        @RetentarEmConflito(tentativas = 3, esperaBaseMs = 1, esperaMaximaMs = 2)
+        public String alterar() {
+            chamadas++;
+            if (chamadas <= falhas) {
+                throw new ObjectOptimisticLockingFailureException(CONSULTA, 7L);
+            }
+            return "ok";
+        }
+    }
+
+    private Operacao proxy(Operacao alvo) {
+        AspectJProxyFactory fabrica = new AspectJProxyFactory(alvo);
+        fabrica.setProxyTargetClass(true);
+        fabrica.addAspect(new RetentativaConflitoAspect(registry, estadoAtual));
+        return fabrica.getProxy();
+    }
+
+    private double contador(String nome) {
+        return registry.counter(nome, "operacao", "Operacao.alterar").count();
+    }
+
+    @Test
+    void conflitoPassageiroERepetidoAteDarCerto() {
+        Operacao alvo = new Operacao();
+        alvo.falhas = 2;
+
+        assertEquals("ok", proxy(alvo).alterar());
+        assertEquals(3, alvo.chamadas);
+        assertEquals(2, contador("medplus.concorrencia.conflitos"));
+        assertEquals(2, contador("medplus.concorrencia.retentativas"));
+        assertEquals(0, contador("medplus.concorrencia.esgotadas"));
+    }
+
+    @Test
+    void tentativasEsgotadasViramConflitoComEstadoAtual() {
+        Map<String, Object> estado = Map.of("id", 7L, "status", "CANCELADA_PACIENTE");
+        when(estadoAtual.ler(CONSULTA, 7L)).thenReturn(estado);
+        Operacao alvo = new Operacao();
+        alvo.falhas = Integer.MAX_VALUE;
+
+        ConflitoConcorrenciaException erro = assertThrows(ConflitoConcorrenciaException.class, () -> proxy(alvo).alterar());
+
+        assertEquals(3, alvo.chamadas);
+        assertSame(estado, erro.getEstadoAtual());
+        assertEquals(3, contador("medplus.concorrencia.conflitos"));
+        assertEquals(1, contador("medplus.concorrencia.esgotadas"));
+    }
+}
@@ -0,0 +1,46 @@
+package br.com.ifpe.medplus_api.condicional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+class RespostaCondicionalTest {
+
+    private static final String ETAG = "\"abc123\"";
+
+    @Test
+    void ifNoneMatchCorrespondeComEtagIgualFracoOuCuringa() {
+        assertTrue(RespostaCondicional.corresponde("\"abc123\"", ETAG));
+        assertTrue(RespostaCondicional.corresponde("W/\"abc123\"", ETAG));
+        assertTrue(RespostaCondicional.corresponde("\"outro\", \"abc123\"", ETAG));
+        assertTrue(RespostaCondicional.corresponde("*", ETAG));
+    }
+
+    @Test
+    void ifNoneMatchAusenteOuDiferenteNaoCorresponde() {
+        assertFalse(RespostaCondicional.corresponde(null, ETAG));
+        assertFalse(RespostaCondicional.corresponde(" ", ETAG));
+        assertFalse(RespostaCondicional.corresponde("\"abc12\"", ETAG));
+        assertFalse(RespostaCondicional.corresponde("abc123", ETAG));
+    }
+
+    @Test
+    void naoModificadoDevolve304ComEtagECacheControl() {
+        ResponseEntity<Object> resposta = RespostaCondicional.naoModificado(ETAG, ETAG, PoliticaCache.PERFIL).orElseThrow();
+
+        assertEquals(HttpStatus.NOT_MODIFIED, resposta.getStatusCode());
+        assertEquals(ETAG, resposta.getHeaders().getETag());
+        assertEquals("no-cache, private", resposta.getHeaders().getCacheControl());
+        assertNull(resposta.getBody());
+    }
+
+    @Test
+    void semEtagNuncaRespondeNaoModificado() {
+        assertTrue(RespostaCondicional.naoModificado("*", null, PoliticaCache.AGENDA).isEmpty());
+    }
+}
@@ -0,0 +1,73 @@
+package br.com.ifpe.medplus_api.condicional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+class VersoesRecursosTest {
+
+    private static final LocalDateTime ANTES_DE = LocalDateTime.of(2025, 3, 1, 8, 0);
+
+    /** Guarda o SQL e os parâmetros; a versão devolvida é o que o teste quiser. */
+    static class BancoFalso extends JdbcTemplate {
+
+        String versao = "20:abc:2025-03-01 08:00:00";
+        String ultimoSql;
+        Object[] ultimosParametros;
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T queryForObject(String sql, Class<T> tipo, Object... parametros) {
+            ultimoSql = sql;
+            ultimosParametros = parametros;
+            return (T) versao;
+        }
+    }
+
+    private final BancoFalso banco = new BancoFalso();
+    private final VersoesRecursos versoes = new VersoesRecursos(banco);
+
+    VersoesRecursosTest() {
+        ReflectionTestUtils.setField(versoes, "janelaFuturoMeses", 6);
+    }
+
+    @Test
+    void historicoLeSoAsLinhasDaPaginaPeloCursor() {
+        versoes.historicoMedico(3L, ANTES_DE, 42L, 20);
+
+        assertTrue(banco.ultimoSql.contains("c.medico_id = ?"));
+        assertTrue(banco.ultimoSql.contains("LIMIT ?"));
+        // Tabela principal, arquivo e união: mesmo cursor e mesmo tamanho da página
+        assertEquals(List.of(3L, ANTES_DE, ANTES_DE, 42L, 20, 3L, ANTES_DE, ANTES_DE, 42L, 20, 20),
+                List.of(banco.ultimosParametros));
+    }
+
+    @Test
+    void primeiraPaginaParteDoFimDaJanelaComTamanhoLimitado() {
+        versoes.historicoPaciente(7L, null, 99L, 10_000);
+
+        LocalDateTime limite = (LocalDateTime) banco.ultimosParametros[1];
+        assertTrue(ChronoUnit.SECONDS.between(LocalDateTime.now().plusMonths(6), limite) <= 1);
+        // Sem antesDe o id do cursor é ignorado, como no HistoricoConsultasService
+        assertEquals(Long.MAX_VALUE, banco.ultimosParametros[3]);
+        assertEquals(100, banco.ultimosParametros[4]);
+        assertEquals(100, banco.ultimosParametros[10]);
+    }
+
+    @Test
+    void etagMudaComAsLinhasDaPagina() {
+        String antes = versoes.historicoMedico(3L, ANTES_DE, 42L, 20);
+        banco.versao = "20:def:2025-03-01 08:00:00";
+
+        assertNotEquals(antes, versoes.historicoMedico(3L, ANTES_DE, 42L, 20));
+        assertNotEquals(versoes.historicoMedico(3L, ANTES_DE, 42L, 20), versoes.historicoMedico(3L, ANTES_DE, 42L, 10));
+    }
+}
@@ -0,0 +1,127 @@
+package br.com.ifpe.medplus_api.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import br.com.ifpe.medplus_api.monitoramento.AssercoesSql;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Fixa o número de instruções SQL das listagens que tinham N+1 (admin e dashboard do médico).
+ *
+ * Os dados do teste têm vários pacientes e consultas de um mesmo médico: se uma associação voltar a
+ * ser carregada item a item, a contagem cresce com eles e passa do orçamento. Os limites são os
+ * mesmos do {@code @OrcamentoSql} de cada endpoint.
+ *
+ * A janela de consultas é reduzida ao próximo mês para que a listagem do admin não carregue a base
+ * sintética inteira, se ela estiver no mesmo banco.
+ */
+@SpringBootTest(properties = {
+        "app.consultas.janela-passado-meses=0",
+        "app.consultas.janela-futuro-meses=1"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OrcamentoSqlControllerTest {
+
+    private static final String DOMINIO = "@orcamento-sql.teste";
+    private static final String EMAIL_MEDICO = "medico" + DOMINIO;
+    private static final int PACIENTES = 6;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void semear() {
+        limpar();
+        long medicoId = inserirUsuario("Dr(a). Orçamento", EMAIL_MEDICO, "00000000900", "ROLE_MEDICO");
+        jdbcTemplate.update("INSERT INTO tb_medico (usuario_id, crm, especialidade) VALUES (?, ?, ?)",
+                medicoId, "ORC0000001", "Cardiologia");
+
+        // Uma consulta hoje e uma nos próximos dias para cada paciente, todas dentro da janela do teste
+        LocalDateTime hoje = LocalDate.now().atStartOfDay();
+        LocalDateTime amanha = LocalDateTime.of(LocalDate.now().plusDays(1), LocalTime.of(8, 0));
+        for (int i = 0; i < PACIENTES; i++) {
+            long pacienteId = inserirUsuario("Paciente Orçamento " + i, "paciente" + i + DOMINIO,
+                    String.format("000000009%02d", i + 1), "ROLE_PACIENTE");
+            jdbcTemplate.update("INSERT INTO tb_paciente (usuario_id) VALUES (?)", pacienteId);
+            inserirConsulta(medicoId, pacienteId, hoje.plusMinutes(i));
+            inserirConsulta(medicoId, pacienteId, amanha.plusDays(i));
+        }
+    }
+
+    @AfterAll
+    void limpar() {
+        String usuarios = "SELECT id FROM tb_usuario WHERE email LIKE '%" + DOMINIO + "'";
+        jdbcTemplate.update("DELETE FROM tb_consulta WHERE medico_id IN (" + usuarios + ")");
+        jdbcTemplate.update("DELETE FROM tb_usuario_perfil WHERE usuario_id IN (" + usuarios + ")");
+        jdbcTemplate.update("DELETE FROM tb_medico WHERE usuario_id IN (" + usuarios + ")");
+        jdbcTemplate.update("DELETE FROM tb_paciente WHERE usuario_id IN (" + usuarios + ")");
+        jdbcTemplate.update("DELETE FROM tb_usuario WHERE email LIKE ?", "%" + DOMINIO);
+    }
+
+    private long inserirUsuario(String nome, String email, String cpf, String perfil) {
+        Long id = jdbcTemplate.queryForObject("""
+                INSERT INTO tb_usuario (nome, email, senha, cpf, ativo, data_criacao)
+                VALUES (?, ?, 'nao-usada', ?, true, now()) RETURNING id
+                """, Long.class, nome, email, cpf);
+        jdbcTemplate.update("INSERT INTO tb_usuario_perfil (usuario_id, perfil_id) SELECT ?, id FROM tb_perfil WHERE nome = ?",
+                id, perfil);
+        return id;
+    }
+
+    private void inserirConsulta(long medicoId, long pacienteId, LocalDateTime dataHora) {
+        jdbcTemplate.update("""
+                INSERT INTO tb_consulta (paciente_id, medico_id, data_hora_consulta, status_consulta, data_criacao)
+                VALUES (?, ?, ?, 'AGENDADA', now())
+                """, pacienteId, medicoId, Timestamp.valueOf(dataHora));
+    }
+
+    @Test
+    @WithMockUser(username = EMAIL_MEDICO, roles = "MEDICO")
+    void dashboardDoMedico() throws Exception {
+        AssercoesSql.assertMaximoInstrucoes(6, () -> mockMvc.perform(get("/medicos/dashboard"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pacientesDoDia").value(PACIENTES))
+                .andExpect(jsonPath("$.proximasConsultas.length()").value(5)));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void listagemDeMedicosDoAdmin() throws Exception {
+        AssercoesSql.assertMaximoInstrucoes(4, () -> mockMvc.perform(get("/admin/usuarios/medicos"))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void listagemDePacientesDoAdmin() throws Exception {
+        AssercoesSql.assertMaximoInstrucoes(4, () -> mockMvc.perform(get("/admin/usuarios/pacientes"))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void listagemDeConsultasDoAdmin() throws Exception {
+        AssercoesSql.assertMaximoInstrucoes(4, () -> mockMvc.perform(get("/admin/consultas"))
+                .andExpect(status().isOk()));
+    }
+}
@@ -0,0 +1,206 @@
+package br.com.ifpe.medplus_api.idempotencia;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class IdempotenciaFilterTest {
+
+    private static final String CAMINHO = "/pacientes/consultas/agendar";
+
+    private final AtomicInteger execucoes = new AtomicInteger();
+    private final IdempotenciaFilter filtro = new IdempotenciaFilter(
+            new ArmazemIdempotencia(mock(JdbcTemplate.class), Duration.ofHours(24), 100),
+            Set.of(CAMINHO), Duration.ofSeconds(5), new ObjectMapper(), new SimpleMeterRegistry());
+
+    /** Responde 201 com o corpo recebido e o número da execução. */
+    private final FilterChain agendar = (request, response) -> {
+        int execucao = execucoes.incrementAndGet();
+        String corpo = new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        ((HttpServletResponse) response).setStatus(201);
+        response.setContentType("application/json");
+        response.getWriter().write("{\"execucao\":" + execucao + ",\"pedido\":" + corpo + "}");
+    };
+
+    private static MockHttpServletRequest post(String chave, String corpo) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", CAMINHO);
+        if (chave != null) {
+            request.addHeader(IdempotenciaFilter.CABECALHO, chave);
+        }
+        request.setContentType("application/json");
+        request.setContent(corpo.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private MockHttpServletResponse enviar(MockHttpServletRequest request, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filtro.doFilter(request, response, chain);
+        return response;
+    }
+
+    @Test
+    void repeticaoDevolveARespostaGuardadaSemExecutarDeNovo() throws Exception {
+        MockHttpServletResponse primeira = enviar(post("k1", "{\"medico\":1}"), agendar);
+        MockHttpServletResponse repetida = enviar(post("k1", "{\"medico\":1}"), agendar);
+
+        assertEquals(1, execucoes.get());
+        assertEquals(201, repetida.getStatus());
+        assertEquals(primeira.getContentAsString(), repetida.getContentAsString());
+        assertEquals("true", repetida.getHeader(IdempotenciaFilter.CABECALHO_REPETICAO));
+        assertNull(primeira.getHeader(IdempotenciaFilter.CABECALHO_REPETICAO));
+    }
+
+    @Test
+    void mesmaChaveComOutroCorpoRecebe422() throws Exception {
+        enviar(post("k1", "{\"medico\":1}"), agendar);
+        MockHttpServletResponse outra = enviar(post("k1", "{\"medico\":2}"), agendar);
+
+        assertEquals(1, execucoes.get());
+        assertEquals(422, outra.getStatus());
+    }
+
+    @Test
+    void semCabecalhoOuComChavesDiferentesExecutaSempre() throws Exception {
+        enviar(post(null, "{}"), agendar);
+        enviar(post(null, "{}"), agendar);
+        enviar(post("a", "{}"), agendar);
+        enviar(post("b", "{}"), agendar);
+
+        assertEquals(4, execucoes.get());
+    }
+
+    @Test
+    void erro5xxNaoEGuardado() throws Exception {
+        FilterChain falha = (request, response) -> {
+            execucoes.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(503);
+        };
+        enviar(post("k1", "{}"), falha);
+        MockHttpServletResponse segunda = enviar(post("k1", "{}"), agendar);
+
+        assertEquals(2, execucoes.get());
+        assertEquals(201, segunda.getStatus());
+    }
+
+    @Test
+    void repeticaoSimultaneaEsperaOResultadoDaPrimeira() throws Exception {
+        CountDownLatch emExecucao = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        FilterChain lenta = (request, response) -> {
+            emExecucao.countDown();
+            try {
+                liberar.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            agendar.doFilter(request, response);
+        };
+
+        CompletableFuture<MockHttpServletResponse> primeira = CompletableFuture.supplyAsync(() -> {
+            try {
+                return enviar(post("k1", "{}"), lenta);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        emExecucao.await(5, TimeUnit.SECONDS);
+        CompletableFuture<MockHttpServletResponse> repetida = CompletableFuture.supplyAsync(() -> {
+            try {
+                return enviar(post("k1", "{}"), agendar);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(100);
+        liberar.countDown();
+
+        assertEquals(primeira.get(5, TimeUnit.SECONDS).getContentAsString(),
+                repetida.get(5, TimeUnit.SECONDS).getContentAsString());
+        assertEquals(1, execucoes.get());
+    }
+
+    @Test
+    void leituraNaoBloqueanteRecebeOCorpoEOFim() throws Exception {
+        List<String> eventos = new ArrayList<>();
+        FilterChain assincrona = (request, response) -> {
+            ServletInputStream entrada = request.getInputStream();
+            ByteArrayOutputStream lido = new ByteArrayOutputStream();
+            entrada.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    eventos.add("dados");
+                    byte[] buffer = new byte[4];
+                    while (entrada.isReady() && !entrada.isFinished()) {
+                        lido.write(buffer, 0, entrada.read(buffer));
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    eventos.add("fim:" + lido.toString(StandardCharsets.UTF_8));
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    eventos.add("erro");
+                }
+            });
+            ((HttpServletResponse) response).setStatus(201);
+        };
+
+        enviar(post("k1", "{\"medico\":1}"), assincrona);
+
+        assertEquals(List.of("dados", "fim:{\"medico\":1}"), eventos);
+    }
+
+    @Test
+    void falhaNoListenerVaiParaOnError() throws Exception {
+        List<Throwable> erros = new ArrayList<>();
+        FilterChain assincrona = (request, response) -> {
+            request.getInputStream().setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    throw new IOException("falhou");
+                }
+
+                @Override
+                public void onAllDataRead() {
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    erros.add(t);
+                }
+            });
+            ((HttpServletResponse) response).setStatus(201);
+        };
+
+        enviar(post("k1", "{}"), assincrona);
+
+        assertEquals(1, erros.size());
+        assertEquals("falhou", erros.get(0).getMessage());
+    }
+}
@@ -0,0 +1,75 @@
+package br.com.ifpe.medplus_api.monitoramento;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
+
+/**
+ * Asserções sobre a quantidade de instruções SQL executadas por um trecho de teste.
+ *
+ * Exemplo em um teste de controller com MockMvc:
+ * <pre>
+ * AssercoesSql.assertMaximoInstrucoes(4, () -> mockMvc.perform(get("/admin/usuarios/medicos")));
+ * </pre>
+ * O teste precisa de um contexto com JPA (o inspector é registrado pelo MonitoramentoSqlConfig).
+ */
+public final class AssercoesSql {
+
+    private static final int INSTRUCOES_NO_RELATORIO = 5;
+
+    private AssercoesSql() {
+    }
+
+    @FunctionalInterface
+    public interface Acao {
+        void executar() throws Exception;
+    }
+
+    public static void assertMaximoInstrucoes(int maximo, Acao acao) throws Exception {
+        assertMaximoInstrucoes(maximo, () -> {
+            acao.executar();
+            return null;
+        });
+    }
+
+    public static <T> T assertMaximoInstrucoes(int maximo, Callable<T> acao) throws Exception {
+        ContadorSql.iniciar();
+        T resultado;
+        ContadorSql.Registro registro;
+        try {
+            resultado = acao.call();
+        } finally {
+            registro = ContadorSql.encerrar();
+        }
+        if (registro.getTotal() > maximo) {
+            fail("Esperado no máximo " + maximo + " instruções SQL, mas foram executadas "
+                    + registro.getTotal() + ":\n" + relatorio(registro));
+        }
+        return resultado;
+    }
+
+    public static void assertSemRepeticoes(int maximoPorInstrucao, Acao acao) throws Exception {
+        ContadorSql.iniciar();
+        ContadorSql.Registro registro;
+        try {
+            acao.executar();
+        } finally {
+            registro = ContadorSql.encerrar();
+        }
+        registro.getInstrucaoMaisRepetida()
+                .filter(instrucao -> instrucao.getValue() > maximoPorInstrucao)
+                .ifPresent(instrucao -> fail("Instrução executada " + instrucao.getValue()
+                        + " vezes (máximo " + maximoPorInstrucao + "), possível N+1:\n" + instrucao.getKey()));
+    }
+
+    private static String relatorio(ContadorSql.Registro registro) {
+        return registro.getPorInstrucao().entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
+                .limit(INSTRUCOES_NO_RELATORIO)
+                .map(instrucao -> instrucao.getValue() + "x " + instrucao.getKey())
+                .collect(Collectors.joining("\n"));
+    }
+}
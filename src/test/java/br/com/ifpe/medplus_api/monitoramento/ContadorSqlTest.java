@@ -0,0 +1,45 @@
+package br.com.ifpe.medplus_api.monitoramento;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class ContadorSqlTest {
+
+    private final ContadorSqlInspector inspector = new ContadorSqlInspector();
+
+    @Test
+    void contaInstrucoesERepeticoesNoEscopo() {
+        ContadorSql.iniciar();
+        inspector.inspect("select u.id from tb_usuario u where u.email=?");
+        inspector.inspect("select p.id from tb_perfil p where p.id=?");
+        inspector.inspect("select p.id from tb_perfil p where p.id=?");
+        ContadorSql.Registro registro = ContadorSql.encerrar();
+
+        assertEquals(3, registro.getTotal());
+        assertEquals(2, registro.getInstrucaoMaisRepetida().orElseThrow().getValue());
+    }
+
+    @Test
+    void escoposAninhadosContamNoEscopoExterno() {
+        ContadorSql.iniciar();
+        inspector.inspect("select 1");
+        ContadorSql.iniciar();
+        inspector.inspect("select 2");
+        ContadorSql.Registro interno = ContadorSql.encerrar();
+        ContadorSql.Registro externo = ContadorSql.encerrar();
+
+        assertEquals(1, interno.getTotal());
+        assertEquals(2, externo.getTotal());
+        assertEquals(0, ContadorSql.totalAtual());
+    }
+
+    @Test
+    void assercaoFalhaQuandoOrcamentoExcedido() {
+        assertThrows(AssertionError.class, () -> AssercoesSql.assertMaximoInstrucoes(1, () -> {
+            inspector.inspect("select 1");
+            inspector.inspect("select 1");
+        }));
+    }
+}
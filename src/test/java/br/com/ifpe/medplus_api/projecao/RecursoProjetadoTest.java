@@ -0,0 +1,53 @@
+package br.com.ifpe.medplus_api.projecao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class RecursoProjetadoTest {
+
+    private final RecursoProjetado consultas = new RecursoProjetado("tb_consulta c", "c.id",
+            Map.of("medico", "LEFT JOIN tb_usuario um ON um.id = c.medico_id"),
+            List.of(CampoProjetado.simples("id", "c.id"),
+                    CampoProjetado.simples("status", "c.status_consulta"),
+                    new CampoProjetado("medicoNome", "um.nome", Set.of("medico"), (rs, coluna) -> rs.getString(coluna))));
+
+    private static List<String> nomes(List<CampoProjetado> campos) {
+        return campos.stream().map(CampoProjetado::nome).toList();
+    }
+
+    @Test
+    void semFieldsTrazTodosOsCampos() {
+        assertEquals(List.of("id", "status", "medicoNome"), nomes(consultas.resolver(null)));
+        assertEquals(List.of("id", "status", "medicoNome"), nomes(consultas.resolver(List.of(""))));
+    }
+
+    @Test
+    void idVemSempreESemRepeticoes() {
+        assertEquals(List.of("id", "status"), nomes(consultas.resolver(List.of("status", " status", "id"))));
+    }
+
+    @Test
+    void campoDesconhecidoListaOsDisponiveis() {
+        IllegalArgumentException erro = assertThrows(IllegalArgumentException.class,
+                () -> consultas.resolver(List.of("senha")));
+        assertTrue(erro.getMessage().contains("id, status, medicoNome"));
+    }
+
+    @Test
+    void juncaoSoEntraQuandoAlgumCampoPrecisa() {
+        String semMedico = consultas.sql(consultas.resolver(List.of("status")), "c.id = ANY(?)", null);
+        assertEquals("SELECT c.id, c.status_consulta\nFROM tb_consulta c\nWHERE c.id = ANY(?)", semMedico);
+
+        String comMedico = consultas.sql(consultas.resolver(List.of("medicoNome")), null, "c.id");
+        assertTrue(comMedico.contains("LEFT JOIN tb_usuario um"));
+        assertFalse(comMedico.contains("WHERE"));
+    }
+}
@@ -0,0 +1,95 @@
+package br.com.ifpe.medplus_api.repository;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.sql.DataSource;
+
+/**
+ * Envolve o DataSource da aplicação e guarda, na thread que ligou a captura, cada PreparedStatement
+ * executado: o SQL exatamente como o Hibernate gerou e os parâmetros ligados a ele.
+ *
+ * O {@code ContadorSqlInspector} vê o mesmo SQL, mas não os valores; o EXPLAIN precisa deles para
+ * que o planner escolha índices e partições como na execução real.
+ */
+final class CapturaInstrucoesSql {
+
+    /** Instrução executada, com os parâmetros por posição (1, 2, ...). */
+    record Instrucao(String sql, Map<Integer, Object> parametros) {
+    }
+
+    private static final ThreadLocal<List<Instrucao>> CAPTURADAS = new ThreadLocal<>();
+
+    private CapturaInstrucoesSql() {
+    }
+
+    static void iniciar() {
+        CAPTURADAS.set(new ArrayList<>());
+    }
+
+    static List<Instrucao> encerrar() {
+        List<Instrucao> capturadas = CAPTURADAS.get();
+        CAPTURADAS.remove();
+        return capturadas != null ? capturadas : List.of();
+    }
+
+    static DataSource envolver(DataSource alvo) {
+        return proxy(DataSource.class, alvo, (metodo, args, resultado) ->
+                resultado instanceof Connection conexao ? envolver(conexao) : resultado);
+    }
+
+    private static Connection envolver(Connection alvo) {
+        return proxy(Connection.class, alvo, (metodo, args, resultado) -> {
+            if (resultado instanceof PreparedStatement ps && metodo.getName().startsWith("prepare")
+                    && args != null && args[0] instanceof String sql) {
+                return envolver(ps, sql);
+            }
+            return resultado;
+        });
+    }
+
+    private static PreparedStatement envolver(PreparedStatement alvo, String sql) {
+        Map<Integer, Object> parametros = new TreeMap<>();
+        return (PreparedStatement) Proxy.newProxyInstance(CapturaInstrucoesSql.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, (proxy, metodo, args) -> {
+                    String nome = metodo.getName();
+                    if (nome.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer indice) {
+                        parametros.put(indice, nome.equals("setNull") ? null : args[1]);
+                    } else if (nome.equals("clearParameters")) {
+                        parametros.clear();
+                    } else if (nome.startsWith("execute") && (args == null || args.length == 0)) {
+                        List<Instrucao> capturadas = CAPTURADAS.get();
+                        if (capturadas != null) {
+                            capturadas.add(new Instrucao(sql, new TreeMap<>(parametros)));
+                        }
+                    }
+                    return invocar(alvo, metodo, args);
+                });
+    }
+
+    @FunctionalInterface
+    private interface Pos {
+        Object aplicar(Method metodo, Object[] args, Object resultado) throws Exception;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> tipo, T alvo, Pos pos) {
+        InvocationHandler handler = (proxy, metodo, args) -> pos.aplicar(metodo, args, invocar(alvo, metodo, args));
+        return (T) Proxy.newProxyInstance(CapturaInstrucoesSql.class.getClassLoader(), new Class<?>[]{tipo}, handler);
+    }
+
+    private static Object invocar(Object alvo, Method metodo, Object[] args) throws Throwable {
+        try {
+            return metodo.invoke(alvo, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
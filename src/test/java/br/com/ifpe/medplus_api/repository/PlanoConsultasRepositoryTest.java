@@ -0,0 +1,407 @@
+package br.com.ifpe.medplus_api.repository;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import br.com.ifpe.medplus_api.carga.ConfiguracaoCarga;
+import br.com.ifpe.medplus_api.carga.GeradorDadosSinteticos;
+import br.com.ifpe.medplus_api.repository.CapturaInstrucoesSql.Instrucao;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
+
+/**
+ * Regressão de planos de execução das consultas dos repositórios.
+ *
+ * Cada caso chama um método de repositório de verdade, com a aplicação ligada ao Postgres local (o
+ * mesmo do docker-compose, migrado pelo Flyway da aplicação e populado pelo
+ * {@link GeradorDadosSinteticos} em volume reduzido). As instruções que o Hibernate executa são
+ * capturadas com os parâmetros ({@link CapturaInstrucoesSql}) e cada uma passa por
+ * {@code EXPLAIN (FORMAT JSON)}: o plano verificado é o do SQL gerado, não de uma cópia escrita à mão.
+ *
+ * O caso falha se algum plano fizer Seq Scan em uma tabela grande ou se o custo estimado da primeira
+ * instrução (a query do método; as seguintes são cargas de associações) passar do baseline gravado
+ * em {@value #ARQUIVO_BASELINE} mais a tolerância. Caso sem baseline também falha, para que um
+ * caso novo não passe sem verificação.
+ *
+ * Fica fora do {@code mvn test} normal (tag "planos"):
+ * <pre>
+ * docker compose up -d db
+ * mvn test -Pplanos                                   # verifica
+ * mvn test -Pplanos -Dplanos.gravar-baseline=true     # regrava o baseline após uma mudança intencional
+ * </pre>
+ * A base é gerada quando os usuários sintéticos não batem com o volume do teste (não há base, ou é a
+ * base maior do {@code CargaTest}, com outro custo); {@code -Dplanos.gerar=true} força a geração.
+ */
+@Tag("planos")
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PlanoConsultasRepositoryTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlanoConsultasRepositoryTest.class);
+
+    private static final String ARQUIVO_BASELINE = "src/test/resources/planos/baseline.properties";
+    private static final List<String> TABELAS_GRANDES = List.of(
+            "tb_consulta", "tb_disponibilidade_medico", "tb_usuario", "tb_medico", "tb_paciente");
+    private static final List<String> INDICES_ESPERADOS = List.of(
+            "idx_consulta_medico_data", "idx_consulta_paciente_data", "idx_disponibilidade_medico_dia",
+            "idx_consulta_medico_ativa", "idx_consulta_paciente_ativa");
+    /**
+     * Abaixo disso o Seq Scan é a escolha certa do planner; acontece nas partições ainda vazias
+     * (meses futuros, a padrão, o arquivo) que as janelas das listagens alcançam.
+     */
+    private static final long LINHAS_MINIMAS_SEQ_SCAN = 1_000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final boolean gravarBaseline = Boolean.getBoolean("planos.gravar-baseline");
+    private final double tolerancia = Double.parseDouble(System.getProperty("planos.tolerancia", "0.5"));
+    private final Properties baseline = new Properties();
+    private final Properties custosMedidos = new Properties();
+
+    private static final ConfiguracaoCarga CONFIGURACAO = ConfiguracaoCarga.doSistema().comVolume(500, 20_000, 300_000);
+
+    @Autowired
+    private ConsultaRepository consultaRepository;
+    @Autowired
+    private DisponibilidadeMedicoRepository disponibilidadeRepository;
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+    @Autowired
+    private MedicoRepository medicoRepository;
+
+    private Connection conexao;
+    private Amostra amostra;
+
+    /** Valores reais da base usados como parâmetros, para que o planner veja seletividades realistas. */
+    private record Amostra(long medicoId, long pacienteId, long consultaId, LocalDateTime dataHora,
+                           String email, String crm) {
+    }
+
+    @FunctionalInterface
+    private interface Chamada {
+        void executar(Amostra amostra);
+    }
+
+    /**
+     * @param seqScanAceito tabelas que o caso lê em boa parte, em que o Seq Scan com hash join é o
+     *                      plano certo (e não um índice faltando)
+     */
+    private record Caso(String nome, Chamada chamada, List<String> seqScanAceito) {
+
+        Caso(String nome, Chamada chamada) {
+            this(nome, chamada, List.of());
+        }
+    }
+
+    /** A aplicação usa a mesma base que o gerador de dados sintéticos. */
+    @DynamicPropertySource
+    static void baseSintetica(DynamicPropertyRegistry registro) {
+        registro.add("spring.datasource.url", CONFIGURACAO::jdbcUrl);
+        registro.add("spring.datasource.username", CONFIGURACAO::jdbcUsuario);
+        registro.add("spring.datasource.password", CONFIGURACAO::jdbcSenha);
+    }
+
+    @TestConfiguration
+    static class Captura {
+
+        @Bean
+        static BeanPostProcessor capturaInstrucoesSql() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String nome) {
+                    return bean instanceof DataSource dataSource && "dataSource".equals(nome)
+                            ? CapturaInstrucoesSql.envolver(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    @BeforeAll
+    void prepararBase() throws Exception {
+        // O schema já foi migrado pelo Flyway ao subir o contexto
+        conexao = DriverManager.getConnection(CONFIGURACAO.jdbcUrl(), CONFIGURACAO.jdbcUsuario(), CONFIGURACAO.jdbcSenha());
+        if (Boolean.getBoolean("planos.gerar") || !baseSinteticaNoVolume()) {
+            new GeradorDadosSinteticos(CONFIGURACAO).gerar();
+        }
+        amostra = carregarAmostra();
+
+        Path arquivo = Path.of(ARQUIVO_BASELINE);
+        if (Files.exists(arquivo)) {
+            try (InputStream entrada = Files.newInputStream(arquivo)) {
+                baseline.load(entrada);
+            }
+        }
+    }
+
+    @AfterAll
+    void finalizar() throws SQLException, IOException {
+        if (gravarBaseline) {
+            Path arquivo = Path.of(ARQUIVO_BASELINE);
+            Files.createDirectories(arquivo.getParent());
+            // TreeMap só para manter o arquivo ordenado e o diff legível
+            StringBuilder conteudo = new StringBuilder("# Custo total estimado por caso (gerado por PlanoConsultasRepositoryTest)\n");
+            new TreeMap<>(custosMedidos).forEach((caso, custo) -> conteudo.append(caso).append('=').append(custo).append('\n'));
+            try (OutputStream saida = Files.newOutputStream(arquivo)) {
+                saida.write(conteudo.toString().getBytes(StandardCharsets.ISO_8859_1));
+            }
+            logger.info("Baseline de planos gravado em {} ({} casos)", arquivo, custosMedidos.size());
+        }
+        if (conexao != null) {
+            conexao.close();
+        }
+    }
+
+    @Test
+    void indicesDaMigracaoExistem() throws SQLException {
+        try (PreparedStatement ps = conexao.prepareStatement("SELECT indexname FROM pg_indexes WHERE schemaname = current_schema()");
+             ResultSet rs = ps.executeQuery()) {
+            Set<String> existentes = new HashSet<>();
+            while (rs.next()) {
+                existentes.add(rs.getString(1));
+            }
+            for (String indice : INDICES_ESPERADOS) {
+                assertTrue(existentes.contains(indice), "Índice " + indice + " não existe no schema");
+            }
+        }
+    }
+
+    /**
+     * Garante que nenhum método novo desses repositórios fique sem caso de plano.
+     */
+    @Test
+    void todosOsMetodosDosRepositoriosTemCaso() {
+        Set<String> cobertos = casos().stream().map(Caso::nome).collect(Collectors.toSet());
+        List<String> faltando = Stream.of(ConsultaRepository.class, DisponibilidadeMedicoRepository.class)
+                .flatMap(repositorio -> Arrays.stream(repositorio.getDeclaredMethods())
+                        .filter(metodo -> !metodo.isSynthetic() && !metodo.isDefault())
+                        .map(Method::getName)
+                        .map(nome -> repositorio.getSimpleName() + "." + nome))
+                .distinct()
+                .filter(nome -> !cobertos.contains(nome))
+                .toList();
+        assertTrue(faltando.isEmpty(), "Métodos de repositório sem caso de plano: " + faltando);
+    }
+
+    @TestFactory
+    Stream<DynamicTest> planosDasConsultas() {
+        return casos().stream().map(caso -> DynamicTest.dynamicTest(caso.nome(), () -> verificar(caso)));
+    }
+
+    private void verificar(Caso caso) throws Exception {
+        CapturaInstrucoesSql.iniciar();
+        List<Instrucao> instrucoes;
+        try {
+            caso.chamada().executar(amostra);
+        } finally {
+            instrucoes = CapturaInstrucoesSql.encerrar();
+        }
+        if (instrucoes.isEmpty()) {
+            fail(caso.nome() + " não executou SQL (resultado em cache?)");
+        }
+
+        double custo = 0;
+        for (int i = 0; i < instrucoes.size(); i++) {
+            Instrucao instrucao = instrucoes.get(i);
+            JsonNode plano = explicar(instrucao);
+            List<String> seqScans = new ArrayList<>();
+            coletarSeqScans(plano, seqScans);
+            seqScans.removeAll(caso.seqScanAceito());
+            if (!seqScans.isEmpty()) {
+                fail(caso.nome() + " faz Seq Scan em " + seqScans + ":\n" + instrucao.sql() + "\n" + plano.toPrettyString());
+            }
+            if (i == 0) {
+                custo = plano.path("Total Cost").asDouble();
+                logger.debug("{}: {}", caso.nome(), instrucao.sql());
+            }
+        }
+        custosMedidos.setProperty(caso.nome(), String.format(Locale.ROOT, "%.2f", custo));
+
+        String registrado = baseline.getProperty(caso.nome());
+        if (registrado == null) {
+            // Sem baseline não há regressão a verificar: o caso só passa quando está sendo gravado
+            if (!gravarBaseline) {
+                fail(String.format(Locale.ROOT, "%s sem baseline de custo (medido: %.2f); grave com -Dplanos.gravar-baseline=true",
+                        caso.nome(), custo));
+            }
+            return;
+        }
+        double limite = Double.parseDouble(registrado) * (1 + tolerancia);
+        if (!gravarBaseline && custo > limite) {
+            fail(String.format(Locale.ROOT, "%s: custo estimado %.2f acima do baseline %s (+%.0f%%):%n%s",
+                    caso.nome(), custo, registrado, tolerancia * 100, instrucoes.get(0).sql()));
+        }
+    }
+
+    private JsonNode explicar(Instrucao instrucao) throws SQLException, IOException {
+        try (PreparedStatement ps = conexao.prepareStatement("EXPLAIN (FORMAT JSON) " + instrucao.sql())) {
+            for (Map.Entry<Integer, Object> parametro : instrucao.parametros().entrySet()) {
+                ps.setObject(parametro.getKey(), parametro.getValue());
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return objectMapper.readTree(rs.getString(1)).get(0).get("Plan");
+            }
+        }
+    }
+
+    private void coletarSeqScans(JsonNode no, List<String> seqScans) throws SQLException {
+        String relacao = no.path("Relation Name").asText("");
+        if ("Seq Scan".equals(no.path("Node Type").asText())
+                && TABELAS_GRANDES.stream().anyMatch(relacao::startsWith)
+                && linhasEstimadas(relacao) >= LINHAS_MINIMAS_SEQ_SCAN) {
+            seqScans.add(relacao);
+        }
+        for (JsonNode filho : no.path("Plans")) {
+            coletarSeqScans(filho, seqScans);
+        }
+    }
+
+    private long linhasEstimadas(String relacao) throws SQLException {
+        try (PreparedStatement ps = conexao.prepareStatement("SELECT reltuples::bigint FROM pg_class WHERE oid = ?::regclass")) {
+            ps.setString(1, relacao);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    private boolean baseSinteticaNoVolume() throws SQLException {
+        try (PreparedStatement ps = conexao.prepareStatement("SELECT count(*) FROM tb_usuario WHERE email LIKE ?")) {
+            ps.setString(1, "%" + ConfiguracaoCarga.DOMINIO_EMAIL);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getLong(1) == CONFIGURACAO.medicos() + CONFIGURACAO.pacientes();
+            }
+        }
+    }
+
+    private Amostra carregarAmostra() throws SQLException {
+        String sql = """
+                WITH medico AS (
+                    SELECT medico_id FROM tb_consulta GROUP BY medico_id ORDER BY count(*) DESC LIMIT 1
+                ), paciente AS (
+                    SELECT paciente_id FROM tb_consulta GROUP BY paciente_id ORDER BY count(*) DESC LIMIT 1
+                )
+                SELECT c.id, c.medico_id, p.paciente_id, c.data_hora_consulta, u.email, m.crm
+                FROM tb_consulta c
+                JOIN medico ON medico.medico_id = c.medico_id
+                CROSS JOIN paciente p
+                JOIN tb_usuario u ON u.id = c.medico_id
+                JOIN tb_medico m ON m.usuario_id = c.medico_id
+                ORDER BY c.data_hora_consulta DESC
+                LIMIT 1
+                """;
+        try (PreparedStatement ps = conexao.prepareStatement(sql); ResultSet rs = ps.executeQuery()) {
+            if (!rs.next()) {
+                fail("Base sem consultas; rode com -Dplanos.gerar=true");
+            }
+            return new Amostra(rs.getLong("medico_id"), rs.getLong("paciente_id"), rs.getLong("id"),
+                    rs.getTimestamp("data_hora_consulta").toLocalDateTime(), rs.getString("email"), rs.getString("crm"));
+        }
+    }
+
+    /**
+     * Uma chamada por método de repositório, com parâmetros tirados da amostra. O SQL verificado é o
+     * que a chamada executa; ao alterar uma query, basta regravar o baseline.
+     */
+    private List<Caso> casos() {
+        List<Caso> casos = new ArrayList<>();
+        // Mesma janela padrão das listagens do ConsultaService
+        casos.add(new Caso("ConsultaRepository.findByPacienteIdAndDataHoraConsultaBetweenOrderByDataHoraConsultaDesc",
+                a -> consultaRepository.findByPacienteIdAndDataHoraConsultaBetweenOrderByDataHoraConsultaDesc(
+                        a.pacienteId(), a.dataHora().minusMonths(12), a.dataHora().plusMonths(6))));
+        // Listagem do admin: as consultas da janela alcançam boa parte dos pacientes, que entram por hash join
+        casos.add(new Caso("ConsultaRepository.findByDataHoraConsultaBetweenOrderByDataHoraConsultaDesc",
+                a -> consultaRepository.findByDataHoraConsultaBetweenOrderByDataHoraConsultaDesc(
+                        a.dataHora().minusDays(7), a.dataHora().plusDays(30)),
+                List.of("tb_usuario", "tb_usuario_perfil", "tb_medico", "tb_paciente")));
+        casos.add(new Caso("ConsultaRepository.findByMedicoIdAndDataHoraConsultaBetween",
+                a -> consultaRepository.findByMedicoIdAndDataHoraConsultaBetween(
+                        a.medicoId(), a.dataHora().minusDays(7), a.dataHora().plusDays(30))));
+        casos.add(new Caso("ConsultaRepository.findByPacienteIdAndDataHoraConsultaBetween",
+                a -> consultaRepository.findByPacienteIdAndDataHoraConsultaBetween(
+                        a.pacienteId(), a.dataHora().minusDays(7), a.dataHora().plusDays(30))));
+        casos.add(new Caso("ConsultaRepository.findByMedicoIdAndDataHoraConsultaAfterAndDataHoraConsultaBeforeOrderByDataHoraConsultaAsc",
+                a -> consultaRepository.findByMedicoIdAndDataHoraConsultaAfterAndDataHoraConsultaBeforeOrderByDataHoraConsultaAsc(
+                        a.medicoId(), a.dataHora().minusDays(7), a.dataHora().plusMonths(6), PageRequest.of(0, 10))));
+        casos.add(new Caso("ConsultaRepository.existeConsultaAtivaMedico",
+                a -> consultaRepository.existeConsultaAtivaMedico(a.medicoId(), a.dataHora())));
+        casos.add(new Caso("ConsultaRepository.existeConsultaAtivaPaciente",
+                a -> consultaRepository.existeConsultaAtivaPaciente(a.pacienteId(), a.dataHora())));
+        casos.add(new Caso("ConsultaRepository.existeOutraConsultaAtivaMedico",
+                a -> consultaRepository.existeOutraConsultaAtivaMedico(a.medicoId(), a.dataHora(), a.consultaId())));
+        casos.add(new Caso("ConsultaRepository.existeOutraConsultaAtivaPaciente",
+                a -> consultaRepository.existeOutraConsultaAtivaPaciente(a.pacienteId(), a.dataHora(), a.consultaId())));
+        casos.add(new Caso("ConsultaRepository.findHistoricoPaciente",
+                a -> consultaRepository.findHistoricoPaciente(a.pacienteId(), a.dataHora().plusMonths(6), Long.MAX_VALUE,
+                        PageRequest.of(0, 20))));
+        casos.add(new Caso("ConsultaRepository.findHistoricoMedico",
+                a -> consultaRepository.findHistoricoMedico(a.medicoId(), a.dataHora().plusMonths(6), Long.MAX_VALUE,
+                        PageRequest.of(0, 20))));
+
+        DayOfWeek dia = DayOfWeek.MONDAY;
+        casos.add(new Caso("DisponibilidadeMedicoRepository.findByMedico",
+                a -> disponibilidadeRepository.findByMedico(medicoRepository.getReferenceById(a.medicoId()))));
+        casos.add(new Caso("DisponibilidadeMedicoRepository.findByMedicoIdAndAtivoTrue",
+                a -> disponibilidadeRepository.findByMedicoIdAndAtivoTrue(a.medicoId())));
+        casos.add(new Caso("DisponibilidadeMedicoRepository.findByMedicoIdAndDiaSemanaAndAtivoTrue",
+                a -> disponibilidadeRepository.findByMedicoIdAndDiaSemanaAndAtivoTrue(a.medicoId(), a.dataHora().getDayOfWeek())));
+        casos.add(new Caso("DisponibilidadeMedicoRepository.existeConflitoHorario",
+                a -> disponibilidadeRepository.existeConflitoHorario(a.medicoId(), dia, LocalTime.of(8, 0),
+                        LocalTime.of(12, 0), 0L)));
+        casos.add(new Caso("DisponibilidadeMedicoRepository.findByMedicoIdAndDiaSemanaAndHoraInicioAndHoraFim",
+                a -> disponibilidadeRepository.findByMedicoIdAndDiaSemanaAndHoraInicioAndHoraFim(a.medicoId(), dia,
+                        LocalTime.of(8, 0), LocalTime.of(12, 0))));
+
+        // Caminhos quentes fora dos dois repositórios: login e busca por CRM
+        casos.add(new Caso("UsuarioRepository.findByEmailWithPerfis",
+                a -> usuarioRepository.findByEmailWithPerfis(a.email())));
+        casos.add(new Caso("MedicoRepository.findByCrm",
+                a -> medicoRepository.findByCrm(a.crm())));
+        return casos;
+    }
+}
@@ -0,0 +1,70 @@
+package br.com.ifpe.medplus_api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import br.com.ifpe.medplus_api.busca.FiltroBuscaMedicos;
+import br.com.ifpe.medplus_api.busca.MedicoAlteradoEvent;
+import br.com.ifpe.medplus_api.busca.MedicoIndexado;
+import br.com.ifpe.medplus_api.cache.CanalInvalidacaoCache;
+import br.com.ifpe.medplus_api.model.medico.Medico;
+import br.com.ifpe.medplus_api.repository.DisponibilidadeMedicoRepository;
+import br.com.ifpe.medplus_api.repository.MedicoRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+
+class BuscaMedicosServiceTest {
+
+    private static final Long MEDICO = 1L;
+
+    private final MedicoRepository medicoRepository = mock(MedicoRepository.class);
+    private final DisponibilidadeMedicoRepository disponibilidadeRepository = mock(DisponibilidadeMedicoRepository.class);
+    private final BuscaMedicosService service = new BuscaMedicosService(medicoRepository, disponibilidadeRepository,
+            mock(PlatformTransactionManager.class), mock(CanalInvalidacaoCache.class));
+
+    private static Medico medico(String nome) {
+        Medico medico = new Medico();
+        medico.setId(MEDICO);
+        medico.setNome(nome);
+        medico.setCrm("CRM1");
+        medico.setEspecialidade("Cardiologia");
+        return medico;
+    }
+
+    private List<String> nomesIndexados() {
+        return service.buscar(new FiltroBuscaMedicos(null, null, null, null, null, null, 0, 20)).itens().stream()
+                .map(MedicoIndexado::nome).toList();
+    }
+
+    @Test
+    void alteracaoDuranteAReconstrucaoNaoSePerde() {
+        when(disponibilidadeRepository.findAll()).thenReturn(List.of());
+        // O instantâneo lê a versão antiga; antes da troca do índice, o médico muda e o evento é tratado
+        when(medicoRepository.findAll()).thenAnswer(invocacao -> {
+            when(medicoRepository.findById(MEDICO)).thenReturn(Optional.of(medico("Ana Nova")));
+            service.aoAlterarMedico(new MedicoAlteradoEvent(MEDICO));
+            return List.of(medico("Ana Antiga"));
+        });
+
+        service.reconstruir();
+
+        assertEquals(List.of("Ana Nova"), nomesIndexados());
+    }
+
+    @Test
+    void alteracaoAntesDaReconstrucaoValeOInstantaneo() {
+        when(disponibilidadeRepository.findAll()).thenReturn(List.of());
+        when(medicoRepository.findById(MEDICO)).thenReturn(Optional.of(medico("Ana Nova")));
+        service.aoAlterarMedico(new MedicoAlteradoEvent(MEDICO));
+        when(medicoRepository.findAll()).thenReturn(List.of(medico("Ana Antiga")));
+
+        service.reconstruir();
+
+        // Sem alteração concorrente vale o instantâneo: a reconstrução é a fonte mais recente
+        assertEquals(List.of("Ana Antiga"), nomesIndexados());
+    }
+}
@@ -0,0 +1,174 @@
+package br.com.ifpe.medplus_api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import br.com.ifpe.medplus_api.dto.AlteracaoConsultaDTO;
+import br.com.ifpe.medplus_api.dto.AlteracoesConsultasDTO;
+import br.com.ifpe.medplus_api.model.consulta.StatusConsulta;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+class SincronizacaoConsultasServiceTest {
+
+    private static final Long PACIENTE = 7L;
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 3, 1, 8, 0);
+
+    private final BancoFalso banco = new BancoFalso();
+    private final SincronizacaoConsultasService service = new SincronizacaoConsultasService(banco);
+
+    SincronizacaoConsultasServiceTest() {
+        ReflectionTestUtils.setField(service, "janelaPassadoMeses", 12);
+        ReflectionTestUtils.setField(service, "janelaFuturoMeses", 6);
+        ReflectionTestUtils.setField(service, "margem", Duration.ofSeconds(10));
+    }
+
+    /** Linha de tb_consulta com o que a consulta de sincronização lê. */
+    record Linha(long id, StatusConsulta status, LocalDateTime criacao, LocalDateTime atualizacao) {
+    }
+
+    /**
+     * Faz o papel do Postgres só no que o serviço delega ao SQL: filtra pelo cursor
+     * (data_atualizacao, id), ordena por esse par e aplica o LIMIT. Guarda os parâmetros recebidos.
+     */
+    static class BancoFalso extends JdbcTemplate {
+
+        final List<Linha> linhas = new ArrayList<>();
+        String ultimoSql;
+        Object[] ultimosParametros;
+
+        @Override
+        public <T> List<T> query(String sql, RowMapper<T> mapeador, Object... parametros) {
+            ultimoSql = sql;
+            ultimosParametros = parametros;
+            LocalDateTime desde = ((Timestamp) parametros[3]).toLocalDateTime();
+            long desdeId = (Long) parametros[4];
+            int limite = (Integer) parametros[6];
+            List<Linha> selecionadas = linhas.stream()
+                    .filter(l -> l.atualizacao().isAfter(desde)
+                            || l.atualizacao().equals(desde) && l.id() > desdeId)
+                    .sorted(Comparator.comparing(Linha::atualizacao).thenComparing(Linha::id))
+                    .limit(limite)
+                    .toList();
+            List<T> resultado = new ArrayList<>();
+            try {
+                for (int i = 0; i < selecionadas.size(); i++) {
+                    resultado.add(mapeador.mapRow(resultSet(selecionadas.get(i)), i));
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+            return resultado;
+        }
+
+        private static ResultSet resultSet(Linha linha) throws SQLException {
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getLong(1)).thenReturn(linha.id());
+            when(rs.getTimestamp(2)).thenReturn(Timestamp.valueOf(T0.plusDays(30)));
+            when(rs.getString(3)).thenReturn(linha.status().name());
+            when(rs.getTimestamp(5)).thenReturn(Timestamp.valueOf(linha.criacao()));
+            when(rs.getTimestamp(6)).thenReturn(Timestamp.valueOf(linha.atualizacao()));
+            when(rs.getString(7)).thenReturn("Dr(a). Ana Lima");
+            return rs;
+        }
+    }
+
+    private void inserir(long id, StatusConsulta status, LocalDateTime criacao, LocalDateTime atualizacao) {
+        banco.linhas.add(new Linha(id, status, criacao, atualizacao));
+    }
+
+    private static List<Long> ids(AlteracoesConsultasDTO resposta) {
+        return resposta.itens().stream().map(AlteracaoConsultaDTO::id).toList();
+    }
+
+    @Test
+    void paginasSeguemOCursorSemRepetirNemPular() {
+        // Três linhas com a mesma data_atualizacao: o id desempata e a página pode cortar entre elas
+        for (long id = 1; id <= 7; id++) {
+            inserir(id, StatusConsulta.AGENDADA, T0, T0.plusMinutes(id <= 3 ? 1 : id));
+        }
+
+        AlteracoesConsultasDTO primeira = service.alteracoesPaciente(PACIENTE, null, null, 2);
+        assertEquals(List.of(1L, 2L), ids(primeira));
+        assertTrue(primeira.temMais());
+        assertEquals(T0.plusMinutes(1), primeira.proximoDesde());
+        assertEquals(2L, primeira.proximoDesdeId());
+
+        List<Long> vistos = new ArrayList<>(ids(primeira));
+        AlteracoesConsultasDTO pagina = primeira;
+        while (pagina.temMais()) {
+            pagina = service.alteracoesPaciente(PACIENTE, pagina.proximoDesde(), pagina.proximoDesdeId(), 2);
+            vistos.addAll(ids(pagina));
+        }
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L), vistos);
+        assertEquals(7L, pagina.proximoDesdeId());
+    }
+
+    @Test
+    void paginaVaziaDevolveOMesmoCursor() {
+        inserir(1L, StatusConsulta.AGENDADA, T0, T0.plusMinutes(1));
+        AlteracoesConsultasDTO atual = service.alteracoesPaciente(PACIENTE, null, null, 10);
+
+        AlteracoesConsultasDTO vazia = service.alteracoesPaciente(PACIENTE, atual.proximoDesde(),
+                atual.proximoDesdeId(), 10);
+
+        assertTrue(vazia.itens().isEmpty());
+        assertFalse(vazia.temMais());
+        assertEquals(atual.proximoDesde(), vazia.proximoDesde());
+        assertEquals(atual.proximoDesdeId(), vazia.proximoDesdeId());
+    }
+
+    @Test
+    void semCursorEBancoVazioNaoInventaCursor() {
+        AlteracoesConsultasDTO vazia = service.alteracoesPaciente(PACIENTE, null, null, 10);
+
+        assertTrue(vazia.itens().isEmpty());
+        assertNull(vazia.proximoDesde());
+        assertNull(vazia.proximoDesdeId());
+    }
+
+    @Test
+    void classificaCriadaAlteradaECancelada() {
+        LocalDateTime desde = T0.plusHours(1);
+        inserir(1L, StatusConsulta.CONFIRMADA, T0, desde.plusMinutes(1));
+        inserir(2L, StatusConsulta.AGENDADA, desde.plusMinutes(2), desde.plusMinutes(2));
+        inserir(3L, StatusConsulta.CANCELADA_PACIENTE, desde.plusMinutes(3), desde.plusMinutes(3));
+        inserir(4L, StatusConsulta.CANCELADA_MEDICO, T0, desde.plusMinutes(4));
+
+        List<String> operacoes = service.alteracoesPaciente(PACIENTE, desde, 0L, 10).itens().stream()
+                .map(AlteracaoConsultaDTO::operacao).toList();
+        assertEquals(List.of("ALTERADA", "CRIADA", "CANCELADA", "CANCELADA"), operacoes);
+
+        // Primeira sincronização: tudo que não está cancelado é novo para o cliente
+        List<String> iniciais = service.alteracoesPaciente(PACIENTE, null, null, 10).itens().stream()
+                .map(AlteracaoConsultaDTO::operacao).toList();
+        assertEquals(List.of("CRIADA", "CRIADA", "CANCELADA", "CANCELADA"), iniciais);
+    }
+
+    @Test
+    void tamanhoLimitadoECorteNoRelogioDoBanco() {
+        service.alteracoesMedico(3L, null, null, 10_000);
+
+        assertEquals(501, banco.ultimosParametros[6]);
+        assertEquals("10000 milliseconds", banco.ultimosParametros[5]);
+        // O corte não passa da transação de escrita mais antiga ainda aberta
+        assertTrue(banco.ultimoSql.contains("min(xact_start)"));
+        assertThrows(IllegalArgumentException.class, () -> service.alteracoesMedico(3L, null, 5L, 10));
+    }
+}